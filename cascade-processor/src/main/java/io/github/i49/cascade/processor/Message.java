@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.processor;
+
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+
+/**
+ * Processor message.
+ */
+enum Message {
+    FIELD_IS_NOT_CONSTANT,
+    RESOURCE_CANNOT_BE_WRITTEN,
+    SOURCE_CANNOT_BE_WRITTEN
+    ;
+
+    private static final String BUNDLE_NAME = Message.class.getPackage().getName() + ".messages";
+    private static final ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE_NAME);
+
+    @Override
+    public String toString() {
+        return bundle.getString(name());
+    }
+
+    public String with(Object... arguments) {
+        String pattern = toString();
+        return MessageFormat.format(pattern, arguments);
+    }
+}
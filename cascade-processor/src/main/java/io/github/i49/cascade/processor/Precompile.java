@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the expression of selector held by the annotated constant
+ * should be compiled at build time.
+ *
+ * <p>The annotated field must be a constant of {@code String},
+ * that is, a {@code static final} field initialized with a constant expression.
+ * {@link SelectorProcessor} compiles the expression while the Java compiler compiles the source file,
+ * and reports an invalid expression as a compile error.</p>
+ *
+ * <p>The selectors compiled are held by a class generated in the same package as the type declaring the constants,
+ * which is named by appending {@code Selectors} to the name of the type.
+ * For example, the following declaration generates a class named {@code PageSelectors}
+ * which has a field {@code HEADING} of type {@link io.github.i49.cascade.api.Selector}.</p>
+ * <pre><code> public class Page {
+ *     {@literal @}Precompile
+ *     static final String HEADING = "h1, h2, h3";
+ * }
+ * </code></pre>
+ *
+ * <p>The generated class reads the selectors from a resource written by the processor,
+ * and thus the application using it never parses the expressions.
+ * The namespace prefixes are not available in the expressions.</p>
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Precompile {
+}
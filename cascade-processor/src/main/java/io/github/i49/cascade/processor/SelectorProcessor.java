@@ -0,0 +1,222 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import io.github.i49.cascade.api.InvalidSelectorException;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.api.SelectorSerializer;
+
+/**
+ * Annotation processor compiling the constants annotated with {@link Precompile}.
+ *
+ * <p>For each type declaring the annotated constants, this processor writes
+ * the selectors compiled from them to a resource with {@link SelectorSerializer},
+ * and generates the source of the class reading the selectors from the resource.
+ * The invalid expressions are reported as errors on the constants,
+ * and no class is generated for the type declaring them.</p>
+ *
+ * <p>The generated class of a nested type is named after all of the enclosing types,
+ * joined with underscores, e.g. {@code Outer_InnerSelectors} for {@code Outer.Inner}.</p>
+ */
+@SupportedAnnotationTypes("io.github.i49.cascade.processor.Precompile")
+public class SelectorProcessor extends AbstractProcessor {
+
+    private static final String CLASS_SUFFIX = "Selectors";
+    private static final String RESOURCE_EXTENSION = ".selectors";
+
+    private Elements elements;
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, List<VariableElement>> constants = new LinkedHashMap<>();
+        for (Element element: roundEnv.getElementsAnnotatedWith(Precompile.class)) {
+            VariableElement field = (VariableElement)element;
+            if (isConstantString(field)) {
+                TypeElement type = (TypeElement)field.getEnclosingElement();
+                constants.computeIfAbsent(type, k->new ArrayList<>()).add(field);
+            } else {
+                messager.printMessage(Kind.ERROR, Message.FIELD_IS_NOT_CONSTANT.toString(), field);
+            }
+        }
+        if (constants.isEmpty()) {
+            return true;
+        }
+        // the API implementation is looked up with the context class loader,
+        // which is not the one that loaded this processor while the compiler is running.
+        Thread thread = Thread.currentThread();
+        ClassLoader contextLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(getClass().getClassLoader());
+        try {
+            for (Map.Entry<TypeElement, List<VariableElement>> entry: constants.entrySet()) {
+                precompile(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            thread.setContextClassLoader(contextLoader);
+        }
+        return true;
+    }
+
+    private static boolean isConstantString(VariableElement field) {
+        Set<Modifier> modifiers = field.getModifiers();
+        return modifiers.contains(Modifier.STATIC) &&
+               field.getConstantValue() instanceof String;
+    }
+
+    /**
+     * Compiles the constants declared in the given type,
+     * and generates the class holding the selectors compiled.
+     *
+     * @param type the type declaring the constants.
+     * @param fields the constants to compile.
+     */
+    private void precompile(TypeElement type, List<VariableElement> fields) {
+        SelectorCompiler compiler = SelectorCompiler.create();
+        List<Selector> selectors = new ArrayList<>(fields.size());
+        for (VariableElement field: fields) {
+            String expression = (String)field.getConstantValue();
+            try {
+                selectors.add(compiler.compile(expression));
+            } catch (InvalidSelectorException e) {
+                messager.printMessage(Kind.ERROR, e.getMessage(), field);
+            }
+        }
+        if (selectors.size() < fields.size()) {
+            return;
+        }
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String className = generatedNameOf(type, packageName);
+        String resourceName = className + RESOURCE_EXTENSION;
+        try {
+            FileObject resource = filer.createResource(StandardLocation.CLASS_OUTPUT, packageName, resourceName, type);
+            try (OutputStream out = resource.openOutputStream()) {
+                SelectorSerializer.create().write(selectors, out);
+            }
+        } catch (IOException e) {
+            messager.printMessage(Kind.ERROR, Message.RESOURCE_CANNOT_BE_WRITTEN.with(resourceName, e.getMessage()), type);
+            return;
+        }
+
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = filer.createSourceFile(qualifiedName, type).openWriter()) {
+            PrintWriter out = new PrintWriter(writer);
+            writeSource(out, type, fields, packageName, className, resourceName);
+            out.flush();
+        } catch (IOException e) {
+            messager.printMessage(Kind.ERROR, Message.SOURCE_CANNOT_BE_WRITTEN.with(qualifiedName, e.getMessage()), type);
+        }
+    }
+
+    private static String generatedNameOf(TypeElement type, String packageName) {
+        String name = type.getQualifiedName().toString();
+        if (!packageName.isEmpty()) {
+            name = name.substring(packageName.length() + 1);
+        }
+        return name.replace('.', '_') + CLASS_SUFFIX;
+    }
+
+    private static void writeSource(PrintWriter out, TypeElement type, List<VariableElement> fields,
+            String packageName, String className, String resourceName) {
+        String typeName = type.getQualifiedName().toString();
+        if (!packageName.isEmpty()) {
+            out.println("package " + packageName + ";");
+            out.println();
+        }
+        out.println("import java.io.IOException;");
+        out.println("import java.io.InputStream;");
+        out.println("import java.io.UncheckedIOException;");
+        out.println("import java.util.List;");
+        out.println();
+        out.println("import io.github.i49.cascade.api.Selector;");
+        out.println("import io.github.i49.cascade.api.SelectorSerializer;");
+        out.println();
+        out.println("/**");
+        out.println(" * Selectors precompiled from the constants declared in {@link " + typeName + "}.");
+        out.println(" */");
+        out.println("public final class " + className + " {");
+        for (VariableElement field: fields) {
+            String fieldName = field.getSimpleName().toString();
+            out.println();
+            out.println("    /**");
+            out.println("     * Selector compiled from {@link " + typeName + "#" + fieldName + "}.");
+            out.println("     */");
+            out.println("    public static final Selector " + fieldName + ";");
+        }
+        out.println();
+        out.println("    static {");
+        // the local variable is named not to conflict with the fields.
+        out.println("        List<Selector> $selectors = read();");
+        for (int i = 0; i < fields.size(); i++) {
+            out.println("        " + fields.get(i).getSimpleName() + " = $selectors.get(" + i + ");");
+        }
+        out.println("    }");
+        out.println();
+        out.println("    private " + className + "() {");
+        out.println("    }");
+        out.println();
+        out.println("    private static List<Selector> read() {");
+        out.println("        try (InputStream in = " + className + ".class.getResourceAsStream(\"" + resourceName + "\")) {");
+        out.println("            return SelectorSerializer.create().read(in);");
+        out.println("        } catch (IOException e) {");
+        out.println("            throw new UncheckedIOException(e);");
+        out.println("        }");
+        out.println("    }");
+        out.println("}");
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.processor;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.processor.Precompile;
+import io.github.i49.cascade.processor.SelectorProcessor;
+
+/**
+ * Tests for {@link SelectorProcessor}.
+ * Each source is compiled with the processor by the system Java compiler.
+ */
+public class SelectorProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    @Test
+    public void process_shouldGenerateSelectorsCompiled() throws Exception {
+        // given
+        String source =
+                "package example;\n" +
+                "import io.github.i49.cascade.processor.Precompile;\n" +
+                "public class Page {\n" +
+                "    @Precompile static final String HEADING = \"h1, h2, h3\";\n" +
+                "    @Precompile static final String NOTE = \"#main > p.\" + \"note\";\n" +
+                "    @Precompile public static final String ODD = \"li:nth-child(2n+1)\";\n" +
+                "}\n";
+        // when
+        boolean success = compile("example.Page", source);
+        // then
+        assertThat(success).as(diagnostics.getDiagnostics().toString()).isTrue();
+        Class<?> generated = load("example.PageSelectors");
+        assertThat(selector(generated, "HEADING").toString()).isEqualTo(compile("h1, h2, h3"));
+        assertThat(selector(generated, "NOTE").toString()).isEqualTo(compile("#main > p.note"));
+        assertThat(selector(generated, "ODD").toString()).isEqualTo(compile("li:nth-child(2n+1)"));
+    }
+
+    @Test
+    public void process_shouldNameClassAfterEnclosingTypes() throws Exception {
+        // given
+        String source =
+                "package example;\n" +
+                "import io.github.i49.cascade.processor.Precompile;\n" +
+                "public class Outer {\n" +
+                "    public interface Inner {\n" +
+                "        @Precompile String LIST = \"ul > li\";\n" +
+                "    }\n" +
+                "}\n";
+        // when
+        boolean success = compile("example.Outer", source);
+        // then
+        assertThat(success).as(diagnostics.getDiagnostics().toString()).isTrue();
+        Class<?> generated = load("example.Outer_InnerSelectors");
+        assertThat(selector(generated, "LIST").toString()).isEqualTo(compile("ul > li"));
+    }
+
+    @Test
+    public void process_shouldReportInvalidExpressionAsError() throws Exception {
+        // given
+        String source =
+                "package example;\n" +
+                "import io.github.i49.cascade.processor.Precompile;\n" +
+                "public class Page {\n" +
+                "    @Precompile static final String VALID = \"p\";\n" +
+                "    @Precompile static final String INVALID = \"p:unknown\";\n" +
+                "}\n";
+        // when
+        boolean success = compile("example.Page", source);
+        // then
+        assertThat(success).isFalse();
+        List<Diagnostic<? extends JavaFileObject>> errors = errors();
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).getLineNumber()).isEqualTo(5);
+        assertThat(errors.get(0).getMessage(Locale.ENGLISH))
+                .contains("Pseudo-class \"unknown\" is not supported.")
+                .contains("p:unknown");
+        assertThat(folder.getRoot().toPath().resolve("example/PageSelectors.class")).doesNotExist();
+    }
+
+    @Test
+    public void process_shouldReportNonConstantAsError() throws Exception {
+        // given
+        String source =
+                "package example;\n" +
+                "import io.github.i49.cascade.processor.Precompile;\n" +
+                "public class Page {\n" +
+                "    @Precompile static final String COMPUTED = String.valueOf(\"p\");\n" +
+                "    @Precompile final String INSTANCE = \"p\";\n" +
+                "}\n";
+        // when
+        boolean success = compile("example.Page", source);
+        // then
+        assertThat(success).isFalse();
+        List<Long> lines = errors().stream().map(Diagnostic::getLineNumber).collect(Collectors.toList());
+        assertThat(lines).containsExactly(4L, 5L);
+    }
+
+    private boolean compile(String className, String source) throws IOException, URISyntaxException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> options = Arrays.asList(
+                "-d", folder.getRoot().getPath(),
+                "-s", folder.getRoot().getPath(),
+                "-classpath", locationOf(Precompile.class) + File.pathSeparator + locationOf(Selector.class)
+                );
+        JavaCompiler.CompilationTask task = compiler.getTask(
+                null, null, diagnostics, options, null,
+                Collections.singletonList(new SourceObject(className, source)));
+        task.setProcessors(Collections.singletonList(new SelectorProcessor()));
+        return task.call();
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> errors() {
+        return diagnostics.getDiagnostics().stream()
+                .filter(d->d.getKind() == Diagnostic.Kind.ERROR)
+                .collect(Collectors.toList());
+    }
+
+    private Class<?> load(String className) throws Exception {
+        URL[] urls = { folder.getRoot().toURI().toURL() };
+        ClassLoader loader = new URLClassLoader(urls, getClass().getClassLoader());
+        return Class.forName(className, true, loader);
+    }
+
+    private static Selector selector(Class<?> generated, String fieldName) throws Exception {
+        return (Selector)generated.getField(fieldName).get(null);
+    }
+
+    private static String compile(String expression) {
+        return SelectorCompiler.create().compile(expression).toString();
+    }
+
+    private static Path locationOf(Class<?> type) throws URISyntaxException {
+        return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    /**
+     * Source file held in memory.
+     */
+    private static class SourceObject extends SimpleJavaFileObject {
+
+        private final String source;
+
+        SourceObject(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.sample;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.processor.Precompile;
+
+/**
+ * Sample application selecting the elements of a page.
+ *
+ * <p>The application is started with either {@code compile} or {@code precompiled} as its argument.
+ * The former compiles the expressions when the application starts,
+ * while the latter uses the selectors compiled at build time by the annotation processor.
+ * The time taken until all of the selectors are ready is printed at the end,
+ * which includes the time for loading the classes needed, for the application is started afresh each time.</p>
+ */
+public class SampleApplication {
+
+    @Precompile static final String TITLE = "head > title";
+    @Precompile static final String HEADINGS = "h1, h2, h3";
+    @Precompile static final String NAVIGATION = "body > header nav > ul > li > a[href]";
+    @Precompile static final String CURRENT = "nav li.current > a";
+    @Precompile static final String ARTICLES = "main article.post";
+    @Precompile static final String ARTICLE_TITLES = "article.post > h2:first-child";
+    @Precompile static final String DATES = "article.post time[datetime]";
+    @Precompile static final String AUTHORS = "article.post .byline > a[rel~=\"author\"]";
+    @Precompile static final String TAGS = "article.post ul.tags > li";
+    @Precompile static final String EXTERNAL_LINKS = "a[href^=\"http://\"], a[href^=\"https://\"]";
+    @Precompile static final String PDF_LINKS = "a[href$=\".pdf\"]";
+    @Precompile static final String ENGLISH = "[lang|=\"en\"]";
+    @Precompile static final String FIRST_PARAGRAPHS = "article.post > h2 + p";
+    @Precompile static final String LATER_PARAGRAPHS = "article.post > h2 ~ p:not(:first-of-type)";
+    @Precompile static final String STRIPED_ROWS = "table.data > tbody > tr:nth-child(2n+1)";
+    @Precompile static final String LAST_CELLS = "table.data tr > td:last-child";
+    @Precompile static final String EMPTY_CELLS = "table.data td:empty";
+    @Precompile static final String IMAGES = "img:not([alt])";
+    @Precompile static final String SIDEBAR = "aside.sidebar > section:nth-of-type(-n+2) h3";
+    @Precompile static final String FOOTER = "body > footer p.copyright";
+
+    public static void main(String[] args) throws Exception {
+        boolean precompiled = args.length > 0 && args[0].equals("precompiled");
+
+        long started = System.nanoTime();
+        List<Selector> selectors = precompiled ? precompiledSelectors() : compiledSelectors();
+        long elapsed = System.nanoTime() - started;
+
+        Document doc = readDocument("sample.html");
+        for (Selector selector: selectors) {
+            System.out.println(selector + ": " + selector.count(doc.getDocumentElement()));
+        }
+        System.out.println((precompiled ? "precompiled" : "compile") +
+                ": selectors ready in " + (elapsed / 1000) + " [us]");
+    }
+
+    private static List<Selector> compiledSelectors() {
+        SelectorCompiler compiler = SelectorCompiler.create();
+        return Arrays.asList(
+                compiler.compile(TITLE),
+                compiler.compile(HEADINGS),
+                compiler.compile(NAVIGATION),
+                compiler.compile(CURRENT),
+                compiler.compile(ARTICLES),
+                compiler.compile(ARTICLE_TITLES),
+                compiler.compile(DATES),
+                compiler.compile(AUTHORS),
+                compiler.compile(TAGS),
+                compiler.compile(EXTERNAL_LINKS),
+                compiler.compile(PDF_LINKS),
+                compiler.compile(ENGLISH),
+                compiler.compile(FIRST_PARAGRAPHS),
+                compiler.compile(LATER_PARAGRAPHS),
+                compiler.compile(STRIPED_ROWS),
+                compiler.compile(LAST_CELLS),
+                compiler.compile(EMPTY_CELLS),
+                compiler.compile(IMAGES),
+                compiler.compile(SIDEBAR),
+                compiler.compile(FOOTER)
+                );
+    }
+
+    private static List<Selector> precompiledSelectors() {
+        return Arrays.asList(
+                SampleApplicationSelectors.TITLE,
+                SampleApplicationSelectors.HEADINGS,
+                SampleApplicationSelectors.NAVIGATION,
+                SampleApplicationSelectors.CURRENT,
+                SampleApplicationSelectors.ARTICLES,
+                SampleApplicationSelectors.ARTICLE_TITLES,
+                SampleApplicationSelectors.DATES,
+                SampleApplicationSelectors.AUTHORS,
+                SampleApplicationSelectors.TAGS,
+                SampleApplicationSelectors.EXTERNAL_LINKS,
+                SampleApplicationSelectors.PDF_LINKS,
+                SampleApplicationSelectors.ENGLISH,
+                SampleApplicationSelectors.FIRST_PARAGRAPHS,
+                SampleApplicationSelectors.LATER_PARAGRAPHS,
+                SampleApplicationSelectors.STRIPED_ROWS,
+                SampleApplicationSelectors.LAST_CELLS,
+                SampleApplicationSelectors.EMPTY_CELLS,
+                SampleApplicationSelectors.IMAGES,
+                SampleApplicationSelectors.SIDEBAR,
+                SampleApplicationSelectors.FOOTER
+                );
+    }
+
+    private static Document readDocument(String resourceName) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        try (InputStream in = SampleApplication.class.getResourceAsStream(resourceName)) {
+            return builder.parse(in);
+        }
+    }
+}
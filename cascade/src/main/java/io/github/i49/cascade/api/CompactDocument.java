@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.api;
+
+import java.util.List;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * An immutable snapshot of the element tree of a document, laid out in arrays.
+ *
+ * <p>All elements are numbered in document order, the document element being 0,
+ * and the tree is held by arrays of these numbers instead of the DOM nodes.
+ * The names of the elements and the attributes, and the class names are interned into tables.
+ * The selectors search this snapshot without calling any method of the DOM,
+ * and the elements found are mapped back to the original {@link Element} instances.
+ * The following code snippet shows how to use the compact document.</p>
+ * <pre><code> CompactDocument compact = CompactDocument.of(doc);
+ * List&lt;Element&gt; selected = compact.select(selector, doc.getDocumentElement());
+ * </code></pre>
+ *
+ * <p>The snapshot is not affected by any modification of the document after it was built.
+ * Each instance of this type is immutable and thread-safe,
+ * therefore it can be searched by many threads concurrently.</p>
+ */
+public interface CompactDocument {
+
+    /**
+     * Builds a compact snapshot of the given document.
+     *
+     * @param document the document to build from.
+     * @return newly created compact document.
+     * @throws NullPointerException if given {@code document} is {@code null}.
+     */
+    static CompactDocument of(Document document) {
+        if (document == null) {
+            throw new NullPointerException("document must not be null.");
+        }
+        return SelectorCompilerFactory.get().createCompactDocument(document);
+    }
+
+    /**
+     * Returns the document from which this snapshot was built.
+     *
+     * @return the original document, never be {@code null}.
+     */
+    Document getDocument();
+
+    /**
+     * Returns the number of elements in this snapshot.
+     *
+     * @return the number of elements.
+     */
+    int size();
+
+    /**
+     * Returns the element at the specified number.
+     *
+     * @param ordinal the number of the element in document order.
+     * @return the element found, never be {@code null}.
+     * @throws IndexOutOfBoundsException if the {@code ordinal} is out of range.
+     */
+    Element getElement(int ordinal);
+
+    /**
+     * Returns the number of the given element in document order.
+     *
+     * @param element the element to find.
+     * @return the number of the element, or -1 if the element is not in this snapshot.
+     * @throws NullPointerException if given {@code element} is {@code null}.
+     */
+    int ordinalOf(Element element);
+
+    /**
+     * Returns the number of the parent of the specified element.
+     *
+     * @param ordinal the number of the element.
+     * @return the number of the parent, or -1 if the element is the document element.
+     * @throws IndexOutOfBoundsException if the {@code ordinal} is out of range.
+     */
+    int getParent(int ordinal);
+
+    /**
+     * Returns the number of the first child element of the specified element.
+     *
+     * @param ordinal the number of the element.
+     * @return the number of the first child, or -1 if the element has no child elements.
+     * @throws IndexOutOfBoundsException if the {@code ordinal} is out of range.
+     */
+    int getFirstChild(int ordinal);
+
+    /**
+     * Returns the number of the next sibling element of the specified element.
+     *
+     * @param ordinal the number of the element.
+     * @return the number of the next sibling, or -1 if the element is the last child.
+     * @throws IndexOutOfBoundsException if the {@code ordinal} is out of range.
+     */
+    int getNextSibling(int ordinal);
+
+    /**
+     * Returns the number of the previous sibling element of the specified element.
+     *
+     * @param ordinal the number of the element.
+     * @return the number of the previous sibling, or -1 if the element is the first child.
+     * @throws IndexOutOfBoundsException if the {@code ordinal} is out of range.
+     */
+    int getPreviousSibling(int ordinal);
+
+    /**
+     * Selects all elements which match the given selector in this snapshot.
+     * The result is the same as {@link Selector#select(Element)} for the original document.
+     *
+     * @param selector the selector to use.
+     * @param start the starting point of all elements to search.
+     * @return the list of the elements found in document order, never be {@code null}.
+     * @throws NullPointerException if the given {@code selector} or {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} is not in this snapshot,
+     *         or the given {@code selector} was not compiled by this API implementation.
+     */
+    List<Element> select(Selector selector, Element start);
+
+    /**
+     * Counts the elements which match the given selector in this snapshot.
+     *
+     * @param selector the selector to use.
+     * @param start the starting point of all elements to search.
+     * @return the number of the elements found.
+     * @throws NullPointerException if the given {@code selector} or {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} is not in this snapshot,
+     *         or the given {@code selector} was not compiled by this API implementation.
+     */
+    int count(Selector selector, Element start);
+}
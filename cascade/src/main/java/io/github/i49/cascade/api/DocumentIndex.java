@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.api;
+
+import org.w3c.dom.Document;
+
+/**
+ * An index of the elements in a document, which accelerates searching the document by selectors.
+ *
+ * <p>The index is built once per document and attached to the document.
+ * While the index is attached, all selectors searching the document take advantage of it
+ * to visit only the elements which may match the selectors.</p>
+ * <pre><code> Document doc = ... // doc is an instance of org.w3c.dom.Document
+ * DocumentIndex.attach(doc);
+ * List&lt;Element&gt; selected = selector.select(doc.getDocumentElement());
+ * </code></pre>
+ *
+ * <p>The index is a snapshot of the document at the time when it was built.
+ * If the document is modified after that, the index must be rebuilt by calling
+ * {@link #attach(Document)} again, or discarded by calling {@link #detach(Document)}.</p>
+ *
+ * <p>Each instance of this type is thread-safe.</p>
+ */
+public interface DocumentIndex {
+
+    /**
+     * Builds an index of the given document and attaches it to the document.
+     * If the document already has an index, it will be replaced by new one.
+     *
+     * @param document the document to index.
+     * @return the index attached to the document.
+     * @throws NullPointerException if given {@code document} is {@code null}.
+     */
+    static DocumentIndex attach(Document document) {
+        if (document == null) {
+            throw new NullPointerException("document must not be null.");
+        }
+        DocumentIndex index = SelectorCompilerFactory.get().createDocumentIndex(document);
+        document.setUserData(DocumentIndex.class.getName(), index, null);
+        return index;
+    }
+
+    /**
+     * Detaches the index from the given document.
+     * This method does nothing if the document has no index.
+     *
+     * @param document the document whose index is to be detached.
+     * @throws NullPointerException if given {@code document} is {@code null}.
+     */
+    static void detach(Document document) {
+        if (document == null) {
+            throw new NullPointerException("document must not be null.");
+        }
+        document.setUserData(DocumentIndex.class.getName(), null, null);
+    }
+
+    /**
+     * Returns the index attached to the given document.
+     *
+     * @param document the document which may have an index.
+     * @return the index attached to the document, or {@code null} if the document has no index.
+     * @throws NullPointerException if given {@code document} is {@code null}.
+     */
+    static DocumentIndex find(Document document) {
+        if (document == null) {
+            throw new NullPointerException("document must not be null.");
+        }
+        Object index = document.getUserData(DocumentIndex.class.getName());
+        return (index instanceof DocumentIndex) ? (DocumentIndex)index : null;
+    }
+
+    /**
+     * Returns the document indexed by this index.
+     *
+     * @return the indexed document, never be {@code null}.
+     */
+    Document getDocument();
+
+    /**
+     * Returns the number of elements in this index.
+     *
+     * @return the number of elements indexed.
+     */
+    int size();
+}
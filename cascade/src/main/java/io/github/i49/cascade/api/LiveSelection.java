@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.api;
+
+import java.util.List;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Result of a selector which is kept up to date while the document is modified.
+ *
+ * <p>When the document is modified, only the elements which may be affected by the modification
+ * are tested again with the selector, that is, the elements in the modified subtree,
+ * and the following siblings and their descendants
+ * if the selector has sibling combinators or pseudo-classes counting the siblings.
+ * If the document supports DOM Level 2 mutation events,
+ * the modifications are notified automatically until this selection is closed.
+ * Otherwise {@link #notifyChanged(Node)} must be called after each modification.
+ * The following code snippet shows how to use the live selection.</p>
+ * <pre><code> try (LiveSelection selection = LiveSelection.create(selector, doc.getDocumentElement())) {
+ *     element.setAttribute("class", "note");
+ *     List&lt;Element&gt; selected = selection.getElements();
+ * }
+ * </code></pre>
+ *
+ * <p>Instances of this type are not thread-safe.</p>
+ */
+public interface LiveSelection extends AutoCloseable {
+
+    /**
+     * Creates a live selection of the elements selected by the given selector.
+     *
+     * @param selector the selector to use.
+     * @param start the starting point of all elements to search,
+     *              which must exist in the document tree.
+     * @return newly created live selection.
+     * @throws NullPointerException if the given {@code selector} or {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree,
+     *         or the given {@code selector} was not compiled by this API implementation.
+     */
+    static LiveSelection create(Selector selector, Element start) {
+        if (selector == null) {
+            throw new NullPointerException("selector must not be null.");
+        } else if (start == null) {
+            throw new NullPointerException("start must not be null.");
+        }
+        return SelectorCompilerFactory.get().createLiveSelection(selector, start);
+    }
+
+    /**
+     * Returns the selector of this selection.
+     *
+     * @return the selector, never be {@code null}.
+     */
+    Selector getSelector();
+
+    /**
+     * Returns the starting point of this selection.
+     *
+     * @return the starting element, never be {@code null}.
+     */
+    Element getStart();
+
+    /**
+     * Returns the elements currently selected.
+     *
+     * @return the unmodifiable snapshot of the selected elements in document order.
+     */
+    List<Element> getElements();
+
+    /**
+     * Returns the number of the elements currently selected.
+     *
+     * @return the number of the selected elements.
+     */
+    int size();
+
+    /**
+     * Checks if the modifications of the document are notified automatically.
+     *
+     * @return {@code true} if this selection is listening to the mutation events.
+     */
+    boolean isListening();
+
+    /**
+     * Notifies this selection that the given node was modified.
+     * The node is the element whose attributes were changed,
+     * the node whose children were inserted or removed, or the text which was changed.
+     * This method must be called after each modification
+     * unless the modifications are notified automatically.
+     *
+     * @param node the modified node.
+     * @throws NullPointerException if the given {@code node} is {@code null}.
+     */
+    void notifyChanged(Node node);
+
+    /**
+     * Stops listening to the mutation events of the document.
+     * The elements selected are not updated automatically after this method is called.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.w3c.dom.Element;
+
+/**
+ * A batch of selectors which select elements by walking the document tree only once.
+ *
+ * <p>Running many selectors one after another walks the same tree as many times as the selectors.
+ * This type walks the tree once and passes each element only to the selectors
+ * whose rightmost sequences may match the element,
+ * judging from the identifier, the class names and the local name of the element.
+ * The following code snippet shows how to use the batch.</p>
+ * <pre><code> MultiSelector batch = MultiSelector.of(Selector.compile("h1"), Selector.compile("p.note"));
+ * List&lt;List&lt;Element&gt;&gt; results = batch.select(doc.getDocumentElement());
+ * List&lt;Element&gt; headings = results.get(0);
+ * List&lt;Element&gt; notes = results.get(1);
+ * </code></pre>
+ *
+ * <p>Each instance of this type is immutable and thread-safe.</p>
+ */
+public interface MultiSelector {
+
+    /**
+     * Creates a batch of the given selectors.
+     *
+     * @param selectors the selectors to contain, each of which must not be {@code null}.
+     * @return newly created batch.
+     * @throws NullPointerException if given {@code selectors} or any of them is {@code null}.
+     * @throws IllegalArgumentException if any of the selectors was not compiled by this API implementation.
+     */
+    static MultiSelector of(Selector... selectors) {
+        if (selectors == null) {
+            throw new NullPointerException("selectors must not be null.");
+        }
+        return of(Arrays.asList(selectors));
+    }
+
+    /**
+     * Creates a batch of the given selectors.
+     *
+     * @param selectors the selectors to contain, each of which must not be {@code null}.
+     * @return newly created batch.
+     * @throws NullPointerException if given {@code selectors} or any of them is {@code null}.
+     * @throws IllegalArgumentException if any of the selectors was not compiled by this API implementation.
+     */
+    static MultiSelector of(List<? extends Selector> selectors) {
+        if (selectors == null) {
+            throw new NullPointerException("selectors must not be null.");
+        }
+        List<Selector> copied = new ArrayList<>(selectors);
+        for (Selector selector: copied) {
+            if (selector == null) {
+                throw new NullPointerException("selectors must not contain null.");
+            }
+        }
+        return SelectorCompilerFactory.get().createMultiSelector(copied);
+    }
+
+    /**
+     * Returns the selectors in this batch.
+     *
+     * @return the unmodifiable list of the selectors, never be {@code null}.
+     */
+    List<Selector> getSelectors();
+
+    /**
+     * Selects the elements matching each selector in this batch from the subtree
+     * of the given starting element.
+     * The starting element itself is also a candidate to be selected.
+     *
+     * @param start the element at which the search starts.
+     * @return the list containing the selected elements for each selector in this batch,
+     *         in the same order as the selectors. Each list has the elements in document order.
+     * @throws NullPointerException if the given {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree.
+     */
+    List<List<Element>> select(Element start);
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.api;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Options for searching the document tree in parallel.
+ *
+ * <p>The following code snippet shows how to search the document with the options.</p>
+ * <pre><code> ParallelOptions options = ParallelOptions.defaults().withThreshold(10000);
+ * List&lt;Element&gt; selected = selector.select(doc.getDocumentElement(), options);
+ * </code></pre>
+ *
+ * <p>Parallel search reads the document tree from multiple threads at the same time.
+ * The W3C DOM specification does not guarantee that such reads are safe,
+ * therefore the document must be one of the following:</p>
+ * <ul>
+ * <li>a document built in memory by the DOM API,
+ * e.g. by {@code DocumentBuilder.newDocument()} and {@code createElement()}.</li>
+ * <li>a document parsed by the JDK's built-in parser
+ * with the feature {@code http://apache.org/xml/features/dom/defer-node-expansion} disabled.</li>
+ * </ul>
+ * <p>In any case, the document must not be modified during the search.
+ * Other DOM implementations which create or update nodes lazily on read access are not supported.</p>
+ *
+ * <p>Each instance of this class is immutable and thread-safe.</p>
+ *
+ * @see Selector#select(org.w3c.dom.Element, ParallelOptions)
+ */
+public final class ParallelOptions {
+
+    /**
+     * The default threshold.
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    private static final ParallelOptions DEFAULTS = new ParallelOptions(null, DEFAULT_THRESHOLD);
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Returns the default options.
+     * The default options use the common pool and the threshold of {@link #DEFAULT_THRESHOLD}.
+     *
+     * @return the default options.
+     */
+    public static ParallelOptions defaults() {
+        return DEFAULTS;
+    }
+
+    private ParallelOptions(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the pool to run the search.
+     *
+     * @return the pool to run the search, never be {@code null}.
+     */
+    public ForkJoinPool getPool() {
+        return (pool != null) ? pool : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Returns the minimum number of candidate elements to search in parallel.
+     * The candidates are the elements in the subtree which the selector needs to test,
+     * and may be fewer than all elements in the subtree, for example if the selector requires a class name.
+     * If there are fewer candidate elements than this threshold, the search is done sequentially.
+     *
+     * @return the threshold of the search.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns new options with the given pool.
+     *
+     * @param pool the pool to run the search.
+     * @return new options with the pool.
+     * @throws NullPointerException if given {@code pool} is {@code null}.
+     */
+    public ParallelOptions withPool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException("pool must not be null.");
+        }
+        return new ParallelOptions(pool, this.threshold);
+    }
+
+    /**
+     * Returns new options with the given threshold.
+     *
+     * @param threshold the minimum number of candidate elements to search in parallel.
+     * @return new options with the threshold.
+     * @throws IllegalArgumentException if given {@code threshold} is negative.
+     */
+    public ParallelOptions withThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative.");
+        }
+        return new ParallelOptions(this.pool, threshold);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Element;
+
+/**
+ * A set of rules, each of which is a selector, answering which rules match an element.
+ *
+ * <p>The rules are classified in advance by the identifier, the class name, the local name
+ * or the attribute name required by their rightmost sequences.
+ * Each element is tested only with the rules classified under the keys the element has
+ * and with the rules having none of such keys,
+ * therefore the time to match an element depends on the number of these candidates
+ * rather than the number of all rules.
+ * The following code snippet shows how to use the rule set.</p>
+ * <pre><code> RuleSet rules = RuleSet.of(Selector.compile("p"), Selector.compile(".note"));
+ * int[] matched = rules.match(element);
+ * </code></pre>
+ *
+ * <p>Each instance of this type is immutable and thread-safe.</p>
+ */
+public interface RuleSet {
+
+    /**
+     * Creates a rule set of the given selectors.
+     *
+     * @param rules the selectors to contain, each of which must not be {@code null}.
+     * @return newly created rule set.
+     * @throws NullPointerException if given {@code rules} or any of them is {@code null}.
+     * @throws IllegalArgumentException if any of the selectors was not compiled by this API implementation.
+     */
+    static RuleSet of(Selector... rules) {
+        if (rules == null) {
+            throw new NullPointerException("rules must not be null.");
+        }
+        return of(Arrays.asList(rules));
+    }
+
+    /**
+     * Creates a rule set of the given selectors.
+     *
+     * @param rules the selectors to contain, each of which must not be {@code null}.
+     * @return newly created rule set.
+     * @throws NullPointerException if given {@code rules} or any of them is {@code null}.
+     * @throws IllegalArgumentException if any of the selectors was not compiled by this API implementation.
+     */
+    static RuleSet of(List<? extends Selector> rules) {
+        if (rules == null) {
+            throw new NullPointerException("rules must not be null.");
+        }
+        List<Selector> copied = new ArrayList<>(rules);
+        for (Selector rule: copied) {
+            if (rule == null) {
+                throw new NullPointerException("rules must not contain null.");
+            }
+        }
+        return SelectorCompilerFactory.get().createRuleSet(copied);
+    }
+
+    /**
+     * Returns the rules in this set.
+     *
+     * @return the unmodifiable list of the rules, never be {@code null}.
+     */
+    List<Selector> getRules();
+
+    /**
+     * Finds the rules matching the given element.
+     * The rules are evaluated as if they were searching the whole document
+     * starting from the document element.
+     *
+     * @param element the element to match.
+     * @return the indices of the matched rules in ascending order, may be empty but never be {@code null}.
+     * @throws NullPointerException if the given {@code element} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code element} does not exist in the document tree.
+     */
+    int[] match(Element element);
+
+    /**
+     * Finds the rules matching each element in the subtree of the given starting element.
+     * The rules are evaluated as if they were searching the subtree by {@link Selector#select(Element)}.
+     *
+     * @param start the starting point of all elements to match.
+     *              All descendants of this element including this element will be matched.
+     * @return the map from the elements matching any of the rules to the indices of the matched rules
+     *         in ascending order. The map iterates the elements in document order.
+     * @throws NullPointerException if the given {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree.
+     */
+    Map<Element, int[]> matchAll(Element start);
+
+    /**
+     * Returns the statistics of the buckets in which the rules are classified.
+     *
+     * @return the statistics of this rule set, never be {@code null}.
+     */
+    Statistics getStatistics();
+
+    /**
+     * Statistics of the buckets in a rule set.
+     *
+     * <p>A rule which is a group of selectors is counted for each selector in the group.
+     * Selectors which never match any element are not counted.</p>
+     */
+    interface Statistics {
+
+        /**
+         * Returns the number of the selectors classified in the buckets or tested for all elements.
+         *
+         * @return the number of the selectors.
+         */
+        int getSelectorCount();
+
+        /**
+         * Returns the number of the buckets for identifiers.
+         *
+         * @return the number of the buckets.
+         */
+        int getIdentifierBucketCount();
+
+        /**
+         * Returns the number of the buckets for class names.
+         *
+         * @return the number of the buckets.
+         */
+        int getClassBucketCount();
+
+        /**
+         * Returns the number of the buckets for local names of elements.
+         *
+         * @return the number of the buckets.
+         */
+        int getTypeBucketCount();
+
+        /**
+         * Returns the number of the buckets for attribute names.
+         *
+         * @return the number of the buckets.
+         */
+        int getAttributeBucketCount();
+
+        /**
+         * Returns the number of the selectors tested for all elements.
+         *
+         * @return the number of the selectors without any key.
+         */
+        int getUniversalSelectorCount();
+
+        /**
+         * Returns the number of the selectors in the largest bucket.
+         *
+         * @return the size of the largest bucket, or 0 if there are no buckets.
+         */
+        int getLargestBucketSize();
+    }
+}
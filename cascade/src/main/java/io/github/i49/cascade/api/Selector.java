@@ -16,7 +16,10 @@
 
 package io.github.i49.cascade.api;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.w3c.dom.Element;
 
@@ -67,6 +70,98 @@ public interface Selector {
      */
     List<Element> select(Element start);
 
+    /**
+     * Searches the document tree for elements matching this selector in parallel.
+     * The candidate elements in the subtree are split into contiguous parts which are tested concurrently
+     * by the pool specified in the options, and the results are concatenated in document order.
+     * If there are fewer candidate elements than the threshold specified in the options,
+     * this method searches the subtree sequentially.
+     * The list returned by this method is the same as the one returned by {@link #select(Element)}.
+     *
+     * <p>The document must allow concurrent reads.
+     * Please see {@link ParallelOptions} for the supported DOM implementations.</p>
+     *
+     * @param start the starting point of all elements to search.
+     *              All descendants of this element including this element will be searched.
+     *              This element must exist in the document tree.
+     * @param options the options for the parallel search.
+     * @return the list of all elements found, may be empty but never be {@code null}.
+     * @throws NullPointerException if the given {@code start} or {@code options} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree.
+     */
+    List<Element> select(Element start, ParallelOptions options);
+
+    /**
+     * Searches the document tree for the first element matching this selector.
+     * The search stops as soon as the first element in document order is found.
+     *
+     * @param start the starting point of all elements to search.
+     *              All descendants of this element including this element will be searched.
+     *              This element must exist in the document tree.
+     * @return the first element found, or empty if no element was found.
+     * @throws NullPointerException if the given {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree.
+     */
+    Optional<Element> selectFirst(Element start);
+
+    /**
+     * Checks if the document tree has any elements matching this selector.
+     * The search stops as soon as the first element is found.
+     *
+     * @param start the starting point of all elements to search.
+     *              All descendants of this element including this element will be searched.
+     *              This element must exist in the document tree.
+     * @return {@code true} if at least one element was found, {@code false} otherwise.
+     * @throws NullPointerException if the given {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree.
+     */
+    boolean exists(Element start);
+
+    /**
+     * Counts the elements matching this selector in the document tree.
+     * This method returns the same value as {@code select(start).size()}
+     * without creating any list of the elements.
+     *
+     * @param start the starting point of all elements to search.
+     *              All descendants of this element including this element will be searched.
+     *              This element must exist in the document tree.
+     * @return the number of the elements found.
+     * @throws NullPointerException if the given {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree.
+     */
+    int count(Element start);
+
+    /**
+     * Returns an iterator over the elements matching this selector.
+     * Unlike {@link #select(Element)}, the document tree is searched lazily,
+     * and the search advances only as far as the next matching element when it is requested.
+     * The elements are returned in document order without any duplicates.
+     *
+     * <p>The document tree must not be modified while the returned iterator is in use.</p>
+     *
+     * @param start the starting point of all elements to search.
+     *              All descendants of this element including this element will be searched.
+     *              This element must exist in the document tree.
+     * @return the iterator over the elements found, never be {@code null}.
+     * @throws NullPointerException if the given {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree.
+     */
+    Iterator<Element> iterator(Element start);
+
+    /**
+     * Returns a sequential stream of the elements matching this selector.
+     * The stream is backed by {@link #iterator(Element)}, therefore the document tree is searched lazily.
+     * The elements are encountered in document order without any duplicates.
+     *
+     * @param start the starting point of all elements to search.
+     *              All descendants of this element including this element will be searched.
+     *              This element must exist in the document tree.
+     * @return the stream of the elements found, never be {@code null}.
+     * @throws NullPointerException if the given {@code start} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree.
+     */
+    Stream<Element> stream(Element start);
+
     /**
      * Returns the string representation of this selector.
      * <p>
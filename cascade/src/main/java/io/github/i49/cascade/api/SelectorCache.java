@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.api;
+
+/**
+ * A cache of compiled selectors, which is bounded in size.
+ *
+ * <p>The selectors are cached with the expressions and the namespaces declared when they were compiled.
+ * If the cache is full, the entry least recently used is evicted.
+ * The following code snippet shows how to create a compiler with a cache.</p>
+ * <pre><code> SelectorCache cache = SelectorCache.create(1000);
+ * SelectorCompiler compiler = SelectorCompiler.create().withCache(cache);
+ * Selector selector = compiler.compile("div p");
+ * </code></pre>
+ *
+ * <p>Each instance of this type is thread-safe,
+ * therefore a cache can be shared by the compilers used in all threads.</p>
+ *
+ * @see SelectorCompiler#withCache(SelectorCache)
+ */
+public interface SelectorCache {
+
+    /**
+     * Creates a cache which holds the specified number of selectors at most.
+     *
+     * @param maxEntries the maximum number of selectors to cache.
+     * @return newly created cache.
+     * @throws IllegalArgumentException if given {@code maxEntries} is less than 1.
+     */
+    static SelectorCache create(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive.");
+        }
+        return SelectorCompilerFactory.get().createSelectorCache(maxEntries);
+    }
+
+    /**
+     * Returns the maximum number of selectors in this cache.
+     *
+     * @return the maximum number of selectors.
+     */
+    int getMaxEntries();
+
+    /**
+     * Returns the number of selectors currently in this cache.
+     *
+     * @return the number of selectors.
+     */
+    int size();
+
+    /**
+     * Returns the number of compilations served by the selectors in this cache.
+     *
+     * @return the number of cache hits.
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of compilations which did not find the selectors in this cache.
+     *
+     * @return the number of cache misses.
+     */
+    long getMissCount();
+
+    /**
+     * Returns the number of selectors evicted from this cache because it was full.
+     *
+     * @return the number of evictions.
+     */
+    long getEvictionCount();
+
+    /**
+     * Removes all selectors from this cache.
+     * The counts of hits, misses and evictions are not reset.
+     */
+    void clear();
+}
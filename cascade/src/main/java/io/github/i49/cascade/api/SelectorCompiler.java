@@ -20,27 +20,48 @@ package io.github.i49.cascade.api;
  * Selector expression compiler.
  *
  * <p>
- * Each instance of this class is not thread-safe.
+ * Each instance of this class is immutable and thread-safe.
+ * The methods configuring the compiler return a new compiler
+ * and leave the original one unchanged,
+ * therefore a configured compiler can be shared by all threads.
  * </p>
+ * <pre><code> SelectorCompiler base = SelectorCompiler.create();
+ * SelectorCompiler svg = base.withNamespace("svg", "http://www.w3.org/2000/svg");
+ * // base still has no namespace declared.
+ * </code></pre>
  */
 public interface SelectorCompiler {
 
     /**
-     * Creates an instance of this type.
+     * Returns an instance of this type without any configuration.
      *
-     * @return newly created instance of this type.
+     * @return the instance of this type.
      */
     static SelectorCompiler create() {
         SelectorCompilerFactory factory = SelectorCompilerFactory.get();
         return factory.createCompiler();
     }
 
+    /**
+     * Creates an instance of this type which caches the compiled selectors.
+     * The cache is created newly and is shared only by the compiler returned
+     * and the compilers configured from it.
+     *
+     * @param maxEntries the maximum number of selectors to cache.
+     * @return newly created instance of this type.
+     * @throws IllegalArgumentException if given {@code maxEntries} is less than 1.
+     * @see SelectorCache
+     */
+    static SelectorCompiler cached(int maxEntries) {
+        return create().withCache(SelectorCache.create(maxEntries));
+    }
+
     /**
      * Declares a namespace.
      *
      * @param prefix the prefix which represents the namespace.
      * @param namespace the namespace to declare.
-     * @return configured compiler.
+     * @return new compiler with the namespace declared.
      * @throws NullPointerException if one or more arguments are {@code null}.
      * @throws IllegalArgumentException if given {@code prefix} is blank.
      */
@@ -52,11 +73,59 @@ public interface SelectorCompiler {
      * If default namespace is already declared, it will be replaced by new one.
      *
      * @param namespace the default namespace.
-     * @return configured compiler.
+     * @return new compiler with the default namespace declared.
      * @throws NullPointerException if given argument is {@code null}.
      */
     SelectorCompiler withDefaultNamespace(String namespace);
 
+    /**
+     * Specifies the cache of the compiled selectors.
+     * The selector compiled with the same expression and the same namespaces
+     * will be taken from the cache instead of compiling the expression again.
+     *
+     * @param cache the cache of the selectors.
+     * @return new compiler with the cache.
+     * @throws NullPointerException if given argument is {@code null}.
+     * @throws IllegalArgumentException if given {@code cache} is not supported by this compiler.
+     */
+    SelectorCompiler withCache(SelectorCache cache);
+
+    /**
+     * Specifies whether the compiled selectors test the elements with classes generated for them.
+     * The selectors are interpreted by default.
+     *
+     * <p>
+     * The generated class of each selector tests the elements with the simple selectors
+     * and the combinators written out in its own code,
+     * which is faster than the interpreted selectors once the code is optimized at runtime.
+     * Compiling a selector takes longer instead, and each selector holds its own class until it is discarded.
+     * The selectors select the same elements in either case.
+     * </p>
+     *
+     * @param enabled {@code true} to generate classes for the selectors.
+     * @return new compiler with the option specified.
+     */
+    SelectorCompiler withCodeGeneration(boolean enabled);
+
+    /**
+     * Specifies whether the compiled selectors test the elements by running programs
+     * translated from them. The selectors are interpreted by default.
+     *
+     * <p>
+     * The program of each selector is a flat array of instructions run by a single loop,
+     * which avoids following the objects of the selector and calling each of them.
+     * The program is ready as soon as the selector is compiled,
+     * which makes it suitable for the selectors used only a few times.
+     * If the code generation is also enabled, the code generation takes precedence.
+     * The selectors select the same elements in either case.
+     * </p>
+     *
+     * @param enabled {@code true} to translate the selectors into programs.
+     * @return new compiler with the option specified.
+     * @see #withCodeGeneration(boolean)
+     */
+    SelectorCompiler withProgram(boolean enabled);
+
     /**
      * Compiles the given expression to generate a selector.
      *
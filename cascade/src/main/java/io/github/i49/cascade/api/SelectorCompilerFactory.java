@@ -16,8 +16,12 @@
 
 package io.github.i49.cascade.api;
 
+import java.util.List;
 import java.util.ServiceLoader;
 
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
 /**
  * A factory for producing instances of {@link SelectorCompiler}.
  *
@@ -27,8 +31,8 @@ import java.util.ServiceLoader;
  */
 public abstract class SelectorCompilerFactory {
 
-    private static final ThreadLocal<SelectorCompilerFactory> providers =
-            ThreadLocal.withInitial(SelectorCompilerFactory::supply);
+    // the provider resolved once per process.
+    private static volatile SelectorCompilerFactory provider;
 
     private static SelectorCompilerFactory supply() {
         ServiceLoader<SelectorCompilerFactory> loader = ServiceLoader.load(SelectorCompilerFactory.class);
@@ -43,17 +47,124 @@ public abstract class SelectorCompilerFactory {
 
     /**
      * Returns the instance of this factory class.
+     * The instance is looked up by {@link ServiceLoader} when this method is called first,
+     * and the same instance is returned in all threads after that.
      *
      * @return the instance of this factory class.
      */
     public static SelectorCompilerFactory get() {
-        return providers.get();
+        SelectorCompilerFactory found = provider;
+        if (found == null) {
+            synchronized (SelectorCompilerFactory.class) {
+                found = provider;
+                if (found == null) {
+                    found = supply();
+                    provider = found;
+                }
+            }
+        }
+        return found;
     }
 
     /**
-     * Creates a selector compiler.
+     * Returns a selector compiler without any configuration.
+     * The compiler may be shared by the callers because it is immutable.
      *
-     * @return newly created instance of {@link SelectorCompiler}.
+     * @return the instance of {@link SelectorCompiler}.
      */
     public abstract SelectorCompiler createCompiler();
+
+    /**
+     * Creates an index of the given document.
+     *
+     * @param document the document to index, never be {@code null}.
+     * @return newly created instance of {@link DocumentIndex}.
+     * @throws UnsupportedOperationException if this factory does not support document indexes.
+     */
+    public DocumentIndex createDocumentIndex(Document document) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates a cache of the compiled selectors.
+     *
+     * @param maxEntries the maximum number of selectors to cache, which is positive.
+     * @return newly created instance of {@link SelectorCache}.
+     * @throws UnsupportedOperationException if this factory does not support caches.
+     */
+    public SelectorCache createSelectorCache(int maxEntries) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates a batch of the given selectors.
+     *
+     * @param selectors the selectors to contain, never be {@code null}.
+     * @return newly created instance of {@link MultiSelector}.
+     * @throws IllegalArgumentException if any of the selectors was not compiled by this implementation.
+     * @throws UnsupportedOperationException if this factory does not support batches of selectors.
+     */
+    public MultiSelector createMultiSelector(List<Selector> selectors) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates a rule set of the given selectors.
+     *
+     * @param rules the selectors to contain, never be {@code null}.
+     * @return newly created instance of {@link RuleSet}.
+     * @throws IllegalArgumentException if any of the selectors was not compiled by this implementation.
+     * @throws UnsupportedOperationException if this factory does not support rule sets.
+     */
+    public RuleSet createRuleSet(List<Selector> rules) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates a live selection of the elements selected by the given selector.
+     *
+     * @param selector the selector to use, never be {@code null}.
+     * @param start the starting point of all elements to search, never be {@code null}.
+     * @return newly created instance of {@link LiveSelection}.
+     * @throws IllegalArgumentException if the given {@code start} does not exist in the document tree,
+     *         or the selector was not compiled by this implementation.
+     * @throws UnsupportedOperationException if this factory does not support live selections.
+     */
+    public LiveSelection createLiveSelection(Selector selector, Element start) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates a compact snapshot of the given document.
+     *
+     * @param document the document to build from, never be {@code null}.
+     * @return newly created instance of {@link CompactDocument}.
+     * @throws UnsupportedOperationException if this factory does not support compact documents.
+     */
+    public CompactDocument createCompactDocument(Document document) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates a streaming matcher for the given selector.
+     *
+     * @param selector the selector to match, never be {@code null}.
+     * @return newly created instance of {@link StreamingMatcher}.
+     * @throws IllegalArgumentException if the selector cannot be matched against streams,
+     *         or the selector was not compiled by this implementation.
+     * @throws UnsupportedOperationException if this factory does not support streaming matchers.
+     */
+    public StreamingMatcher createStreamingMatcher(Selector selector) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates a serializer of the compiled selectors.
+     *
+     * @return newly created instance of {@link SelectorSerializer}.
+     * @throws UnsupportedOperationException if this factory does not support serializers.
+     */
+    public SelectorSerializer createSelectorSerializer() {
+        throw new UnsupportedOperationException();
+    }
 }
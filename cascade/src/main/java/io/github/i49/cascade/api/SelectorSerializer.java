@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Serializer which writes compiled selectors to a binary stream and reads them back.
+ *
+ * <p>The stream holds the structure of the selectors as compiled,
+ * that is, the sequences, the combinators between them and the simple selectors in each sequence,
+ * with the namespace prefixes already resolved into the namespaces.
+ * Reading the selectors therefore needs neither the expressions nor the namespace declarations,
+ * and is much faster than compiling them again.
+ * The strings shared by the selectors are written only once in a stream.
+ * The following code snippet shows how to save the selectors and load them later.</p>
+ * <pre><code> SelectorSerializer serializer = SelectorSerializer.create();
+ * serializer.write(selectors, out);
+ * List&lt;Selector&gt; loaded = serializer.read(in);
+ * </code></pre>
+ *
+ * <p>The stream starts with a version of the format,
+ * and the streams written by a later version of the format are rejected when they are read.
+ * The selectors read are evaluated by the interpreter,
+ * regardless of the compiler options with which they were compiled.</p>
+ *
+ * <p>Instances of this type are immutable and thread-safe.</p>
+ */
+public interface SelectorSerializer {
+
+    /**
+     * Creates a selector serializer.
+     *
+     * @return newly created serializer.
+     */
+    static SelectorSerializer create() {
+        return SelectorCompilerFactory.get().createSelectorSerializer();
+    }
+
+    /**
+     * Writes the given selectors to the stream.
+     * The stream is flushed but not closed by this method.
+     *
+     * @param selectors the selectors to write, each of which can be a group of selectors.
+     * @param out the stream to write to.
+     * @throws NullPointerException if any of the arguments or the selectors is {@code null}.
+     * @throws IllegalArgumentException if any of the selectors was not compiled by this API implementation.
+     * @throws IOException if an I/O error occurred while writing the stream.
+     */
+    void write(List<? extends Selector> selectors, OutputStream out) throws IOException;
+
+    /**
+     * Reads the selectors from the stream.
+     * The stream is not closed by this method.
+     *
+     * @param in the stream to read from, which was written by {@link #write(List, OutputStream)}.
+     * @return the list of the selectors in the same order as written, never be {@code null}.
+     * @throws NullPointerException if the given {@code in} is {@code null}.
+     * @throws IOException if an I/O error occurred while reading the stream,
+     *         or the stream is not in the supported format.
+     */
+    List<Selector> read(InputStream in) throws IOException;
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.api;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Element;
+import org.xml.sax.ContentHandler;
+
+/**
+ * Matcher which finds the elements matching a selector while an XML document is read as a stream.
+ *
+ * <p>No document tree is built. The matcher keeps only the elements open at the moment,
+ * one for each depth, and the states of the siblings preceding them,
+ * therefore the memory used stays constant regardless of the size of the document.
+ * Each element matched is reported as soon as its start tag is read.
+ * The following code snippet shows how to use the streaming matcher.</p>
+ * <pre><code> StreamingMatcher matcher = StreamingMatcher.of(Selector.compile("div &gt; p.note"));
+ * XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+ * matcher.match(reader, match-&gt;System.out.println(match.getPath()));
+ * </code></pre>
+ *
+ * <p>The elements matched are the same as the ones selected by {@link Selector#select(org.w3c.dom.Element)}
+ * from the document element.
+ * The selectors can have all kinds of combinators and simple selectors
+ * except the pseudo-classes which depend on the following elements, that is,
+ * {@code :last-child}, {@code :last-of-type}, {@code :only-child}, {@code :only-of-type},
+ * {@code :nth-last-child()}, {@code :nth-last-of-type()} and {@code :empty}.
+ * An attribute is regarded as an identifier if it is declared as ID by the DTD,
+ * or it is named {@code id} without prefix, or {@code xml:id}.</p>
+ *
+ * <p>The elements matched can also be built into DOM trees together with their content,
+ * while no node is created for the other parts of the document.</p>
+ * <pre><code> try (Stream&lt;Element&gt; elements = matcher.extract(reader)) {
+ *     elements.forEach(element-&gt;process(element));
+ * }
+ * </code></pre>
+ *
+ * <p>Instances of this type are immutable and thread-safe,
+ * each of the streams is matched with its own state.</p>
+ */
+public interface StreamingMatcher {
+
+    /**
+     * Creates a streaming matcher for the given selector.
+     *
+     * @param selector the selector to match, which can be a group of selectors.
+     * @return newly created streaming matcher.
+     * @throws NullPointerException if the given {@code selector} is {@code null}.
+     * @throws IllegalArgumentException if the given {@code selector} has any pseudo-class
+     *         which depends on the following elements, or was not compiled by this API implementation.
+     */
+    static StreamingMatcher of(Selector selector) {
+        if (selector == null) {
+            throw new NullPointerException("selector must not be null.");
+        }
+        return SelectorCompilerFactory.get().createStreamingMatcher(selector);
+    }
+
+    /**
+     * Returns the selector to match.
+     *
+     * @return the selector, never be {@code null}.
+     */
+    Selector getSelector();
+
+    /**
+     * Reads the stream and reports the elements matching the selector in document order.
+     * If the reader is at the start of an element, only the element and its descendants are read,
+     * the element being regarded as the document element, and the reader is left at the end of the element.
+     * Otherwise the reader is read until the end of the document.
+     *
+     * @param reader the stream reader to read, which should be namespace aware.
+     * @param action the action to perform for each element matched.
+     * @throws NullPointerException if the given {@code reader} or {@code action} is {@code null}.
+     * @throws XMLStreamException if the reader failed to read the stream.
+     */
+    void match(XMLStreamReader reader, Consumer<? super Match> action) throws XMLStreamException;
+
+    /**
+     * Creates a SAX content handler which reports the elements matching the selector in document order.
+     * The handler is to be set to a namespace aware parser, and can be used for one document at a time.
+     *
+     * @param action the action to perform for each element matched.
+     * @return newly created content handler.
+     * @throws NullPointerException if the given {@code action} is {@code null}.
+     */
+    ContentHandler createHandler(Consumer<? super Match> action);
+
+    /**
+     * Reads the stream and builds a DOM tree for the subtree of each element matching the selector.
+     * The nodes are created only for the elements matched and their content,
+     * therefore the memory used is proportional to the largest subtree matched, not to the whole document.
+     * Each tree is created in its own document as the document element,
+     * and its element matched is passed to the action when the end tag of the element is read.
+     * The elements matched in the subtree of another element matched are passed in document order
+     * after the outer one, as the descendants of the outer one.
+     * The reader is read in the same way as {@link #match(XMLStreamReader, Consumer)}.
+     *
+     * @param reader the stream reader to read, which should be namespace aware.
+     * @param action the action to perform for each element matched.
+     * @throws NullPointerException if the given {@code reader} or {@code action} is {@code null}.
+     * @throws XMLStreamException if the reader failed to read the stream.
+     */
+    void extract(XMLStreamReader reader, Consumer<? super Element> action) throws XMLStreamException;
+
+    /**
+     * Returns a sequential stream of the elements matching the selector,
+     * for each of which a DOM tree is built in the same way as {@link #extract(XMLStreamReader, Consumer)}.
+     * The reader is read lazily while the returned stream is consumed.
+     * If the reader fails to read, an {@link IllegalStateException} is thrown
+     * with {@link XMLStreamException} as its cause.
+     *
+     * @param reader the stream reader to read, which should be namespace aware.
+     * @return the stream of the elements matched.
+     * @throws NullPointerException if the given {@code reader} is {@code null}.
+     */
+    Stream<Element> extract(XMLStreamReader reader);
+
+    /**
+     * Creates a SAX content handler which builds a DOM tree for the subtree of each element matching the selector
+     * in the same way as {@link #extract(XMLStreamReader, Consumer)}.
+     * The handler is to be set to a namespace aware parser, and can be used for one document at a time.
+     * The comments and the CDATA sections are kept only if the handler is also set as the lexical handler.
+     *
+     * @param action the action to perform for each element matched.
+     * @return newly created content handler.
+     * @throws NullPointerException if the given {@code action} is {@code null}.
+     */
+    ContentHandler createExtractingHandler(Consumer<? super Element> action);
+
+    /**
+     * The element matched in a stream.
+     * The instance is valid only while the action receiving it is performed,
+     * as it is reused for the following elements.
+     */
+    interface Match {
+
+        /**
+         * Returns the namespace of the element.
+         *
+         * @return the namespace, or {@code null} if the element has no namespace.
+         */
+        String getNamespaceURI();
+
+        /**
+         * Returns the local name of the element.
+         *
+         * @return the local name, never be {@code null}.
+         */
+        String getLocalName();
+
+        /**
+         * Returns the prefix of the element.
+         *
+         * @return the prefix, or {@code null} if the element has no prefix.
+         */
+        String getPrefix();
+
+        /**
+         * Returns the depth of the element, the document element being 0.
+         *
+         * @return the depth of the element.
+         */
+        int getDepth();
+
+        /**
+         * Returns the number of the element in document order, the document element being 0.
+         *
+         * @return the number of the element.
+         */
+        long getOrdinal();
+
+        /**
+         * Returns the position of the element among its siblings.
+         *
+         * @return the position, starting from 1.
+         */
+        int getPosition();
+
+        /**
+         * Returns the path to the element from the document element,
+         * in which each step has the qualified name and the position among the siblings of the same type,
+         * such as {@code /html[1]/body[1]/div[3]}.
+         *
+         * @return the path to the element.
+         */
+        String getPath();
+
+        /**
+         * Returns the value of the attribute of the element.
+         *
+         * @param namespace the namespace of the attribute, may be {@code null}.
+         * @param localName the local name of the attribute.
+         * @return the value of the attribute, or {@code null} if the element does not have the attribute.
+         */
+        String getAttributeValue(String namespace, String localName);
+    }
+}
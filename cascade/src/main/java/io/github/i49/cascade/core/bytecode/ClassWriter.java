@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer of a class file.
+ *
+ * <p>The class is written in the version 49 format,
+ * which does not require the stack map frames for its methods.</p>
+ */
+public class ClassWriter {
+
+    private static final int MAGIC = 0xcafebabe;
+    private static final int MAJOR_VERSION = 49;
+
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_PRIVATE = 0x0002;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+
+    private final ConstantPool pool = new ConstantPool();
+    private final String name;
+    private final String superName;
+    private final List<Member> fields = new ArrayList<>();
+    private final List<Member> methods = new ArrayList<>();
+
+    /**
+     * Constructs this writer.
+     *
+     * @param name the internal name of the class to write.
+     * @param superName the internal name of the superclass.
+     */
+    public ClassWriter(String name, String superName) {
+        this.name = name;
+        this.superName = superName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Adds a field to the class.
+     *
+     * @param access the access flags of the field.
+     * @param name the name of the field.
+     * @param descriptor the descriptor of the field.
+     */
+    public void addField(int access, String name, String descriptor) {
+        fields.add(new Member(access, pool.utf8(name), pool.utf8(descriptor), null));
+    }
+
+    /**
+     * Adds a method to the class.
+     * The code of the method should be written to the returned writer
+     * before this class is converted into bytes.
+     *
+     * @param access the access flags of the method.
+     * @param name the name of the method.
+     * @param descriptor the descriptor of the method.
+     * @return the writer of the code of the method.
+     */
+    public CodeWriter addMethod(int access, String name, String descriptor) {
+        int parameterSlots = Descriptors.argumentSlots(descriptor) + 1;
+        CodeWriter code = new CodeWriter(pool, parameterSlots);
+        methods.add(new Member(access, pool.utf8(name), pool.utf8(descriptor), code));
+        return code;
+    }
+
+    /**
+     * Returns the content of the class file.
+     *
+     * @return the byte array of the class file.
+     */
+    public byte[] toByteArray() {
+        final int thisClass = pool.classOf(name);
+        final int superClass = pool.classOf(superName);
+        final int codeName = methods.isEmpty() ? 0 : pool.utf8("Code");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            out.writeShort(pool.count());
+            out.write(pool.toByteArray());
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(fields.size());
+            for (Member field: fields) {
+                field.writeHeader(out);
+                out.writeShort(0);
+            }
+            out.writeShort(methods.size());
+            for (Member method: methods) {
+                method.writeHeader(out);
+                out.writeShort(1);
+                byte[] code = method.code.toByteArray();
+                out.writeShort(codeName);
+                out.writeInt(12 + code.length);
+                out.writeShort(method.code.getMaxStack());
+                out.writeShort(method.code.getMaxLocals());
+                out.writeInt(code.length);
+                out.write(code);
+                out.writeShort(0);
+                out.writeShort(0);
+            }
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * A field or a method of the class.
+     */
+    private static class Member {
+
+        private final int access;
+        private final int name;
+        private final int descriptor;
+        private final CodeWriter code;
+
+        Member(int access, int name, int descriptor, CodeWriter code) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.code = code;
+        }
+
+        void writeHeader(DataOutputStream out) throws IOException {
+            out.writeShort(access);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+        }
+    }
+}
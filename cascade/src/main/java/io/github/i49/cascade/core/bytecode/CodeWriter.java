@@ -0,0 +1,341 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.bytecode;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Writer of the code of a method.
+ *
+ * <p>The maximum depth of the operand stack is computed from the instructions written in order,
+ * assuming that the stack is empty at every branch and every label,
+ * which holds for the code generated by this package.
+ * The code is written without stack map frames, therefore the class file must be version 49 or older.</p>
+ */
+public class CodeWriter {
+
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int ILOAD = 0x15;
+    private static final int ALOAD = 0x19;
+    private static final int ISTORE = 0x36;
+    private static final int ASTORE = 0x3a;
+    private static final int AALOAD = 0x32;
+    private static final int IFEQ = 0x99;
+    private static final int IFNE = 0x9a;
+    private static final int IF_ICMPNE = 0xa0;
+    private static final int IF_ACMPEQ = 0xa5;
+    private static final int IF_ACMPNE = 0xa6;
+    private static final int GOTO = 0xa7;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int CHECKCAST = 0xc0;
+    private static final int IFNULL = 0xc6;
+    private static final int IFNONNULL = 0xc7;
+
+    // the maximum length of the code of a method.
+    private static final int MAX_CODE_LENGTH = 0xffff;
+
+    private final ConstantPool pool;
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private int stack;
+    private int maxStack;
+    private int maxLocals;
+
+    CodeWriter(ConstantPool pool, int parameterSlots) {
+        this.pool = pool;
+        this.maxLocals = parameterSlots;
+    }
+
+    public CodeWriter pushInt(int value) {
+        if (value >= -1 && value <= 5) {
+            write(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            write(BIPUSH);
+            write(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            write(SIPUSH);
+            writeShort(value);
+        } else {
+            loadConstant(pool.integer(value));
+            return this;
+        }
+        push(1);
+        return this;
+    }
+
+    public CodeWriter pushString(String value) {
+        loadConstant(pool.string(value));
+        return this;
+    }
+
+    public CodeWriter loadReference(int slot) {
+        local(ALOAD, slot);
+        push(1);
+        return this;
+    }
+
+    public CodeWriter storeReference(int slot) {
+        local(ASTORE, slot);
+        push(-1);
+        return this;
+    }
+
+    public CodeWriter loadInt(int slot) {
+        local(ILOAD, slot);
+        push(1);
+        return this;
+    }
+
+    public CodeWriter storeInt(int slot) {
+        local(ISTORE, slot);
+        push(-1);
+        return this;
+    }
+
+    public CodeWriter loadArrayElement() {
+        write(AALOAD);
+        push(-1);
+        return this;
+    }
+
+    public CodeWriter getField(String owner, String name, String descriptor) {
+        write(GETFIELD);
+        writeShort(pool.field(owner, name, descriptor));
+        return this;
+    }
+
+    public CodeWriter putField(String owner, String name, String descriptor) {
+        write(PUTFIELD);
+        writeShort(pool.field(owner, name, descriptor));
+        push(-2);
+        return this;
+    }
+
+    public CodeWriter invokeVirtual(String owner, String name, String descriptor) {
+        write(INVOKEVIRTUAL);
+        writeShort(pool.method(owner, name, descriptor));
+        push(Descriptors.stackEffect(descriptor, true));
+        return this;
+    }
+
+    public CodeWriter invokeSpecial(String owner, String name, String descriptor) {
+        write(INVOKESPECIAL);
+        writeShort(pool.method(owner, name, descriptor));
+        push(Descriptors.stackEffect(descriptor, true));
+        return this;
+    }
+
+    public CodeWriter invokeStatic(String owner, String name, String descriptor) {
+        write(INVOKESTATIC);
+        writeShort(pool.method(owner, name, descriptor));
+        push(Descriptors.stackEffect(descriptor, false));
+        return this;
+    }
+
+    public CodeWriter invokeInterface(String owner, String name, String descriptor) {
+        write(INVOKEINTERFACE);
+        writeShort(pool.interfaceMethod(owner, name, descriptor));
+        write(Descriptors.argumentSlots(descriptor) + 1);
+        write(0);
+        push(Descriptors.stackEffect(descriptor, true));
+        return this;
+    }
+
+    public CodeWriter checkCast(String internalName) {
+        write(CHECKCAST);
+        writeShort(pool.classOf(internalName));
+        return this;
+    }
+
+    public CodeWriter ifZero(Label label) {
+        return branch(IFEQ, label, -1);
+    }
+
+    public CodeWriter ifNotZero(Label label) {
+        return branch(IFNE, label, -1);
+    }
+
+    public CodeWriter ifIntsNotEqual(Label label) {
+        return branch(IF_ICMPNE, label, -2);
+    }
+
+    public CodeWriter ifSame(Label label) {
+        return branch(IF_ACMPEQ, label, -2);
+    }
+
+    public CodeWriter ifNotSame(Label label) {
+        return branch(IF_ACMPNE, label, -2);
+    }
+
+    public CodeWriter ifNull(Label label) {
+        return branch(IFNULL, label, -1);
+    }
+
+    public CodeWriter ifNotNull(Label label) {
+        return branch(IFNONNULL, label, -1);
+    }
+
+    public CodeWriter jump(Label label) {
+        return branch(GOTO, label, 0);
+    }
+
+    public CodeWriter returnInt() {
+        write(IRETURN);
+        push(-1);
+        return this;
+    }
+
+    public CodeWriter returnVoid() {
+        write(RETURN);
+        return this;
+    }
+
+    /**
+     * Places the label at the current position.
+     *
+     * @param label the label to place.
+     * @return this writer.
+     */
+    public CodeWriter place(Label label) {
+        if (label.offset >= 0) {
+            throw new IllegalStateException("Label is already placed.");
+        }
+        label.offset = code.size();
+        for (int[] reference: label.references) {
+            patch(reference[1], label.offset - reference[0]);
+        }
+        label.references.clear();
+        return this;
+    }
+
+    /**
+     * Returns the code written.
+     *
+     * @return the byte array of the code.
+     * @throws ClassFileLimitException if the code is too long for a method.
+     */
+    byte[] toByteArray() {
+        if (code.size() > MAX_CODE_LENGTH) {
+            throw new ClassFileLimitException("Method is too large.");
+        }
+        return code.toByteArray();
+    }
+
+    int getMaxStack() {
+        return maxStack;
+    }
+
+    int getMaxLocals() {
+        return maxLocals;
+    }
+
+    private CodeWriter branch(int opcode, Label label, int effect) {
+        final int start = code.size();
+        write(opcode);
+        if (label.offset >= 0) {
+            writeShort(checkOffset(label.offset - start));
+        } else {
+            label.references.add(new int[] { start, code.size() });
+            writeShort(0);
+        }
+        push(effect);
+        return this;
+    }
+
+    private void loadConstant(int index) {
+        if (index <= 0xff) {
+            write(LDC);
+            write(index);
+        } else {
+            write(LDC_W);
+            writeShort(index);
+        }
+        push(1);
+    }
+
+    private void local(int opcode, int slot) {
+        if (slot > 0xff) {
+            throw new ClassFileLimitException("Too many local variables.");
+        }
+        if (slot <= 3) {
+            write(shortForm(opcode) + slot);
+        } else {
+            write(opcode);
+            write(slot);
+        }
+        maxLocals = Math.max(maxLocals, slot + 1);
+    }
+
+    private void patch(int position, int offset) {
+        byte[] bytes = code.toByteArray();
+        offset = checkOffset(offset);
+        bytes[position] = (byte)(offset >>> 8);
+        bytes[position + 1] = (byte)offset;
+        code.reset();
+        code.write(bytes, 0, bytes.length);
+    }
+
+    private void push(int effect) {
+        stack += effect;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    private void write(int value) {
+        code.write(value);
+    }
+
+    private void writeShort(int value) {
+        code.write(value >>> 8);
+        code.write(value);
+    }
+
+    /**
+     * Returns the opcode of the short form, such as {@code aload_0}, of the instruction
+     * accessing a local variable.
+     */
+    private static int shortForm(int opcode) {
+        switch (opcode) {
+        case ILOAD:
+            return 0x1a;
+        case ALOAD:
+            return 0x2a;
+        case ISTORE:
+            return 0x3b;
+        case ASTORE:
+            return 0x4b;
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+
+    private static int checkOffset(int offset) {
+        if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+            throw new ClassFileLimitException("Branch is too far.");
+        }
+        return offset;
+    }
+}
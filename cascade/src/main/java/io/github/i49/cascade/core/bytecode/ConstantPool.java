@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The constant pool of a class file.
+ * Each constant is added only once and referenced by its index.
+ */
+class ConstantPool {
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELD = 9;
+    private static final int METHOD = 10;
+    private static final int INTERFACE_METHOD = 11;
+    private static final int NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    private final Map<String, Integer> indices = new HashMap<>();
+    private int count = 1;
+
+    int utf8(String value) {
+        String key = "U" + value;
+        Integer found = indices.get(key);
+        if (found != null) {
+            return found;
+        }
+        try {
+            out.writeByte(UTF8);
+            out.writeUTF(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return register(key);
+    }
+
+    int integer(int value) {
+        String key = "I" + value;
+        Integer found = indices.get(key);
+        if (found != null) {
+            return found;
+        }
+        write(INTEGER);
+        writeInt(value);
+        return register(key);
+    }
+
+    int classOf(String internalName) {
+        String key = "C" + internalName;
+        Integer found = indices.get(key);
+        if (found != null) {
+            return found;
+        }
+        int name = utf8(internalName);
+        write(CLASS);
+        writeShort(name);
+        return register(key);
+    }
+
+    int string(String value) {
+        String key = "S" + value;
+        Integer found = indices.get(key);
+        if (found != null) {
+            return found;
+        }
+        int utf8 = utf8(value);
+        write(STRING);
+        writeShort(utf8);
+        return register(key);
+    }
+
+    int field(String owner, String name, String descriptor) {
+        return member(FIELD, owner, name, descriptor);
+    }
+
+    int method(String owner, String name, String descriptor) {
+        return member(METHOD, owner, name, descriptor);
+    }
+
+    int interfaceMethod(String owner, String name, String descriptor) {
+        return member(INTERFACE_METHOD, owner, name, descriptor);
+    }
+
+    /**
+     * Returns the number of the entries plus one, which is written as the count of the pool.
+     *
+     * @return the count of the pool.
+     */
+    int count() {
+        return count;
+    }
+
+    byte[] toByteArray() {
+        return bytes.toByteArray();
+    }
+
+    private int member(int tag, String owner, String name, String descriptor) {
+        String key = "M" + tag + owner + "." + name + descriptor;
+        Integer found = indices.get(key);
+        if (found != null) {
+            return found;
+        }
+        int ownerIndex = classOf(owner);
+        int nameAndType = nameAndType(name, descriptor);
+        write(tag);
+        writeShort(ownerIndex);
+        writeShort(nameAndType);
+        return register(key);
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        String key = "N" + name + descriptor;
+        Integer found = indices.get(key);
+        if (found != null) {
+            return found;
+        }
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        write(NAME_AND_TYPE);
+        writeShort(nameIndex);
+        writeShort(descriptorIndex);
+        return register(key);
+    }
+
+    private int register(String key) {
+        if (count > 0xffff) {
+            throw new ClassFileLimitException("Too many constants.");
+        }
+        int index = count++;
+        indices.put(key, index);
+        return index;
+    }
+
+    private void write(int value) {
+        bytes.write(value);
+    }
+
+    private void writeShort(int value) {
+        bytes.write(value >>> 8);
+        bytes.write(value);
+    }
+
+    private void writeInt(int value) {
+        writeShort(value >>> 16);
+        writeShort(value & 0xffff);
+    }
+}
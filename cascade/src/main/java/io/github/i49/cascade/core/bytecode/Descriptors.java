@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.bytecode;
+
+/**
+ * Utility methods for method descriptors.
+ */
+final class Descriptors {
+
+    /**
+     * Returns the number of the local variable slots taken by the arguments.
+     *
+     * @param descriptor the method descriptor.
+     * @return the number of the slots.
+     */
+    static int argumentSlots(String descriptor) {
+        int slots = 0;
+        int i = 1;
+        while (descriptor.charAt(i) != ')') {
+            char c = descriptor.charAt(i);
+            if (c == 'J' || c == 'D') {
+                i++;
+                slots += 2;
+                continue;
+            }
+            while (c == '[') {
+                c = descriptor.charAt(++i);
+            }
+            if (c == 'L') {
+                i = descriptor.indexOf(';', i);
+            }
+            i++;
+            slots++;
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the change of the depth of the operand stack caused by a method invocation.
+     *
+     * @param descriptor the method descriptor.
+     * @param hasReceiver {@code true} if the method is an instance method.
+     * @return the change of the stack depth.
+     */
+    static int stackEffect(String descriptor, boolean hasReceiver) {
+        int effect = -argumentSlots(descriptor);
+        if (hasReceiver) {
+            effect--;
+        }
+        char returned = descriptor.charAt(descriptor.indexOf(')') + 1);
+        if (returned == 'J' || returned == 'D') {
+            effect += 2;
+        } else if (returned != 'V') {
+            effect++;
+        }
+        return effect;
+    }
+
+    private Descriptors() {
+    }
+}
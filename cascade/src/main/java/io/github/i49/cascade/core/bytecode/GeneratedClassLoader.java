@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.bytecode;
+
+/**
+ * Class loader defining a class generated at runtime.
+ *
+ * <p>Each generated class is defined by its own loader,
+ * which allows the class to be unloaded as soon as it is no longer used.</p>
+ */
+public class GeneratedClassLoader extends ClassLoader {
+
+    /**
+     * Constructs this loader.
+     *
+     * @param parent the parent loader, which must see all the types referenced by the generated class.
+     */
+    public GeneratedClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    /**
+     * Defines a class written by the given writer.
+     *
+     * @param writer the writer of the class.
+     * @return the class defined.
+     */
+    public Class<?> define(ClassWriter writer) {
+        byte[] bytes = writer.toByteArray();
+        String name = writer.getName().replace('/', '.');
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.bytecode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A position in the code of a method, which is the target of the branch instructions.
+ */
+public class Label {
+
+    // the offset of this label in the code, -1 if not placed yet.
+    int offset = -1;
+    // the offsets of the branch instructions and their operands jumping to this label before it is placed.
+    final List<int[]> references = new ArrayList<>();
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.compiler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCache;
+
+/**
+ * Default implementation of {@link SelectorCache}.
+ *
+ * <p>The selectors are held in a map ordered by access
+ * and the eldest entry is evicted when the map is full.
+ * Expressions are compiled outside of the lock,
+ * therefore the same expression may be compiled twice by the threads which miss it at the same time.
+ * In that case the selector compiled first is kept in the cache.</p>
+ */
+public class DefaultSelectorCache implements SelectorCache {
+
+    private final int maxEntries;
+    private final Map<Key, Selector> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs this cache.
+     *
+     * @param maxEntries the maximum number of selectors to cache, which is positive.
+     */
+    public DefaultSelectorCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Selector>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Selector> eldest) {
+                if (size() > DefaultSelectorCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    @Override
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    @Override
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the selector cached for the expression, the namespaces and the evaluator,
+     * or compiles the expression if the selector is not cached yet.
+     *
+     * @param expression the expression of the selector.
+     * @param namespaces the namespaces declared for the expression.
+     * @param evaluator the way of the selector testing the elements.
+     * @param compiler the function to compile the expression.
+     * @return the selector found or compiled.
+     */
+    Selector get(String expression, NamespaceRegistry namespaces, Evaluator evaluator,
+            Function<String, Selector> compiler) {
+        Key key = new Key(expression, namespaces, evaluator);
+        synchronized (this) {
+            Selector found = entries.get(key);
+            if (found != null) {
+                hits++;
+                return found;
+            }
+            misses++;
+        }
+        Selector compiled = compiler.apply(expression);
+        synchronized (this) {
+            Selector found = entries.putIfAbsent(key, compiled);
+            return (found != null) ? found : compiled;
+        }
+    }
+
+    /**
+     * The key of the entries, which is the expression, the namespaces and the evaluator.
+     */
+    private static class Key {
+
+        private final String expression;
+        private final NamespaceRegistry namespaces;
+        private final Evaluator evaluator;
+        private final int hash;
+
+        Key(String expression, NamespaceRegistry namespaces, Evaluator evaluator) {
+            this.expression = expression;
+            this.namespaces = namespaces;
+            this.evaluator = evaluator;
+            this.hash = (expression.hashCode() * 31 + namespaces.hashCode()) * 31 + evaluator.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)obj;
+            return hash == other.hash &&
+                   evaluator == other.evaluator &&
+                   expression.equals(other.expression) &&
+                   namespaces.equals(other.namespaces);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -17,21 +17,52 @@
 package io.github.i49.cascade.core.compiler;
 
 import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCache;
 import io.github.i49.cascade.api.SelectorCompiler;
 import io.github.i49.cascade.core.matchers.pseudo.PseudoClassMatcherFactory;
+import io.github.i49.cascade.core.matchers.util.MatcherInterner;
 import io.github.i49.cascade.core.message.Message;
+import io.github.i49.cascade.core.selectors.ProgramAssembler;
+import io.github.i49.cascade.core.selectors.SequenceClassGenerator;
 
 /**
  * Default implementation of {@link SelectorCompiler}.
+ *
+ * <p>Each instance of this class is immutable and thread-safe.</p>
  */
 public class DefaultSelectorCompiler implements SelectorCompiler {
 
+    private static final DefaultSelectorCompiler DEFAULT =
+            new DefaultSelectorCompiler(NamespaceRegistry.empty(), null, false, false);
+
+    // the matchers shared by all selectors compiled in the process.
+    private static final MatcherInterner MATCHER_INTERNER = new MatcherInterner();
+
     private final NamespaceRegistry namespaceRegistry;
     private final PseudoClassMatcherFactory pseudoClassMatcherFactory;
+    // the cache of the selectors, may be null.
+    private final DefaultSelectorCache cache;
+    // whether the classes are generated for the selectors.
+    private final boolean codeGeneration;
+    // whether the selectors are translated into programs.
+    private final boolean program;
 
-    public DefaultSelectorCompiler() {
-        this.namespaceRegistry = new NamespaceRegistry();
+    /**
+     * Returns the compiler without any configuration.
+     *
+     * @return the compiler without any configuration.
+     */
+    public static DefaultSelectorCompiler getDefault() {
+        return DEFAULT;
+    }
+
+    private DefaultSelectorCompiler(NamespaceRegistry namespaceRegistry, DefaultSelectorCache cache,
+            boolean codeGeneration, boolean program) {
+        this.namespaceRegistry = namespaceRegistry;
         this.pseudoClassMatcherFactory = PseudoClassMatcherFactory.create();
+        this.cache = cache;
+        this.codeGeneration = codeGeneration;
+        this.program = program;
     }
 
     @Override
@@ -44,8 +75,7 @@ public class DefaultSelectorCompiler implements SelectorCompiler {
         if (namespace == null) {
             throw new NullPointerException(Message.ARGUMENT_IS_NULL.with("namespace"));
         }
-        namespaceRegistry.register(prefix, namespace);
-        return this;
+        return new DefaultSelectorCompiler(namespaceRegistry.withPrefix(prefix, namespace), cache, codeGeneration, program);
     }
 
     @Override
@@ -53,8 +83,27 @@ public class DefaultSelectorCompiler implements SelectorCompiler {
         if (namespace == null) {
             throw new NullPointerException(Message.ARGUMENT_IS_NULL.with("namespace"));
         }
-        namespaceRegistry.registerDefault(namespace);
-        return this;
+        return new DefaultSelectorCompiler(namespaceRegistry.withDefault(namespace), cache, codeGeneration, program);
+    }
+
+    @Override
+    public SelectorCompiler withCache(SelectorCache cache) {
+        if (cache == null) {
+            throw new NullPointerException(Message.ARGUMENT_IS_NULL.with("cache"));
+        } else if (!(cache instanceof DefaultSelectorCache)) {
+            throw new IllegalArgumentException(Message.CACHE_IS_NOT_SUPPORTED.toString());
+        }
+        return new DefaultSelectorCompiler(namespaceRegistry, (DefaultSelectorCache)cache, codeGeneration, program);
+    }
+
+    @Override
+    public SelectorCompiler withCodeGeneration(boolean enabled) {
+        return new DefaultSelectorCompiler(namespaceRegistry, cache, enabled, program);
+    }
+
+    @Override
+    public SelectorCompiler withProgram(boolean enabled) {
+        return new DefaultSelectorCompiler(namespaceRegistry, cache, codeGeneration, enabled);
     }
 
     @Override
@@ -62,8 +111,38 @@ public class DefaultSelectorCompiler implements SelectorCompiler {
         if (expression == null) {
             throw new NullPointerException(Message.ARGUMENT_IS_NULL.with("expression"));
         }
-        SelectorParser parser = new SelectorParser(expression, namespaceRegistry, pseudoClassMatcherFactory);
-        return parser.parse();
+        if (cache == null) {
+            return parse(expression);
+        }
+        return cache.get(expression, namespaceRegistry, getEvaluator(), this::parse);
     }
-}
 
+    private Selector parse(String expression) {
+        SelectorParser parser = new SelectorParser(
+                expression, namespaceRegistry, pseudoClassMatcherFactory, MATCHER_INTERNER);
+        Selector selector = parser.parse();
+        switch (getEvaluator()) {
+        case GENERATED_CLASS:
+            return SequenceClassGenerator.generate(selector);
+        case PROGRAM:
+            return ProgramAssembler.assemble(selector);
+        default:
+            return selector;
+        }
+    }
+
+    /**
+     * Returns the way of the compiled selectors testing the elements.
+     * The code generation takes precedence over the program if both are enabled.
+     *
+     * @return the way of testing the elements.
+     */
+    private Evaluator getEvaluator() {
+        if (codeGeneration) {
+            return Evaluator.GENERATED_CLASS;
+        } else if (program) {
+            return Evaluator.PROGRAM;
+        }
+        return Evaluator.INTERPRETER;
+    }
+}
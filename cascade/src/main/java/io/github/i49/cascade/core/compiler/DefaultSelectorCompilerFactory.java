@@ -16,8 +16,29 @@
 
 package io.github.i49.cascade.core.compiler;
 
+import java.util.List;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.CompactDocument;
+import io.github.i49.cascade.api.DocumentIndex;
+import io.github.i49.cascade.api.LiveSelection;
+import io.github.i49.cascade.api.MultiSelector;
+import io.github.i49.cascade.api.RuleSet;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCache;
 import io.github.i49.cascade.api.SelectorCompiler;
 import io.github.i49.cascade.api.SelectorCompilerFactory;
+import io.github.i49.cascade.api.SelectorSerializer;
+import io.github.i49.cascade.api.StreamingMatcher;
+import io.github.i49.cascade.core.dom.DefaultDocumentIndex;
+import io.github.i49.cascade.core.selectors.DefaultCompactDocument;
+import io.github.i49.cascade.core.selectors.DefaultLiveSelection;
+import io.github.i49.cascade.core.selectors.DefaultMultiSelector;
+import io.github.i49.cascade.core.selectors.DefaultRuleSet;
+import io.github.i49.cascade.core.selectors.DefaultSelectorSerializer;
+import io.github.i49.cascade.core.selectors.DefaultStreamingMatcher;
 
 /**
  * Default implementation of {@link SelectorCompilerFactory}.
@@ -26,6 +47,46 @@ public class DefaultSelectorCompilerFactory extends SelectorCompilerFactory {
 
     @Override
     public SelectorCompiler createCompiler() {
-        return new DefaultSelectorCompiler();
+        return DefaultSelectorCompiler.getDefault();
+    }
+
+    @Override
+    public DocumentIndex createDocumentIndex(Document document) {
+        return DefaultDocumentIndex.build(document);
+    }
+
+    @Override
+    public SelectorCache createSelectorCache(int maxEntries) {
+        return new DefaultSelectorCache(maxEntries);
+    }
+
+    @Override
+    public MultiSelector createMultiSelector(List<Selector> selectors) {
+        return DefaultMultiSelector.of(selectors);
+    }
+
+    @Override
+    public RuleSet createRuleSet(List<Selector> rules) {
+        return DefaultRuleSet.of(rules);
+    }
+
+    @Override
+    public LiveSelection createLiveSelection(Selector selector, Element start) {
+        return DefaultLiveSelection.create(selector, start);
+    }
+
+    @Override
+    public CompactDocument createCompactDocument(Document document) {
+        return DefaultCompactDocument.of(document);
+    }
+
+    @Override
+    public StreamingMatcher createStreamingMatcher(Selector selector) {
+        return DefaultStreamingMatcher.of(selector);
+    }
+
+    @Override
+    public SelectorSerializer createSelectorSerializer() {
+        return new DefaultSelectorSerializer();
     }
 }
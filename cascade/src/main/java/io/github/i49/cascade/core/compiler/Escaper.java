@@ -16,11 +16,9 @@
 
 package io.github.i49.cascade.core.compiler;
 
+import static io.github.i49.cascade.core.compiler.Letters.escapeLength;
 import static io.github.i49.cascade.core.compiler.Letters.isHexDigit;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Helper class for unescaping text.
  */
@@ -33,7 +31,7 @@ final class Escaper {
      * @return unescaped text.
      */
     public static String unescape(String text) {
-        return unescape(text, Letters.ESCAPE_PATTERN);
+        return unescape(text, false);
     }
 
     /**
@@ -43,36 +41,41 @@ final class Escaper {
      * @return unescaped text, which stays quoted.
      */
     public static String unescapeQuotedString(String text) {
-        return unescape(text, Letters.STRING_ESCAPE_PATTERN);
+        return unescape(text, true);
     }
 
-    private static String unescape(String text, Pattern escapePattern) {
-        Matcher m = escapePattern.matcher(text);
-        StringBuffer buffer = new StringBuffer();
-        while (m.find()) {
-            String matched = m.group();
-            String replacement = isUncodeEscape(matched)
-                    ? unescapeUnicode(matched) : unescapeCharacter(matched);
-            m.appendReplacement(buffer, replacement);
+    private static String unescape(String text, boolean quoted) {
+        int index = text.indexOf('\\');
+        if (index < 0) {
+            return text;
         }
-        m.appendTail(buffer);
-        return buffer.toString();
-    }
-
-    private static boolean isUncodeEscape(String rawValue) {
-        return isHexDigit(rawValue.charAt(1));
-    }
-
-    private static String unescapeUnicode(String rawValue) {
-        rawValue = rawValue.toLowerCase();
-        String[] parts = rawValue.split("\\s");
-        String hex = parts[0].substring(1);
-        char c = (char)Integer.parseInt(hex, 16);
-        return String.valueOf(c);
+        StringBuilder builder = new StringBuilder(text.length());
+        builder.append(text, 0, index);
+        final int length = text.length();
+        while (index < length) {
+            char c = text.charAt(index);
+            int escapeLength = (c == '\\') ? escapeLength(text, index, quoted) : 0;
+            if (escapeLength > 0) {
+                appendUnescaped(builder, text, index, escapeLength);
+                index += escapeLength;
+            } else {
+                builder.append(c);
+                index++;
+            }
+        }
+        return builder.toString();
     }
 
-    private static String unescapeCharacter(String rawValue) {
-        return rawValue.substring(1);
+    private static void appendUnescaped(StringBuilder builder, String text, int index, int length) {
+        if (isHexDigit(text.charAt(index + 1))) {
+            int value = 0;
+            for (int i = index + 1; i < index + length && isHexDigit(text.charAt(i)); i++) {
+                value = value * 16 + Character.digit(text.charAt(i), 16);
+            }
+            builder.append((char)value);
+        } else {
+            builder.append(text, index + 1, index + length);
+        }
     }
 
     private Escaper() {
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.compiler;
+
+/**
+ * The ways of the compiled selectors testing the elements.
+ */
+public enum Evaluator {
+    /** The sequences and the matchers are called directly. */
+    INTERPRETER,
+    /** The sequences are translated into a flat program of instructions. */
+    PROGRAM,
+    /** The sequences are translated into a class generated at runtime. */
+    GENERATED_CLASS
+}
@@ -18,32 +18,11 @@ package io.github.i49.cascade.core.compiler;
 
 import static java.lang.Character.isAlphabetic;
 
-import java.util.regex.Pattern;
-
 /**
  * Letters in selector expression.
  */
 class Letters {
 
-    public static final String UNICODE_ESCAPE =
-            "\\\\[0-9a-fA-F]{1,6}(\r\n|[ \n\r\t\f])?";
-
-    public static final String CHARACTER_ESCAPE = "\\\\[^\\n\\r\\f0-9a-fA-F]";
-
-    public static final Pattern ESCAPE_PATTERN = Pattern.compile(
-            UNICODE_ESCAPE + "|" + CHARACTER_ESCAPE
-            );
-
-    public static final String NEWLINE_ESCAPE = "\\\\(\\n|\\r\\n|\\r|\\f)";
-
-    public static final Pattern STRING_ESCAPE_PATTERN = Pattern.compile(
-            NEWLINE_ESCAPE + "|" + UNICODE_ESCAPE + "|" + CHARACTER_ESCAPE
-            );
-
-    public static final Pattern NUMBER_PATTERN = Pattern.compile(
-            "[0-9]*\\.[0-9]+|[0-9]+"
-            );
-
     public static boolean isWhitespace(int c) {
         return c == 0x20 || c == '\t' || c == '\r' || c == '\n' || c == '\f';
     }
@@ -53,7 +32,7 @@ class Letters {
     }
 
     public static boolean isDigit(int c) {
-        return Character.isDigit(c);
+        return '0' <= c && c <= '9';
     }
 
     public static boolean isHexDigit(int c) {
@@ -72,6 +51,78 @@ class Letters {
         return c == '\'' || c == '\"';
     }
 
-     private Letters() {
+    /**
+     * Returns the length of the number starting at the given index,
+     * which is either an integer or a decimal fraction.
+     *
+     * @param text the text to scan.
+     * @param index the index where the number starts.
+     * @return the length of the number found, or 0 if there is no number.
+     */
+    public static int numberLength(CharSequence text, int index) {
+        int integerEnd = skipDigits(text, index);
+        if (integerEnd < text.length() && text.charAt(integerEnd) == '.') {
+            int fractionEnd = skipDigits(text, integerEnd + 1);
+            if (fractionEnd > integerEnd + 1) {
+                return fractionEnd - index;
+            }
+        }
+        return integerEnd - index;
+    }
+
+    /**
+     * Returns the length of the escape sequence starting at the given index.
+     * <p>
+     * The escape sequence is either a backslash followed by 1 to 6 hexadecimal digits
+     * and an optional whitespace, or a backslash followed by any other character
+     * except newlines. Escaped newlines are allowed only in quoted strings.
+     * </p>
+     *
+     * @param text the text to scan.
+     * @param index the index of the backslash.
+     * @param quoted {@code true} if the escape sequence appears in a quoted string.
+     * @return the length of the escape sequence found, or 0 if there is no valid escape sequence.
+     */
+    public static int escapeLength(CharSequence text, int index, boolean quoted) {
+        int length = text.length();
+        if (index + 1 >= length || text.charAt(index) != '\\') {
+            return 0;
+        }
+        char c = text.charAt(index + 1);
+        if (c == '\n' || c == '\r' || c == '\f') {
+            if (!quoted) {
+                return 0;
+            } else if (c == '\r' && index + 2 < length && text.charAt(index + 2) == '\n') {
+                return 3;
+            }
+            return 2;
+        } else if (isHexDigit(c)) {
+            int end = index + 2;
+            int limit = Math.min(index + 7, length);
+            while (end < limit && isHexDigit(text.charAt(end))) {
+                end++;
+            }
+            if (end < length) {
+                char next = text.charAt(end);
+                if (next == '\r' && end + 1 < length && text.charAt(end + 1) == '\n') {
+                    end += 2;
+                } else if (isWhitespace(next)) {
+                    end++;
+                }
+            }
+            return end - index;
+        }
+        return 1 + Character.charCount(Character.codePointAt(text, index + 1));
+    }
+
+    private static int skipDigits(CharSequence text, int index) {
+        int length = text.length();
+        while (index < length && isDigit(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private Letters() {
     }
 }
@@ -18,18 +18,43 @@ package io.github.i49.cascade.core.compiler;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
+ * The namespaces declared for the compiler.
  *
+ * <p>Each instance of this class is immutable and thread-safe.
+ * Declaring a namespace creates a new registry.</p>
  */
-public class NamespaceRegistry {
+public final class NamespaceRegistry {
+
+    private static final NamespaceRegistry EMPTY = new NamespaceRegistry();
 
     private final Map<String, String> prefixes;
-    private String defaultNamespace;
+    private final String defaultNamespace;
+    private final int hash;
+
+    /**
+     * Returns the registry which has only the predefined namespaces.
+     *
+     * @return the registry without declared namespaces.
+     */
+    public static NamespaceRegistry empty() {
+        return EMPTY;
+    }
+
+    private NamespaceRegistry() {
+        Map<String, String> prefixes = new HashMap<>();
+        prefixes.put("", null);
+        this.prefixes = prefixes;
+        this.defaultNamespace = null;
+        this.hash = computeHash();
+    }
 
-    public NamespaceRegistry() {
-        this.prefixes = new HashMap<>();
-        predefineNamespaces();
+    private NamespaceRegistry(Map<String, String> prefixes, String defaultNamespace) {
+        this.prefixes = prefixes;
+        this.defaultNamespace = defaultNamespace;
+        this.hash = computeHash();
     }
 
     public boolean hasDefault() {
@@ -48,16 +73,50 @@ public class NamespaceRegistry {
         return this.prefixes.get(prefix);
     }
 
-    public void register(String prefix, String namespace) {
+    /**
+     * Returns a new registry which has the given namespace in addition to the namespaces of this registry.
+     *
+     * @param prefix the prefix of the namespace.
+     * @param namespace the namespace to declare.
+     * @return newly created registry.
+     */
+    public NamespaceRegistry withPrefix(String prefix, String namespace) {
         assert(prefix != null);
-        this.prefixes.put(prefix, namespace);
+        Map<String, String> prefixes = new HashMap<>(this.prefixes);
+        prefixes.put(prefix, namespace);
+        return new NamespaceRegistry(prefixes, this.defaultNamespace);
+    }
+
+    /**
+     * Returns a new registry which has the given default namespace.
+     *
+     * @param namespace the default namespace.
+     * @return newly created registry.
+     */
+    public NamespaceRegistry withDefault(String namespace) {
+        return new NamespaceRegistry(this.prefixes, namespace);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof NamespaceRegistry)) {
+            return false;
+        }
+        NamespaceRegistry other = (NamespaceRegistry)obj;
+        return hash == other.hash &&
+               prefixes.equals(other.prefixes) &&
+               Objects.equals(defaultNamespace, other.defaultNamespace);
     }
 
-    public void registerDefault(String namespace) {
-        this.defaultNamespace = namespace;
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
-    private void predefineNamespaces() {
-        register("", null);
+    private int computeHash() {
+        return prefixes.hashCode() * 31 + Objects.hashCode(defaultNamespace);
     }
 }
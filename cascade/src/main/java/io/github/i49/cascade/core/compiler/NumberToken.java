@@ -21,8 +21,8 @@ package io.github.i49.cascade.core.compiler;
  */
 class NumberToken extends Token {
 
-    public NumberToken(String rawText, int position) {
-        super(TokenCategory.NUMBER, rawText, position);
+    public NumberToken(String input, int start, int end, String rawText) {
+        super(TokenCategory.NUMBER, input, start, end, rawText);
     }
 
     public boolean isIntegral() {
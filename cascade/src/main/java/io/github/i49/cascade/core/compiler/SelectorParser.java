@@ -36,6 +36,7 @@ import io.github.i49.cascade.core.matchers.simple.SubstringMatcher;
 import io.github.i49.cascade.core.matchers.simple.SuffixMatcher;
 import io.github.i49.cascade.core.matchers.simple.TypeMatcher;
 import io.github.i49.cascade.core.matchers.simple.UniversalMatcher;
+import io.github.i49.cascade.core.matchers.util.MatcherInterner;
 import io.github.i49.cascade.core.matchers.util.Matchers;
 import io.github.i49.cascade.core.message.Message;
 import io.github.i49.cascade.core.selectors.Combinator;
@@ -55,15 +56,18 @@ public class SelectorParser {
 
     private final NamespaceRegistry namespaceRegistry;
     private final PseudoClassMatcherFactory pseudoClassMatcherFactory;
+    private final MatcherInterner matcherInterner;
 
     public SelectorParser(
             String expression,
             NamespaceRegistry namespaceRegistry,
-            PseudoClassMatcherFactory pseudoClassMatcherFactory) {
+            PseudoClassMatcherFactory pseudoClassMatcherFactory,
+            MatcherInterner matcherInterner) {
 
         this.tokenizer = new SelectorTokenizer(expression);
         this.namespaceRegistry = namespaceRegistry;
         this.pseudoClassMatcherFactory = pseudoClassMatcherFactory;
+        this.matcherInterner = matcherInterner;
     }
 
     public Selector parse() {
@@ -139,7 +143,7 @@ public class SelectorParser {
         Token token = nextNonSpaceToken();
         Matcher matcher;
         while ((matcher = parseSimpleSelector(token, index++, false)) != null) {
-            matchers.add(matcher);
+            matchers.add(matcherInterner.intern(matcher));
             token = peekToken();
             if (token.isEndOfSequence()) {
                 break;
@@ -151,9 +155,9 @@ public class SelectorParser {
             return null;
         }
         if (!matchers.get(0).getType().representsType()) {
-            matchers.add(0, newUniversalSelector());
+            matchers.add(0, matcherInterner.intern(newUniversalSelector()));
         }
-        return Matchers.allOf(matchers);
+        return matcherInterner.intern(Matchers.allOf(matchers));
     }
 
     private Matcher parseSimpleSelector(Token token, int index, boolean nested) {
@@ -327,7 +331,10 @@ public class SelectorParser {
         if (category != TokenCategory.IDENTITY && category != TokenCategory.FUNCTION) {
             throw newException(Message.PSEUDO_CLASS_NAME_IS_MISSING);
         }
-        String className = token.getText().split("\\(")[0];
+        String className = token.getText();
+        if (category == TokenCategory.FUNCTION) {
+            className = className.substring(0, className.length() - 1);
+        }
         PseudoClass pseudoClass = PseudoClass.byName(className);
         if (pseudoClass == null) {
             throw newException(Message.UNSUPPORTED_PSEUDO_CLASS.with(className));
@@ -410,7 +417,7 @@ public class SelectorParser {
         if (!token.is(TokenCategory.CLOSING_PARENTHESIS)) {
             throw unexpectedToken(token);
         }
-        return Matchers.negate(selector);
+        return Matchers.negate(matcherInterner.intern(selector));
     }
 
     private Matcher parseSimpleSelectorInNegation(Token token) {
@@ -654,29 +661,27 @@ public class SelectorParser {
         }
 
         private boolean parseOrdinalPosition(int sign, Token token) {
-            String[] parts = token.getRawText().split("-", 2);
-            java.util.regex.Matcher m = Letters.NUMBER_PATTERN.matcher(parts[0]);
-            String variable = null;
-            if (m.lookingAt()) {
-                String numeric = m.group();
-                variable = parts[0].substring(numeric.length());
-                a = parseInteger(numeric) * sign;
+            String text = token.getRawText();
+            int separator = text.indexOf('-');
+            int variableEnd = (separator >= 0) ? separator : text.length();
+            int numericLength = Letters.numberLength(text, 0);
+            if (numericLength > 0) {
+                a = parseInteger(text.substring(0, numericLength)) * sign;
             } else {
-                variable = parts[0];
                 a = sign;
             }
 
-            if (!variable.equalsIgnoreCase("n")) {
+            if (variableEnd - numericLength != 1 || Character.toLowerCase(text.charAt(numericLength)) != 'n') {
                 throw unexpectedToken(token);
             }
 
-            if (parts.length == 1) {
+            if (separator < 0) {
                 return false;
             }
 
-            m = Letters.NUMBER_PATTERN.matcher(parts[1]);
-            if (m.matches()) {
-                b = -parseInteger(parts[1]);
+            String constant = text.substring(separator + 1);
+            if (constant.length() > 0 && Letters.numberLength(constant, 0) == constant.length()) {
+                b = -parseInteger(constant);
                 return true;
             } else {
                 throw unexpectedToken(token);
@@ -77,7 +77,6 @@ class SelectorTokenizer implements Tokenizer {
         }
 
         if (number(index)) {
-            dimension(index, currentToken);
             return true;
         }
 
@@ -101,10 +100,6 @@ class SelectorTokenizer implements Tokenizer {
             hash(index) ||
             identity(index)
             ) {
-
-            if (currentToken.getCategory() == TokenCategory.IDENTITY) {
-                function(index, currentToken);
-            }
             return true;
         }
 
@@ -116,7 +111,7 @@ class SelectorTokenizer implements Tokenizer {
 
         return true;
     }
-    
+
     // token generators
 
     private boolean comment(int index) {
@@ -125,18 +120,16 @@ class SelectorTokenizer implements Tokenizer {
         } else {
             return false;
         }
-        StringBuilder b = new StringBuilder("/*");
-        int c = input.charAt(index);
-        while (c >= 0) {
-            if (c == '*' && input.charAt(index + 1) == '/') {
-                return newToken(TokenCategory.COMMENT, b.append("*/").toString());
-            }
-            b.append((char)c);
-            c = input.charAt(++index);
+        int end = getInput().indexOf("*/", index);
+        if (end >= 0) {
+            return newSpan(TokenCategory.COMMENT, end + 2);
         }
-        return newToken(TokenCategory.INVALID_COMMENT, b.toString());
+        return newSpan(TokenCategory.INVALID_COMMENT, getInput().length());
     }
-    
+
+    /**
+     * Scans a number or a dimension, which is a number immediately followed by an identity.
+     */
     private boolean number(int index) {
         int c = input.charAt(index);
         if (c == '.') {
@@ -146,17 +139,12 @@ class SelectorTokenizer implements Tokenizer {
         } else if (!isDigit(c)) {
             return false;
         }
-        String text = input.match(index, NUMBER_PATTERN);
-        return newToken(TokenCategory.NUMBER, text);
-    }
-
-    private boolean dimension(int index, Token number) {
-        index += number.getRawText().length();
-        if (!identity(index)) {
-            return false;
+        int end = index + numberLength(getInput(), index);
+        int unitEnd = identityEnd(end);
+        if (unitEnd >= 0) {
+            return newSpan(TokenCategory.DIMENSION, unitEnd);
         }
-        String text = number.getRawText() + currentToken.getRawText();
-        return newToken(TokenCategory.DIMENSION, text);
+        return newSpan(TokenCategory.NUMBER, end);
     }
 
     private boolean string(int index) {
@@ -164,30 +152,25 @@ class SelectorTokenizer implements Tokenizer {
         if (!isQuote(q)) {
             return false;
         }
-        StringBuilder b = new StringBuilder();
-        b.append((char)q);
         index++;
         for (;;) {
             int c = input.charAt(index);
             if (c < 0 || c == '\n' || c == '\r' || c == '\f') {
-                return newToken(TokenCategory.INVALID_STRING, b.toString());
+                return newSpan(TokenCategory.INVALID_STRING, index);
             } else if (c == '\\') {
-                String matched = input.match(index, STRING_ESCAPE_PATTERN);
-                if (matched != null) {
-                    b.append(matched);
-                    index += matched.length();
-                } else {
+                int length = escapeLength(getInput(), index, true);
+                if (length == 0) {
                     return false;
                 }
+                index += length;
             } else {
-                b.append((char)c);
                 index++;
                 if (c == q) {
                     break;
                 }
             }
         }
-        return newToken(TokenCategory.STRING, b.toString());
+        return newSpan(TokenCategory.STRING, index);
     }
 
     private boolean equalityOperator(int index) {
@@ -250,55 +233,59 @@ class SelectorTokenizer implements Tokenizer {
         }
         c = input.charAt(++index);
         if (c == '\\') {
-            if (escaped(index) == null) {
+            if (escapeLength(getInput(), index, false) == 0) {
                 return false;
             }
         } else if (!isNameLetter(c)) {
             return false;
         }
-        StringBuilder b = new StringBuilder("#");
-        name(index, b);
-        return newToken(TokenCategory.HASH, b.toString());
+        return newSpan(TokenCategory.HASH, nameEnd(index));
     }
 
+    /**
+     * Scans an identity or a function, which is an identity immediately followed by an opening parenthesis.
+     */
     private boolean identity(int index) {
-        int c = input.charAt(index);
-        if (c == '\\') {
-            if (escaped(index) == null) {
-                return false;
-            }
-        } else if (!isIdentifierStart(c)) {
+        int end = identityEnd(index);
+        if (end < 0) {
             return false;
         }
-        StringBuilder b = new StringBuilder();
-        name(index, b);
-        return newToken(TokenCategory.IDENTITY, b.toString());
+        if (input.charAt(end) == '(') {
+            return newSpan(TokenCategory.FUNCTION, end + 1);
+        }
+        return newSpan(TokenCategory.IDENTITY, end);
     }
 
-    private boolean function(int index, Token identity) {
-        index += identity.getRawText().length();
+    // helper methods
+
+    /**
+     * Returns the end of the identity starting at the given index.
+     *
+     * @param index the index where the identity starts.
+     * @return the end of the identity, or -1 if there is no identity.
+     */
+    private int identityEnd(int index) {
         int c = input.charAt(index);
-        if (c != '(') {
-            return false;
+        if (c == '\\') {
+            if (escapeLength(getInput(), index, false) == 0) {
+                return -1;
+            }
+        } else if (!isIdentifierStart(c)) {
+            return -1;
         }
-        String text = identity.getRawText() + "(";
-        return newToken(TokenCategory.FUNCTION, text);
+        return nameEnd(index);
     }
 
-    // helper methods
-
-    private int name(int index, StringBuilder builder) {
+    private int nameEnd(int index) {
         int c;
         while ((c = input.charAt(index)) != -1) {
             if (c == '\\') {
-                String escape = escaped(index);
-                if (escape == null) {
+                int length = escapeLength(getInput(), index, false);
+                if (length == 0) {
                     break;
                 }
-                builder.append(escape);
-                index += escape.length();
+                index += length;
             } else if (isNameLetter(c)) {
-                builder.append((char)c);
                 ++index;
             } else {
                 break;
@@ -307,10 +294,6 @@ class SelectorTokenizer implements Tokenizer {
         return index;
     }
 
-    private String escaped(int index) {
-        return input.match(index, ESCAPE_PATTERN);
-    }
-
     private boolean newToken(TokenCategory category, String text) {
         return newToken(category, text, text.length());
     }
@@ -320,4 +303,10 @@ class SelectorTokenizer implements Tokenizer {
         this.currentTokenLength = length;
         return true;
     }
+
+    private boolean newSpan(TokenCategory category, int end) {
+        this.currentToken = Token.span(category, getInput(), this.currentIndex, end);
+        this.currentTokenLength = end - this.currentIndex;
+        return true;
+    }
 }
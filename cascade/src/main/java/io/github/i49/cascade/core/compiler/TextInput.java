@@ -16,9 +16,6 @@
 
 package io.github.i49.cascade.core.compiler;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * The text used as an input for the {@link Tokenizer}.
  */
@@ -47,16 +44,6 @@ class TextInput {
         return -1;
     }
 
-    public String match(int index, Pattern pattern) {
-        Matcher m = pattern.matcher(text);
-        m = m.region(index, length);
-        if (m.lookingAt()) {
-            return m.group();
-        } else {
-            return null;
-        }
-    }
-
     @Override
     public String toString() {
         return text;
@@ -22,8 +22,10 @@ package io.github.i49.cascade.core.compiler;
 public class Token {
 
     private final TokenCategory category;
-    private final String rawText;
+    private final String input;
     private final int position;
+    private final int end;
+    private String rawText;
 
     /**
      * Creates a new token.
@@ -34,26 +36,55 @@ public class Token {
      * @return newly created token.
      */
     public static Token create(TokenCategory category, String rawText, int position) {
+        return create(category, rawText, position, position + rawText.length(), rawText);
+    }
+
+    /**
+     * Creates a new token which refers to a span of the original text.
+     * The lexeme of the token will not be extracted until it is requested.
+     *
+     * @param category the category of the token, cannot be {@code null}.
+     * @param input the original text, cannot be {@code null}.
+     * @param start the start of the span in the original text, inclusive.
+     * @param end the end of the span in the original text, exclusive.
+     * @return newly created token.
+     */
+    public static Token span(TokenCategory category, String input, int start, int end) {
+        return create(category, input, start, end, null);
+    }
+
+    private static Token create(TokenCategory category, String input, int start, int end, String rawText) {
         switch (category) {
         case NUMBER:
-            return new NumberToken(rawText, position);
+            return new NumberToken(input, start, end, rawText);
         case STRING:
-            return new StringToken(rawText, position);
+            return new StringToken(input, start, end, rawText);
         case INVALID_STRING:
-            return new InvalidStringToken(rawText, position);
+            return new InvalidStringToken(input, start, end, rawText);
         case IDENTITY:
         case HASH:
         case FUNCTION:
-            return new EscapedToken(category, rawText, position);
+            return new EscapedToken(category, input, start, end, rawText);
         default:
-            return new Token(category, rawText, position);
+            return new Token(category, input, start, end, rawText);
         }
     }
 
-    protected Token(TokenCategory category, String rawValue, int position) {
+    /**
+     * Constructs a new token.
+     *
+     * @param category the category of the token.
+     * @param input the original text or the lexeme itself.
+     * @param position the start of the token in the original text.
+     * @param end the end of the token in the original text.
+     * @param rawText the lexeme of the token, or {@code null} if not extracted yet.
+     */
+    protected Token(TokenCategory category, String input, int position, int end, String rawText) {
         this.category = category;
-        this.rawText = rawValue;
+        this.input = input;
         this.position = position;
+        this.end = end;
+        this.rawText = rawText;
     }
 
     /**
@@ -81,6 +112,9 @@ public class Token {
      * @return the original lexeme of this token.
      */
     public String getRawText() {
+        if (rawText == null) {
+            rawText = input.substring(position, end);
+        }
         return rawText;
     }
 
@@ -128,8 +162,8 @@ public class Token {
 
     private static class EscapedToken extends Token {
 
-        public EscapedToken(TokenCategory category, String rawText, int position) {
-            super(category, rawText, position);
+        public EscapedToken(TokenCategory category, String input, int start, int end, String rawText) {
+            super(category, input, start, end, rawText);
         }
 
         @Override
@@ -143,12 +177,12 @@ public class Token {
      */
     private static class StringToken extends EscapedToken {
 
-        public StringToken(String rawValue, int position) {
-            this(TokenCategory.STRING, rawValue, position);
+        public StringToken(String input, int start, int end, String rawText) {
+            this(TokenCategory.STRING, input, start, end, rawText);
         }
 
-        public StringToken(TokenCategory category, String rawValue, int position) {
-            super(category, rawValue, position);
+        public StringToken(TokenCategory category, String input, int start, int end, String rawText) {
+            super(category, input, start, end, rawText);
         }
 
         @Override
@@ -171,8 +205,8 @@ public class Token {
      */
     private static class InvalidStringToken extends StringToken {
 
-        public InvalidStringToken(String rawValue, int position) {
-            super(TokenCategory.INVALID_STRING, rawValue, position);
+        public InvalidStringToken(String input, int start, int end, String rawText) {
+            super(TokenCategory.INVALID_STRING, input, start, end, rawText);
         }
 
         @Override
@@ -0,0 +1,707 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.dom;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Immutable snapshot of the element tree of a document laid out in arrays.
+ *
+ * <p>All elements are numbered in document order, the document element being 0.
+ * As the descendants of an element are numbered consecutively,
+ * the first child of an element is the one next to it,
+ * and the next sibling of an element is the one next to its last descendant.
+ * The tree is therefore held by the arrays of the parents, the previous siblings
+ * and the numbers next to the last descendants, without any object for each node.</p>
+ *
+ * <p>The qualified names of the elements and the attributes, and the class names
+ * are interned into the tables and referred to by their numbers.
+ * The matchers resolve the names into the numbers once before they test the elements.</p>
+ *
+ * <p>This class is thread-safe as none of its fields changes after the construction.</p>
+ */
+public final class CompactTree {
+
+    /** The number which represents the absence of an element or a name. */
+    public static final int NONE = -1;
+
+    private static final int[] NO_ELEMENTS = new int[0];
+
+    private final Document document;
+    // all elements in document order.
+    private final Element[] elements;
+    private final int[] parents;
+    // the number next to the last descendant of each element.
+    private final int[] ends;
+    private final int[] previousSiblings;
+    // the positions among the siblings, starting from 1.
+    private final int[] positions;
+    private final int[] typePositions;
+    // the number of the siblings of the same type including the element itself.
+    private final int[] typeCounts;
+    // the number of the child elements of each element.
+    private final int[] childCounts;
+    private final BitSet emptyElements;
+
+    private final int[] types;
+    private final String[] typeNamespaces;
+    private final String[] typeLocalNames;
+
+    // the class names of the element i are in the range from classOffsets[i] to classOffsets[i + 1].
+    private final int[] classOffsets;
+    private final int[] classes;
+    private final Map<String, Integer> classNames;
+
+    // the attributes of the element i are in the range from attributeOffsets[i] to attributeOffsets[i + 1].
+    private final int[] attributeOffsets;
+    private final int[] attributeNames;
+    private final String[] attributeValues;
+    private final BitSet identifierAttributes;
+    private final String[] attributeNamespaces;
+    private final String[] attributeLocalNames;
+
+    private final Map<String, int[]> identifiers;
+
+    // the open-addressing table of the numbers plus one, keyed by the identity hash codes of the elements.
+    private final int[] ordinals;
+
+    /**
+     * Builds the compact tree of the given document.
+     *
+     * @param document the document to build from.
+     * @return newly created tree.
+     */
+    public static CompactTree build(Document document) {
+        return new Builder(document).build();
+    }
+
+    private CompactTree(Builder builder) {
+        final int size = builder.size;
+        this.document = builder.document;
+        this.elements = Arrays.copyOf(builder.elements, size);
+        this.parents = Arrays.copyOf(builder.parents, size);
+        this.ends = Arrays.copyOf(builder.ends, size);
+        this.previousSiblings = Arrays.copyOf(builder.previousSiblings, size);
+        this.types = Arrays.copyOf(builder.types, size);
+        this.emptyElements = builder.emptyElements;
+        this.classOffsets = Arrays.copyOf(builder.classOffsets, size + 1);
+        this.classes = builder.classes.toArray();
+        this.attributeOffsets = Arrays.copyOf(builder.attributeOffsets, size + 1);
+        this.attributeNames = builder.attributeNames.toArray();
+        this.attributeValues = Arrays.copyOf(builder.attributeValues, builder.attributeNames.size);
+        this.identifierAttributes = builder.identifierAttributes;
+
+        this.typeNamespaces = builder.typeTable.namespaces();
+        this.typeLocalNames = builder.typeTable.localNames();
+        this.attributeNamespaces = builder.attributeTable.namespaces();
+        this.attributeLocalNames = builder.attributeTable.localNames();
+        this.classNames = builder.classNames;
+
+        Map<String, int[]> identifiers = new HashMap<>(builder.identifiers.size() * 4 / 3 + 1);
+        for (Map.Entry<String, IntList> entry: builder.identifiers.entrySet()) {
+            identifiers.put(entry.getKey(), entry.getValue().toArray());
+        }
+        this.identifiers = identifiers;
+
+        this.positions = new int[size];
+        this.typePositions = new int[size];
+        this.typeCounts = new int[size];
+        this.childCounts = new int[size];
+        countSiblings();
+        this.ordinals = hashOrdinals(this.elements);
+    }
+
+    /**
+     * Returns the document of this tree.
+     *
+     * @return the document, never be {@code null}.
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Returns the number of the elements in this tree.
+     *
+     * @return the number of the elements.
+     */
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * Returns the element at the specified number.
+     *
+     * @param ordinal the number of the element.
+     * @return the element found.
+     */
+    public Element getElement(int ordinal) {
+        return elements[ordinal];
+    }
+
+    /**
+     * Returns the number of the given element in document order.
+     * The number is found in the table built with this tree, without calling any method of the DOM.
+     *
+     * @param element the element to find.
+     * @return the number of the element, or {@link #NONE} if the element is not in this tree.
+     */
+    public int ordinalOf(Element element) {
+        final int mask = ordinals.length - 1;
+        for (int i = hashOf(element) & mask; ordinals[i] != 0; i = (i + 1) & mask) {
+            int ordinal = ordinals[i] - 1;
+            if (elements[ordinal] == element) {
+                return ordinal;
+            }
+        }
+        return NONE;
+    }
+
+    public int getParent(int ordinal) {
+        return parents[ordinal];
+    }
+
+    public int getFirstChild(int ordinal) {
+        int child = ordinal + 1;
+        return (child < ends[ordinal]) ? child : NONE;
+    }
+
+    public int getNextSibling(int ordinal) {
+        int parent = parents[ordinal];
+        if (parent == NONE) {
+            return NONE;
+        }
+        int sibling = ends[ordinal];
+        return (sibling < ends[parent]) ? sibling : NONE;
+    }
+
+    public int getPreviousSibling(int ordinal) {
+        return previousSiblings[ordinal];
+    }
+
+    /**
+     * Returns the number next to the last descendant of the specified element.
+     *
+     * @param ordinal the number of the element.
+     * @return the number next to the last descendant.
+     */
+    public int endOf(int ordinal) {
+        return ends[ordinal];
+    }
+
+    public boolean isRoot(int ordinal) {
+        return ordinal == 0;
+    }
+
+    /**
+     * Checks if the specified element is empty as defined by :empty pseudo-class.
+     *
+     * @param ordinal the number of the element.
+     * @return {@code true} if the element is empty.
+     * @see Elements#isEmpty(Element)
+     */
+    public boolean isEmpty(int ordinal) {
+        return emptyElements.get(ordinal);
+    }
+
+    /**
+     * Returns the position of the specified element among its siblings.
+     *
+     * @param ordinal the number of the element.
+     * @return the position starting from 1.
+     */
+    public int positionOf(int ordinal) {
+        return positions[ordinal];
+    }
+
+    /**
+     * Returns the position of the specified element among its siblings counted from the last.
+     *
+     * @param ordinal the number of the element.
+     * @return the position starting from 1.
+     */
+    public int lastPositionOf(int ordinal) {
+        int parent = parents[ordinal];
+        int count = (parent != NONE) ? childCounts[parent] : 1;
+        return count - positions[ordinal] + 1;
+    }
+
+    /**
+     * Returns the position of the specified element among its siblings of the same type.
+     *
+     * @param ordinal the number of the element.
+     * @return the position starting from 1.
+     */
+    public int typePositionOf(int ordinal) {
+        return typePositions[ordinal];
+    }
+
+    /**
+     * Returns the position of the specified element among its siblings of the same type
+     * counted from the last.
+     *
+     * @param ordinal the number of the element.
+     * @return the position starting from 1.
+     */
+    public int lastTypePositionOf(int ordinal) {
+        return typeCounts[ordinal] - typePositions[ordinal] + 1;
+    }
+
+    /**
+     * Returns the number of the type of the specified element.
+     * The elements of the same type, that is the same namespace and the same local name,
+     * have the same number.
+     *
+     * @param ordinal the number of the element.
+     * @return the number of the type.
+     */
+    public int getType(int ordinal) {
+        return types[ordinal];
+    }
+
+    public String getLocalName(int ordinal) {
+        return typeLocalNames[types[ordinal]];
+    }
+
+    public String getNamespaceURI(int ordinal) {
+        return typeNamespaces[types[ordinal]];
+    }
+
+    /**
+     * Tests all types of the elements in this tree.
+     *
+     * @param predicate the predicate which takes the namespace and the local name of each type.
+     * @return the results indexed by the numbers of the types.
+     */
+    public boolean[] matchTypes(BiPredicate<String, String> predicate) {
+        return matchNames(typeNamespaces, typeLocalNames, predicate);
+    }
+
+    /**
+     * Finds the number of the class name.
+     *
+     * @param className the class name to find.
+     * @return the number of the class name, or {@link #NONE} if no element has the class name.
+     */
+    public int findClassName(String className) {
+        Integer found = classNames.get(className);
+        return (found != null) ? found : NONE;
+    }
+
+    /**
+     * Checks if the specified element has the class name.
+     *
+     * @param ordinal the number of the element.
+     * @param className the number of the class name.
+     * @return {@code true} if the element has the class name.
+     */
+    public boolean hasClassName(int ordinal, int className) {
+        final int end = classOffsets[ordinal + 1];
+        for (int i = classOffsets[ordinal]; i < end; i++) {
+            if (classes[i] == className) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tests all qualified names of the attributes in this tree.
+     *
+     * @param predicate the predicate which takes the namespace and the local name of each attribute.
+     * @return the results indexed by the numbers of the names.
+     */
+    public boolean[] matchAttributeNames(BiPredicate<String, String> predicate) {
+        return matchNames(attributeNamespaces, attributeLocalNames, predicate);
+    }
+
+    /**
+     * Checks if the specified element has any of the attributes.
+     *
+     * @param ordinal the number of the element.
+     * @param names the results of {@link #matchAttributeNames(BiPredicate)}.
+     * @return {@code true} if the element has any of the attributes.
+     */
+    public boolean hasAttribute(int ordinal, boolean[] names) {
+        final int end = attributeOffsets[ordinal + 1];
+        for (int i = attributeOffsets[ordinal]; i < end; i++) {
+            if (names[attributeNames[i]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the specified element has any of the attributes whose value satisfies the predicate.
+     *
+     * @param ordinal the number of the element.
+     * @param names the results of {@link #matchAttributeNames(BiPredicate)}.
+     * @param predicate the predicate of the attribute value.
+     * @return {@code true} if the element has any of the attributes with the expected value.
+     */
+    public boolean anyAttributeValueMatches(int ordinal, boolean[] names, Predicate<String> predicate) {
+        final int end = attributeOffsets[ordinal + 1];
+        for (int i = attributeOffsets[ordinal]; i < end; i++) {
+            if (names[attributeNames[i]] && predicate.test(attributeValues[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the specified element has the identifier.
+     *
+     * @param ordinal the number of the element.
+     * @param identifier the identifier to check.
+     * @return {@code true} if any of the ID attributes of the element has the value.
+     */
+    public boolean hasIdentifier(int ordinal, String identifier) {
+        final int end = attributeOffsets[ordinal + 1];
+        for (int i = attributeOffsets[ordinal]; i < end; i++) {
+            if (identifierAttributes.get(i) && identifier.equals(attributeValues[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds all elements which have the specified identifier.
+     *
+     * @param identifier the identifier of the elements.
+     * @return the numbers of the elements found in document order, never be {@code null}.
+     */
+    public int[] findByIdentifier(String identifier) {
+        int[] found = identifiers.get(identifier);
+        return (found != null) ? found : NO_ELEMENTS;
+    }
+
+    private static boolean[] matchNames(String[] namespaces, String[] localNames, BiPredicate<String, String> predicate) {
+        boolean[] results = new boolean[localNames.length];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = predicate.test(namespaces[i], localNames[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Counts the positions of all elements among their siblings
+     * by visiting the children of each element once.
+     */
+    private void countSiblings() {
+        final int size = size();
+        if (size == 0) {
+            return;
+        }
+        int[] counters = new int[typeLocalNames.length];
+        countChildren(0, NONE, counters);
+        for (int parent = 0; parent < size; parent++) {
+            int first = getFirstChild(parent);
+            if (first != NONE) {
+                childCounts[parent] = countChildren(first, parent, counters);
+            }
+        }
+    }
+
+    private int countChildren(int first, int parent, int[] counters) {
+        int count = 0;
+        for (int child = first; child != NONE; child = getNextSibling(child)) {
+            positions[child] = ++count;
+            typePositions[child] = ++counters[types[child]];
+        }
+        for (int child = first; child != NONE; child = getNextSibling(child)) {
+            typeCounts[child] = counters[types[child]];
+        }
+        for (int child = first; child != NONE; child = getNextSibling(child)) {
+            counters[types[child]] = 0;
+        }
+        return count;
+    }
+
+    /**
+     * Builds the table of the numbers of the elements, which is at most half full.
+     *
+     * @param elements all elements in document order.
+     * @return the table of the numbers plus one, in which 0 represents an empty slot.
+     */
+    private static int[] hashOrdinals(Element[] elements) {
+        int capacity = Integer.highestOneBit(Math.max(elements.length, 1) * 2 - 1) << 1;
+        int[] table = new int[capacity];
+        final int mask = capacity - 1;
+        for (int ordinal = 0; ordinal < elements.length; ordinal++) {
+            int i = hashOf(elements[ordinal]) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = ordinal + 1;
+        }
+        return table;
+    }
+
+    private static int hashOf(Element element) {
+        int h = System.identityHashCode(element);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Builder of the tree.
+     */
+    private static class Builder {
+
+        private final Document document;
+        private int size;
+        private Element[] elements = new Element[256];
+        private int[] parents = new int[256];
+        private int[] ends = new int[256];
+        private int[] previousSiblings = new int[256];
+        private int[] types = new int[256];
+        private final BitSet emptyElements = new BitSet();
+        private int[] classOffsets = new int[257];
+        private final IntList classes = new IntList();
+        private int[] attributeOffsets = new int[257];
+        private final IntList attributeNames = new IntList();
+        private String[] attributeValues = new String[256];
+        private final BitSet identifierAttributes = new BitSet();
+
+        private final NameTable typeTable = new NameTable();
+        private final NameTable attributeTable = new NameTable();
+        private final Map<String, Integer> classNames = new HashMap<>();
+        private final Map<String, IntList> identifiers = new HashMap<>();
+
+        Builder(Document document) {
+            this.document = document;
+        }
+
+        CompactTree build() {
+            Element root = document.getDocumentElement();
+            if (root != null) {
+                addTree(root);
+            }
+            return new CompactTree(this);
+        }
+
+        /**
+         * Adds all elements in the tree in document order without recursion.
+         *
+         * @param root the document element.
+         */
+        private void addTree(Element root) {
+            Node node = root;
+            int parent = NONE;
+            int previous = NONE;
+            while (node != null) {
+                int ordinal = add((Element)node, parent, previous);
+                Node next = firstChildElement(node);
+                if (next != null) {
+                    node = next;
+                    parent = ordinal;
+                    previous = NONE;
+                    continue;
+                }
+                ends[ordinal] = size;
+                previous = ordinal;
+                // climbs up until the next sibling is found.
+                while (parent != NONE) {
+                    next = nextSiblingElement(node);
+                    if (next != null) {
+                        break;
+                    }
+                    ends[parent] = size;
+                    previous = parent;
+                    node = node.getParentNode();
+                    parent = parents[parent];
+                }
+                node = (parent != NONE) ? next : null;
+            }
+        }
+
+        private int add(Element element, int parent, int previous) {
+            if (size == elements.length) {
+                int capacity = size * 2;
+                elements = Arrays.copyOf(elements, capacity);
+                parents = Arrays.copyOf(parents, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                previousSiblings = Arrays.copyOf(previousSiblings, capacity);
+                types = Arrays.copyOf(types, capacity);
+                classOffsets = Arrays.copyOf(classOffsets, capacity + 1);
+                attributeOffsets = Arrays.copyOf(attributeOffsets, capacity + 1);
+            }
+            final int ordinal = size++;
+            elements[ordinal] = element;
+            parents[ordinal] = parent;
+            previousSiblings[ordinal] = previous;
+            types[ordinal] = typeTable.intern(element.getNamespaceURI(), element.getLocalName());
+            if (Elements.isEmpty(element)) {
+                emptyElements.set(ordinal);
+            }
+            addClassNames(element.getAttribute("class"));
+            classOffsets[size] = classes.size;
+            addAttributes(element, ordinal);
+            attributeOffsets[size] = attributeNames.size;
+            return ordinal;
+        }
+
+        private void addClassNames(String classList) {
+            int start = SpaceSeparatedList.nextToken(classList, 0);
+            while (start >= 0) {
+                int end = SpaceSeparatedList.tokenEnd(classList, start);
+                String className = classList.substring(start, end);
+                Integer found = classNames.get(className);
+                if (found == null) {
+                    found = classNames.size();
+                    classNames.put(className, found);
+                }
+                classes.add(found);
+                start = SpaceSeparatedList.nextToken(classList, end);
+            }
+        }
+
+        private void addAttributes(Element element, int ordinal) {
+            NamedNodeMap map = element.getAttributes();
+            for (int i = 0; i < map.getLength(); i++) {
+                Attr attribute = (Attr)map.item(i);
+                final int index = attributeNames.size;
+                if (index == attributeValues.length) {
+                    attributeValues = Arrays.copyOf(attributeValues, index * 2);
+                }
+                attributeNames.add(attributeTable.intern(attribute.getNamespaceURI(), Elements.localNameOf(attribute)));
+                attributeValues[index] = attribute.getValue();
+                if (attribute.isId()) {
+                    identifierAttributes.set(index);
+                    IntList list = identifiers.get(attribute.getValue());
+                    if (list == null) {
+                        list = new IntList();
+                        identifiers.put(attribute.getValue(), list);
+                    }
+                    if (list.size == 0 || list.values[list.size - 1] != ordinal) {
+                        list.add(ordinal);
+                    }
+                }
+            }
+        }
+
+        private static Node firstChildElement(Node node) {
+            Node child = node.getFirstChild();
+            while (child != null && child.getNodeType() != Node.ELEMENT_NODE) {
+                child = child.getNextSibling();
+            }
+            return child;
+        }
+
+        private static Node nextSiblingElement(Node node) {
+            Node sibling = node.getNextSibling();
+            while (sibling != null && sibling.getNodeType() != Node.ELEMENT_NODE) {
+                sibling = sibling.getNextSibling();
+            }
+            return sibling;
+        }
+    }
+
+    /**
+     * Table of the qualified names, each of which is numbered in order of appearance.
+     */
+    private static class NameTable {
+
+        private final Map<QualifiedName, Integer> numbers = new HashMap<>();
+        private String[] namespaces = new String[16];
+        private String[] localNames = new String[16];
+
+        int intern(String namespace, String localName) {
+            QualifiedName name = new QualifiedName(namespace, localName);
+            Integer found = numbers.get(name);
+            if (found != null) {
+                return found;
+            }
+            final int number = numbers.size();
+            if (number == localNames.length) {
+                namespaces = Arrays.copyOf(namespaces, number * 2);
+                localNames = Arrays.copyOf(localNames, number * 2);
+            }
+            namespaces[number] = namespace;
+            localNames[number] = localName;
+            numbers.put(name, number);
+            return number;
+        }
+
+        String[] namespaces() {
+            return Arrays.copyOf(namespaces, numbers.size());
+        }
+
+        String[] localNames() {
+            return Arrays.copyOf(localNames, numbers.size());
+        }
+    }
+
+    private static class QualifiedName {
+
+        private final String namespace;
+        private final String localName;
+
+        QualifiedName(String namespace, String localName) {
+            this.namespace = namespace;
+            this.localName = localName;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof QualifiedName)) {
+                return false;
+            }
+            QualifiedName other = (QualifiedName)obj;
+            return Objects.equals(namespace, other.namespace) && Objects.equals(localName, other.localName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(namespace) * 31 + Objects.hashCode(localName);
+        }
+    }
+
+    /**
+     * Growable list of integers.
+     */
+    private static class IntList {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.dom;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import io.github.i49.cascade.api.DocumentIndex;
+
+/**
+ * Default implementation of {@link DocumentIndex}.
+ *
+ * <p>All elements in the document are numbered in document order.
+ * Each key of the index, that is a local name, a class name or an identifier,
+ * is mapped to the ordered array of the numbers of the elements having the key.
+ * As the descendants of an element are numbered consecutively,
+ * the elements in any subtree can be found by binary search.</p>
+ */
+public class DefaultDocumentIndex implements DocumentIndex {
+
+    private static final int[] NO_ELEMENTS = new int[0];
+
+    private final Document document;
+    // all elements in document order.
+    private final Element[] elements;
+    // the number next to the last descendant of each element.
+    private final int[] ends;
+    private final Map<Element, Integer> ordinals;
+    private final Map<String, int[]> localNames;
+    private final Map<String, int[]> classNames;
+    private final Map<String, int[]> identifiers;
+
+    /**
+     * Builds the index of the given document.
+     *
+     * @param document the document to index.
+     * @return newly created index.
+     */
+    public static DefaultDocumentIndex build(Document document) {
+        return new Builder(document).build();
+    }
+
+    private DefaultDocumentIndex(Builder builder) {
+        this.document = builder.document;
+        this.elements = Arrays.copyOf(builder.elements, builder.size);
+        this.ends = Arrays.copyOf(builder.ends, builder.size);
+        this.ordinals = builder.ordinals;
+        this.localNames = freeze(builder.localNames);
+        this.classNames = freeze(builder.classNames);
+        this.identifiers = freeze(builder.identifiers);
+    }
+
+    @Override
+    public Document getDocument() {
+        return document;
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * Returns the number of the given element in document order.
+     *
+     * @param element the element to find.
+     * @return the number of the element, or -1 if the element is not indexed.
+     */
+    public int ordinalOf(Element element) {
+        Integer ordinal = ordinals.get(element);
+        return (ordinal != null) ? ordinal : -1;
+    }
+
+    /**
+     * Returns the element at the specified number.
+     *
+     * @param ordinal the number of the element.
+     * @return the element found.
+     */
+    public Element elementAt(int ordinal) {
+        return elements[ordinal];
+    }
+
+    /**
+     * Returns the number next to the last descendant of the specified element.
+     *
+     * @param ordinal the number of the element.
+     * @return the number next to the last descendant.
+     */
+    public int endOf(int ordinal) {
+        return ends[ordinal];
+    }
+
+    /**
+     * Finds all elements which have the specified local name.
+     *
+     * @param localName the local name of the elements.
+     * @return the numbers of the elements found in document order, never be {@code null}.
+     */
+    public int[] findByLocalName(String localName) {
+        return find(localNames, localName);
+    }
+
+    /**
+     * Finds all elements which have the specified class name.
+     *
+     * @param className the class name of the elements.
+     * @return the numbers of the elements found in document order, never be {@code null}.
+     */
+    public int[] findByClassName(String className) {
+        return find(classNames, className);
+    }
+
+    /**
+     * Finds all elements which have the specified identifier.
+     *
+     * @param identifier the identifier of the elements.
+     * @return the numbers of the elements found in document order, never be {@code null}.
+     */
+    public int[] findByIdentifier(String identifier) {
+        return find(identifiers, identifier);
+    }
+
+    private static int[] find(Map<String, int[]> map, String key) {
+        int[] found = map.get(key);
+        return (found != null) ? found : NO_ELEMENTS;
+    }
+
+    private static Map<String, int[]> freeze(Map<String, IntList> map) {
+        Map<String, int[]> frozen = new HashMap<>(map.size() * 4 / 3 + 1);
+        for (Map.Entry<String, IntList> entry: map.entrySet()) {
+            frozen.put(entry.getKey(), entry.getValue().toArray());
+        }
+        return frozen;
+    }
+
+    /**
+     * Builder of the index.
+     */
+    private static class Builder {
+
+        private final Document document;
+        private Element[] elements = new Element[256];
+        private int[] ends = new int[256];
+        private int size;
+        private final Map<Element, Integer> ordinals = new IdentityHashMap<>();
+        private final Map<String, IntList> localNames = new HashMap<>();
+        private final Map<String, IntList> classNames = new HashMap<>();
+        private final Map<String, IntList> identifiers = new HashMap<>();
+
+        Builder(Document document) {
+            this.document = document;
+        }
+
+        DefaultDocumentIndex build() {
+            Element root = document.getDocumentElement();
+            if (root != null) {
+                addSubtree(root);
+            }
+            return new DefaultDocumentIndex(this);
+        }
+
+        /**
+         * Adds all elements in the subtree in document order without recursion.
+         *
+         * @param root the root of the subtree.
+         */
+        private void addSubtree(Element root) {
+            Node node = root;
+            while (node != null) {
+                int ordinal = add((Element)node);
+                Node next = firstChildElement(node);
+                if (next != null) {
+                    node = next;
+                    continue;
+                }
+                ends[ordinal] = size;
+                // climbs up until the next sibling is found.
+                while (node != root) {
+                    next = nextSiblingElement(node);
+                    if (next != null) {
+                        break;
+                    }
+                    node = node.getParentNode();
+                    ends[ordinals.get(node)] = size;
+                }
+                node = (node != root) ? next : null;
+            }
+        }
+
+        private int add(Element element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            final int ordinal = size++;
+            elements[ordinal] = element;
+            ordinals.put(element, ordinal);
+
+            String localName = element.getLocalName();
+            if (localName != null) {
+                append(localNames, localName, ordinal);
+            }
+            NamedNodeMap attributes = element.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Attr attribute = (Attr)attributes.item(i);
+                if (attribute.isId()) {
+                    append(identifiers, attribute.getValue(), ordinal);
+                }
+            }
+            String classList = element.getAttribute("class");
+            int start = SpaceSeparatedList.nextToken(classList, 0);
+            while (start >= 0) {
+                int end = SpaceSeparatedList.tokenEnd(classList, start);
+                append(classNames, classList.substring(start, end), ordinal);
+                start = SpaceSeparatedList.nextToken(classList, end);
+            }
+            return ordinal;
+        }
+
+        private static void append(Map<String, IntList> map, String key, int ordinal) {
+            IntList list = map.get(key);
+            if (list == null) {
+                list = new IntList();
+                map.put(key, list);
+            }
+            list.add(ordinal);
+        }
+
+        private static Node firstChildElement(Node node) {
+            Node child = node.getFirstChild();
+            while (child != null && child.getNodeType() != Node.ELEMENT_NODE) {
+                child = child.getNextSibling();
+            }
+            return child;
+        }
+
+        private static Node nextSiblingElement(Node node) {
+            Node sibling = node.getNextSibling();
+            while (sibling != null && sibling.getNodeType() != Node.ELEMENT_NODE) {
+                sibling = sibling.getNextSibling();
+            }
+            return sibling;
+        }
+    }
+
+    /**
+     * Growable list of integers.
+     */
+    private static class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            // ignores duplicates such as the same class names in an element.
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
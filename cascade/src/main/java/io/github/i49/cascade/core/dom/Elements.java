@@ -16,6 +16,7 @@
 
 package io.github.i49.cascade.core.dom;
 
+import org.w3c.dom.Attr;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
@@ -46,6 +47,49 @@ public final class Elements {
         return false;
     }
 
+    /**
+     * Checks if the given element is a proper ancestor of the specified node.
+     * Unlike {@link #hasDescendant(Element, Element)}, the node may be detached from the document.
+     *
+     * @param ancestor the element to check.
+     * @param node the node to be a descendant of {@code ancestor}.
+     * @return {@code true} if given {@code ancestor} is an ancestor of the {@code node}.
+     */
+    public static boolean isAncestor(Element ancestor, Node node) {
+        Node current = node.getParentNode();
+        while (current != null) {
+            if (current == ancestor) {
+                return true;
+            }
+            current = current.getParentNode();
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the given element has neither child elements nor any text content,
+     * as defined by :empty pseudo-class.
+     *
+     * @param element the element to check.
+     * @return {@code true} if the element is empty, {@code false} otherwise.
+     */
+    public static boolean isEmpty(Element element) {
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            short type = child.getNodeType();
+            if (type == Node.ELEMENT_NODE) {
+                return false;
+            } else if (type == Node.TEXT_NODE ||
+                       type == Node.CDATA_SECTION_NODE ||
+                       type == Node.ENTITY_REFERENCE_NODE) {
+                String content = child.getTextContent();
+                if (content != null && !content.isEmpty()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public static boolean hasParent(Element element) {
         return element.getParentNode() != null;
     }
@@ -168,6 +212,22 @@ public final class Elements {
         return a.getLocalName().equals(b.getLocalName());
     }
 
+    /**
+     * Returns the local name of the given attribute.
+     * The attribute created by DOM Level 1 methods has no local name,
+     * and its qualified name is used instead as {@link Element#hasAttributeNS(String, String)} does.
+     *
+     * @param attribute the attribute to check.
+     * @return the local name of the attribute.
+     */
+    public static String localNameOf(Attr attribute) {
+        String localName = attribute.getLocalName();
+        if (localName == null && attribute.getNamespaceURI() == null) {
+            return attribute.getName();
+        }
+        return localName;
+    }
+
     private Elements() {
     }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.dom;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Cache of the positions of the elements among their siblings.
+ *
+ * <p>When the position of an element is requested for the first time,
+ * the positions of all children of its parent are computed in a single scan and cached.
+ * Therefore testing all children of a parent costs linear time in total,
+ * while counting siblings for each child by {@link Elements} costs quadratic time.</p>
+ *
+ * <p>The cache must be discarded once the document is modified.
+ * This class is not thread-safe.</p>
+ */
+public class NthIndexCache {
+
+    // the numbers of siblings before and after each element.
+    private final Map<Element, int[]> siblingCounts = new IdentityHashMap<>();
+    // the numbers of siblings of the same type before and after each element.
+    private final Map<Element, int[]> sameTypeCounts = new IdentityHashMap<>();
+
+    /**
+     * Returns the same value as {@link Elements#countSiblingsBefore(Element)}.
+     *
+     * @param element the element of current interest, which must have a parent.
+     * @return the number of siblings before the element.
+     */
+    public int countSiblingsBefore(Element element) {
+        return getSiblingCounts(element)[0];
+    }
+
+    /**
+     * Returns the same value as {@link Elements#countSiblingsAfter(Element)}.
+     *
+     * @param element the element of current interest, which must have a parent.
+     * @return the number of siblings after the element.
+     */
+    public int countSiblingsAfter(Element element) {
+        return getSiblingCounts(element)[1];
+    }
+
+    /**
+     * Returns the same value as {@link Elements#countSameTypeBefore(Element)}.
+     *
+     * @param element the element of current interest, which must have a parent.
+     * @return the number of siblings of the same type before the element.
+     */
+    public int countSameTypeBefore(Element element) {
+        return getSameTypeCounts(element)[0];
+    }
+
+    /**
+     * Returns the same value as {@link Elements#countSameTypeAfter(Element)}.
+     *
+     * @param element the element of current interest, which must have a parent.
+     * @return the number of siblings of the same type after the element.
+     */
+    public int countSameTypeAfter(Element element) {
+        return getSameTypeCounts(element)[1];
+    }
+
+    private int[] getSiblingCounts(Element element) {
+        int[] counts = siblingCounts.get(element);
+        if (counts == null) {
+            indexChildren(element.getParentNode());
+            counts = siblingCounts.get(element);
+        }
+        return counts;
+    }
+
+    private int[] getSameTypeCounts(Element element) {
+        int[] counts = sameTypeCounts.get(element);
+        if (counts == null) {
+            indexChildrenByType(element.getParentNode());
+            counts = sameTypeCounts.get(element);
+        }
+        return counts;
+    }
+
+    private void indexChildren(Node parent) {
+        int total = 0;
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                total++;
+            }
+        }
+        int index = 0;
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                siblingCounts.put((Element)child, new int[] { index, total - index - 1 });
+                index++;
+            }
+        }
+    }
+
+    private void indexChildrenByType(Node parent) {
+        // the groups of the children sharing the local name, each of which is chained by namespace.
+        Map<String, TypeGroup> groups = new HashMap<>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                Element element = (Element)child;
+                TypeGroup group = groups.get(element.getLocalName());
+                while (group != null && !Elements.isSameType(group.first, element)) {
+                    group = group.next;
+                }
+                if (group == null) {
+                    group = new TypeGroup(element, groups.get(element.getLocalName()));
+                    groups.put(element.getLocalName(), group);
+                }
+                int[] counts = new int[] { group.size++, 0 };
+                sameTypeCounts.put(element, counts);
+            }
+        }
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                Element element = (Element)child;
+                TypeGroup group = groups.get(element.getLocalName());
+                while (!Elements.isSameType(group.first, element)) {
+                    group = group.next;
+                }
+                int[] counts = sameTypeCounts.get(element);
+                counts[1] = group.size - counts[0] - 1;
+            }
+        }
+    }
+
+    /**
+     * Siblings of the same type.
+     */
+    private static class TypeGroup {
+
+        final Element first;
+        final TypeGroup next;
+        int size;
+
+        TypeGroup(Element first, TypeGroup next) {
+            this.first = first;
+            this.next = next;
+        }
+    }
+}
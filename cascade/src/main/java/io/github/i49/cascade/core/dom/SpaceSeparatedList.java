@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.dom;
+
+/**
+ * Utility methods for the lists of tokens separated by whitespace,
+ * such as the values of "class" attributes.
+ *
+ * <p>The lists are scanned in place without splitting them,
+ * therefore none of the methods allocate any objects.
+ * The whitespace is the one defined by CSS,
+ * that is space, tab, line feed, form feed and carriage return.</p>
+ */
+public final class SpaceSeparatedList {
+
+    /**
+     * Checks if the given list contains the specified token.
+     *
+     * @param list the list of tokens separated by whitespace.
+     * @param token the token to find, which should not contain any whitespace.
+     * @return {@code true} if the list contains the token, {@code false} otherwise.
+     */
+    public static boolean contains(String list, String token) {
+        final int tokenLength = token.length();
+        if (tokenLength == 0 || list.length() < tokenLength) {
+            return false;
+        }
+        int start = nextToken(list, 0);
+        while (start >= 0) {
+            int end = tokenEnd(list, start);
+            if (end - start == tokenLength && list.regionMatches(start, token, 0, tokenLength)) {
+                return true;
+            }
+            start = nextToken(list, end);
+        }
+        return false;
+    }
+
+    /**
+     * Finds the start of the next token in the list.
+     *
+     * @param list the list of tokens separated by whitespace.
+     * @param from the index to start the search from.
+     * @return the index of the first character of the token found, or -1 if no token remains.
+     */
+    public static int nextToken(String list, int from) {
+        final int length = list.length();
+        for (int i = from; i < length; i++) {
+            if (!isWhitespace(list.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the end of the token starting at the specified index.
+     *
+     * @param list the list of tokens separated by whitespace.
+     * @param start the index of the first character of the token.
+     * @return the index just after the last character of the token.
+     */
+    public static int tokenEnd(String list, int start) {
+        final int length = list.length();
+        int i = start;
+        while (i < length && !isWhitespace(list.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Checks if the given character is a whitespace separating the tokens.
+     *
+     * @param c the character to check.
+     * @return {@code true} if the character is a whitespace, {@code false} otherwise.
+     */
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r';
+    }
+
+    private SpaceSeparatedList() {
+    }
+}
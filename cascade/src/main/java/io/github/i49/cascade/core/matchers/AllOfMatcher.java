@@ -16,13 +16,18 @@
 
 package io.github.i49.cascade.core.matchers;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.stream.StreamedElement;
+
 /**
  * Matcher which tests all of entry matchers
  */
@@ -49,6 +54,39 @@ public class AllOfMatcher implements Matcher, Iterable<Matcher> {
         return true;
     }
 
+    @Override
+    public boolean matches(Element element, MatchingContext context) {
+        for (Matcher m: this) {
+            if (!m.matches(element, context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean matches(StreamedElement element) {
+        for (Matcher m: this) {
+            if (!m.matches(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        final IntPredicate[] predicates = matchers.stream().map(m->m.bind(tree)).toArray(IntPredicate[]::new);
+        return ordinal->{
+            for (IntPredicate predicate: predicates) {
+                if (!predicate.test(ordinal)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
     @Override
     public boolean matchesAlways() {
         for (Matcher m: this) {
@@ -78,6 +116,22 @@ public class AllOfMatcher implements Matcher, Iterable<Matcher> {
         return b.toString();
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof AllOfMatcher)) {
+            return false;
+        }
+        return matchers.equals(((AllOfMatcher)obj).matchers);
+    }
+
+    @Override
+    public int hashCode() {
+        return matchers.hashCode();
+    }
+
     @Override
     public Matcher optimum() {
         if (matchesAlways()) {
@@ -86,10 +140,15 @@ public class AllOfMatcher implements Matcher, Iterable<Matcher> {
             return NeverMatcher.get();
         }
 
-        List<Matcher> matchers = this.matchers.stream()
-                .filter(m->!m.matchesAlways())
-                .collect(Collectors.toList());
-        if (this.matchers.size() == matchers.size()) {
+        // tests the cheaper matchers first, keeping the source order for the matchers of the same cost.
+        List<Matcher> matchers = new ArrayList<>(this.matchers.size());
+        for (Matcher m: this.matchers) {
+            if (!m.matchesAlways()) {
+                matchers.add(m);
+            }
+        }
+        matchers.sort(Comparator.comparingInt(Matcher::estimateCost));
+        if (this.matchers.equals(matchers)) {
             return this;
         } else if (matchers.isEmpty()) {
             return AlwaysMatcher.get();
@@ -16,8 +16,13 @@
 
 package io.github.i49.cascade.core.matchers;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.stream.StreamedElement;
+
 /**
  * The matcher which matches any element
  * used for matcher optimization.
@@ -43,6 +48,16 @@ public class AlwaysMatcher implements Matcher {
         return true;
     }
 
+    @Override
+    public boolean matches(StreamedElement element) {
+        return true;
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return ordinal->true;
+    }
+
     @Override
     public boolean matchesAlways() {
         return true;
@@ -16,8 +16,13 @@
 
 package io.github.i49.cascade.core.matchers;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.stream.StreamedElement;
+
 /**
  * The base type for performing various kinds of matching against given element.
  */
@@ -38,6 +43,45 @@ public interface Matcher {
      */
     boolean matches(Element element);
 
+    /**
+     * Performs matching for given element in the given context.
+     * The matchers which take advantage of the state shared during the search override this method.
+     *
+     * @param element the element to check, cannot be {@code null}.
+     * @param context the context of the search, cannot be {@code null}.
+     * @return {@code true} if given element satisfied the condition, {@code false} otherwise.
+     */
+    default boolean matches(Element element, MatchingContext context) {
+        return matches(element);
+    }
+
+    /**
+     * Binds this matcher to the given compact tree.
+     * The names in this matcher are resolved into the numbers in the tree beforehand,
+     * and the returned predicate tests the elements by their numbers.
+     * The matchers which do not override this method test the DOM elements in the tree,
+     * and therefore the predicate is not safe for concurrent use.
+     *
+     * @param tree the tree of the elements to test, cannot be {@code null}.
+     * @return the predicate which takes the number of an element in the tree.
+     */
+    default IntPredicate bind(CompactTree tree) {
+        return ordinal->matches(tree.getElement(ordinal));
+    }
+
+    /**
+     * Performs matching for given element read from a stream.
+     * Only the elements preceding the given element in document order have been read,
+     * therefore the matchers which depend on the following elements do not override this method.
+     *
+     * @param element the element to check, cannot be {@code null}.
+     * @return {@code true} if given element satisfied the condition, {@code false} otherwise.
+     * @throws UnsupportedOperationException if this matcher cannot test the elements read from a stream.
+     */
+    default boolean matches(StreamedElement element) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Checks if this matcher matches any element.
      *
@@ -56,6 +100,18 @@ public interface Matcher {
         return false;
     }
 
+    /**
+     * Returns the estimated cost of this matcher.
+     * The matchers in a compound selector are tested in ascending order of their costs.
+     * The cost includes how rarely the matcher rejects elements,
+     * not only how long the test takes.
+     *
+     * @return the estimated cost, the larger value is the more expensive.
+     */
+    default int estimateCost() {
+        return getType().getCost();
+    }
+
     /**
      * Returns the optimum matcher of this one.
      *
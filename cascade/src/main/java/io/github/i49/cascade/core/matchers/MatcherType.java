@@ -21,23 +21,39 @@ package io.github.i49.cascade.core.matchers;
  */
 public enum MatcherType {
     /** Matcher for type selector. */
-    TYPE,
+    TYPE(1),
     /** Matcher for universal selector. */
-    UNIVERSAL,
+    UNIVERSAL(0),
     /** Matcher for attribute selector. */
-    ATTRIBUTE,
+    ATTRIBUTE(4),
     /** Matcher for class selector. */
-    CLASS,
+    CLASS(3),
     /** Matcher for ID selector. */
-    IDENTIFIER,
+    IDENTIFIER(2),
     /** Matcher for pseudo-class. */
-    PSEUDO_CLASS,
+    PSEUDO_CLASS(6),
     /** Matcher which matches any element. */
-    ALWAYS,
+    ALWAYS(0),
     /** Matcher which never match any element. */
-    NEVER,
+    NEVER(0),
     ;
 
+    private final int cost;
+
+    private MatcherType(int cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * Returns the estimated cost of the matchers of this type.
+     *
+     * @return the estimated cost, the larger value is the more expensive.
+     * @see Matcher#estimateCost()
+     */
+    public int getCost() {
+        return cost;
+    }
+
     /**
      * Checks if this type represents a element type.
      *
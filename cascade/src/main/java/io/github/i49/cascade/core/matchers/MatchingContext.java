@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.matchers;
+
+import io.github.i49.cascade.core.dom.NthIndexCache;
+
+/**
+ * The state shared by the matchers while a document tree is searched.
+ *
+ * <p>The state is valid only while the document is not modified,
+ * therefore a new context must be created for each search.
+ * This class is not thread-safe.</p>
+ */
+public class MatchingContext {
+
+    private NthIndexCache nthIndexCache;
+
+    /**
+     * Returns the cache of the positions of the elements among their siblings.
+     *
+     * @return the cache, never be {@code null}.
+     */
+    public NthIndexCache getNthIndexCache() {
+        if (nthIndexCache == null) {
+            nthIndexCache = new NthIndexCache();
+        }
+        return nthIndexCache;
+    }
+}
@@ -16,8 +16,13 @@
 
 package io.github.i49.cascade.core.matchers;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.stream.StreamedElement;
+
 /**
  * The matcher which never match any element
  * used for matcher optimization.
@@ -43,6 +48,16 @@ public class NeverMatcher implements Matcher {
         return false;
     }
 
+    @Override
+    public boolean matches(StreamedElement element) {
+        return false;
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return ordinal->false;
+    }
+
     @Override
     public boolean matchesNever() {
         return true;
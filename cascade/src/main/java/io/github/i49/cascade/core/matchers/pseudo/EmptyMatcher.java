@@ -16,8 +16,12 @@
 
 package io.github.i49.cascade.core.matchers.pseudo;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
+
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.dom.Elements;
 
 /**
  * Matcher for :empty pseudo-class selector.
@@ -31,20 +35,12 @@ public class EmptyMatcher extends PseudoClassMatcher {
 
     @Override
     public boolean matches(Element element) {
-        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
-            short type = child.getNodeType();
-            if (type == Node.ELEMENT_NODE) {
-                return false;
-            } else if (type == Node.TEXT_NODE ||
-                       type == Node.CDATA_SECTION_NODE ||
-                       type == Node.ENTITY_REFERENCE_NODE) {
-                String content = child.getTextContent();
-                if (content != null && !content.isEmpty()) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return Elements.isEmpty(element);
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return tree::isEmpty;
     }
 
     @Override
@@ -19,8 +19,13 @@ package io.github.i49.cascade.core.matchers.pseudo;
 import static io.github.i49.cascade.core.dom.Elements.hasParent;
 import static io.github.i49.cascade.core.dom.Elements.hasSameTypeBefore;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.stream.StreamedElement;
+
 /**
  * Matcher for :first-of-type pseudo-class selector.
  */
@@ -36,6 +41,16 @@ public class FirstOfTypeMatcher extends PseudoClassMatcher {
         return hasParent(element) && !hasSameTypeBefore(element);
     }
 
+    @Override
+    public boolean matches(StreamedElement element) {
+        return element.getTypePosition() == 1;
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return ordinal->tree.typePositionOf(ordinal) == 1;
+    }
+
     @Override
     public PseudoClass getPseudoClass() {
         return PseudoClass.FIRST_OF_TYPE;
@@ -19,8 +19,12 @@ package io.github.i49.cascade.core.matchers.pseudo;
 import static io.github.i49.cascade.core.dom.Elements.hasParent;
 import static io.github.i49.cascade.core.dom.Elements.hasSameTypeAfter;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+
 /**
  * Matcher for :first-of-type pseudo-class selector.
  */
@@ -36,6 +40,11 @@ public class LastOfTypeMatcher extends PseudoClassMatcher {
         return hasParent(element) && !hasSameTypeAfter(element);
     }
 
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return ordinal->tree.lastTypePositionOf(ordinal) == 1;
+    }
+
     @Override
     public PseudoClass getPseudoClass() {
         return PseudoClass.LAST_OF_TYPE;
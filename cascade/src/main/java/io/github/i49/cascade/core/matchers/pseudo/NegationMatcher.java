@@ -16,9 +16,14 @@
 
 package io.github.i49.cascade.core.matchers.pseudo;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
 import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.MatchingContext;
+import io.github.i49.cascade.core.stream.StreamedElement;
 
 /**
  * Matcher for :not pseudo-class selector.
@@ -31,11 +36,46 @@ public class NegationMatcher extends FunctionalPseudoClassMatcher {
         this.enclosed = enclosed;
     }
 
+    /**
+     * Returns the matcher enclosed by this negation.
+     *
+     * @return the enclosed matcher.
+     */
+    public Matcher getEnclosed() {
+        return enclosed;
+    }
+
     @Override
     public boolean matches(Element element) {
         return !enclosed.matches(element);
     }
 
+    @Override
+    public boolean matches(Element element, MatchingContext context) {
+        return !enclosed.matches(element, context);
+    }
+
+    @Override
+    public boolean matches(StreamedElement element) {
+        return !enclosed.matches(element);
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        final IntPredicate predicate = enclosed.bind(tree);
+        return ordinal->!predicate.test(ordinal);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The negation is tested after all other matchers,
+     * because it rejects only the elements matched by the enclosed matcher.
+     */
+    @Override
+    public int estimateCost() {
+        return super.estimateCost() + 2;
+    }
+
     @Override
     protected String getExpression() {
         return enclosed.toString();
@@ -45,4 +85,20 @@ public class NegationMatcher extends FunctionalPseudoClassMatcher {
     public PseudoClass getPseudoClass() {
         return PseudoClass.NOT;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof NegationMatcher)) {
+            return false;
+        }
+        return enclosed.equals(((NegationMatcher)obj).enclosed);
+    }
+
+    @Override
+    public int hashCode() {
+        return enclosed.hashCode() * 31 + PseudoClass.NOT.ordinal();
+    }
 }
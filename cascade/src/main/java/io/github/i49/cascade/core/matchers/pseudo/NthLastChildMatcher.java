@@ -20,6 +20,9 @@ import static io.github.i49.cascade.core.dom.Elements.countSiblingsAfter;
 
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.dom.NthIndexCache;
+
 /**
  * Matcher for :nth-child pseudo-class selector.
  */
@@ -53,6 +56,16 @@ public class NthLastChildMatcher extends OrdinalPositionMatcher {
         return countSiblingsAfter(element);
     }
 
+    @Override
+    protected int countSiblingsAround(Element element, NthIndexCache cache) {
+        return cache.countSiblingsAfter(element);
+    }
+
+    @Override
+    protected int positionIn(CompactTree tree, int ordinal) {
+        return tree.lastPositionOf(ordinal);
+    }
+
     @Override
     public PseudoClass getPseudoClass() {
         return PseudoClass.NTH_LAST_CHILD;
@@ -20,6 +20,10 @@ import static io.github.i49.cascade.core.dom.Elements.countSameTypeBefore;
 
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.dom.NthIndexCache;
+import io.github.i49.cascade.core.stream.StreamedElement;
+
 /**
  * Matcher for :nth-child pseudo-class selector.
  */
@@ -53,6 +57,21 @@ public class NthOfTypeMatcher extends OrdinalPositionMatcher {
         return countSameTypeBefore(element);
     }
 
+    @Override
+    protected int countSiblingsAround(Element element, NthIndexCache cache) {
+        return cache.countSameTypeBefore(element);
+    }
+
+    @Override
+    public boolean matches(StreamedElement element) {
+        return matchesPosition(element.getTypePosition());
+    }
+
+    @Override
+    protected int positionIn(CompactTree tree, int ordinal) {
+        return tree.typePositionOf(ordinal);
+    }
+
     @Override
     public PseudoClass getPseudoClass() {
         return PseudoClass.NTH_OF_TYPE;
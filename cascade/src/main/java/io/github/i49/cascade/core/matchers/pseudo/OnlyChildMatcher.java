@@ -20,8 +20,12 @@ import static io.github.i49.cascade.core.dom.Elements.hasParent;
 import static io.github.i49.cascade.core.dom.Elements.hasSiblingAfter;
 import static io.github.i49.cascade.core.dom.Elements.hasSiblingBefore;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+
 /**
  * Matcher for :empty pseudo-class selector.
  */
@@ -39,6 +43,11 @@ public class OnlyChildMatcher extends PseudoClassMatcher {
                !hasSiblingAfter(element);
     }
 
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return ordinal->tree.positionOf(ordinal) == 1 && tree.lastPositionOf(ordinal) == 1;
+    }
+
     @Override
     public PseudoClass getPseudoClass() {
         return PseudoClass.ONLY_CHILD;
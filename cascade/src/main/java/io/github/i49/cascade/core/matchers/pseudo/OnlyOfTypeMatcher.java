@@ -20,8 +20,12 @@ import static io.github.i49.cascade.core.dom.Elements.hasParent;
 import static io.github.i49.cascade.core.dom.Elements.hasSameTypeAfter;
 import static io.github.i49.cascade.core.dom.Elements.hasSameTypeBefore;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+
 /**
  * Matcher for :empty pseudo-class selector.
  */
@@ -39,6 +43,11 @@ public class OnlyOfTypeMatcher extends PseudoClassMatcher {
                !hasSameTypeAfter(element);
     }
 
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return ordinal->tree.typePositionOf(ordinal) == 1 && tree.lastTypePositionOf(ordinal) == 1;
+    }
+
     @Override
     public PseudoClass getPseudoClass() {
         return PseudoClass.ONLY_OF_TYPE;
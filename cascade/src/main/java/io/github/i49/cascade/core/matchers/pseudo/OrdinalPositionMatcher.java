@@ -18,16 +18,26 @@ package io.github.i49.cascade.core.matchers.pseudo;
 
 import static io.github.i49.cascade.core.dom.Elements.hasParent;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.dom.NthIndexCache;
+import io.github.i49.cascade.core.matchers.MatchingContext;
+
 public abstract class OrdinalPositionMatcher extends FunctionalPseudoClassMatcher {
 
     private final String expression;
+    private final Parity parity;
+    private final int offset;
     protected final int a;
     protected final int b;
 
     protected OrdinalPositionMatcher(int a, int b) {
         this.expression = buildExpression(a, b);
+        this.parity = null;
+        this.offset = b;
         this.a = a;
         this.b = (b >= 0) ? b : (a - (-b % a));
     }
@@ -35,6 +45,8 @@ public abstract class OrdinalPositionMatcher extends FunctionalPseudoClassMatche
     protected OrdinalPositionMatcher(Parity parity) {
         this.a = 2;
         this.b = (parity == Parity.EVEN) ? 0 : 1;
+        this.parity = parity;
+        this.offset = this.b;
         this.expression = parity.name().toLowerCase();
     }
 
@@ -43,30 +55,57 @@ public abstract class OrdinalPositionMatcher extends FunctionalPseudoClassMatche
         if (!hasParent(element)) {
             return false;
         }
-        if (a == 0) {
-            if (b == 0) {
-                return false;
-            }
-            return countSiblingsAround(element) == b - 1;
+        return matchesPosition(countSiblingsAround(element) + 1);
+    }
+
+    @Override
+    public boolean matches(Element element, MatchingContext context) {
+        if (!hasParent(element)) {
+            return false;
         }
+        return matchesPosition(countSiblingsAround(element, context.getNthIndexCache()) + 1);
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return ordinal->matchesPosition(positionIn(tree, ordinal));
+    }
+
+    /**
+     * Checks if the given position is represented by an+b for some non-negative integer n.
+     *
+     * @param position the position of the element, starting from 1.
+     * @return {@code true} if the position matches, {@code false} otherwise.
+     */
+    protected boolean matchesPosition(int position) {
+        return matchesPosition(a, b, position);
+    }
 
-        final int count = countSiblingsAround(element);
-        if (a > 0) {
-            int step = a;
-            for (int i = b - 1; i <= count; i += step) {
-                if (i == count) {
-                    return true;
-                }
-            }
+    /**
+     * Checks if the given position is represented by an+b for some non-negative integer n.
+     *
+     * @param a the coefficient returned by {@link #getA()}.
+     * @param b the offset returned by {@link #getB()}.
+     * @param position the position of the element, starting from 1.
+     * @return {@code true} if the position matches, {@code false} otherwise.
+     */
+    public static boolean matchesPosition(int a, int b, int position) {
+        if (a == 0) {
+            return position == b;
+        } else if (a > 0) {
+            return position >= b && (position - b) % a == 0;
         } else {
-            int step = -a;
-            for (int i = b - 1; i >= 0; i -= step) {
-                if (i == count) {
-                    return true;
-                }
-            }
+            return position <= b && (b - position) % -a == 0;
         }
-        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Counting the siblings costs more than other structural pseudo-classes.
+     */
+    @Override
+    public int estimateCost() {
+        return super.estimateCost() + 1;
     }
 
     @Override
@@ -79,6 +118,59 @@ public abstract class OrdinalPositionMatcher extends FunctionalPseudoClassMatche
         return expression;
     }
 
+    /**
+     * Returns the coefficient a of an+b.
+     *
+     * @return the coefficient a.
+     */
+    public int getA() {
+        return a;
+    }
+
+    /**
+     * Returns the offset b of an+b, which may be normalized from the one given.
+     *
+     * @return the offset b.
+     */
+    public int getB() {
+        return b;
+    }
+
+    /**
+     * Returns the parity given as the argument of this pseudo-class.
+     *
+     * @return the parity, or {@code null} if the argument was given as an+b.
+     */
+    public Parity getParity() {
+        return parity;
+    }
+
+    /**
+     * Returns the offset b of an+b as given in the argument of this pseudo-class.
+     *
+     * @return the offset b before normalized.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        OrdinalPositionMatcher other = (OrdinalPositionMatcher)obj;
+        return a == other.a && b == other.b && expression.equals(other.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return ((getClass().hashCode() * 31 + a) * 31 + b) * 31 + expression.hashCode();
+    }
+
     /**
      * Counts siblings before or after given element.
      *
@@ -87,6 +179,24 @@ public abstract class OrdinalPositionMatcher extends FunctionalPseudoClassMatche
      */
     protected abstract int countSiblingsAround(Element element);
 
+    /**
+     * Counts siblings before or after given element using the cache.
+     *
+     * @param element the element of current interest.
+     * @param cache the cache of the positions of the elements.
+     * @return the number of siblings.
+     */
+    protected abstract int countSiblingsAround(Element element, NthIndexCache cache);
+
+    /**
+     * Returns the position of the element in the compact tree.
+     *
+     * @param tree the tree of the elements.
+     * @param ordinal the number of the element in the tree.
+     * @return the position of the element, starting from 1.
+     */
+    protected abstract int positionIn(CompactTree tree, int ordinal);
+
     private static String buildExpression(int a, int b) {
          StringBuilder builder = new StringBuilder();
          if (a == 1) {
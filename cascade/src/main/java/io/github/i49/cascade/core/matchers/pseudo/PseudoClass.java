@@ -98,6 +98,42 @@ public enum PseudoClass {
                ;
     }
 
+    /**
+     * Returns whether this pseudo-class depends on the siblings of the element.
+     *
+     * @return {@code true} if the element is matched by its position among the siblings.
+     */
+    public boolean dependsOnSiblings() {
+        return this == NTH_CHILD ||
+               this == NTH_LAST_CHILD ||
+               this == NTH_OF_TYPE ||
+               this == NTH_LAST_OF_TYPE ||
+               this == FIRST_CHILD ||
+               this == LAST_CHILD ||
+               this == FIRST_OF_TYPE ||
+               this == LAST_OF_TYPE ||
+               this == ONLY_CHILD ||
+               this == ONLY_OF_TYPE
+               ;
+    }
+
+    /**
+     * Returns whether this pseudo-class depends on the elements which follow the element in document order.
+     * Such pseudo-classes cannot be tested until the parent or the element itself is closed.
+     *
+     * @return {@code true} if the element is matched by its following siblings or its content.
+     */
+    public boolean dependsOnFollowing() {
+        return this == NTH_LAST_CHILD ||
+               this == NTH_LAST_OF_TYPE ||
+               this == LAST_CHILD ||
+               this == LAST_OF_TYPE ||
+               this == ONLY_CHILD ||
+               this == ONLY_OF_TYPE ||
+               this == EMPTY
+               ;
+    }
+
     @Override
     public String toString() {
         return ":" + getClassName();
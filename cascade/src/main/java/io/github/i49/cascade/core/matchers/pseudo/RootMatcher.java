@@ -16,9 +16,13 @@
 
 package io.github.i49.cascade.core.matchers.pseudo;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
 import io.github.i49.cascade.core.dom.Elements;
+import io.github.i49.cascade.core.stream.StreamedElement;
 
 /**
  * Matcher for :root pseudo-class selector.
@@ -35,6 +39,16 @@ public class RootMatcher extends PseudoClassMatcher {
         return Elements.isRoot(element);
     }
 
+    @Override
+    public boolean matches(StreamedElement element) {
+        return element.getDepth() == 0;
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return tree::isRoot;
+    }
+
      @Override
     public PseudoClass getPseudoClass() {
         return PseudoClass.ROOT;
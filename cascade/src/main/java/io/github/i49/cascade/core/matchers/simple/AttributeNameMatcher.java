@@ -16,16 +16,17 @@
 
 package io.github.i49.cascade.core.matchers.simple;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.function.IntPredicate;
 
 import org.w3c.dom.Attr;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.matchers.MatcherType;
+import io.github.i49.cascade.core.stream.StreamedElement;
+
 /**
  * The matcher which will check the presence of the specified attribute.
  */
@@ -47,6 +48,53 @@ public class AttributeNameMatcher implements AttributeMatcher, QualifiedMatcherP
         return element.hasAttributeNS(null, localName);
     }
 
+    @Override
+    public boolean matches(StreamedElement element) {
+        final int count = element.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            if (matchesName(element.getAttributeNamespaceURI(i), element.getAttributeLocalName(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        final boolean[] names = tree.matchAttributeNames(this::matchesName);
+        return ordinal->tree.hasAttribute(ordinal, names);
+    }
+
+    /**
+     * Checks if the qualified name of an attribute is matched by this matcher.
+     *
+     * @param namespace the namespace of the attribute, may be {@code null}.
+     * @param localName the local name of the attribute.
+     * @return {@code true} if the name is matched.
+     */
+    public boolean matchesName(String namespace, String localName) {
+        return this.localName.equals(localName) && matchesNamespace(namespace);
+    }
+
+    /**
+     * Checks if the namespace of an attribute is expected by this matcher.
+     *
+     * @param namespace the namespace of the attribute, may be {@code null}.
+     * @return {@code true} if the namespace is expected.
+     */
+    protected boolean matchesNamespace(String namespace) {
+        return namespace == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The presence of an attribute costs as much as a class name.
+     */
+    @Override
+    public int estimateCost() {
+        return MatcherType.CLASS.getCost();
+    }
+
     @Override
     public AttributeNameMatcher anyNamespace() {
         return new AnyNamespaceMatcher(getLocalName());
@@ -67,6 +115,22 @@ public class AttributeNameMatcher implements AttributeMatcher, QualifiedMatcherP
         return "[" + getDisplayName() + "]";
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        return localName.equals(((AttributeNameMatcher)obj).localName);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode() * 31 + localName.hashCode();
+    }
+
     public final String getLocalName() {
         return localName;
     }
@@ -75,12 +139,17 @@ public class AttributeNameMatcher implements AttributeMatcher, QualifiedMatcherP
         return getLocalName();
     }
 
-    public List<Attr> findAttributes(Element element) {
+    /**
+     * Checks if any of the attributes of the element having the name matched by this matcher
+     * has the value expected by the specified matcher.
+     *
+     * @param element the element to check.
+     * @param valueMatcher the matcher which tests the attribute values.
+     * @return {@code true} if any attribute has the expected value.
+     */
+    public boolean anyValueMatches(Element element, AttributeValueMatcher valueMatcher) {
         Attr found = element.getAttributeNodeNS(null, getLocalName());
-        if (found == null) {
-            return Collections.emptyList();
-        }
-        return Arrays.asList(found);
+        return found != null && valueMatcher.testValue(found.getValue());
     }
 
     /**
@@ -105,26 +174,33 @@ public class AttributeNameMatcher implements AttributeMatcher, QualifiedMatcherP
             return false;
         }
 
+        @Override
+        protected boolean matchesNamespace(String namespace) {
+            return true;
+        }
+
         @Override
         public String getDisplayName() {
             return "*|" + getLocalName();
         }
 
         @Override
-        public List<Attr> findAttributes(Element element) {
-            List<Attr> found = null;
+        public boolean anyValueMatches(Element element, AttributeValueMatcher valueMatcher) {
             final String expectedName = getLocalName();
             NamedNodeMap attributes = element.getAttributes();
             for (int i = 0; i < attributes.getLength(); i++) {
                 Node attribute = attributes.item(i);
-                if (attribute.getLocalName().equals(expectedName)) {
-                    if (found == null) {
-                        found = new ArrayList<>();
-                    }
-                    found.add((Attr)attribute);
+                if (attribute.getLocalName().equals(expectedName) &&
+                    valueMatcher.testValue(attribute.getNodeValue())) {
+                    return true;
                 }
             }
-            return (found != null) ? found : Collections.emptyList();
+            return false;
+        }
+
+        @Override
+        public String getPrefix() {
+            return "*";
         }
     }
 
@@ -141,6 +217,11 @@ public class AttributeNameMatcher implements AttributeMatcher, QualifiedMatcherP
         public String getDisplayName() {
             return "|" + getLocalName();
         }
+
+        @Override
+        public String getPrefix() {
+            return "";
+        }
     }
 
     /**
@@ -164,6 +245,11 @@ public class AttributeNameMatcher implements AttributeMatcher, QualifiedMatcherP
             return element.hasAttributeNS(this.namespace, getLocalName());
         }
 
+        @Override
+        protected boolean matchesNamespace(String namespace) {
+            return this.namespace.equals(namespace);
+        }
+
         @Override
         public String getDisplayName() {
             StringBuilder b = new StringBuilder();
@@ -171,12 +257,33 @@ public class AttributeNameMatcher implements AttributeMatcher, QualifiedMatcherP
         }
 
         @Override
-        public List<Attr> findAttributes(Element element) {
-            Attr found = element.getAttributeNodeNS(this.namespace, getLocalName());
-            if (found == null) {
-                return Collections.emptyList();
+        public boolean equals(Object obj) {
+            if (!super.equals(obj)) {
+                return false;
             }
-            return Arrays.asList(found);
+            NamespacedMatcher other = (NamespacedMatcher)obj;
+            return prefix.equals(other.prefix) && namespace.equals(other.namespace);
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode() * 31 + namespace.hashCode();
+        }
+
+        @Override
+        public boolean anyValueMatches(Element element, AttributeValueMatcher valueMatcher) {
+            Attr found = element.getAttributeNodeNS(this.namespace, getLocalName());
+            return found != null && valueMatcher.testValue(found.getValue());
+        }
+
+        @Override
+        public String getPrefix() {
+            return prefix;
+        }
+
+        @Override
+        public String getNamespace() {
+            return namespace;
         }
     }
 }
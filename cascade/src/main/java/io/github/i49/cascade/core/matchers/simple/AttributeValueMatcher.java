@@ -16,9 +16,14 @@
 
 package io.github.i49.cascade.core.matchers.simple;
 
-import org.w3c.dom.Attr;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.stream.StreamedElement;
+
 /**
  * The abstract base matcher which tests attribute values.
  */
@@ -34,14 +39,28 @@ public abstract class AttributeValueMatcher implements AttributeMatcher {
 
     @Override
     public boolean matches(Element element) {
-        for (Attr attribute: nameMatcher.findAttributes(element)) {
-            if (testValue(attribute.getValue())) {
+        return nameMatcher.anyValueMatches(element, this);
+    }
+
+    @Override
+    public boolean matches(StreamedElement element) {
+        final int count = element.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            if (nameMatcher.matchesName(element.getAttributeNamespaceURI(i), element.getAttributeLocalName(i)) &&
+                testValue(element.getAttributeValue(i))) {
                 return true;
             }
         }
         return false;
     }
 
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        final boolean[] names = tree.matchAttributeNames(nameMatcher::matchesName);
+        final Predicate<String> values = this::testValue;
+        return ordinal->tree.anyAttributeValueMatches(ordinal, names, values);
+    }
+
     @Override
     public String toString() {
         StringBuilder b = new StringBuilder();
@@ -54,6 +73,32 @@ public abstract class AttributeValueMatcher implements AttributeMatcher {
         return b.toString();
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        AttributeValueMatcher other = (AttributeValueMatcher)obj;
+        return nameMatcher.equals(other.nameMatcher) && expectedValue.equals(other.expectedValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return (getClass().hashCode() * 31 + nameMatcher.hashCode()) * 31 + expectedValue.hashCode();
+    }
+
+    /**
+     * Returns the matcher of the attribute name.
+     *
+     * @return the matcher of the attribute name.
+     */
+    public AttributeNameMatcher getNameMatcher() {
+        return nameMatcher;
+    }
+
     /**
      * Returns the expected value.
      *
@@ -16,10 +16,15 @@
 
 package io.github.i49.cascade.core.matchers.simple;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.dom.SpaceSeparatedList;
 import io.github.i49.cascade.core.matchers.Matcher;
 import io.github.i49.cascade.core.matchers.MatcherType;
+import io.github.i49.cascade.core.stream.StreamedElement;
 
 /**
  *
@@ -39,17 +44,45 @@ public class ClassMatcher implements Matcher {
     
     @Override
     public boolean matches(Element element) {
-        String valueList = element.getAttribute("class");
-        for (String value: valueList.split("\\s+")) {
-            if (this.className.equals(value)) {
-                return true;
-            }
+        return SpaceSeparatedList.contains(element.getAttribute("class"), this.className);
+    }
+
+    @Override
+    public boolean matches(StreamedElement element) {
+        return SpaceSeparatedList.contains(element.getAttribute("class"), this.className);
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        final int found = tree.findClassName(className);
+        if (found == CompactTree.NONE) {
+            return ordinal->false;
         }
-        return false;
+        return ordinal->tree.hasClassName(ordinal, found);
     }
     
     @Override
     public String toString() {
         return "." + this.className;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ClassMatcher)) {
+            return false;
+        }
+        return className.equals(((ClassMatcher)obj).className);
+    }
+
+    @Override
+    public int hashCode() {
+        return className.hashCode();
+    }
+
+    public String getClassName() {
+        return className;
+    }
 }
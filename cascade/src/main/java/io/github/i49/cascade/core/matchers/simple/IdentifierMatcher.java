@@ -16,12 +16,16 @@
 
 package io.github.i49.cascade.core.matchers.simple;
 
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Attr;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 
+import io.github.i49.cascade.core.dom.CompactTree;
 import io.github.i49.cascade.core.matchers.Matcher;
 import io.github.i49.cascade.core.matchers.MatcherType;
+import io.github.i49.cascade.core.stream.StreamedElement;
 
 /**
  *
@@ -51,11 +55,37 @@ public class IdentifierMatcher implements Matcher {
         return false;
     }
 
+    @Override
+    public boolean matches(StreamedElement element) {
+        return element.hasIdentifier(identifier);
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        return ordinal->tree.hasIdentifier(ordinal, identifier);
+    }
+
     @Override
     public String toString() {
         return "#" + this.identifier;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IdentifierMatcher)) {
+            return false;
+        }
+        return identifier.equals(((IdentifierMatcher)obj).identifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return identifier.hashCode();
+    }
+
     public String getIdentifier() {
         return identifier;
     }
@@ -53,4 +53,23 @@ public interface QualifiedMatcherProvider<T extends Matcher> {
      * @return the matcher without any namespace.
      */
     T withoutNamespace();
+
+    /**
+     * Returns the prefix qualifying this matcher.
+     *
+     * @return "*" for any namespace, empty string for no namespace, the prefix declared,
+     *         or {@code null} if this matcher is not qualified with a prefix.
+     */
+    default String getPrefix() {
+        return null;
+    }
+
+    /**
+     * Returns the namespace tested by this matcher.
+     *
+     * @return the namespace, or {@code null} if this matcher does not test a specific namespace.
+     */
+    default String getNamespace() {
+        return null;
+    }
 }
@@ -16,7 +16,7 @@
 
 package io.github.i49.cascade.core.matchers.simple;
 
-import java.util.regex.Pattern;
+import io.github.i49.cascade.core.dom.SpaceSeparatedList;
 
 /**
  * The matcher which tests if any part of attribute value
@@ -24,8 +24,6 @@ import java.util.regex.Pattern;
  */
 public class SpaceSeparatedValueMatcher extends AttributeValueMatcher {
 
-    private static final Pattern SEPARATOR = Pattern.compile("[ \\t\\r\\n\\f]+");
-
     public SpaceSeparatedValueMatcher(AttributeNameMatcher nameMatcher, String value) {
         super(nameMatcher, value);
     }
@@ -42,15 +40,6 @@ public class SpaceSeparatedValueMatcher extends AttributeValueMatcher {
 
     @Override
     public boolean testValue(String actualValue) {
-        final String expectedValue = getExpectedValue();
-        if (expectedValue.isEmpty()) {
-            return false;
-        }
-        for (String value: SEPARATOR.split(actualValue)) {
-            if (value.equals(expectedValue)) {
-                return true;
-            }
-        }
-        return false;
+        return SpaceSeparatedList.contains(actualValue, getExpectedValue());
     }
 }
@@ -30,6 +30,15 @@ public class SubstringMatcher extends AttributeValueMatcher {
         return getExpectedValue().isEmpty();
     }
 
+    /**
+     * {@inheritDoc}
+     * Searching the substring costs more than comparing the whole value.
+     */
+    @Override
+    public int estimateCost() {
+        return super.estimateCost() + 1;
+    }
+
     @Override
     protected String getSymbol() {
         return "*=";
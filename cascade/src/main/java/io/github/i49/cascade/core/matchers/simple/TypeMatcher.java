@@ -16,10 +16,15 @@
 
 package io.github.i49.cascade.core.matchers.simple;
 
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
 import io.github.i49.cascade.core.matchers.Matcher;
 import io.github.i49.cascade.core.matchers.MatcherType;
+import io.github.i49.cascade.core.stream.StreamedElement;
 
 /**
  * Matcher for type selector.
@@ -42,11 +47,52 @@ public class TypeMatcher implements Matcher, QualifiedMatcherProvider<TypeMatche
         return localName.equals(element.getLocalName());
     }
 
+    @Override
+    public boolean matches(StreamedElement element) {
+        return localName.equals(element.getLocalName()) && matchesNamespace(element.getNamespaceURI());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The types of the elements in the tree are tested only once.
+     */
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        final boolean[] accepted = tree.matchTypes((namespace, name)->localName.equals(name) && matchesNamespace(namespace));
+        return ordinal->accepted[tree.getType(ordinal)];
+    }
+
+    /**
+     * Checks if the namespace of an element is expected by this matcher.
+     *
+     * @param namespace the namespace of the element, may be {@code null}.
+     * @return {@code true} if the namespace is expected.
+     */
+    protected boolean matchesNamespace(String namespace) {
+        return true;
+    }
+
     @Override
     public String toString() {
         return localName;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        return localName.equals(((TypeMatcher)obj).localName);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode() * 31 + localName.hashCode();
+    }
+
     public String getLocalName() {
         return localName;
     }
@@ -81,6 +127,11 @@ public class TypeMatcher implements Matcher, QualifiedMatcherProvider<TypeMatche
         public String toString() {
             return "*|" + super.toString();
         }
+
+        @Override
+        public String getPrefix() {
+            return "*";
+        }
     }
 
     private static class NoNamespaceMatcher extends TypeMatcher {
@@ -97,10 +148,20 @@ public class TypeMatcher implements Matcher, QualifiedMatcherProvider<TypeMatche
             return element.getNamespaceURI() == null;
         }
 
+        @Override
+        protected boolean matchesNamespace(String namespace) {
+            return namespace == null;
+        }
+
         @Override
         public String toString() {
             return "|" + super.toString();
         }
+
+        @Override
+        public String getPrefix() {
+            return "";
+        }
     }
 
     private static class NamespacedMatcher extends TypeMatcher {
@@ -128,6 +189,11 @@ public class TypeMatcher implements Matcher, QualifiedMatcherProvider<TypeMatche
             return namespace.equals(element.getNamespaceURI());
         }
 
+        @Override
+        protected boolean matchesNamespace(String namespace) {
+            return this.namespace.equals(namespace);
+        }
+
         @Override
         public String toString() {
             if (prefix != null) {
@@ -136,5 +202,29 @@ public class TypeMatcher implements Matcher, QualifiedMatcherProvider<TypeMatche
                 return super.toString();
             }
         }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!super.equals(obj)) {
+                return false;
+            }
+            NamespacedMatcher other = (NamespacedMatcher)obj;
+            return Objects.equals(prefix, other.prefix) && namespace.equals(other.namespace);
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode() * 31 + namespace.hashCode();
+        }
+
+        @Override
+        public String getPrefix() {
+            return prefix;
+        }
+
+        @Override
+        public String getNamespace() {
+            return namespace;
+        }
     }
 }
@@ -16,10 +16,15 @@
 
 package io.github.i49.cascade.core.matchers.simple;
 
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.core.dom.CompactTree;
 import io.github.i49.cascade.core.matchers.Matcher;
 import io.github.i49.cascade.core.matchers.MatcherType;
+import io.github.i49.cascade.core.stream.StreamedElement;
 
 /**
  * Matcher for universal selector represented by "*".
@@ -47,6 +52,30 @@ public class UniversalMatcher implements Matcher, QualifiedMatcherProvider<Unive
         return true;
     }
 
+    @Override
+    public boolean matches(StreamedElement element) {
+        return matchesNamespace(element.getNamespaceURI());
+    }
+
+    @Override
+    public IntPredicate bind(CompactTree tree) {
+        if (matchesAlways()) {
+            return ordinal->true;
+        }
+        final boolean[] accepted = tree.matchTypes((namespace, name)->matchesNamespace(namespace));
+        return ordinal->accepted[tree.getType(ordinal)];
+    }
+
+    /**
+     * Checks if the namespace of an element is expected by this matcher.
+     *
+     * @param namespace the namespace of the element, may be {@code null}.
+     * @return {@code true} if the namespace is expected.
+     */
+    protected boolean matchesNamespace(String namespace) {
+        return true;
+    }
+
     @Override
     public boolean matchesAlways() {
         return true;
@@ -57,6 +86,19 @@ public class UniversalMatcher implements Matcher, QualifiedMatcherProvider<Unive
         return "*";
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj != null && obj.getClass() == getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
     @Override
     public UniversalMatcher anyNamespace() {
         return ANY_NAMESPACE;
@@ -83,6 +125,11 @@ public class UniversalMatcher implements Matcher, QualifiedMatcherProvider<Unive
         public String toString() {
             return "*|" + super.toString();
         }
+
+        @Override
+        public String getPrefix() {
+            return "*";
+        }
     }
 
     private static class NoNamespaceMatcher extends UniversalMatcher {
@@ -92,6 +139,11 @@ public class UniversalMatcher implements Matcher, QualifiedMatcherProvider<Unive
             return element.getNamespaceURI() == null;
         }
 
+        @Override
+        protected boolean matchesNamespace(String namespace) {
+            return namespace == null;
+        }
+
         @Override
         public boolean matchesAlways() {
             return false;
@@ -101,6 +153,11 @@ public class UniversalMatcher implements Matcher, QualifiedMatcherProvider<Unive
         public String toString() {
             return "|" + super.toString();
         }
+
+        @Override
+        public String getPrefix() {
+            return "";
+        }
     }
 
     private static class NamespacedMatcher extends UniversalMatcher {
@@ -123,6 +180,11 @@ public class UniversalMatcher implements Matcher, QualifiedMatcherProvider<Unive
             return namespace.equals(element.getNamespaceURI());
         }
 
+        @Override
+        protected boolean matchesNamespace(String namespace) {
+            return this.namespace.equals(namespace);
+        }
+
         @Override
         public boolean matchesAlways() {
             return false;
@@ -136,5 +198,29 @@ public class UniversalMatcher implements Matcher, QualifiedMatcherProvider<Unive
                 return super.toString();
             }
         }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!super.equals(obj)) {
+                return false;
+            }
+            NamespacedMatcher other = (NamespacedMatcher)obj;
+            return Objects.equals(prefix, other.prefix) && namespace.equals(other.namespace);
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode() * 31 + namespace.hashCode();
+        }
+
+        @Override
+        public String getPrefix() {
+            return prefix;
+        }
+
+        @Override
+        public String getNamespace() {
+            return namespace;
+        }
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.matchers.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import io.github.i49.cascade.core.matchers.Matcher;
+
+/**
+ * A table which shares structurally equal matchers between compiled selectors.
+ *
+ * <p>The matchers are held weakly,
+ * therefore the matchers no longer used by any selector can be garbage collected.
+ * Compound matchers should be interned after their components,
+ * so that the components of the shared compound matchers are also shared.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public final class MatcherInterner {
+
+    private final Map<Matcher, WeakReference<Matcher>> table = new WeakHashMap<>();
+
+    /**
+     * Returns the matcher equal to the given matcher which was interned first.
+     *
+     * @param matcher the matcher to intern.
+     * @return the matcher shared, or given {@code matcher} if no equal matcher is found.
+     */
+    public synchronized Matcher intern(Matcher matcher) {
+        WeakReference<Matcher> reference = table.get(matcher);
+        if (reference != null) {
+            Matcher found = reference.get();
+            if (found != null) {
+                return found;
+            }
+        }
+        table.put(matcher, new WeakReference<>(matcher));
+        return matcher;
+    }
+
+    /**
+     * Returns the number of the matchers in this table.
+     *
+     * @return the number of the matchers.
+     */
+    public synchronized int size() {
+        return table.size();
+    }
+}
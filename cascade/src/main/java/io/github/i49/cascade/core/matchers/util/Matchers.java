@@ -16,6 +16,7 @@
 
 package io.github.i49.cascade.core.matchers.util;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -52,6 +53,20 @@ public final class Matchers {
         return findMatcher(matcher, m->m.getType() == type);
     }
 
+    public static List<Matcher> extractAllByType(Matcher matcher, MatcherType type) {
+        List<Matcher> found = new ArrayList<>();
+        if (matcher instanceof AllOfMatcher) {
+            for (Matcher entry: (AllOfMatcher)matcher) {
+                if (entry.getType() == type) {
+                    found.add(entry);
+                }
+            }
+        } else if (matcher.getType() == type) {
+            found.add(matcher);
+        }
+        return found;
+    }
+
     public static Matcher extractByPseudoClass(Matcher matcher, PseudoClass pseudoClass) {
         return findMatcher(matcher, m->{
            return m.getType() == MatcherType.PSEUDO_CLASS &&
@@ -28,6 +28,13 @@ public enum Message {
     ARGUMENT_IS_NULL,
     ARGUMENT_IS_BLANK,
     ELEMENT_HAS_NOT_PARENT,
+    CACHE_IS_NOT_SUPPORTED,
+    SELECTOR_IS_NOT_SUPPORTED,
+    ELEMENT_IS_NOT_IN_DOCUMENT,
+    PSEUDO_CLASS_IS_NOT_STREAMABLE,
+    SERIALIZED_FORMAT_IS_INVALID,
+    SERIALIZED_VERSION_IS_NOT_SUPPORTED,
+    SERIALIZED_DATA_IS_CORRUPTED,
 
     // parsing errors
 
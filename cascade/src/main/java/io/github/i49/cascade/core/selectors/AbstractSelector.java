@@ -17,13 +17,23 @@
 package io.github.i49.cascade.core.selectors;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.w3c.dom.Element;
 
+import io.github.i49.cascade.api.ParallelOptions;
 import io.github.i49.cascade.api.Selector;
 import io.github.i49.cascade.core.dom.Elements;
 import io.github.i49.cascade.core.message.Message;
+import io.github.i49.cascade.core.walkers.Visitor;
 import io.github.i49.cascade.core.walkers.Walker;
 
 /**
@@ -31,34 +41,138 @@ import io.github.i49.cascade.core.walkers.Walker;
  */
 abstract class AbstractSelector implements Selector {
 
-    private final Walker walker;
+    // The minimum number of the candidates to be tested by a parallel task.
+    private static final int MINIMUM_GRANULARITY = 256;
 
-    protected AbstractSelector(Walker walker) {
-        this.walker = walker;
-    }
+    // the walker of the document tree, created on first use.
+    private volatile Walker walker;
 
     @Override
     public List<Element> select(Element start) {
-        if (start == null) {
-            throw new NullPointerException("start must not be null.");
-        } else if (Elements.isOrphan(start)) {
-            throw new IllegalArgumentException(Message.ELEMENT_HAS_NOT_PARENT.toString());
-        }
+        validateStart(start);
         List<Element> selected  = new ArrayList<>();
-        this.walker.walkTree(start, element->{
-            if (test(element, start)) {
-                selected.add(element);
-            }
-        });
+        getWalker().walkTree(start, createVisitor(new SelectionContext(start), selected::add));
         return selected;
     }
 
+    @Override
+    public List<Element> select(Element start, ParallelOptions options) {
+        validateStart(start);
+        if (options == null) {
+            throw new NullPointerException("options must not be null.");
+        }
+        ForkJoinPool pool = options.getPool();
+        if (pool.getParallelism() < 2) {
+            return select(start);
+        }
+        List<Element> candidates = new ArrayList<>();
+        getWalker().walkTree(start, candidates::add);
+        final int size = candidates.size();
+        if (size < options.getThreshold()) {
+            SelectionContext context = new SelectionContext(start);
+            List<Element> selected = new ArrayList<>();
+            for (Element candidate: candidates) {
+                if (test(candidate, context)) {
+                    selected.add(candidate);
+                }
+            }
+            return selected;
+        }
+        // splits the candidates into a few tasks per worker thread.
+        int granularity = Math.max(size / (pool.getParallelism() * 4), MINIMUM_GRANULARITY);
+        Element[] array = candidates.toArray(new Element[size]);
+        return pool.invoke(new ParallelSelectionTask(this, start, array, 0, size, granularity));
+    }
+
+    @Override
+    public Optional<Element> selectFirst(Element start) {
+        Iterator<Element> it = iterator(start);
+        return it.hasNext() ? Optional.of(it.next()) : Optional.empty();
+    }
+
+    @Override
+    public boolean exists(Element start) {
+        return iterator(start).hasNext();
+    }
+
+    @Override
+    public int count(Element start) {
+        validateStart(start);
+        int[] counter = new int[1];
+        getWalker().walkTree(start, createVisitor(new SelectionContext(start), element->counter[0]++));
+        return counter[0];
+    }
+
+    @Override
+    public Iterator<Element> iterator(Element start) {
+        validateStart(start);
+        return new SelectionIterator(this, getWalker().iterateTree(start), new SelectionContext(start));
+    }
+
+    @Override
+    public Stream<Element> stream(Element start) {
+        Iterator<Element> iterator = iterator(start);
+        int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false);
+    }
+
     public boolean matches(Element element) {
         if (element == null) {
             throw new NullPointerException("element must not be null.");
         }
-        return test(element, element);
+        return test(element, new SelectionContext(element));
     }
 
-    public abstract boolean test(Element element, Element root);
+    /**
+     * Returns the walker of the document tree, which is created when it is first requested.
+     *
+     * @return the walker of the document tree.
+     */
+    Walker getWalker() {
+        Walker walker = this.walker;
+        if (walker == null) {
+            this.walker = walker = createWalker();
+        }
+        return walker;
+    }
+
+    /**
+     * Creates a walker which visits the candidates for this selector.
+     * The walker may be created more than once if this selector is used concurrently.
+     *
+     * @return newly created walker.
+     */
+    protected abstract Walker createWalker();
+
+    /**
+     * Tests the given element with this selector.
+     *
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @return {@code true} if the element matches this selector, {@code false} otherwise.
+     */
+    public abstract boolean test(Element element, SelectionContext context);
+
+    /**
+     * Creates a visitor which performs the given action on each element matching this selector.
+     *
+     * @param context the context of the selection.
+     * @param action the action to be performed on the matched elements.
+     * @return newly created visitor.
+     */
+    protected Visitor createVisitor(SelectionContext context, Consumer<Element> action) {
+        return element->{
+            if (test(element, context)) {
+                action.accept(element);
+            }
+        };
+    }
+
+    static void validateStart(Element start) {
+        if (start == null) {
+            throw new NullPointerException("start must not be null.");
+        } else if (Elements.isOrphan(start)) {
+            throw new IllegalArgumentException(Message.ELEMENT_HAS_NOT_PARENT.toString());
+        }
+    }
 }
@@ -17,6 +17,7 @@
 package io.github.i49.cascade.core.selectors;
 
 import java.util.Iterator;
+import java.util.Objects;
 
 import org.w3c.dom.Element;
 
@@ -29,12 +30,29 @@ import io.github.i49.cascade.core.matchers.Matcher;
 abstract class AbstractSequence implements Sequence {
 
     protected final Matcher matcher;
-    protected final Matcher optimum;
+    // the optimized matcher, created on first use.
+    private volatile Matcher optimum;
     private Sequence previous;
 
     protected AbstractSequence(Matcher matcher) {
         this.matcher = matcher;
-        this.optimum = matcher.optimum();
+    }
+
+    /**
+     * Returns the matcher optimized from the matcher of this sequence.
+     *
+     * <p>The optimized matcher is created when it is first requested,
+     * because the selectors read from a serialized form may never be used.
+     * Concurrent requests may create it more than once, but all of them are equal.</p>
+     *
+     * @return the optimized matcher.
+     */
+    Matcher optimum() {
+        Matcher optimum = this.optimum;
+        if (optimum == null) {
+            this.optimum = optimum = matcher.optimum();
+        }
+        return optimum;
     }
 
     @Override
@@ -89,13 +107,35 @@ abstract class AbstractSequence implements Sequence {
         return b.toString();
     }
 
-    protected boolean test(Element element) {
-        return optimum.matches(element);
+    /**
+     * {@inheritDoc}
+     * The sequences are equal if they have the same type, equal matchers
+     * and equal preceding sequences.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        AbstractSequence other = (AbstractSequence)obj;
+        return matcher.equals(other.matcher) && Objects.equals(previous, other.previous);
+    }
+
+    @Override
+    public int hashCode() {
+        return (getClass().hashCode() * 31 + matcher.hashCode()) * 31 + Objects.hashCode(previous);
+    }
+
+    protected boolean matches(Element element, SelectionContext context) {
+        return optimum().matches(element, context);
     }
 
-    protected boolean testPrevious(Element element, Element root) {
+    protected boolean testPrevious(Element element, SelectionContext context) {
         if (hasPrevious()) {
-            return getPrevious().test(element, root);
+            return getPrevious().test(element, context);
         } else {
             return true;
         }
@@ -30,12 +30,12 @@ public class AdjacentSequence extends PrecedingSequence {
     }
 
     @Override
-    public boolean test(Element start, Element root) {
+    protected boolean testCombined(Element start, SelectionContext context) {
         Node sibling = start.getPreviousSibling();
         while (sibling != null) {
             if (sibling.getNodeType() == Node.ELEMENT_NODE) {
                 Element element = (Element)sibling;
-                if (test(element) && testPrevious(element, root)) {
+                if (matches(element, context) && testPrevious(element, context)) {
                     return true;
                 }
                 return false;
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.Arrays;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+
+import io.github.i49.cascade.core.dom.SpaceSeparatedList;
+
+/**
+ * Counting Bloom filter of the keys of the ancestors of the element currently visited.
+ *
+ * <p>The keys of an element are its local name, its identifiers and its class names.
+ * The ancestors are pushed to this filter when the walker enters their children
+ * and popped when the walker leaves them.
+ * If this filter reports that a key is not contained, no ancestor has the key for certain.
+ * If this filter reports that a key is contained, an ancestor may have the key.</p>
+ *
+ * <p>The keys of the pushed ancestors are added to the filter lazily,
+ * only when the filter is queried,
+ * therefore the ancestors of the elements never queried cost nothing but pushing and popping.</p>
+ */
+final class AncestorFilter {
+
+    static final int TYPE = 1;
+    static final int IDENTIFIER = 2;
+    static final int CLASS = 4;
+
+    private static final int KEY_BITS = 12;
+    private static final int KEY_MASK = (1 << KEY_BITS) - 1;
+    private static final int MAX_COUNT = 0xff;
+
+    private static final int TYPE_SEED = 0x5bd1e995;
+    private static final int IDENTIFIER_SEED = 0x1b873593;
+    private static final int CLASS_SEED = 0xcc9e2d51;
+
+    private final int kinds;
+    private final byte[] counters = new byte[1 << KEY_BITS];
+
+    // the ancestors pushed.
+    private Element[] ancestors = new Element[16];
+    private int depth;
+    // the number of the ancestors whose keys were added to the counters.
+    private int addedDepth;
+    // the hashes of the keys added, and the offset of the first hash for each ancestor.
+    private int[] hashes = new int[32];
+    private int hashCount;
+    private int[] offsets = new int[16];
+
+    /**
+     * Constructs this filter.
+     *
+     * @param kinds the kinds of the keys to be added, any combination of
+     *              {@link #TYPE}, {@link #IDENTIFIER} and {@link #CLASS}.
+     */
+    AncestorFilter(int kinds) {
+        this.kinds = kinds;
+    }
+
+    /**
+     * Pushes the given ancestor.
+     *
+     * @param element the element entered by the walker.
+     */
+    void push(Element element) {
+        if (depth == ancestors.length) {
+            ancestors = Arrays.copyOf(ancestors, depth * 2);
+            offsets = Arrays.copyOf(offsets, depth * 2);
+        }
+        ancestors[depth++] = element;
+    }
+
+    /**
+     * Pops the last ancestor pushed.
+     */
+    void pop() {
+        ancestors[--depth] = null;
+        if (addedDepth > depth) {
+            final int offset = offsets[depth];
+            for (int i = offset; i < hashCount; i++) {
+                updateCounters(hashes[i], -1);
+            }
+            hashCount = offset;
+            addedDepth = depth;
+        }
+    }
+
+    /**
+     * Checks if this filter may contain all the keys of the given hashes.
+     *
+     * @param required the hashes of the keys.
+     * @return {@code false} if any key is not contained for certain, {@code true} otherwise.
+     */
+    boolean mayContainAll(int[] required) {
+        while (addedDepth < depth) {
+            offsets[addedDepth] = hashCount;
+            addKeys(ancestors[addedDepth++]);
+        }
+        for (int hash: required) {
+            if (counters[hash & KEY_MASK] == 0 || counters[(hash >>> KEY_BITS) & KEY_MASK] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int hashOfType(String localName) {
+        return mix(TYPE_SEED ^ localName.hashCode());
+    }
+
+    static int hashOfIdentifier(String identifier) {
+        return mix(IDENTIFIER_SEED ^ identifier.hashCode());
+    }
+
+    static int hashOfClass(String className) {
+        return mix(CLASS_SEED ^ className.hashCode());
+    }
+
+    private void addKeys(Element element) {
+        if ((kinds & TYPE) != 0) {
+            String localName = element.getLocalName();
+            if (localName != null) {
+                addHash(hashOfType(localName));
+            }
+        }
+        if ((kinds & IDENTIFIER) != 0 && element.hasAttributes()) {
+            NamedNodeMap attributes = element.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Attr attribute = (Attr)attributes.item(i);
+                if (attribute.isId()) {
+                    addHash(hashOfIdentifier(attribute.getValue()));
+                }
+            }
+        }
+        if ((kinds & CLASS) != 0) {
+            String classes = element.getAttribute("class");
+            int start = SpaceSeparatedList.nextToken(classes, 0);
+            while (start >= 0) {
+                // computes the same hash as String.hashCode() of the class name without extracting it.
+                int hash = 0;
+                int end = SpaceSeparatedList.tokenEnd(classes, start);
+                for (int i = start; i < end; i++) {
+                    hash = 31 * hash + classes.charAt(i);
+                }
+                addHash(mix(CLASS_SEED ^ hash));
+                start = SpaceSeparatedList.nextToken(classes, end);
+            }
+        }
+    }
+
+    private void addHash(int hash) {
+        if (hashCount == hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashCount * 2);
+        }
+        hashes[hashCount++] = hash;
+        updateCounters(hash, 1);
+    }
+
+    private void updateCounters(int hash, int delta) {
+        updateCounter(hash & KEY_MASK, delta);
+        updateCounter((hash >>> KEY_BITS) & KEY_MASK, delta);
+    }
+
+    private void updateCounter(int index, int delta) {
+        int count = counters[index] & MAX_COUNT;
+        // saturated counters are never decremented, which may only cause false positives.
+        if (count != MAX_COUNT) {
+            counters[index] = (byte)(count + delta);
+        }
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9e3779b1;
+        return hash ^ (hash >>> 15);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.function.Consumer;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import io.github.i49.cascade.core.walkers.Visitor;
+
+/**
+ * Visitor which rejects the elements whose ancestors lack the keys required by the selector
+ * before testing the ancestors with the preceding sequences.
+ *
+ * <p>The filter is effective only while the walker notifies this visitor
+ * of entering and leaving children of each element.
+ * Elements visited without such notifications are always tested with the selector.</p>
+ */
+class AncestorFilteringVisitor implements Visitor {
+
+    private final DefaultSingleSelector selector;
+    private final SelectionContext context;
+    private final Element start;
+    private final AncestorKeys keys;
+    private final AncestorFilter filter;
+    private final Consumer<Element> action;
+    // the element whose children are visited currently.
+    private Node parent;
+
+    AncestorFilteringVisitor(DefaultSingleSelector selector, SelectionContext context, AncestorKeys keys,
+            Consumer<Element> action) {
+        this.selector = selector;
+        this.context = context;
+        this.start = context.getRoot();
+        this.keys = keys;
+        this.filter = keys.createFilter();
+        this.action = action;
+    }
+
+    @Override
+    public void visit(Element element) {
+        if (!selector.matchesTail(element, context)) {
+            return;
+        }
+        if (element != start && element.getParentNode() == parent && !keys.mayBeContainedIn(filter)) {
+            return;
+        }
+        if (selector.testPrevious(element, context)) {
+            action.accept(element);
+        }
+    }
+
+    @Override
+    public void enterChildren(Element element) {
+        // the starting element is not an ancestor to be matched.
+        if (element != start) {
+            filter.push(element);
+        }
+        parent = element;
+    }
+
+    @Override
+    public void leaveChildren(Element element) {
+        if (element != start) {
+            filter.pop();
+        }
+        parent = element.getParentNode();
+    }
+}
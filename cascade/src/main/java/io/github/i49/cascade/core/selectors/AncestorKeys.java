@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.MatcherType;
+import io.github.i49.cascade.core.matchers.simple.ClassMatcher;
+import io.github.i49.cascade.core.matchers.simple.IdentifierMatcher;
+import io.github.i49.cascade.core.matchers.simple.TypeMatcher;
+import io.github.i49.cascade.core.matchers.util.Matchers;
+
+/**
+ * Keys which must be found in the ancestors of the elements matching a selector.
+ *
+ * <p>Each sequence followed by a descendant or child combinator matches an ancestor of the candidate,
+ * even if sibling combinators follow in the chain,
+ * because siblings share all their ancestors.
+ * Therefore the local names, identifiers and class names required by such sequences
+ * must be found in the ancestors.</p>
+ */
+final class AncestorKeys {
+
+    private final int kinds;
+    private final int[] hashes;
+
+    /**
+     * Collects the keys from the given sequence.
+     *
+     * @param tail the last sequence of the selector.
+     * @return the keys found, which are empty if no key is required.
+     */
+    static AncestorKeys of(TailSequence tail) {
+        int kinds = 0;
+        List<Integer> hashes = new ArrayList<>();
+        Sequence sequence = tail.getPrevious();
+        while (sequence != null) {
+            if (sequence instanceof DescendantSequence || sequence instanceof ChildSequence) {
+                Matcher optimum = ((AbstractSequence)sequence).optimum();
+                Matcher found = Matchers.extractByType(optimum, MatcherType.TYPE);
+                if (found != null) {
+                    kinds |= AncestorFilter.TYPE;
+                    hashes.add(AncestorFilter.hashOfType(((TypeMatcher)found).getLocalName()));
+                }
+                found = Matchers.extractByType(optimum, MatcherType.IDENTIFIER);
+                if (found != null) {
+                    kinds |= AncestorFilter.IDENTIFIER;
+                    hashes.add(AncestorFilter.hashOfIdentifier(((IdentifierMatcher)found).getIdentifier()));
+                }
+                for (Matcher m: Matchers.extractAllByType(optimum, MatcherType.CLASS)) {
+                    kinds |= AncestorFilter.CLASS;
+                    hashes.add(AncestorFilter.hashOfClass(((ClassMatcher)m).getClassName()));
+                }
+            }
+            sequence = sequence.getPrevious();
+        }
+        return new AncestorKeys(kinds, hashes);
+    }
+
+    private AncestorKeys(int kinds, List<Integer> hashes) {
+        this.kinds = kinds;
+        this.hashes = new int[hashes.size()];
+        for (int i = 0; i < this.hashes.length; i++) {
+            this.hashes[i] = hashes.get(i);
+        }
+    }
+
+    /**
+     * Checks if no key is required in the ancestors.
+     *
+     * @return {@code true} if no key is required.
+     */
+    boolean isEmpty() {
+        return hashes.length == 0;
+    }
+
+    /**
+     * Creates an empty filter which accepts the keys of this object.
+     *
+     * @return newly created filter.
+     */
+    AncestorFilter createFilter() {
+        return new AncestorFilter(kinds);
+    }
+
+    /**
+     * Checks if all keys of this object may be contained in the given filter.
+     *
+     * @param filter the filter of the ancestors.
+     * @return {@code false} if any key is missing for certain, {@code true} otherwise.
+     */
+    boolean mayBeContainedIn(AncestorFilter filter) {
+        return filter.mayContainAll(hashes);
+    }
+}
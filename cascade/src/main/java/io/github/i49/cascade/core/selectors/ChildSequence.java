@@ -30,7 +30,8 @@ public class ChildSequence extends PrecedingSequence {
     }
 
     @Override
-    public boolean test(Element start, Element root) {
+    protected boolean testCombined(Element start, SelectionContext context) {
+        Element root = context.getRoot();
         if (start == root) {
             return false;
         }
@@ -39,6 +40,6 @@ public class ChildSequence extends PrecedingSequence {
             return false;
         }
         Element element = (Element)parent;
-        return test(element) && testPrevious(element, root);
+        return matches(element, context) && testPrevious(element, context);
     }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.MatcherType;
+import io.github.i49.cascade.core.matchers.simple.IdentifierMatcher;
+import io.github.i49.cascade.core.matchers.util.Matchers;
+
+/**
+ * Single selector bound to a compact tree, which tests the elements by their numbers.
+ *
+ * <p>Each sequence of the selector is bound to the tree as a predicate,
+ * and the combinators follow the parents and the previous siblings in the tree
+ * with the same semantics as the subclasses of {@link PrecedingSequence}.
+ * An instance of this class is created for each selection
+ * as it holds the root of the selection and the memoized results.</p>
+ */
+class CompactSelector {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte MATCHED = 1;
+    private static final byte UNMATCHED = 2;
+
+    private final CompactTree tree;
+    private final int root;
+    // the predicates of the sequences from the last sequence to the first one.
+    private final IntPredicate[] predicates;
+    // the combinator on the left side of each sequence, null for the first sequence.
+    private final Combinator[] combinators;
+    // the memoized results of each sequence, null if the sequence is not memoized.
+    private final byte[][] results;
+    // the identifier required by the last sequence, may be null.
+    private final String identifier;
+    // the identifier required by one of the ancestors, may be null.
+    private final String ancestorIdentifier;
+    private final boolean never;
+
+    /**
+     * Binds the selector to the tree.
+     *
+     * @param selector the selector to bind.
+     * @param tree the tree of the elements.
+     * @param root the number of the root element of the selection.
+     */
+    CompactSelector(DefaultSingleSelector selector, CompactTree tree, int root) {
+        this.tree = tree;
+        this.root = root;
+        List<AbstractSequence> sequences = new ArrayList<>();
+        for (Sequence s = selector.getTail(); s != null; s = s.getPrevious()) {
+            sequences.add((AbstractSequence)s);
+        }
+        final int length = sequences.size();
+        this.predicates = new IntPredicate[length];
+        this.combinators = new Combinator[length];
+        this.results = new byte[length][];
+        boolean never = false;
+        for (int i = 0; i < length; i++) {
+            AbstractSequence sequence = sequences.get(i);
+            predicates[i] = sequence.optimum().bind(tree);
+            never |= sequence.optimum().matchesNever();
+            Sequence previous = sequence.getPrevious();
+            if (previous != null) {
+                combinators[i] = ((PrecedingSequence)previous).getCombinator();
+            }
+            if (sequence instanceof PrecedingSequence && ((PrecedingSequence)sequence).isMemoized()) {
+                results[i] = new byte[tree.size()];
+            }
+        }
+        this.never = never;
+        this.identifier = findIdentifier(sequences.get(0));
+        String ancestorIdentifier = null;
+        for (int i = 1; i < length; i++) {
+            Combinator combinator = combinators[i - 1];
+            if (combinator != Combinator.DESCENDANT && combinator != Combinator.CHILD) {
+                break;
+            }
+            ancestorIdentifier = findIdentifier(sequences.get(i));
+            if (ancestorIdentifier != null) {
+                break;
+            }
+        }
+        this.ancestorIdentifier = ancestorIdentifier;
+    }
+
+    /**
+     * Returns the identifier required by this selector.
+     *
+     * @return the identifier, or {@code null} if this selector does not require any identifier.
+     */
+    String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * Returns the identifier required by one of the ancestors of the elements matching this selector.
+     * The sequence requiring the identifier is combined with the last sequence
+     * only by descendant and child combinators.
+     *
+     * @return the identifier, or {@code null} if this selector does not require any such identifier.
+     */
+    String getAncestorIdentifier() {
+        return ancestorIdentifier;
+    }
+
+    /**
+     * Checks if this selector never matches any element.
+     *
+     * @return {@code true} if this selector never matches.
+     */
+    boolean matchesNever() {
+        return never;
+    }
+
+    /**
+     * Tests the element.
+     *
+     * @param ordinal the number of the element to test.
+     * @return {@code true} if the element matches this selector.
+     */
+    boolean test(int ordinal) {
+        return matches(0, ordinal);
+    }
+
+    private boolean matches(int index, int ordinal) {
+        return predicates[index].test(ordinal) && testPrevious(index, ordinal);
+    }
+
+    private boolean testPrevious(int index, int ordinal) {
+        Combinator combinator = combinators[index];
+        if (combinator == null) {
+            return true;
+        }
+        final int previous = index + 1;
+        byte[] memo = results[previous];
+        if (memo == null) {
+            return testCombined(previous, combinator, ordinal);
+        }
+        byte found = memo[ordinal];
+        if (found != UNKNOWN) {
+            return found == MATCHED;
+        }
+        boolean result = testCombined(previous, combinator, ordinal);
+        memo[ordinal] = result ? MATCHED : UNMATCHED;
+        return result;
+    }
+
+    /**
+     * Tests the elements combined with the given element by the combinator.
+     *
+     * @param index the index of the sequence on the left side of the combinator.
+     * @param combinator the combinator.
+     * @param ordinal the number of the element on the right side of the combinator.
+     * @return {@code true} if any of the combined elements matches the sequence and all preceding sequences.
+     */
+    private boolean testCombined(int index, Combinator combinator, int ordinal) {
+        switch (combinator) {
+        case DESCENDANT:
+            if (ordinal == root) {
+                return false;
+            }
+            for (int parent = tree.getParent(ordinal); parent != root && parent != CompactTree.NONE;
+                 parent = tree.getParent(parent)) {
+                if (matches(index, parent)) {
+                    return true;
+                }
+            }
+            return false;
+        case CHILD: {
+            if (ordinal == root) {
+                return false;
+            }
+            int parent = tree.getParent(ordinal);
+            if (parent == root || parent == CompactTree.NONE) {
+                return false;
+            }
+            return matches(index, parent);
+        }
+        case ADJACENT: {
+            int sibling = tree.getPreviousSibling(ordinal);
+            return sibling != CompactTree.NONE && matches(index, sibling);
+        }
+        case SIBLING:
+            for (int sibling = tree.getPreviousSibling(ordinal); sibling != CompactTree.NONE;
+                 sibling = tree.getPreviousSibling(sibling)) {
+                if (matches(index, sibling)) {
+                    return true;
+                }
+            }
+            return false;
+        default:
+            return false;
+        }
+    }
+
+    private static String findIdentifier(AbstractSequence sequence) {
+        Matcher found = Matchers.extractByType(sequence.optimum(), MatcherType.IDENTIFIER);
+        return (found != null) ? ((IdentifierMatcher)found).getIdentifier() : null;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import org.w3c.dom.Element;
+
+/**
+ * The base type of the classes generated from the sequences of a single selector.
+ *
+ * <p>Each generated class tests the elements in the same way as the tail sequence
+ * and all the preceding sequences do,
+ * with the checks of the compounds and the loops of the combinators written out in its own methods.
+ * This type is public because the generated classes are defined in other packages.</p>
+ *
+ * @see SequenceClassGenerator
+ */
+public abstract class CompiledSequence {
+
+    protected CompiledSequence() {
+    }
+
+    /**
+     * Tests the element with the tail sequence and all the preceding sequences.
+     *
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @return {@code true} if the element is selected.
+     */
+    public abstract boolean test(Element element, SelectionContext context);
+
+    /**
+     * Tests the element with the tail sequence only.
+     *
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @return {@code true} if the element matches the tail sequence.
+     */
+    public abstract boolean matches(Element element, SelectionContext context);
+
+    /**
+     * Tests the element with the sequences preceding the tail sequence.
+     *
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @return {@code true} if the element matches all the preceding sequences.
+     */
+    public abstract boolean testPrevious(Element element, SelectionContext context);
+
+    /**
+     * Finds the result memoized for the sequence.
+     *
+     * @param context the context of the selection.
+     * @param sequence the memoized sequence.
+     * @param element the element given to the sequence.
+     * @return the result found, or {@code null} if the sequence has not been tested for the element yet.
+     */
+    protected static Boolean findResult(SelectionContext context, Sequence sequence, Element element) {
+        return context.findResult(sequence, element);
+    }
+
+    /**
+     * Memoizes the result for the sequence.
+     *
+     * @param context the context of the selection.
+     * @param sequence the memoized sequence.
+     * @param element the element given to the sequence.
+     * @param result the result of the test.
+     */
+    protected static void putResult(SelectionContext context, Sequence sequence, Element element, boolean result) {
+        context.putResult(sequence, element, result);
+    }
+}
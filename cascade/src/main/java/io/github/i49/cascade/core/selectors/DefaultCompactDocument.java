@@ -0,0 +1,194 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.CompactDocument;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.core.dom.CompactTree;
+import io.github.i49.cascade.core.message.Message;
+
+/**
+ * Default implementation of {@link CompactDocument} interface.
+ *
+ * <p>The selectors are bound to the tree for each selection,
+ * so that no state of the selection is shared between threads.
+ * When the last sequence of a selector requires an identifier,
+ * only the elements having the identifier are tested.
+ * When one of the ancestors is required to have an identifier,
+ * only the subtrees of the elements having the identifier are searched.</p>
+ */
+public class DefaultCompactDocument implements CompactDocument {
+
+    private final CompactTree tree;
+
+    /**
+     * Builds a compact document.
+     *
+     * @param document the document to build from.
+     * @return newly created compact document.
+     */
+    public static DefaultCompactDocument of(Document document) {
+        return new DefaultCompactDocument(CompactTree.build(document));
+    }
+
+    private DefaultCompactDocument(CompactTree tree) {
+        this.tree = tree;
+    }
+
+    @Override
+    public Document getDocument() {
+        return tree.getDocument();
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    @Override
+    public Element getElement(int ordinal) {
+        return tree.getElement(checkOrdinal(ordinal));
+    }
+
+    @Override
+    public int ordinalOf(Element element) {
+        if (element == null) {
+            throw new NullPointerException("element must not be null.");
+        }
+        return tree.ordinalOf(element);
+    }
+
+    @Override
+    public int getParent(int ordinal) {
+        return tree.getParent(checkOrdinal(ordinal));
+    }
+
+    @Override
+    public int getFirstChild(int ordinal) {
+        return tree.getFirstChild(checkOrdinal(ordinal));
+    }
+
+    @Override
+    public int getNextSibling(int ordinal) {
+        return tree.getNextSibling(checkOrdinal(ordinal));
+    }
+
+    @Override
+    public int getPreviousSibling(int ordinal) {
+        return tree.getPreviousSibling(checkOrdinal(ordinal));
+    }
+
+    @Override
+    public List<Element> select(Selector selector, Element start) {
+        List<Element> found = new ArrayList<>();
+        search(selector, start, ordinal->found.add(tree.getElement(ordinal)));
+        return found;
+    }
+
+    @Override
+    public int count(Selector selector, Element start) {
+        int[] count = new int[1];
+        search(selector, start, ordinal->count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Searches the subtree of the starting element for the elements matching the selector.
+     *
+     * @param selector the selector to use.
+     * @param start the starting point of all elements to search.
+     * @param action the action to perform for the number of each element found, in document order.
+     */
+    private void search(Selector selector, Element start, IntConsumer action) {
+        if (selector == null) {
+            throw new NullPointerException("selector must not be null.");
+        } else if (start == null) {
+            throw new NullPointerException("start must not be null.");
+        }
+        List<DefaultSingleSelector> members = new ArrayList<>();
+        SelectorDispatcher.addMembers(selector, 0, members, new ArrayList<>());
+        final int root = tree.ordinalOf(start);
+        if (root == CompactTree.NONE) {
+            throw new IllegalArgumentException(Message.ELEMENT_IS_NOT_IN_DOCUMENT.toString());
+        }
+        List<CompactSelector> bound = new ArrayList<>(members.size());
+        for (DefaultSingleSelector member: members) {
+            CompactSelector compact = new CompactSelector(member, tree, root);
+            if (!compact.matchesNever()) {
+                bound.add(compact);
+            }
+        }
+        final int end = tree.endOf(root);
+        if (bound.size() == 1) {
+            CompactSelector single = bound.get(0);
+            String identifier = single.getIdentifier();
+            if (identifier != null) {
+                for (int ordinal: tree.findByIdentifier(identifier)) {
+                    if (ordinal >= root && ordinal < end && single.test(ordinal)) {
+                        action.accept(ordinal);
+                    }
+                }
+                return;
+            }
+            String ancestorIdentifier = single.getAncestorIdentifier();
+            if (ancestorIdentifier != null) {
+                // searches only the subtrees of the ancestors having the identifier.
+                int last = root + 1;
+                for (int ancestor: tree.findByIdentifier(ancestorIdentifier)) {
+                    if (ancestor >= last && ancestor < end) {
+                        last = tree.endOf(ancestor);
+                        searchRange(single, ancestor + 1, last, action);
+                    }
+                }
+                return;
+            }
+            searchRange(single, root, end, action);
+        } else if (!bound.isEmpty()) {
+            CompactSelector[] selectors = bound.toArray(new CompactSelector[bound.size()]);
+            for (int ordinal = root; ordinal < end; ordinal++) {
+                for (CompactSelector s: selectors) {
+                    if (s.test(ordinal)) {
+                        action.accept(ordinal);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void searchRange(CompactSelector selector, int from, int to, IntConsumer action) {
+        for (int ordinal = from; ordinal < to; ordinal++) {
+            if (selector.test(ordinal)) {
+                action.accept(ordinal);
+            }
+        }
+    }
+
+    private int checkOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= tree.size()) {
+            throw new IndexOutOfBoundsException(String.valueOf(ordinal));
+        }
+        return ordinal;
+    }
+}
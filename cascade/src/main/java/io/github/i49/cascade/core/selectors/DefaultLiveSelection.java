@@ -0,0 +1,245 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.events.Event;
+import org.w3c.dom.events.EventListener;
+import org.w3c.dom.events.EventTarget;
+
+import io.github.i49.cascade.api.LiveSelection;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.core.dom.Elements;
+import io.github.i49.cascade.core.walkers.DepthFirstWalker;
+import io.github.i49.cascade.core.walkers.Walker;
+
+/**
+ * Default implementation of {@link LiveSelection} interface.
+ *
+ * <p>The selected elements are kept in document order.
+ * The elements in any subtree, or in any range of siblings and their descendants,
+ * are contiguous in the list,
+ * therefore the elements affected by a modification are replaced as a range
+ * found by binary search with {@link Node#compareDocumentPosition(Node)}.
+ * The elements removed from the document are disconnected from it
+ * and regarded as in the range of the modified node.</p>
+ */
+public class DefaultLiveSelection implements LiveSelection, EventListener {
+
+    private static final String EVENT_TYPE = "DOMSubtreeModified";
+
+    private final AbstractSelector selector;
+    private final Element start;
+    // true if the following siblings are affected by the modified element.
+    private final boolean siblingDependent;
+    private final List<Element> elements;
+    private final Walker walker = DepthFirstWalker.create();
+    private EventTarget target;
+
+    /**
+     * Creates a live selection.
+     *
+     * @param selector the selector to use.
+     * @param start the starting point of all elements to search.
+     * @return newly created live selection.
+     * @throws IllegalArgumentException if the selector is not compiled by this implementation.
+     */
+    public static DefaultLiveSelection create(Selector selector, Element start) {
+        List<DefaultSingleSelector> members = new ArrayList<>();
+        SelectorDispatcher.addMembers(selector, 0, members, new ArrayList<>());
+        boolean siblingDependent = false;
+        for (DefaultSingleSelector member: members) {
+            siblingDependent |= member.dependsOnSiblings();
+        }
+        return new DefaultLiveSelection((AbstractSelector)selector, start, siblingDependent);
+    }
+
+    private DefaultLiveSelection(AbstractSelector selector, Element start, boolean siblingDependent) {
+        this.selector = selector;
+        this.start = start;
+        this.siblingDependent = siblingDependent;
+        this.elements = new ArrayList<>(selector.select(start));
+        Document doc = start.getOwnerDocument();
+        if (doc instanceof EventTarget && doc.getImplementation().hasFeature("MutationEvents", "2.0")) {
+            this.target = (EventTarget)doc;
+            this.target.addEventListener(EVENT_TYPE, this, false);
+        }
+    }
+
+    @Override
+    public Selector getSelector() {
+        return selector;
+    }
+
+    @Override
+    public Element getStart() {
+        return start;
+    }
+
+    @Override
+    public List<Element> getElements() {
+        return Collections.unmodifiableList(new ArrayList<>(elements));
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public boolean isListening() {
+        return target != null;
+    }
+
+    @Override
+    public void handleEvent(Event event) {
+        notifyChanged((Node)event.getTarget());
+    }
+
+    @Override
+    public void notifyChanged(Node node) {
+        if (node == null) {
+            throw new NullPointerException("node must not be null.");
+        }
+        Node changed = node;
+        if (changed.getNodeType() == Node.ATTRIBUTE_NODE) {
+            changed = ((Attr)changed).getOwnerElement();
+        } else if (changed.getNodeType() != Node.ELEMENT_NODE && changed.getNodeType() != Node.DOCUMENT_NODE) {
+            changed = changed.getParentNode();
+        }
+        if (changed == null) {
+            return;
+        } else if (changed.getNodeType() == Node.DOCUMENT_NODE) {
+            if (changed == start.getOwnerDocument()) {
+                reselectAll();
+            }
+            return;
+        } else if (changed.getNodeType() != Node.ELEMENT_NODE
+                || changed.getOwnerDocument() != start.getOwnerDocument()) {
+            return;
+        }
+        Element element = (Element)changed;
+        if (element == start) {
+            reselect(element, element);
+        } else if (Elements.isAncestor(start, element)) {
+            reselect(element, siblingDependent ? (Element)element.getParentNode() : element);
+        } else if (Elements.isAncestor(element, start)
+                || siblingDependent && element.getParentNode() == start.getParentNode()) {
+            // The starting element may be affected by its siblings.
+            reselectAll();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (target != null) {
+            target.removeEventListener(EVENT_TYPE, this, false);
+            target = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return elements.toString();
+    }
+
+    private void reselectAll() {
+        elements.clear();
+        elements.addAll(selector.select(start));
+    }
+
+    /**
+     * Tests again the elements from the given element to the last descendant of the container.
+     *
+     * @param first the first element to test.
+     * @param container the element containing all elements to test,
+     *                  which is the first element itself or its parent.
+     */
+    private void reselect(Element first, Element container) {
+        int from = findFirst(first);
+        int to = findEnd(from, container);
+        List<Element> found = new ArrayList<>();
+        SelectionContext context = new SelectionContext(start);
+        Node node = first;
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                walker.walkTree((Element)node, element->{
+                    if (selector.test(element, context)) {
+                        found.add(element);
+                    }
+                });
+            }
+            node = (container != first) ? node.getNextSibling() : null;
+        }
+        List<Element> range = elements.subList(from, to);
+        range.clear();
+        range.addAll(found);
+    }
+
+    /**
+     * Finds the first element in the list not preceding the given element.
+     *
+     * @param first the first element of the range.
+     * @return the index of the element found.
+     */
+    private int findFirst(Element first) {
+        int low = 0;
+        int high = elements.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            short position = first.compareDocumentPosition(elements.get(middle));
+            if ((position & Node.DOCUMENT_POSITION_DISCONNECTED) == 0
+                    && (position & Node.DOCUMENT_POSITION_PRECEDING) != 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first element in the list following the descendants of the given container.
+     *
+     * @param from the index at which the search starts.
+     * @param container the element containing the range.
+     * @return the index of the element found.
+     */
+    private int findEnd(int from, Element container) {
+        int low = from;
+        int high = elements.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            short position = container.compareDocumentPosition(elements.get(middle));
+            if ((position & Node.DOCUMENT_POSITION_DISCONNECTED) == 0
+                    && (position & Node.DOCUMENT_POSITION_FOLLOWING) != 0
+                    && (position & Node.DOCUMENT_POSITION_CONTAINED_BY) == 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.MultiSelector;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.core.walkers.DepthFirstWalker;
+import io.github.i49.cascade.core.walkers.IdentifierWalker;
+import io.github.i49.cascade.core.walkers.NeverWalker;
+import io.github.i49.cascade.core.walkers.RootOnlyWalker;
+import io.github.i49.cascade.core.walkers.Walker;
+
+/**
+ * Default implementation of {@link MultiSelector} interface.
+ *
+ * <p>The selector groups are expanded into their members,
+ * which report the matches to the position of the group in the batch.
+ * The selectors visiting at most one element, such as the ones with identifiers,
+ * are run separately because walking the whole tree costs more than visiting the element directly.</p>
+ */
+public class DefaultMultiSelector implements MultiSelector {
+
+    private final List<Selector> selectors;
+    // the selectors run separately and their positions.
+    private final DefaultSingleSelector[] separated;
+    private final int[] separatedOwners;
+    private final SelectorDispatcher dispatcher;
+    private final boolean dispatching;
+    private final Walker walker = DepthFirstWalker.create();
+
+    /**
+     * Creates a batch of the given selectors.
+     *
+     * @param selectors the selectors to contain.
+     * @return newly created batch.
+     * @throws IllegalArgumentException if any of the selectors is not compiled by this implementation.
+     */
+    public static DefaultMultiSelector of(List<Selector> selectors) {
+        List<DefaultSingleSelector> separated = new ArrayList<>();
+        List<Integer> separatedOwners = new ArrayList<>();
+        List<DefaultSingleSelector> dispatched = new ArrayList<>();
+        List<Integer> dispatchedOwners = new ArrayList<>();
+        for (int i = 0; i < selectors.size(); i++) {
+            Selector selector = selectors.get(i);
+            if (selector instanceof DefaultSingleSelector
+                    && visitsAtMostOne(((DefaultSingleSelector)selector).getWalker())) {
+                separated.add((DefaultSingleSelector)selector);
+                separatedOwners.add(i);
+            } else {
+                SelectorDispatcher.addMembers(selector, i, dispatched, dispatchedOwners);
+            }
+        }
+        // a single selector walks the tree in its own way.
+        if (dispatched.size() == 1 && selectors.get(dispatchedOwners.get(0)) == dispatched.get(0)) {
+            separated.addAll(dispatched);
+            separatedOwners.addAll(dispatchedOwners);
+            dispatched.clear();
+            dispatchedOwners.clear();
+        }
+        return new DefaultMultiSelector(selectors, separated, separatedOwners, dispatched, dispatchedOwners);
+    }
+
+    private static boolean visitsAtMostOne(Walker walker) {
+        return walker instanceof IdentifierWalker
+            || walker instanceof RootOnlyWalker
+            || walker instanceof NeverWalker;
+    }
+
+    private DefaultMultiSelector(List<Selector> selectors,
+            List<DefaultSingleSelector> separated, List<Integer> separatedOwners,
+            List<DefaultSingleSelector> dispatched, List<Integer> dispatchedOwners) {
+        this.selectors = Collections.unmodifiableList(new ArrayList<>(selectors));
+        this.separated = separated.toArray(new DefaultSingleSelector[separated.size()]);
+        this.separatedOwners = toArray(separatedOwners);
+        this.dispatcher = new SelectorDispatcher(dispatched, toArray(dispatchedOwners));
+        this.dispatching = !dispatched.isEmpty();
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    @Override
+    public List<Selector> getSelectors() {
+        return selectors;
+    }
+
+    @Override
+    public List<List<Element>> select(Element start) {
+        AbstractSelector.validateStart(start);
+        final int size = selectors.size();
+        List<List<Element>> selected = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            selected.add(new ArrayList<>());
+        }
+        for (int i = 0; i < separated.length; i++) {
+            selected.set(separatedOwners[i], separated[i].select(start));
+        }
+        if (!dispatching) {
+            return selected;
+        }
+        // the last element added for each selector, which prevents the members of a group from adding it twice.
+        Element[] last = new Element[size];
+        ObjIntConsumer<Element> action = (element, owner)->{
+            if (last[owner] != element) {
+                last[owner] = element;
+                selected.get(owner).add(element);
+            }
+        };
+        SelectionContext context = new SelectionContext(start);
+        walker.walkTree(start, element->dispatcher.dispatchAll(element, context, action));
+        return selected;
+    }
+
+    @Override
+    public String toString() {
+        return selectors.stream()
+                .map(Selector::toString)
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.RuleSet;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.core.walkers.DepthFirstWalker;
+import io.github.i49.cascade.core.walkers.Walker;
+
+/**
+ * Default implementation of {@link RuleSet} interface.
+ */
+public class DefaultRuleSet implements RuleSet {
+
+    private static final int[] NO_RULES = {};
+
+    private final List<Selector> rules;
+    private final SelectorDispatcher dispatcher;
+    private final Walker walker = DepthFirstWalker.create();
+
+    /**
+     * Creates a rule set of the given selectors.
+     *
+     * @param rules the selectors to contain.
+     * @return newly created rule set.
+     * @throws IllegalArgumentException if any of the selectors is not compiled by this implementation.
+     */
+    public static DefaultRuleSet of(List<Selector> rules) {
+        List<DefaultSingleSelector> members = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            SelectorDispatcher.addMembers(rules.get(i), i, members, owners);
+        }
+        int[] array = new int[owners.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = owners.get(i);
+        }
+        return new DefaultRuleSet(rules, new SelectorDispatcher(members, array));
+    }
+
+    private DefaultRuleSet(List<Selector> rules, SelectorDispatcher dispatcher) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public List<Selector> getRules() {
+        return rules;
+    }
+
+    @Override
+    public int[] match(Element element) {
+        AbstractSelector.validateStart(element);
+        Element root = element.getOwnerDocument().getDocumentElement();
+        RuleCollector collector = new RuleCollector();
+        dispatcher.dispatchAll(element, new SelectionContext(root), collector);
+        return collector.toArray();
+    }
+
+    @Override
+    public Map<Element, int[]> matchAll(Element start) {
+        AbstractSelector.validateStart(start);
+        Map<Element, int[]> matched = new LinkedHashMap<>();
+        SelectionContext context = new SelectionContext(start);
+        RuleCollector collector = new RuleCollector();
+        walker.walkTree(start, element->{
+            dispatcher.dispatchAll(element, context, collector);
+            if (collector.size > 0) {
+                matched.put(element, collector.toArray());
+                collector.size = 0;
+            }
+        });
+        return matched;
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return new DefaultStatistics(dispatcher);
+    }
+
+    @Override
+    public String toString() {
+        return rules.toString();
+    }
+
+    /**
+     * Collector of the indices of the matched rules.
+     */
+    private static class RuleCollector implements ObjIntConsumer<Element> {
+
+        private int[] indices = new int[8];
+        private int size;
+
+        @Override
+        public void accept(Element element, int index) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+            }
+            indices[size++] = index;
+        }
+
+        /**
+         * Returns the collected indices sorted without duplicates.
+         *
+         * @return the indices collected.
+         */
+        int[] toArray() {
+            if (size == 0) {
+                return NO_RULES;
+            }
+            Arrays.sort(indices, 0, size);
+            int unique = 1;
+            for (int i = 1; i < size; i++) {
+                if (indices[i] != indices[unique - 1]) {
+                    indices[unique++] = indices[i];
+                }
+            }
+            return Arrays.copyOf(indices, unique);
+        }
+    }
+
+    /**
+     * Snapshot of the statistics.
+     */
+    private static class DefaultStatistics implements Statistics {
+
+        private final int selectorCount;
+        private final int identifierBucketCount;
+        private final int classBucketCount;
+        private final int typeBucketCount;
+        private final int attributeBucketCount;
+        private final int universalSelectorCount;
+        private final int largestBucketSize;
+
+        DefaultStatistics(SelectorDispatcher dispatcher) {
+            this.selectorCount = dispatcher.size();
+            this.identifierBucketCount = dispatcher.countIdentifierBuckets();
+            this.classBucketCount = dispatcher.countClassBuckets();
+            this.typeBucketCount = dispatcher.countTypeBuckets();
+            this.attributeBucketCount = dispatcher.countAttributeBuckets();
+            this.universalSelectorCount = dispatcher.countUniversal();
+            this.largestBucketSize = dispatcher.findLargestBucket();
+        }
+
+        @Override
+        public int getSelectorCount() {
+            return selectorCount;
+        }
+
+        @Override
+        public int getIdentifierBucketCount() {
+            return identifierBucketCount;
+        }
+
+        @Override
+        public int getClassBucketCount() {
+            return classBucketCount;
+        }
+
+        @Override
+        public int getTypeBucketCount() {
+            return typeBucketCount;
+        }
+
+        @Override
+        public int getAttributeBucketCount() {
+            return attributeBucketCount;
+        }
+
+        @Override
+        public int getUniversalSelectorCount() {
+            return universalSelectorCount;
+        }
+
+        @Override
+        public int getLargestBucketSize() {
+            return largestBucketSize;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder b = new StringBuilder();
+            b.append("selectors=").append(selectorCount)
+             .append(", identifier buckets=").append(identifierBucketCount)
+             .append(", class buckets=").append(classBucketCount)
+             .append(", type buckets=").append(typeBucketCount)
+             .append(", attribute buckets=").append(attributeBucketCount)
+             .append(", universal selectors=").append(universalSelectorCount)
+             .append(", largest bucket=").append(largestBucketSize);
+            return b.toString();
+        }
+    }
+}
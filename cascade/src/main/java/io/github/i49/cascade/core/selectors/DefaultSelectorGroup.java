@@ -27,6 +27,7 @@ import io.github.i49.cascade.api.Selector;
 import io.github.i49.cascade.api.SelectorGroup;
 import io.github.i49.cascade.api.SingleSelector;
 import io.github.i49.cascade.core.walkers.DepthFirstWalker;
+import io.github.i49.cascade.core.walkers.Walker;
 
 /**
  *
@@ -34,6 +35,8 @@ import io.github.i49.cascade.core.walkers.DepthFirstWalker;
 public class DefaultSelectorGroup extends AbstractSelector implements SelectorGroup {
 
     private final List<DefaultSingleSelector> selectors;
+    // the dispatcher of the elements to the selectors, created on first use.
+    private volatile SelectorDispatcher dispatcher;
 
     /**
      * Creates a selector containing all given selectors.
@@ -50,7 +53,6 @@ public class DefaultSelectorGroup extends AbstractSelector implements SelectorGr
     }
 
     private DefaultSelectorGroup(List<DefaultSingleSelector> selectors) {
-        super(DepthFirstWalker.create());
         this.selectors = selectors;
     }
 
@@ -68,12 +70,16 @@ public class DefaultSelectorGroup extends AbstractSelector implements SelectorGr
     }
 
     @Override
-    public boolean test(Element element, Element root) {
-        for (DefaultSingleSelector selector: selectors) {
-            if (selector.test(element, root)) {
-                return true;
-            }
+    public boolean test(Element element, SelectionContext context) {
+        SelectorDispatcher dispatcher = this.dispatcher;
+        if (dispatcher == null) {
+            this.dispatcher = dispatcher = new SelectorDispatcher(selectors, new int[selectors.size()]);
         }
-        return false;
+        return dispatcher.matchesAny(element, context);
+    }
+
+    @Override
+    protected Walker createWalker() {
+        return DepthFirstWalker.create();
     }
 }
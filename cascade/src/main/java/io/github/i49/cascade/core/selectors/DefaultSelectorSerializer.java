@@ -0,0 +1,661 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorSerializer;
+import io.github.i49.cascade.api.SingleSelector;
+import io.github.i49.cascade.core.matchers.AllOfMatcher;
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.pseudo.NegationMatcher;
+import io.github.i49.cascade.core.matchers.pseudo.OrdinalPositionMatcher;
+import io.github.i49.cascade.core.matchers.pseudo.Parity;
+import io.github.i49.cascade.core.matchers.pseudo.PseudoClass;
+import io.github.i49.cascade.core.matchers.pseudo.PseudoClassMatcher;
+import io.github.i49.cascade.core.matchers.pseudo.PseudoClassMatcherFactory;
+import io.github.i49.cascade.core.matchers.simple.AttributeNameMatcher;
+import io.github.i49.cascade.core.matchers.simple.AttributeValueMatcher;
+import io.github.i49.cascade.core.matchers.simple.ClassMatcher;
+import io.github.i49.cascade.core.matchers.simple.DashSeparatedValueMatcher;
+import io.github.i49.cascade.core.matchers.simple.ExactMatcher;
+import io.github.i49.cascade.core.matchers.simple.IdentifierMatcher;
+import io.github.i49.cascade.core.matchers.simple.PrefixMatcher;
+import io.github.i49.cascade.core.matchers.simple.QualifiedMatcherProvider;
+import io.github.i49.cascade.core.matchers.simple.SpaceSeparatedValueMatcher;
+import io.github.i49.cascade.core.matchers.simple.SubstringMatcher;
+import io.github.i49.cascade.core.matchers.simple.SuffixMatcher;
+import io.github.i49.cascade.core.matchers.simple.TypeMatcher;
+import io.github.i49.cascade.core.matchers.simple.UniversalMatcher;
+import io.github.i49.cascade.core.matchers.util.Matchers;
+import io.github.i49.cascade.core.message.Message;
+
+/**
+ * Default implementation of {@link SelectorSerializer} interface.
+ *
+ * <p>The stream starts with the magic number, the version of the format and the length of the payload.
+ * The payload is made of the following tables, where all numbers are written as variable-length integers.</p>
+ * <ol>
+ * <li>The strings used by the matchers, each of which is written only once.</li>
+ * <li>The matchers, each of which refers to the strings and the matchers before it by their indices.
+ *     The equal matchers are written only once.</li>
+ * <li>The selectors, each of which has the single selectors in it.
+ *     Each single selector has the matcher of the rightmost sequence,
+ *     followed by the combinator and the matcher of each preceding sequence from right to left.</li>
+ * </ol>
+ * <p>The matchers read are shared among the selectors read from the same stream.</p>
+ */
+public class DefaultSelectorSerializer implements SelectorSerializer {
+
+    private static final int MAGIC = 0x43534C53; // "CSLS"
+    private static final int VERSION = 1;
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    // tags of the matchers
+    private static final int UNIVERSAL = 1;
+    private static final int TYPE = 2;
+    private static final int IDENTIFIER = 3;
+    private static final int CLASS = 4;
+    private static final int ATTRIBUTE = 5;
+    private static final int ATTRIBUTE_VALUE = 6;
+    private static final int PSEUDO_CLASS = 7;
+    private static final int ORDINAL_POSITION = 8;
+    private static final int NEGATION = 9;
+    private static final int ALL_OF = 10;
+
+    // operators of the attribute values
+    private static final int EXACT = 0;
+    private static final int SPACE_SEPARATED = 1;
+    private static final int DASH_SEPARATED = 2;
+    private static final int PREFIX = 3;
+    private static final int SUFFIX = 4;
+    private static final int SUBSTRING = 5;
+
+    private final PseudoClassMatcherFactory pseudoClassMatcherFactory;
+
+    /**
+     * Constructs this serializer.
+     */
+    public DefaultSelectorSerializer() {
+        this.pseudoClassMatcherFactory = PseudoClassMatcherFactory.create();
+    }
+
+    @Override
+    public void write(List<? extends Selector> selectors, OutputStream out) throws IOException {
+        if (selectors == null) {
+            throw new NullPointerException(Message.ARGUMENT_IS_NULL.with("selectors"));
+        }
+        if (out == null) {
+            throw new NullPointerException(Message.ARGUMENT_IS_NULL.with("out"));
+        }
+        Writer writer = new Writer();
+        for (Selector selector: selectors) {
+            if (selector == null) {
+                throw new NullPointerException(Message.ARGUMENT_IS_NULL.with("selector"));
+            }
+            writer.addSelector(selector);
+        }
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        writer.writeTo(data);
+        data.flush();
+    }
+
+    @Override
+    public List<Selector> read(InputStream in) throws IOException {
+        if (in == null) {
+            throw new NullPointerException(Message.ARGUMENT_IS_NULL.with("in"));
+        }
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException(Message.SERIALIZED_FORMAT_IS_INVALID.toString());
+        }
+        int version = data.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException(Message.SERIALIZED_VERSION_IS_NOT_SUPPORTED.with(version));
+        }
+        int length = data.readInt();
+        if (length < 0) {
+            throw corrupted();
+        }
+        return new Reader(readPayload(data, length)).readSelectors();
+    }
+
+    /**
+     * Reads the payload of the given length.
+     * The buffer grows only as the bytes are actually read,
+     * for the length in a corrupted stream can be too large.
+     *
+     * @param in the stream to read from.
+     * @param length the length of the payload.
+     * @return the payload read.
+     * @throws IOException if the stream ended before the payload.
+     */
+    private static byte[] readPayload(InputStream in, int length) throws IOException {
+        byte[] payload = new byte[Math.min(length, INITIAL_BUFFER_SIZE)];
+        int filled = 0;
+        while (filled < length) {
+            if (filled == payload.length) {
+                payload = Arrays.copyOf(payload, (int)Math.min(length, payload.length * 2L));
+            }
+            int read = in.read(payload, filled, payload.length - filled);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            filled += read;
+        }
+        return payload;
+    }
+
+    private static IOException corrupted() {
+        return new IOException(Message.SERIALIZED_DATA_IS_CORRUPTED.toString());
+    }
+
+    /**
+     * Writer which builds the tables of a stream.
+     */
+    private static class Writer {
+
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final Map<Matcher, Integer> matchers = new HashMap<>();
+        private final Payload matcherTable = new Payload();
+        private final Payload selectorTable = new Payload();
+        private int selectorCount;
+
+        void addSelector(Selector selector) {
+            if (selector instanceof DefaultSingleSelector) {
+                selectorTable.writeNumber(1);
+                addSingleSelector((DefaultSingleSelector)selector);
+            } else if (selector instanceof DefaultSelectorGroup) {
+                List<DefaultSingleSelector> members = new ArrayList<>();
+                for (SingleSelector member: (DefaultSelectorGroup)selector) {
+                    members.add((DefaultSingleSelector)member);
+                }
+                selectorTable.writeNumber(members.size());
+                for (DefaultSingleSelector member: members) {
+                    addSingleSelector(member);
+                }
+            } else {
+                throw new IllegalArgumentException(Message.SELECTOR_IS_NOT_SUPPORTED.toString());
+            }
+            selectorCount++;
+        }
+
+        private void addSingleSelector(DefaultSingleSelector selector) {
+            int sequences = 0;
+            for (Sequence s = selector.getTail(); s != null; s = s.getPrevious()) {
+                sequences++;
+            }
+            selectorTable.writeNumber(sequences);
+            TailSequence tail = selector.getTail();
+            selectorTable.writeNumber(addMatcher(tail.matcher));
+            for (Sequence s = tail.getPrevious(); s != null; s = s.getPrevious()) {
+                PrecedingSequence sequence = (PrecedingSequence)s;
+                selectorTable.writeNumber(sequence.getCombinator().ordinal());
+                selectorTable.writeNumber(addMatcher(sequence.matcher));
+            }
+        }
+
+        /**
+         * Adds the matcher and its components to the table.
+         *
+         * @param matcher the matcher to add.
+         * @return the index of the matcher in the table.
+         */
+        private int addMatcher(Matcher matcher) {
+            Integer found = matchers.get(matcher);
+            if (found != null) {
+                return found;
+            }
+            Payload p = matcherTable;
+            if (matcher instanceof AllOfMatcher) {
+                List<Integer> entries = new ArrayList<>();
+                for (Matcher entry: (AllOfMatcher)matcher) {
+                    entries.add(addMatcher(entry));
+                }
+                p.writeNumber(ALL_OF);
+                p.writeNumber(entries.size());
+                for (int entry: entries) {
+                    p.writeNumber(entry);
+                }
+            } else if (matcher instanceof NegationMatcher) {
+                int enclosed = addMatcher(((NegationMatcher)matcher).getEnclosed());
+                p.writeNumber(NEGATION);
+                p.writeNumber(enclosed);
+            } else if (matcher instanceof AttributeValueMatcher) {
+                AttributeValueMatcher valueMatcher = (AttributeValueMatcher)matcher;
+                int operator = operatorOf(valueMatcher);
+                int name = addMatcher(valueMatcher.getNameMatcher());
+                p.writeNumber(ATTRIBUTE_VALUE);
+                p.writeNumber(operator);
+                p.writeNumber(name);
+                p.writeNumber(addString(valueMatcher.getExpectedValue()));
+            } else if (matcher instanceof UniversalMatcher) {
+                p.writeNumber(UNIVERSAL);
+                addQualifier((UniversalMatcher)matcher);
+            } else if (matcher instanceof TypeMatcher) {
+                p.writeNumber(TYPE);
+                p.writeNumber(addString(((TypeMatcher)matcher).getLocalName()));
+                addQualifier((TypeMatcher)matcher);
+            } else if (matcher instanceof AttributeNameMatcher) {
+                p.writeNumber(ATTRIBUTE);
+                p.writeNumber(addString(((AttributeNameMatcher)matcher).getLocalName()));
+                addQualifier((AttributeNameMatcher)matcher);
+            } else if (matcher instanceof IdentifierMatcher) {
+                p.writeNumber(IDENTIFIER);
+                p.writeNumber(addString(((IdentifierMatcher)matcher).getIdentifier()));
+            } else if (matcher instanceof ClassMatcher) {
+                p.writeNumber(CLASS);
+                p.writeNumber(addString(((ClassMatcher)matcher).getClassName()));
+            } else if (matcher instanceof OrdinalPositionMatcher) {
+                OrdinalPositionMatcher ordinal = (OrdinalPositionMatcher)matcher;
+                p.writeNumber(ORDINAL_POSITION);
+                p.writeNumber(addString(ordinal.getPseudoClass().name()));
+                Parity parity = ordinal.getParity();
+                if (parity != null) {
+                    p.writeNumber(parity.ordinal() + 1);
+                } else {
+                    p.writeNumber(0);
+                    p.writeSignedNumber(ordinal.getA());
+                    p.writeSignedNumber(ordinal.getOffset());
+                }
+            } else if (matcher instanceof PseudoClassMatcher) {
+                p.writeNumber(PSEUDO_CLASS);
+                p.writeNumber(addString(((PseudoClassMatcher)matcher).getPseudoClass().name()));
+            } else {
+                throw new IllegalArgumentException(Message.SELECTOR_IS_NOT_SUPPORTED.toString());
+            }
+            int index = matchers.size();
+            matchers.put(matcher, index);
+            return index;
+        }
+
+        private void addQualifier(QualifiedMatcherProvider<?> matcher) {
+            matcherTable.writeNumber(addOptionalString(matcher.getPrefix()));
+            matcherTable.writeNumber(addOptionalString(matcher.getNamespace()));
+        }
+
+        private int addString(String value) {
+            Integer found = strings.get(value);
+            if (found != null) {
+                return found;
+            }
+            int index = strings.size();
+            strings.put(value, index);
+            return index;
+        }
+
+        private int addOptionalString(String value) {
+            return (value != null) ? addString(value) + 1 : 0;
+        }
+
+        private static int operatorOf(AttributeValueMatcher matcher) {
+            Class<?> type = matcher.getClass();
+            if (type == ExactMatcher.class) {
+                return EXACT;
+            } else if (type == SpaceSeparatedValueMatcher.class) {
+                return SPACE_SEPARATED;
+            } else if (type == DashSeparatedValueMatcher.class) {
+                return DASH_SEPARATED;
+            } else if (type == PrefixMatcher.class) {
+                return PREFIX;
+            } else if (type == SuffixMatcher.class) {
+                return SUFFIX;
+            } else if (type == SubstringMatcher.class) {
+                return SUBSTRING;
+            }
+            throw new IllegalArgumentException(Message.SELECTOR_IS_NOT_SUPPORTED.toString());
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            Payload payload = new Payload();
+            payload.writeNumber(strings.size());
+            for (String value: strings.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                payload.writeNumber(bytes.length);
+                payload.write(bytes, 0, bytes.length);
+            }
+            payload.writeNumber(matchers.size());
+            matcherTable.writeTo(payload);
+            payload.writeNumber(selectorCount);
+            selectorTable.writeTo(payload);
+            out.writeInt(payload.size());
+            payload.writeTo(out);
+        }
+    }
+
+    /**
+     * Buffer of the payload written with variable-length integers.
+     */
+    private static class Payload extends ByteArrayOutputStream {
+
+        void writeNumber(int value) {
+            while ((value & ~0x7f) != 0) {
+                write((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeSignedNumber(int value) {
+            writeNumber((value << 1) ^ (value >> 31));
+        }
+    }
+
+    /**
+     * Reader which rebuilds the selectors from the payload.
+     */
+    private class Reader {
+
+        private final byte[] payload;
+        private int position;
+        private String[] strings;
+        private Matcher[] matchers;
+
+        Reader(byte[] payload) {
+            this.payload = payload;
+        }
+
+        List<Selector> readSelectors() throws IOException {
+            readStrings();
+            readMatchers();
+            int count = readCount();
+            List<Selector> selectors = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int members = readCount();
+                if (members == 0) {
+                    throw corrupted();
+                }
+                List<DefaultSingleSelector> group = new ArrayList<>(members);
+                for (int j = 0; j < members; j++) {
+                    group.add(readSingleSelector());
+                }
+                selectors.add(DefaultSelectorGroup.of(group));
+            }
+            if (position != payload.length) {
+                throw corrupted();
+            }
+            return selectors;
+        }
+
+        private DefaultSingleSelector readSingleSelector() throws IOException {
+            int sequences = readCount();
+            if (sequences == 0) {
+                throw corrupted();
+            }
+            TailSequence tail = new TailSequence(readMatcher());
+            Sequence current = tail;
+            for (int i = 1; i < sequences; i++) {
+                Combinator combinator = readCombinator();
+                current = current.prepend(readMatcher(), combinator);
+            }
+            return new DefaultSingleSelector(tail);
+        }
+
+        private void readStrings() throws IOException {
+            strings = new String[readCount()];
+            for (int i = 0; i < strings.length; i++) {
+                int length = readCount();
+                if (length > payload.length - position) {
+                    throw corrupted();
+                }
+                strings[i] = new String(payload, position, length, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+
+        private void readMatchers() throws IOException {
+            matchers = new Matcher[readCount()];
+            for (int i = 0; i < matchers.length; i++) {
+                matchers[i] = decodeMatcher(i);
+            }
+        }
+
+        /**
+         * Decodes the matcher which can refer only to the matchers before it.
+         *
+         * @param limit the number of the matchers decoded so far.
+         * @return the matcher decoded.
+         * @throws IOException if the payload is corrupted.
+         */
+        private Matcher decodeMatcher(int limit) throws IOException {
+            switch (readNumber()) {
+            case UNIVERSAL:
+                return qualify(UniversalMatcher.get(), readOptionalString(), readOptionalString());
+            case TYPE:
+                return qualify(new TypeMatcher(readString()), readOptionalString(), readOptionalString());
+            case ATTRIBUTE: {
+                AttributeNameMatcher matcher = new AttributeNameMatcher(readString());
+                String prefix = readOptionalString();
+                String namespace = readOptionalString();
+                if (prefix == null && namespace != null) {
+                    throw corrupted();
+                }
+                return qualify(matcher, prefix, namespace);
+            }
+            case IDENTIFIER:
+                return new IdentifierMatcher(readString());
+            case CLASS:
+                return new ClassMatcher(readString());
+            case ATTRIBUTE_VALUE: {
+                int operator = readNumber();
+                Matcher name = readMatcher(limit);
+                if (!(name instanceof AttributeNameMatcher)) {
+                    throw corrupted();
+                }
+                return newAttributeValueMatcher(operator, (AttributeNameMatcher)name, readString());
+            }
+            case PSEUDO_CLASS: {
+                Matcher matcher = pseudoClassMatcherFactory.createMatcher(readPseudoClass());
+                if (matcher == null) {
+                    throw corrupted();
+                }
+                return matcher;
+            }
+            case ORDINAL_POSITION:
+                return readOrdinalPosition();
+            case NEGATION: {
+                // only a simple selector can be negated.
+                Matcher operand = readMatcher(limit);
+                if (operand instanceof AllOfMatcher || operand instanceof NegationMatcher) {
+                    throw corrupted();
+                }
+                return Matchers.negate(operand);
+            }
+            case ALL_OF: {
+                int count = readCount();
+                List<Matcher> entries = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    Matcher entry = readMatcher(limit);
+                    if (entry instanceof AllOfMatcher) {
+                        throw corrupted();
+                    }
+                    entries.add(entry);
+                }
+                if (entries.size() < 2) {
+                    throw corrupted();
+                }
+                return new AllOfMatcher(entries);
+            }
+            default:
+                throw corrupted();
+            }
+        }
+
+        private <T extends Matcher & QualifiedMatcherProvider<T>> T qualify(T matcher, String prefix, String namespace)
+                throws IOException {
+            if (prefix == null) {
+                return (namespace == null) ? matcher : matcher.withNamespace(namespace);
+            } else if (prefix.isEmpty()) {
+                return matcher.withoutNamespace();
+            } else if (prefix.equals("*")) {
+                return matcher.anyNamespace();
+            } else if (namespace == null) {
+                throw corrupted();
+            }
+            return matcher.withNamespace(prefix, namespace);
+        }
+
+        private Matcher newAttributeValueMatcher(int operator, AttributeNameMatcher name, String value)
+                throws IOException {
+            switch (operator) {
+            case EXACT:
+                return new ExactMatcher(name, value);
+            case SPACE_SEPARATED:
+                return new SpaceSeparatedValueMatcher(name, value);
+            case DASH_SEPARATED:
+                return new DashSeparatedValueMatcher(name, value);
+            case PREFIX:
+                return new PrefixMatcher(name, value);
+            case SUFFIX:
+                return new SuffixMatcher(name, value);
+            case SUBSTRING:
+                return new SubstringMatcher(name, value);
+            default:
+                throw corrupted();
+            }
+        }
+
+        private Matcher readOrdinalPosition() throws IOException {
+            PseudoClass pseudoClass = readPseudoClass();
+            switch (pseudoClass) {
+            case NTH_CHILD:
+            case NTH_LAST_CHILD:
+            case NTH_OF_TYPE:
+            case NTH_LAST_OF_TYPE:
+                break;
+            default:
+                throw corrupted();
+            }
+            int parity = readNumber();
+            Matcher matcher;
+            if (parity == 0) {
+                int a = readSignedNumber();
+                int b = readSignedNumber();
+                if (a == 0 && b < 0) {
+                    throw corrupted();
+                }
+                matcher = pseudoClassMatcherFactory.createMatcher(pseudoClass, a, b);
+            } else if (parity > 0 && parity <= Parity.values().length) {
+                matcher = pseudoClassMatcherFactory.createMatcher(pseudoClass, Parity.values()[parity - 1]);
+            } else {
+                throw corrupted();
+            }
+            if (!(matcher instanceof OrdinalPositionMatcher)) {
+                throw corrupted();
+            }
+            return matcher;
+        }
+
+        private PseudoClass readPseudoClass() throws IOException {
+            try {
+                return PseudoClass.valueOf(readString());
+            } catch (IllegalArgumentException e) {
+                throw corrupted();
+            }
+        }
+
+        private Combinator readCombinator() throws IOException {
+            int ordinal = readNumber();
+            Combinator[] combinators = Combinator.values();
+            if (ordinal < 0 || ordinal >= combinators.length) {
+                throw corrupted();
+            }
+            return combinators[ordinal];
+        }
+
+        private Matcher readMatcher() throws IOException {
+            return readMatcher(matchers.length);
+        }
+
+        private Matcher readMatcher(int limit) throws IOException {
+            int index = readNumber();
+            if (index < 0 || index >= limit) {
+                throw corrupted();
+            }
+            return matchers[index];
+        }
+
+        private String readString() throws IOException {
+            int index = readNumber();
+            if (index < 0 || index >= strings.length) {
+                throw corrupted();
+            }
+            return strings[index];
+        }
+
+        private String readOptionalString() throws IOException {
+            int index = readNumber();
+            if (index == 0) {
+                return null;
+            } else if (index < 0 || index > strings.length) {
+                throw corrupted();
+            }
+            return strings[index - 1];
+        }
+
+        /**
+         * Reads the number of the items which follow,
+         * which cannot exceed the number of the bytes remaining.
+         *
+         * @return the number of the items.
+         * @throws IOException if the payload is corrupted.
+         */
+        private int readCount() throws IOException {
+            int count = readNumber();
+            if (count < 0 || count > payload.length - position) {
+                throw corrupted();
+            }
+            return count;
+        }
+
+        private int readSignedNumber() throws IOException {
+            int value = readNumber();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private int readNumber() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (position >= payload.length) {
+                    throw corrupted();
+                }
+                int b = payload[position++];
+                value |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw corrupted();
+        }
+    }
+}
@@ -16,9 +16,17 @@
 
 package io.github.i49.cascade.core.selectors;
 
+import java.util.function.Consumer;
+
 import org.w3c.dom.Element;
 
 import io.github.i49.cascade.api.SingleSelector;
+import io.github.i49.cascade.core.matchers.AllOfMatcher;
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.pseudo.NegationMatcher;
+import io.github.i49.cascade.core.matchers.pseudo.PseudoClassMatcher;
+import io.github.i49.cascade.core.walkers.Visitor;
+import io.github.i49.cascade.core.walkers.Walker;
 
 /**
  * Default implementation of {@link SingleSelector} interface.
@@ -26,10 +34,25 @@ import io.github.i49.cascade.api.SingleSelector;
 public class DefaultSingleSelector extends AbstractSelector implements SingleSelector {
 
     private final TailSequence tail;
+    // the keys required in the ancestors, created on first use.
+    private volatile AncestorKeys ancestorKeys;
+    // the class generated from the sequences, may be null.
+    private final CompiledSequence compiled;
 
     public DefaultSingleSelector(TailSequence tail) {
-        super(tail.createWalker());
+        this(tail, null);
+    }
+
+    /**
+     * Constructs this selector testing the elements with the generated class.
+     *
+     * @param tail the tail sequence.
+     * @param compiled the class generated from the sequences, or {@code null} to interpret the sequences.
+     */
+    public DefaultSingleSelector(TailSequence tail, CompiledSequence compiled) {
+        tail.prepareMemoization();
         this.tail = tail;
+        this.compiled = compiled;
     }
 
     @Override
@@ -37,8 +60,92 @@ public class DefaultSingleSelector extends AbstractSelector implements SingleSel
         return tail.toString();
     }
 
+    TailSequence getTail() {
+        return tail;
+    }
+
+    /**
+     * Checks whether this selector depends on the siblings of the elements,
+     * that is, whether it has sibling combinators or pseudo-classes counting the siblings.
+     *
+     * @return {@code true} if this selector depends on the siblings.
+     */
+    boolean dependsOnSiblings() {
+        for (Sequence s = tail; s != null; s = s.getPrevious()) {
+            if (s instanceof AdjacentSequence || s instanceof SiblingSequence) {
+                return true;
+            } else if (dependsOnSiblings(((AbstractSequence)s).optimum())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean dependsOnSiblings(Matcher matcher) {
+        if (matcher instanceof AllOfMatcher) {
+            for (Matcher entry: (AllOfMatcher)matcher) {
+                if (dependsOnSiblings(entry)) {
+                    return true;
+                }
+            }
+        } else if (matcher instanceof NegationMatcher) {
+            return dependsOnSiblings(((NegationMatcher)matcher).getEnclosed());
+        } else if (matcher instanceof PseudoClassMatcher) {
+            return ((PseudoClassMatcher)matcher).getPseudoClass().dependsOnSiblings();
+        }
+        return false;
+    }
+
+    @Override
+    public boolean test(Element element, SelectionContext context) {
+        if (compiled != null) {
+            return compiled.test(element, context);
+        }
+        return tail.test(element, context);
+    }
+
+    /**
+     * Tests the element with the tail sequence only.
+     *
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @return {@code true} if the element matches the tail sequence.
+     */
+    boolean matchesTail(Element element, SelectionContext context) {
+        if (compiled != null) {
+            return compiled.matches(element, context);
+        }
+        return tail.matches(element, context);
+    }
+
+    /**
+     * Tests the element with the sequences preceding the tail sequence.
+     *
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @return {@code true} if the element matches all the preceding sequences.
+     */
+    boolean testPrevious(Element element, SelectionContext context) {
+        if (compiled != null) {
+            return compiled.testPrevious(element, context);
+        }
+        return tail.testPrevious(element, context);
+    }
+
+    @Override
+    protected Walker createWalker() {
+        return SelectionPlanner.createWalker(tail);
+    }
+
     @Override
-    public boolean test(Element element, Element root) {
-        return tail.test(element, root);
+    protected Visitor createVisitor(SelectionContext context, Consumer<Element> action) {
+        AncestorKeys ancestorKeys = this.ancestorKeys;
+        if (ancestorKeys == null) {
+            this.ancestorKeys = ancestorKeys = AncestorKeys.of(tail);
+        }
+        if (ancestorKeys.isEmpty()) {
+            return super.createVisitor(context, action);
+        }
+        return new AncestorFilteringVisitor(this, context, ancestorKeys, action);
     }
 }
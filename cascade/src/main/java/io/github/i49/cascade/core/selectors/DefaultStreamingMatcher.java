@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Element;
+import org.xml.sax.ContentHandler;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.StreamingMatcher;
+import io.github.i49.cascade.core.matchers.AllOfMatcher;
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.pseudo.NegationMatcher;
+import io.github.i49.cascade.core.matchers.pseudo.PseudoClass;
+import io.github.i49.cascade.core.matchers.pseudo.PseudoClassMatcher;
+import io.github.i49.cascade.core.message.Message;
+import io.github.i49.cascade.core.stream.FragmentBuilder;
+import io.github.i49.cascade.core.stream.FragmentSpliterator;
+import io.github.i49.cascade.core.stream.SaxElementHandler;
+import io.github.i49.cascade.core.stream.StaxElementReader;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.DocumentBuilder;
+
+/**
+ * Default implementation of {@link StreamingMatcher} interface.
+ *
+ * <p>The sequences of all member selectors are laid out in a flat array,
+ * each member from its first sequence to its last one.
+ * For each element read, {@link StreamedSelection} decides which sequences the element matches
+ * together with all of their preceding sequences,
+ * from the results of its ancestors and its preceding siblings kept in the stack.</p>
+ */
+public class DefaultStreamingMatcher implements StreamingMatcher {
+
+    private final Selector selector;
+    // the matchers of all sequences.
+    private final Matcher[] matchers;
+    // the combinator on the left side of each sequence, null for the first sequence of each member.
+    private final Combinator[] combinators;
+    // true for the last sequence of each member.
+    private final boolean[] tails;
+
+    /**
+     * Creates a streaming matcher.
+     *
+     * @param selector the selector to match.
+     * @return newly created streaming matcher.
+     * @throws IllegalArgumentException if the selector has any pseudo-class which depends on the following elements,
+     *         or the selector is not compiled by this implementation.
+     */
+    public static DefaultStreamingMatcher of(Selector selector) {
+        List<DefaultSingleSelector> members = new ArrayList<>();
+        SelectorDispatcher.addMembers(selector, 0, members, new ArrayList<>());
+        return new DefaultStreamingMatcher(selector, members);
+    }
+
+    private DefaultStreamingMatcher(Selector selector, List<DefaultSingleSelector> members) {
+        this.selector = selector;
+        List<AbstractSequence> sequences = new ArrayList<>();
+        for (DefaultSingleSelector member: members) {
+            List<AbstractSequence> reversed = new ArrayList<>();
+            for (Sequence s = member.getTail(); s != null; s = s.getPrevious()) {
+                AbstractSequence sequence = (AbstractSequence)s;
+                checkStreamable(sequence.matcher);
+                reversed.add(0, sequence);
+            }
+            sequences.addAll(reversed);
+        }
+        final int length = sequences.size();
+        this.matchers = new Matcher[length];
+        this.combinators = new Combinator[length];
+        this.tails = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            AbstractSequence sequence = sequences.get(i);
+            matchers[i] = sequence.optimum();
+            Sequence previous = sequence.getPrevious();
+            if (previous != null) {
+                combinators[i] = ((PrecedingSequence)previous).getCombinator();
+            }
+            tails[i] = !(sequence instanceof PrecedingSequence);
+        }
+    }
+
+    @Override
+    public Selector getSelector() {
+        return selector;
+    }
+
+    @Override
+    public void match(XMLStreamReader reader, Consumer<? super Match> action) throws XMLStreamException {
+        if (reader == null) {
+            throw new NullPointerException("reader must not be null.");
+        } else if (action == null) {
+            throw new NullPointerException("action must not be null.");
+        }
+        StaxElementReader.read(reader, new StreamedSelection(matchers, combinators, tails, action));
+    }
+
+    @Override
+    public ContentHandler createHandler(Consumer<? super Match> action) {
+        if (action == null) {
+            throw new NullPointerException("action must not be null.");
+        }
+        return new SaxElementHandler(new StreamedSelection(matchers, combinators, tails, action));
+    }
+
+    @Override
+    public void extract(XMLStreamReader reader, Consumer<? super Element> action) throws XMLStreamException {
+        if (reader == null) {
+            throw new NullPointerException("reader must not be null.");
+        } else if (action == null) {
+            throw new NullPointerException("action must not be null.");
+        }
+        StaxElementReader.read(reader, new FragmentBuilder(newDocumentBuilder(), newSelection(), action));
+    }
+
+    @Override
+    public Stream<Element> extract(XMLStreamReader reader) {
+        if (reader == null) {
+            throw new NullPointerException("reader must not be null.");
+        }
+        return StreamSupport.stream(new FragmentSpliterator(reader, newDocumentBuilder(), newSelection()), false);
+    }
+
+    @Override
+    public ContentHandler createExtractingHandler(Consumer<? super Element> action) {
+        if (action == null) {
+            throw new NullPointerException("action must not be null.");
+        }
+        return new SaxElementHandler(new FragmentBuilder(newDocumentBuilder(), newSelection(), action));
+    }
+
+    @Override
+    public String toString() {
+        return selector.toString();
+    }
+
+    /**
+     * Creates a new selection which only tests the elements.
+     *
+     * @return newly created selection.
+     */
+    private StreamedSelection newSelection() {
+        return new StreamedSelection(matchers, combinators, tails, null);
+    }
+
+    private static DocumentBuilder newDocumentBuilder() {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        try {
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks if the matcher can test the elements read from a stream.
+     *
+     * @param matcher the matcher to check.
+     * @throws IllegalArgumentException if the matcher has any pseudo-class which depends on the following elements.
+     */
+    private static void checkStreamable(Matcher matcher) {
+        if (matcher instanceof AllOfMatcher) {
+            for (Matcher entry: (AllOfMatcher)matcher) {
+                checkStreamable(entry);
+            }
+        } else if (matcher instanceof NegationMatcher) {
+            checkStreamable(((NegationMatcher)matcher).getEnclosed());
+        } else if (matcher instanceof PseudoClassMatcher) {
+            PseudoClass pseudoClass = ((PseudoClassMatcher)matcher).getPseudoClass();
+            if (pseudoClass.dependsOnFollowing()) {
+                throw new IllegalArgumentException(Message.PSEUDO_CLASS_IS_NOT_STREAMABLE.with(pseudoClass));
+            }
+        }
+    }
+}
@@ -30,14 +30,15 @@ public class DescendantSequence extends PrecedingSequence {
     }
 
     @Override
-    public boolean test(Element start, Element root) {
+    protected boolean testCombined(Element start, SelectionContext context) {
+        Element root = context.getRoot();
         if (start == root) {
             return false;
         }
         Node parent = start.getParentNode();
         while (parent != root) {
             Element element = (Element)parent;
-            if (test(element) && testPrevious(element, root)) {
+            if (matches(element, context) && testPrevious(element, context)) {
                 return true;
             }
             parent = parent.getParentNode();
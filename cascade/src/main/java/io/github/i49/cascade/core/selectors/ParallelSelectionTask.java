@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import org.w3c.dom.Element;
+
+/**
+ * Fork/join task which tests the candidate elements in parallel.
+ *
+ * <p>The candidates are given in document order.
+ * Each task splits its range of the candidates into two halves,
+ * which are contiguous parts of the subtree,
+ * and the results of the halves are concatenated in the original order.</p>
+ */
+class ParallelSelectionTask extends RecursiveTask<List<Element>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AbstractSelector selector;
+    private final Element start;
+    private final Element[] candidates;
+    private final int from;
+    private final int to;
+    private final int granularity;
+
+    /**
+     * Constructs this task.
+     *
+     * @param selector the selector to test the candidates.
+     * @param start the starting point of the search.
+     * @param candidates all candidates in document order.
+     * @param from the first position of the candidates to test, inclusive.
+     * @param to the last position of the candidates to test, exclusive.
+     * @param granularity the maximum number of the candidates to be tested without splitting.
+     */
+    ParallelSelectionTask(AbstractSelector selector, Element start, Element[] candidates,
+            int from, int to, int granularity) {
+        this.selector = selector;
+        this.start = start;
+        this.candidates = candidates;
+        this.from = from;
+        this.to = to;
+        this.granularity = granularity;
+    }
+
+    @Override
+    protected List<Element> compute() {
+        if (to - from <= granularity) {
+            return computeDirectly();
+        }
+        int middle = (from + to) >>> 1;
+        ParallelSelectionTask first = new ParallelSelectionTask(selector, start, candidates, from, middle, granularity);
+        ParallelSelectionTask second = new ParallelSelectionTask(selector, start, candidates, middle, to, granularity);
+        first.fork();
+        List<Element> secondResult = second.compute();
+        List<Element> result = first.join();
+        result.addAll(secondResult);
+        return result;
+    }
+
+    private List<Element> computeDirectly() {
+        // each task has its own context because the context is not thread-safe.
+        SelectionContext context = new SelectionContext(start);
+        List<Element> selected = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Element candidate = candidates[i];
+            if (selector.test(candidate, context)) {
+                selected.add(candidate);
+            }
+        }
+        return selected;
+    }
+}
@@ -16,6 +16,8 @@
 
 package io.github.i49.cascade.core.selectors;
 
+import org.w3c.dom.Element;
+
 import io.github.i49.cascade.core.matchers.Matcher;
 
 /**
@@ -24,12 +26,54 @@ import io.github.i49.cascade.core.matchers.Matcher;
 public abstract class PrecedingSequence extends AbstractSequence {
 
     public final Combinator combinator;
+    private boolean memoized;
 
     protected PrecedingSequence(Matcher matcher, Combinator combinator) {
         super(matcher);
         this.combinator = combinator;
     }
 
+    /**
+     * {@inheritDoc}
+     * If this sequence is memoized, the result for the same element
+     * is computed only once in the context.
+     */
+    @Override
+    public boolean test(Element start, SelectionContext context) {
+        if (!memoized) {
+            return testCombined(start, context);
+        }
+        Boolean found = context.findResult(this, start);
+        if (found != null) {
+            return found;
+        }
+        boolean result = testCombined(start, context);
+        context.putResult(this, start, result);
+        return result;
+    }
+
+    /**
+     * Tests the element combined with the given element by the combinator.
+     *
+     * @param start the element on the right side of the combinator.
+     * @param context the context of the selection.
+     * @return {@code true} if the combined element matches this sequence and all preceding sequences.
+     */
+    protected abstract boolean testCombined(Element start, SelectionContext context);
+
+    /**
+     * Specifies whether this sequence memoizes its results.
+     *
+     * @param memoized {@code true} to memoize the results.
+     */
+    void setMemoized(boolean memoized) {
+        this.memoized = memoized;
+    }
+
+    boolean isMemoized() {
+        return memoized;
+    }
+
     public Combinator getCombinator() {
         return combinator;
     }
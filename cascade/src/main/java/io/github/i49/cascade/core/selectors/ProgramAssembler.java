@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SingleSelector;
+import io.github.i49.cascade.core.matchers.AllOfMatcher;
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.pseudo.NegationMatcher;
+import io.github.i49.cascade.core.matchers.pseudo.NthChildMatcher;
+import io.github.i49.cascade.core.matchers.simple.AttributeNameMatcher;
+import io.github.i49.cascade.core.matchers.simple.ClassMatcher;
+import io.github.i49.cascade.core.matchers.simple.ExactMatcher;
+import io.github.i49.cascade.core.matchers.simple.TypeMatcher;
+
+/**
+ * Assembler which translates the sequences of the selectors into {@link SelectorProgram}.
+ *
+ * <p>The type, class, exact attribute value and nth-child selectors
+ * are translated into their own instructions,
+ * and the other matchers are called by the generic instruction.</p>
+ */
+public final class ProgramAssembler {
+
+    private int[] code = new int[16];
+    private int size;
+    private final List<Object> constants = new ArrayList<>();
+    private int loops;
+
+    /**
+     * Assembles the programs for all the single selectors in the given selector.
+     *
+     * @param selector the selector compiled by the parser.
+     * @return the selector running the programs.
+     */
+    public static Selector assemble(Selector selector) {
+        if (selector instanceof DefaultSingleSelector) {
+            return assemble((DefaultSingleSelector)selector);
+        } else if (selector instanceof DefaultSelectorGroup) {
+            List<DefaultSingleSelector> assembled = new ArrayList<>();
+            for (SingleSelector member: (DefaultSelectorGroup)selector) {
+                assembled.add(assemble((DefaultSingleSelector)member));
+            }
+            return DefaultSelectorGroup.of(Collections.unmodifiableList(assembled));
+        }
+        return selector;
+    }
+
+    private static DefaultSingleSelector assemble(DefaultSingleSelector selector) {
+        TailSequence tail = selector.getTail();
+        return new DefaultSingleSelector(tail, new ProgramAssembler().assemble(tail));
+    }
+
+    private ProgramAssembler() {
+    }
+
+    private SelectorProgram assemble(TailSequence tail) {
+        writeChecks(tail.optimum());
+        final int tailEnd = size;
+        for (Sequence s = tail.getPrevious(); s != null; s = s.getPrevious()) {
+            PrecedingSequence sequence = (PrecedingSequence)s;
+            switch (sequence.getCombinator()) {
+            case DESCENDANT:
+                write(SelectorProgram.ANCESTOR_LOOP, keyOf(sequence));
+                loops++;
+                break;
+            case CHILD:
+                write(SelectorProgram.PARENT);
+                break;
+            case ADJACENT:
+                write(SelectorProgram.PREV_SIBLING);
+                break;
+            case SIBLING:
+                write(SelectorProgram.SIBLING_LOOP, keyOf(sequence));
+                loops++;
+                break;
+            default:
+                throw new IllegalStateException();
+            }
+            writeChecks(sequence.optimum());
+        }
+        return new SelectorProgram(Arrays.copyOf(code, size), constants.toArray(), tailEnd, loops);
+    }
+
+    private int keyOf(PrecedingSequence sequence) {
+        return sequence.isMemoized() ? constantOf(sequence) : -1;
+    }
+
+    private void writeChecks(Matcher matcher) {
+        if (matcher instanceof AllOfMatcher) {
+            for (Matcher entry: (AllOfMatcher)matcher) {
+                writeCheck(entry, 0);
+            }
+        } else {
+            writeCheck(matcher, 0);
+        }
+    }
+
+    /**
+     * Writes the instruction checking the matcher.
+     *
+     * @param matcher the matcher to check.
+     * @param flags the flags added to the opcode.
+     */
+    private void writeCheck(Matcher matcher, int flags) {
+        if (matcher.matchesAlways()) {
+            if (flags != 0) {
+                write(SelectorProgram.FAIL);
+            }
+        } else if (matcher.matchesNever()) {
+            if (flags == 0) {
+                write(SelectorProgram.FAIL);
+            }
+        } else if (matcher instanceof NegationMatcher && flags == 0) {
+            Matcher enclosed = ((NegationMatcher)matcher).getEnclosed();
+            if (enclosed instanceof AllOfMatcher) {
+                write(SelectorProgram.MATCH, constantOf(matcher));
+            } else {
+                writeCheck(enclosed, SelectorProgram.NOT);
+            }
+        } else if (matcher.getClass() == TypeMatcher.class) {
+            write(SelectorProgram.TYPE | flags, constantOf(((TypeMatcher)matcher).getLocalName()));
+        } else if (matcher.getClass() == ClassMatcher.class) {
+            write(SelectorProgram.CLASS | flags, constantOf(((ClassMatcher)matcher).getClassName()));
+        } else if (matcher.getClass() == ExactMatcher.class &&
+                ((ExactMatcher)matcher).getNameMatcher().getClass() == AttributeNameMatcher.class) {
+            ExactMatcher exact = (ExactMatcher)matcher;
+            write(SelectorProgram.ATTR_EQ | flags,
+                    constantOf(exact.getNameMatcher().getLocalName()),
+                    constantOf(exact.getExpectedValue()));
+        } else if (matcher.getClass() == NthChildMatcher.class) {
+            NthChildMatcher nth = (NthChildMatcher)matcher;
+            write(SelectorProgram.NTH | flags, nth.getA(), nth.getB());
+        } else {
+            write(SelectorProgram.MATCH | flags, constantOf(matcher));
+        }
+    }
+
+    private int constantOf(Object value) {
+        for (int i = 0; i < constants.size(); i++) {
+            Object constant = constants.get(i);
+            if (constant == value || (value instanceof String && value.equals(constant))) {
+                return i;
+            }
+        }
+        constants.add(value);
+        return constants.size() - 1;
+    }
+
+    private void write(int... words) {
+        if (size + words.length > code.length) {
+            code = Arrays.copyOf(code, Math.max(code.length * 2, size + words.length));
+        }
+        for (int word: words) {
+            code[size++] = word;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.core.matchers.MatchingContext;
+
+/**
+ * The state shared by all tests of the elements during a single selection.
+ *
+ * <p>This object holds the root of the selection, the results of the sequences
+ * memoized for the elements, and the state shared by the matchers. A new context must be created for each selection,
+ * because the results depend on the root and become stale once the document is modified.
+ * This object is not thread-safe.</p>
+ */
+public class SelectionContext extends MatchingContext {
+
+    private final Element root;
+    // the memoized sequences and the results for each of them.
+    private Sequence[] sequences;
+    private Map<Element, Boolean>[] results;
+    private int size;
+
+    /**
+     * Constructs this context.
+     *
+     * @param root the root element of the selection.
+     */
+    public SelectionContext(Element root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the root element of the selection.
+     *
+     * @return the root element.
+     */
+    public Element getRoot() {
+        return root;
+    }
+
+    /**
+     * Finds the result of the sequence previously tested for the element.
+     *
+     * @param sequence the sequence tested.
+     * @param element the element given to the sequence.
+     * @return the result found, or {@code null} if the sequence has not been tested for the element yet.
+     */
+    Boolean findResult(Sequence sequence, Element element) {
+        Map<Element, Boolean> map = findResults(sequence);
+        return (map != null) ? map.get(element) : null;
+    }
+
+    /**
+     * Stores the result of the sequence tested for the element.
+     *
+     * @param sequence the sequence tested.
+     * @param element the element given to the sequence.
+     * @param result the result of the test.
+     */
+    void putResult(Sequence sequence, Element element, boolean result) {
+        Map<Element, Boolean> map = findResults(sequence);
+        if (map == null) {
+            if (sequences == null) {
+                sequences = new Sequence[4];
+                results = newResults(4);
+            } else if (size == sequences.length) {
+                sequences = Arrays.copyOf(sequences, size * 2);
+                results = Arrays.copyOf(results, size * 2);
+            }
+            map = new IdentityHashMap<>();
+            sequences[size] = sequence;
+            results[size++] = map;
+        }
+        map.put(element, result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Element, Boolean>[] newResults(int length) {
+        return (Map<Element, Boolean>[]) new Map<?, ?>[length];
+    }
+
+    private Map<Element, Boolean> findResults(Sequence sequence) {
+        for (int i = 0; i < size; i++) {
+            if (sequences[i] == sequence) {
+                return results[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.w3c.dom.Element;
+
+/**
+ * Iterator over the elements selected by a selector.
+ * This iterator pulls the candidates from the walker one by one
+ * and returns only the elements matching the selector.
+ */
+class SelectionIterator implements Iterator<Element> {
+
+    private final AbstractSelector selector;
+    private final Iterator<Element> candidates;
+    private final SelectionContext context;
+    private Element next;
+
+    /**
+     * Constructs this iterator.
+     *
+     * @param selector the selector to test the candidates.
+     * @param candidates the iterator over the candidates.
+     * @param context the context of the selection.
+     */
+    SelectionIterator(AbstractSelector selector, Iterator<Element> candidates, SelectionContext context) {
+        this.selector = selector;
+        this.candidates = candidates;
+        this.context = context;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        while (candidates.hasNext()) {
+            Element candidate = candidates.next();
+            if (selector.test(candidate, context)) {
+                next = candidate;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Element next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Element current = next;
+        next = null;
+        return current;
+    }
+}
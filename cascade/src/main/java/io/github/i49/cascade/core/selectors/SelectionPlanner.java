@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.MatcherType;
+import io.github.i49.cascade.core.matchers.simple.ClassMatcher;
+import io.github.i49.cascade.core.matchers.simple.IdentifierMatcher;
+import io.github.i49.cascade.core.matchers.simple.TypeMatcher;
+import io.github.i49.cascade.core.matchers.util.Matchers;
+import io.github.i49.cascade.core.walkers.AnchoredWalker;
+import io.github.i49.cascade.core.walkers.DepthFirstWalker;
+import io.github.i49.cascade.core.walkers.IndexedWalker;
+import io.github.i49.cascade.core.walkers.Walker;
+
+/**
+ * Planner which chooses how to find the elements matching a selector.
+ *
+ * <p>By default the candidates for the last sequence are collected from the whole subtree
+ * and each of them is tested from right to left.
+ * If any of the preceding sequences requires an identifier, a local name or class names,
+ * the elements matching it can be found first and
+ * only the subtrees or the sibling ranges enclosing them need to be walked.
+ * Which of the plans is cheaper depends on the document,
+ * therefore the final choice is made by {@link AnchoredWalker} for each walk.</p>
+ */
+final class SelectionPlanner {
+
+    /**
+     * Creates a document tree walker for the given selector.
+     *
+     * @param tail the last sequence of the selector.
+     * @return newly created walker.
+     */
+    static Walker createWalker(TailSequence tail) {
+        Walker walker = tail.createWalker();
+        // Other walkers visit at most one element.
+        if (!(walker instanceof DepthFirstWalker || walker instanceof IndexedWalker)) {
+            return walker;
+        }
+        List<AnchoredWalker.Anchor> anchors = new ArrayList<>();
+        for (Sequence s = tail.getPrevious(); s != null; s = s.getPrevious()) {
+            PrecedingSequence sequence = (PrecedingSequence)s;
+            Matcher optimum = sequence.optimum();
+            String identifier = identifierOf(optimum);
+            String localName = localNameOf(optimum);
+            List<String> classNames = classNamesOf(optimum);
+            if (identifier != null || localName != null || !classNames.isEmpty()) {
+                boolean siblingScope = sequence.getCombinator() == Combinator.ADJACENT
+                        || sequence.getCombinator() == Combinator.SIBLING;
+                anchors.add(new AnchoredWalker.Anchor(identifier, localName, classNames, siblingScope));
+            }
+        }
+        if (anchors.isEmpty()) {
+            return walker;
+        }
+        return AnchoredWalker.create(anchors, localNameOf(tail.optimum()), classNamesOf(tail.optimum()), walker);
+    }
+
+    private static String identifierOf(Matcher optimum) {
+        Matcher found = Matchers.extractByType(optimum, MatcherType.IDENTIFIER);
+        return (found != null) ? ((IdentifierMatcher)found).getIdentifier() : null;
+    }
+
+    private static String localNameOf(Matcher optimum) {
+        Matcher found = Matchers.extractByType(optimum, MatcherType.TYPE);
+        return (found != null) ? ((TypeMatcher)found).getLocalName() : null;
+    }
+
+    private static List<String> classNamesOf(Matcher optimum) {
+        List<String> classNames = new ArrayList<>();
+        for (Matcher m: Matchers.extractAllByType(optimum, MatcherType.CLASS)) {
+            classNames.add(((ClassMatcher)m).getClassName());
+        }
+        return classNames;
+    }
+
+    private SelectionPlanner() {
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SingleSelector;
+import io.github.i49.cascade.core.dom.Elements;
+import io.github.i49.cascade.core.dom.SpaceSeparatedList;
+import io.github.i49.cascade.core.message.Message;
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.MatcherType;
+import io.github.i49.cascade.core.matchers.simple.AttributeNameMatcher;
+import io.github.i49.cascade.core.matchers.simple.AttributeValueMatcher;
+import io.github.i49.cascade.core.matchers.simple.ClassMatcher;
+import io.github.i49.cascade.core.matchers.simple.IdentifierMatcher;
+import io.github.i49.cascade.core.matchers.simple.TypeMatcher;
+import io.github.i49.cascade.core.matchers.util.Matchers;
+
+/**
+ * Dispatcher which passes each element only to the selectors possibly matching it.
+ *
+ * <p>Each selector is classified by the key required by its last sequence,
+ * that is, an identifier, a class name, a local name or an attribute name, in this order of preference.
+ * The selectors without any key are tested for all elements.
+ * Selectors which never match are dropped.</p>
+ */
+final class SelectorDispatcher {
+
+    private static final Entry[] NO_ENTRIES = {};
+
+    private final Entry[] universal;
+    private final Map<String, Entry[]> identifiers;
+    private final Map<String, Entry[]> classNames;
+    private final Map<String, Entry[]> localNames;
+    private final Map<String, Entry[]> attributeNames;
+
+    /**
+     * Constructs this object.
+     *
+     * @param selectors the selectors to dispatch the elements to.
+     * @param owners the numbers reported for the selectors when they match.
+     */
+    SelectorDispatcher(List<DefaultSingleSelector> selectors, int[] owners) {
+        List<Entry> universal = new ArrayList<>();
+        Map<String, List<Entry>> identifiers = new HashMap<>();
+        Map<String, List<Entry>> classNames = new HashMap<>();
+        Map<String, List<Entry>> localNames = new HashMap<>();
+        Map<String, List<Entry>> attributeNames = new HashMap<>();
+        for (int i = 0; i < selectors.size(); i++) {
+            DefaultSingleSelector selector = selectors.get(i);
+            Matcher optimum = selector.getTail().optimum();
+            if (optimum.matchesNever()) {
+                continue;
+            }
+            Entry entry = new Entry(selector, owners[i]);
+            Matcher found = Matchers.extractByType(optimum, MatcherType.IDENTIFIER);
+            if (found != null) {
+                append(identifiers, ((IdentifierMatcher)found).getIdentifier(), entry);
+                continue;
+            }
+            found = Matchers.extractByType(optimum, MatcherType.CLASS);
+            if (found != null) {
+                append(classNames, ((ClassMatcher)found).getClassName(), entry);
+                continue;
+            }
+            found = Matchers.extractByType(optimum, MatcherType.TYPE);
+            if (found != null) {
+                append(localNames, ((TypeMatcher)found).getLocalName(), entry);
+                continue;
+            }
+            found = Matchers.extractByType(optimum, MatcherType.ATTRIBUTE);
+            if (found != null) {
+                append(attributeNames, attributeNameOf(found), entry);
+                continue;
+            }
+            universal.add(entry);
+        }
+        this.universal = universal.toArray(NO_ENTRIES);
+        this.identifiers = freeze(identifiers);
+        this.classNames = freeze(classNames);
+        this.localNames = freeze(localNames);
+        this.attributeNames = freeze(attributeNames);
+    }
+
+    /**
+     * Adds the members of the given selector.
+     *
+     * @param selector the selector to add.
+     * @param owner the number reported when any of the members matches.
+     * @param members the list to which the members are added.
+     * @param owners the list to which the owner is added for each member.
+     * @throws IllegalArgumentException if the selector is not compiled by this implementation.
+     */
+    static void addMembers(Selector selector, int owner, List<DefaultSingleSelector> members, List<Integer> owners) {
+        if (selector instanceof DefaultSingleSelector) {
+            members.add((DefaultSingleSelector)selector);
+            owners.add(owner);
+        } else if (selector instanceof DefaultSelectorGroup) {
+            for (SingleSelector member: (DefaultSelectorGroup)selector) {
+                members.add((DefaultSingleSelector)member);
+                owners.add(owner);
+            }
+        } else {
+            throw new IllegalArgumentException(Message.SELECTOR_IS_NOT_SUPPORTED.toString());
+        }
+    }
+
+    /**
+     * Returns the number of the selectors to which elements are dispatched.
+     *
+     * @return the number of the selectors.
+     */
+    int size() {
+        return universal.length + countEntries(identifiers) + countEntries(classNames)
+             + countEntries(localNames) + countEntries(attributeNames);
+    }
+
+    int countUniversal() {
+        return universal.length;
+    }
+
+    int countIdentifierBuckets() {
+        return identifiers.size();
+    }
+
+    int countClassBuckets() {
+        return classNames.size();
+    }
+
+    int countTypeBuckets() {
+        return localNames.size();
+    }
+
+    int countAttributeBuckets() {
+        return attributeNames.size();
+    }
+
+    /**
+     * Returns the number of the selectors in the largest bucket of the keys.
+     *
+     * @return the size of the largest bucket, or 0 if there are no buckets.
+     */
+    int findLargestBucket() {
+        int largest = 0;
+        for (Map<String, Entry[]> map: Arrays.asList(identifiers, classNames, localNames, attributeNames)) {
+            for (Entry[] entries: map.values()) {
+                largest = Math.max(largest, entries.length);
+            }
+        }
+        return largest;
+    }
+
+    private static int countEntries(Map<String, Entry[]> map) {
+        int count = 0;
+        for (Entry[] entries: map.values()) {
+            count += entries.length;
+        }
+        return count;
+    }
+
+    /**
+     * Tests the element with the selectors possibly matching it until any of them matches.
+     *
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @return {@code true} if any of the selectors matches the element.
+     */
+    boolean matchesAny(Element element, SelectionContext context) {
+        return dispatch(element, context, null);
+    }
+
+    /**
+     * Tests the element with all the selectors possibly matching it.
+     * The action may be performed more than once for the same owner.
+     *
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @param action the action to be performed with the owner of each selector matching the element.
+     */
+    void dispatchAll(Element element, SelectionContext context, ObjIntConsumer<Element> action) {
+        dispatch(element, context, action);
+    }
+
+    /**
+     * Tests the element with the selectors possibly matching it.
+     *
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @param action the action to be performed for the matched selectors,
+     *               or {@code null} if the test stops at the first match.
+     * @return {@code true} if the test stopped at a match.
+     */
+    private boolean dispatch(Element element, SelectionContext context, ObjIntConsumer<Element> action) {
+        if (test(universal, element, context, action)) {
+            return true;
+        }
+        if (!localNames.isEmpty()) {
+            String localName = element.getLocalName();
+            if (localName != null && test(localNames.get(localName), element, context, action)) {
+                return true;
+            }
+        }
+        if (!classNames.isEmpty()) {
+            String classList = element.getAttribute("class");
+            int start = SpaceSeparatedList.nextToken(classList, 0);
+            while (start >= 0) {
+                int end = SpaceSeparatedList.tokenEnd(classList, start);
+                if (test(classNames.get(classList.substring(start, end)), element, context, action)) {
+                    return true;
+                }
+                start = SpaceSeparatedList.nextToken(classList, end);
+            }
+        }
+        if (!identifiers.isEmpty() || !attributeNames.isEmpty()) {
+            NamedNodeMap map = element.getAttributes();
+            for (int i = 0; i < map.getLength(); i++) {
+                Attr a = (Attr)map.item(i);
+                if (a.isId() && test(identifiers.get(a.getValue()), element, context, action)) {
+                    return true;
+                }
+                String name = Elements.localNameOf(a);
+                if (name != null && test(attributeNames.get(name), element, context, action)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String attributeNameOf(Matcher matcher) {
+        if (matcher instanceof AttributeValueMatcher) {
+            return ((AttributeValueMatcher)matcher).getNameMatcher().getLocalName();
+        }
+        return ((AttributeNameMatcher)matcher).getLocalName();
+    }
+
+    private static boolean test(Entry[] entries, Element element, SelectionContext context,
+            ObjIntConsumer<Element> action) {
+        if (entries == null) {
+            return false;
+        }
+        for (Entry entry: entries) {
+            if (entry.selector.test(element, context)) {
+                if (action == null) {
+                    return true;
+                }
+                action.accept(element, entry.owner);
+            }
+        }
+        return false;
+    }
+
+    private static void append(Map<String, List<Entry>> map, String key, Entry entry) {
+        List<Entry> list = map.get(key);
+        if (list == null) {
+            list = new ArrayList<>();
+            map.put(key, list);
+        }
+        list.add(entry);
+    }
+
+    private static Map<String, Entry[]> freeze(Map<String, List<Entry>> map) {
+        Map<String, Entry[]> frozen = new HashMap<>(map.size() * 4 / 3 + 1);
+        for (Map.Entry<String, List<Entry>> entry: map.entrySet()) {
+            frozen.put(entry.getKey(), entry.getValue().toArray(NO_ENTRIES));
+        }
+        return frozen;
+    }
+
+    /**
+     * Selector and its owner.
+     */
+    private static class Entry {
+
+        final DefaultSingleSelector selector;
+        final int owner;
+
+        Entry(DefaultSingleSelector selector, int owner) {
+            this.selector = selector;
+            this.owner = owner;
+        }
+    }
+}
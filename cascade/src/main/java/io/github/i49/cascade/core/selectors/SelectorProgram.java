@@ -0,0 +1,267 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import io.github.i49.cascade.core.dom.SpaceSeparatedList;
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.pseudo.OrdinalPositionMatcher;
+
+/**
+ * A single selector translated into a flat program of instructions.
+ *
+ * <p>The program is an array of integers, each instruction being an opcode followed by its operands,
+ * and an array of the constants referenced by the operands.
+ * The checks of the tail sequence come first, followed by each preceding sequence
+ * from right to left, which starts with the instruction of its combinator.
+ * Every check either passes to the next instruction or fails,
+ * in which case the program backtracks to the most recent loop of the descendant or sibling combinators
+ * and tries the next element found by the loop.
+ * The element is selected when the program reaches its end.</p>
+ *
+ * <p>The results of the memoized sequences are shared with the interpreted selector through the context,
+ * with the same keys as {@link PrecedingSequence}.</p>
+ *
+ * @see ProgramAssembler
+ */
+public final class SelectorProgram extends CompiledSequence {
+
+    /** Tests the local name. The operand is the index of the name in the constants. */
+    static final int TYPE = 1;
+    /** Tests the class name. The operand is the index of the class name in the constants. */
+    static final int CLASS = 2;
+    /** Tests the value of the attribute in no namespace. The operands are the indices of the name and the value. */
+    static final int ATTR_EQ = 3;
+    /** Tests the position among the siblings. The operands are a and b of an+b. */
+    static final int NTH = 4;
+    /** Tests with the matcher. The operand is the index of the matcher in the constants. */
+    static final int MATCH = 5;
+    /** Fails always. */
+    static final int FAIL = 6;
+    /** Moves to the parent for the child combinator. */
+    static final int PARENT = 7;
+    /** Moves to the previous element for the adjacent sibling combinator. */
+    static final int PREV_SIBLING = 8;
+    /** Loops over the ancestors. The operand is the index of the memoized sequence, or -1. */
+    static final int ANCESTOR_LOOP = 9;
+    /** Loops over the previous siblings. The operand is the index of the memoized sequence, or -1. */
+    static final int SIBLING_LOOP = 10;
+
+    /** The flag inverting the result of the check, added to the opcode. */
+    static final int NOT = 0x100;
+    static final int OPCODE_MASK = 0xff;
+
+    private final int[] code;
+    private final Object[] constants;
+    // the end of the checks of the tail sequence.
+    private final int tailEnd;
+    // the number of the loops, which is the maximum number of the frames.
+    private final int loops;
+
+    SelectorProgram(int[] code, Object[] constants, int tailEnd, int loops) {
+        this.code = code;
+        this.constants = constants;
+        this.tailEnd = tailEnd;
+        this.loops = loops;
+    }
+
+    @Override
+    public boolean test(Element element, SelectionContext context) {
+        return run(0, code.length, element, context);
+    }
+
+    @Override
+    public boolean matches(Element element, SelectionContext context) {
+        return run(0, tailEnd, element, context);
+    }
+
+    @Override
+    public boolean testPrevious(Element element, SelectionContext context) {
+        return run(tailEnd, code.length, element, context);
+    }
+
+    /**
+     * Runs the instructions in the given range.
+     *
+     * @param pc the first instruction to run.
+     * @param end the end of the instructions to run.
+     * @param element the element to test.
+     * @param context the context of the selection.
+     * @return {@code true} if the program reaches the end.
+     */
+    private boolean run(int pc, final int end, Element element, SelectionContext context) {
+        final int[] code = this.code;
+        final Object[] constants = this.constants;
+        Element root = null;
+        // the frames of the loops: where to resume, the next node to try, and the element the loop started from.
+        int[] resumes = null;
+        Node[] cursors = null;
+        Element[] origins = null;
+        int frames = 0;
+        while (pc < end) {
+            final int op = code[pc];
+            boolean matched;
+            switch (op & OPCODE_MASK) {
+            case TYPE:
+                matched = constants[code[pc + 1]].equals(element.getLocalName());
+                pc += 2;
+                break;
+            case CLASS:
+                matched = SpaceSeparatedList.contains(element.getAttribute("class"), (String)constants[code[pc + 1]]);
+                pc += 2;
+                break;
+            case ATTR_EQ: {
+                Attr found = element.getAttributeNodeNS(null, (String)constants[code[pc + 1]]);
+                matched = found != null && found.getValue().equals(constants[code[pc + 2]]);
+                pc += 3;
+                break;
+            }
+            case NTH:
+                matched = element.getParentNode() != null && OrdinalPositionMatcher.matchesPosition(
+                        code[pc + 1], code[pc + 2], context.getNthIndexCache().countSiblingsBefore(element) + 1);
+                pc += 3;
+                break;
+            case MATCH:
+                matched = ((Matcher)constants[code[pc + 1]]).matches(element, context);
+                pc += 2;
+                break;
+            case FAIL:
+                matched = false;
+                pc++;
+                break;
+            case PARENT: {
+                if (root == null) {
+                    root = context.getRoot();
+                }
+                Node parent = element.getParentNode();
+                matched = element != root && parent != root;
+                if (matched) {
+                    element = (Element)parent;
+                }
+                pc++;
+                break;
+            }
+            case PREV_SIBLING: {
+                Element sibling = previousElement(element.getPreviousSibling());
+                matched = sibling != null;
+                if (matched) {
+                    element = sibling;
+                }
+                pc++;
+                break;
+            }
+            case ANCESTOR_LOOP:
+            case SIBLING_LOOP: {
+                final boolean ancestors = op == ANCESTOR_LOOP;
+                if (ancestors) {
+                    if (root == null) {
+                        root = context.getRoot();
+                    }
+                    if (element == root) {
+                        matched = false;
+                        break;
+                    }
+                }
+                final int key = code[pc + 1];
+                if (key >= 0) {
+                    Boolean found = context.findResult((Sequence)constants[key], element);
+                    if (found != null) {
+                        if (found) {
+                            succeed(frames, resumes, origins, context);
+                            return true;
+                        }
+                        matched = false;
+                        break;
+                    }
+                }
+                if (resumes == null) {
+                    resumes = new int[loops];
+                    cursors = new Node[loops];
+                    origins = new Element[loops];
+                }
+                resumes[frames] = pc + 2;
+                cursors[frames] = ancestors ? element.getParentNode() : element.getPreviousSibling();
+                origins[frames] = element;
+                frames++;
+                // the first element of the loop is taken in the same way as the next ones.
+                matched = false;
+                break;
+            }
+            default:
+                throw new IllegalStateException();
+            }
+            if (matched != ((op & NOT) != 0)) {
+                continue;
+            }
+            // backtracks to the most recent loop which has any elements left.
+            for (;;) {
+                if (frames == 0) {
+                    return false;
+                }
+                final int frame = frames - 1;
+                final int resume = resumes[frame];
+                final boolean ancestors = code[resume - 2] == ANCESTOR_LOOP;
+                final Node cursor = cursors[frame];
+                Element next;
+                if (ancestors) {
+                    next = (cursor != root) ? (Element)cursor : null;
+                } else {
+                    next = previousElement(cursor);
+                }
+                if (next != null) {
+                    cursors[frame] = ancestors ? next.getParentNode() : next.getPreviousSibling();
+                    element = next;
+                    pc = resume;
+                    break;
+                }
+                final int key = code[resume - 1];
+                if (key >= 0) {
+                    context.putResult((Sequence)constants[key], origins[frame], false);
+                }
+                origins[frame] = null;
+                frames--;
+            }
+        }
+        succeed(frames, resumes, origins, context);
+        return true;
+    }
+
+    /**
+     * Memoizes the success of the loops in progress.
+     */
+    private void succeed(int frames, int[] resumes, Element[] origins, SelectionContext context) {
+        for (int frame = 0; frame < frames; frame++) {
+            final int key = code[resumes[frame] - 1];
+            if (key >= 0) {
+                context.putResult((Sequence)constants[key], origins[frame], true);
+            }
+        }
+    }
+
+    private static Element previousElement(Node node) {
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                return (Element)node;
+            }
+            node = node.getPreviousSibling();
+        }
+        return null;
+    }
+}
@@ -25,7 +25,7 @@ import io.github.i49.cascade.core.matchers.Matcher;
  */
 public interface Sequence {
 
-    boolean test(Element start, Element root);
+    boolean test(Element start, SelectionContext context);
 
     boolean hasPrevious();
 
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SingleSelector;
+import io.github.i49.cascade.core.bytecode.ClassFileLimitException;
+import io.github.i49.cascade.core.bytecode.ClassWriter;
+import io.github.i49.cascade.core.bytecode.CodeWriter;
+import io.github.i49.cascade.core.bytecode.GeneratedClassLoader;
+import io.github.i49.cascade.core.bytecode.Label;
+import io.github.i49.cascade.core.matchers.AllOfMatcher;
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.matchers.pseudo.NegationMatcher;
+import io.github.i49.cascade.core.matchers.simple.ClassMatcher;
+import io.github.i49.cascade.core.matchers.simple.TypeMatcher;
+
+/**
+ * Generator of the classes specialized for the sequences of the selectors.
+ *
+ * <p>The interpreted selector calls the matchers of all the selectors through the same call sites,
+ * which the JIT compiler cannot inline once the call sites have seen many types of matchers.
+ * The generated class has its own methods for the tail sequence and for each preceding sequence,
+ * in which the checks of the compound are written out in order and followed by the loop of the combinator.
+ * The type and class selectors are checked directly
+ * and the other matchers are called through the fields of the generated class.</p>
+ *
+ * <p>The generated class is equivalent to {@link TailSequence#test} and the methods of the preceding sequences,
+ * including the memoization of the sequences.</p>
+ */
+public final class SequenceClassGenerator {
+
+    private static final String PACKAGE = "io/github/i49/cascade/generated/";
+    private static final AtomicLong counter = new AtomicLong();
+
+    private static final String SUPER_CLASS = "io/github/i49/cascade/core/selectors/CompiledSequence";
+    private static final String CONTEXT = "io/github/i49/cascade/core/selectors/SelectionContext";
+    private static final String SEQUENCE = "io/github/i49/cascade/core/selectors/Sequence";
+    private static final String MATCHER = "io/github/i49/cascade/core/matchers/Matcher";
+    private static final String MATCHING_CONTEXT = "io/github/i49/cascade/core/matchers/MatchingContext";
+    private static final String SPACE_SEPARATED_LIST = "io/github/i49/cascade/core/dom/SpaceSeparatedList";
+    private static final String NODE = "org/w3c/dom/Node";
+    private static final String ELEMENT = "org/w3c/dom/Element";
+    private static final String STRING = "java/lang/String";
+
+    private static final String TEST = "(L" + ELEMENT + ";L" + CONTEXT + ";)Z";
+    private static final String MATCHES = "(L" + ELEMENT + ";L" + MATCHING_CONTEXT + ";)Z";
+
+    // the local variables of the methods.
+    private static final int THIS = 0;
+    private static final int START = 1;
+    private static final int CONTEXT_SLOT = 2;
+    private static final int ROOT = 3;
+    private static final int NODE_SLOT = 4;
+    private static final int ELEMENT_SLOT = 5;
+
+    private final TailSequence tail;
+    // the preceding sequences from the one next to the tail.
+    private final List<PrecedingSequence> preceding = new ArrayList<>();
+    // the objects given to the fields of the generated class.
+    private final List<Object> arguments = new ArrayList<>();
+    private final List<String> descriptors = new ArrayList<>();
+    private final ClassWriter writer;
+
+    /**
+     * Generates the classes for all the single selectors in the given selector.
+     * The selectors which cannot be generated are returned as they are.
+     *
+     * @param selector the selector compiled by the parser.
+     * @return the selector using the generated classes.
+     */
+    public static Selector generate(Selector selector) {
+        if (selector instanceof DefaultSingleSelector) {
+            return generate((DefaultSingleSelector)selector);
+        } else if (selector instanceof DefaultSelectorGroup) {
+            List<DefaultSingleSelector> generated = new ArrayList<>();
+            for (SingleSelector member: (DefaultSelectorGroup)selector) {
+                generated.add(generate((DefaultSingleSelector)member));
+            }
+            return DefaultSelectorGroup.of(Collections.unmodifiableList(generated));
+        }
+        return selector;
+    }
+
+    private static DefaultSingleSelector generate(DefaultSingleSelector selector) {
+        TailSequence tail = selector.getTail();
+        for (Sequence s = tail; s != null; s = s.getPrevious()) {
+            // the selector never matching is selected by the walker with nothing to test.
+            if (((AbstractSequence)s).optimum().matchesNever()) {
+                return selector;
+            }
+        }
+        CompiledSequence compiled;
+        try {
+            compiled = new SequenceClassGenerator(tail).generate();
+        } catch (ClassFileLimitException e) {
+            // the methods are too large for the class file.
+            return selector;
+        }
+        return new DefaultSingleSelector(tail, compiled);
+    }
+
+    private SequenceClassGenerator(TailSequence tail) {
+        this.tail = tail;
+        for (Sequence s = tail.getPrevious(); s != null; s = s.getPrevious()) {
+            preceding.add((PrecedingSequence)s);
+        }
+        this.writer = new ClassWriter(PACKAGE + "Sequence" + counter.incrementAndGet(), SUPER_CLASS);
+    }
+
+    private CompiledSequence generate() {
+        writeTest();
+        writeMatches();
+        writeTestPrevious();
+        for (int i = 0; i < preceding.size(); i++) {
+            writePrevious(i);
+            writeCombined(i);
+        }
+        // the constructor is written last because the fields are added while writing the methods.
+        writeConstructor();
+        GeneratedClassLoader loader = new GeneratedClassLoader(CompiledSequence.class.getClassLoader());
+        Class<?> generated = loader.define(writer);
+        try {
+            return (CompiledSequence)generated.getConstructor(Object[].class).newInstance((Object)arguments.toArray());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeConstructor() {
+        CodeWriter code = writer.addMethod(ClassWriter.ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V");
+        code.loadReference(THIS).invokeSpecial(SUPER_CLASS, "<init>", "()V");
+        for (int i = 0; i < arguments.size(); i++) {
+            String descriptor = descriptors.get(i);
+            code.loadReference(THIS)
+                .loadReference(START)
+                .pushInt(i)
+                .loadArrayElement()
+                .checkCast(descriptor.substring(1, descriptor.length() - 1))
+                .putField(writer.getName(), fieldName(i), descriptor);
+        }
+        code.returnVoid();
+    }
+
+    /**
+     * Writes {@code test()} checking the tail sequence and then the preceding sequences.
+     */
+    private void writeTest() {
+        CodeWriter code = writer.addMethod(ClassWriter.ACC_PUBLIC, "test", TEST);
+        Label fail = new Label();
+        writeChecks(code, tail.optimum(), START, fail);
+        writeSuccess(code, 0);
+        code.place(fail).pushInt(0).returnInt();
+    }
+
+    private void writeMatches() {
+        CodeWriter code = writer.addMethod(ClassWriter.ACC_PUBLIC, "matches", TEST);
+        Label fail = new Label();
+        writeChecks(code, tail.optimum(), START, fail);
+        code.pushInt(1).returnInt();
+        code.place(fail).pushInt(0).returnInt();
+    }
+
+    private void writeTestPrevious() {
+        CodeWriter code = writer.addMethod(ClassWriter.ACC_PUBLIC, "testPrevious", TEST);
+        writeSuccess(code, 0);
+    }
+
+    /**
+     * Writes the method testing the preceding sequence,
+     * which looks up the memoized result before testing the combined elements.
+     *
+     * @param index the index of the preceding sequence.
+     */
+    private void writePrevious(int index) {
+        CodeWriter code = writer.addMethod(ClassWriter.ACC_PRIVATE, previousName(index), TEST);
+        PrecedingSequence sequence = preceding.get(index);
+        if (!sequence.isMemoized()) {
+            invokeCombined(code, index);
+            code.returnInt();
+            return;
+        }
+        String field = addField(sequence, SEQUENCE);
+        Label compute = new Label();
+        code.loadReference(CONTEXT_SLOT)
+            .loadReference(THIS)
+            .getField(writer.getName(), field, "L" + SEQUENCE + ";")
+            .loadReference(START)
+            .invokeStatic(SUPER_CLASS, "findResult",
+                    "(L" + CONTEXT + ";L" + SEQUENCE + ";L" + ELEMENT + ";)Ljava/lang/Boolean;")
+            .storeReference(ROOT)
+            .loadReference(ROOT)
+            .ifNull(compute)
+            .loadReference(ROOT)
+            .invokeVirtual("java/lang/Boolean", "booleanValue", "()Z")
+            .returnInt();
+        code.place(compute);
+        invokeCombined(code, index);
+        code.storeInt(NODE_SLOT)
+            .loadReference(CONTEXT_SLOT)
+            .loadReference(THIS)
+            .getField(writer.getName(), field, "L" + SEQUENCE + ";")
+            .loadReference(START)
+            .loadInt(NODE_SLOT)
+            .invokeStatic(SUPER_CLASS, "putResult",
+                    "(L" + CONTEXT + ";L" + SEQUENCE + ";L" + ELEMENT + ";Z)V")
+            .loadInt(NODE_SLOT)
+            .returnInt();
+    }
+
+    private void invokeCombined(CodeWriter code, int index) {
+        code.loadReference(THIS)
+            .loadReference(START)
+            .loadReference(CONTEXT_SLOT)
+            .invokeSpecial(writer.getName(), combinedName(index), TEST);
+    }
+
+    /**
+     * Writes the method finding the element combined with the start element,
+     * which mirrors {@code testCombined()} of each type of the preceding sequences.
+     *
+     * @param index the index of the preceding sequence.
+     */
+    private void writeCombined(int index) {
+        CodeWriter code = writer.addMethod(ClassWriter.ACC_PRIVATE, combinedName(index), TEST);
+        PrecedingSequence sequence = preceding.get(index);
+        Label fail = new Label();
+        Label loop = new Label();
+        Label next = new Label();
+        switch (sequence.getCombinator()) {
+        case DESCENDANT:
+            code.loadReference(CONTEXT_SLOT)
+                .invokeVirtual(CONTEXT, "getRoot", "()L" + ELEMENT + ";")
+                .storeReference(ROOT)
+                .loadReference(START)
+                .loadReference(ROOT)
+                .ifSame(fail)
+                .loadReference(START)
+                .invokeInterface(NODE, "getParentNode", "()L" + NODE + ";")
+                .storeReference(NODE_SLOT);
+            code.place(loop)
+                .loadReference(NODE_SLOT)
+                .loadReference(ROOT)
+                .ifSame(fail);
+            writeCombinedElement(code, sequence, index, next, true);
+            code.place(next)
+                .loadReference(NODE_SLOT)
+                .invokeInterface(NODE, "getParentNode", "()L" + NODE + ";")
+                .storeReference(NODE_SLOT)
+                .jump(loop);
+            break;
+        case CHILD:
+            code.loadReference(CONTEXT_SLOT)
+                .invokeVirtual(CONTEXT, "getRoot", "()L" + ELEMENT + ";")
+                .storeReference(ROOT)
+                .loadReference(START)
+                .loadReference(ROOT)
+                .ifSame(fail)
+                .loadReference(START)
+                .invokeInterface(NODE, "getParentNode", "()L" + NODE + ";")
+                .storeReference(NODE_SLOT)
+                .loadReference(NODE_SLOT)
+                .loadReference(ROOT)
+                .ifSame(fail);
+            writeCombinedElement(code, sequence, index, fail, false);
+            break;
+        case ADJACENT:
+        case SIBLING:
+            boolean adjacent = sequence.getCombinator() == Combinator.ADJACENT;
+            code.loadReference(START)
+                .invokeInterface(NODE, "getPreviousSibling", "()L" + NODE + ";")
+                .storeReference(NODE_SLOT);
+            code.place(loop)
+                .loadReference(NODE_SLOT)
+                .ifNull(fail)
+                .loadReference(NODE_SLOT)
+                .invokeInterface(NODE, "getNodeType", "()S")
+                .pushInt(1)
+                .ifIntsNotEqual(next);
+            if (adjacent) {
+                writeCombinedElement(code, sequence, index, fail, false);
+            } else {
+                writeCombinedElement(code, sequence, index, next, true);
+            }
+            code.place(next)
+                .loadReference(NODE_SLOT)
+                .invokeInterface(NODE, "getPreviousSibling", "()L" + NODE + ";")
+                .storeReference(NODE_SLOT)
+                .jump(loop);
+            break;
+        default:
+            throw new IllegalStateException();
+        }
+        code.place(fail).pushInt(0).returnInt();
+    }
+
+    /**
+     * Writes the checks of the combined element held in the node variable.
+     *
+     * @param code the code of the method.
+     * @param sequence the preceding sequence.
+     * @param index the index of the preceding sequence.
+     * @param otherwise the label to jump if the combined element is not selected.
+     * @param backtracking {@code true} if the other elements are tried when the preceding sequences fail.
+     */
+    private void writeCombinedElement(CodeWriter code, PrecedingSequence sequence, int index,
+            Label otherwise, boolean backtracking) {
+        code.loadReference(NODE_SLOT)
+            .checkCast(ELEMENT)
+            .storeReference(ELEMENT_SLOT);
+        writeChecks(code, sequence.optimum(), ELEMENT_SLOT, otherwise);
+        if (index + 1 < preceding.size()) {
+            code.loadReference(THIS)
+                .loadReference(ELEMENT_SLOT)
+                .loadReference(CONTEXT_SLOT)
+                .invokeSpecial(writer.getName(), previousName(index + 1), TEST);
+            if (backtracking) {
+                code.ifZero(otherwise).pushInt(1).returnInt();
+            } else {
+                code.returnInt();
+            }
+        } else {
+            code.pushInt(1).returnInt();
+        }
+    }
+
+    /**
+     * Writes the code returning the result of the preceding sequences for the start element.
+     *
+     * @param code the code of the method.
+     * @param index the index of the first preceding sequence to test.
+     */
+    private void writeSuccess(CodeWriter code, int index) {
+        if (index < preceding.size()) {
+            code.loadReference(THIS)
+                .loadReference(START)
+                .loadReference(CONTEXT_SLOT)
+                .invokeSpecial(writer.getName(), previousName(index), TEST)
+                .returnInt();
+        } else {
+            code.pushInt(1).returnInt();
+        }
+    }
+
+    /**
+     * Writes the checks of the compound, jumping to the label on the first failure.
+     *
+     * @param code the code of the method.
+     * @param matcher the optimized matcher of the compound.
+     * @param element the local variable holding the element to check.
+     * @param fail the label to jump on failure.
+     */
+    private void writeChecks(CodeWriter code, Matcher matcher, int element, Label fail) {
+        if (matcher instanceof AllOfMatcher) {
+            for (Matcher entry: (AllOfMatcher)matcher) {
+                writeCheck(code, entry, element, fail);
+            }
+        } else {
+            writeCheck(code, matcher, element, fail);
+        }
+    }
+
+    private void writeCheck(CodeWriter code, Matcher matcher, int element, Label fail) {
+        if (matcher.matchesAlways()) {
+            return;
+        }
+        if (matcher instanceof NegationMatcher) {
+            writeMatch(code, ((NegationMatcher)matcher).getEnclosed(), element);
+            code.ifNotZero(fail);
+        } else {
+            writeMatch(code, matcher, element);
+            code.ifZero(fail);
+        }
+    }
+
+    /**
+     * Writes the code pushing the result of the matcher.
+     */
+    private void writeMatch(CodeWriter code, Matcher matcher, int element) {
+        if (matcher.getClass() == TypeMatcher.class) {
+            code.pushString(((TypeMatcher)matcher).getLocalName())
+                .loadReference(element)
+                .invokeInterface(NODE, "getLocalName", "()Ljava/lang/String;")
+                .invokeVirtual(STRING, "equals", "(Ljava/lang/Object;)Z");
+        } else if (matcher.getClass() == ClassMatcher.class) {
+            code.loadReference(element)
+                .pushString("class")
+                .invokeInterface(ELEMENT, "getAttribute", "(Ljava/lang/String;)Ljava/lang/String;")
+                .pushString(((ClassMatcher)matcher).getClassName())
+                .invokeStatic(SPACE_SEPARATED_LIST, "contains", "(Ljava/lang/String;Ljava/lang/String;)Z");
+        } else {
+            String field = addField(matcher, MATCHER);
+            code.loadReference(THIS)
+                .getField(writer.getName(), field, "L" + MATCHER + ";")
+                .loadReference(element)
+                .loadReference(CONTEXT_SLOT)
+                .invokeInterface(MATCHER, "matches", MATCHES);
+        }
+    }
+
+    /**
+     * Adds a final field holding the given object.
+     *
+     * @param value the object to hold.
+     * @param type the internal name of the type of the field.
+     * @return the name of the field.
+     */
+    private String addField(Object value, String type) {
+        for (int i = 0; i < arguments.size(); i++) {
+            if (arguments.get(i) == value) {
+                return fieldName(i);
+            }
+        }
+        String descriptor = "L" + type + ";";
+        String name = fieldName(arguments.size());
+        arguments.add(value);
+        descriptors.add(descriptor);
+        writer.addField(ClassWriter.ACC_PRIVATE | ClassWriter.ACC_FINAL, name, descriptor);
+        return name;
+    }
+
+    private static String fieldName(int index) {
+        return "f" + index;
+    }
+
+    private static String previousName(int index) {
+        return "p" + index;
+    }
+
+    private static String combinedName(int index) {
+        return "c" + index;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.selectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import io.github.i49.cascade.core.matchers.Matcher;
+import io.github.i49.cascade.core.stream.StreamedElement;
+import io.github.i49.cascade.core.stream.StreamedElementHandler;
+
+/**
+ * The state of a streaming matcher for a stream.
+ *
+ * <p>For each element open, this object keeps which sequences the element matches
+ * together with all of their preceding sequences, and which of them any of the ancestors matches.
+ * For the children read so far, it keeps which sequences the last child matches and which any child matches.
+ * These results are enough to evaluate the combinators of the next element,
+ * with the same semantics as the subclasses of {@link PrecedingSequence}
+ * where the document element is the root of the selection.</p>
+ */
+class StreamedSelection implements StreamedElementHandler, Predicate<StreamedElement> {
+
+    private final Matcher[] matchers;
+    private final Combinator[] combinators;
+    private final boolean[] tails;
+    // the action for the elements selected, may be null.
+    private final Consumer<? super StreamedElement> action;
+    // the states indexed by the depth plus 1, the first one representing the document.
+    private final List<State> states = new ArrayList<>();
+
+    StreamedSelection(Matcher[] matchers, Combinator[] combinators, boolean[] tails, Consumer<? super StreamedElement> action) {
+        this.matchers = matchers;
+        this.combinators = combinators;
+        this.tails = tails;
+        this.action = action;
+        this.states.add(new State(matchers.length));
+    }
+
+    @Override
+    public void startElement(StreamedElement element) {
+        if (test(element) && action != null) {
+            action.accept(element);
+        }
+    }
+
+    /**
+     * Tests the element which has just started.
+     * This method must be called once for each element in document order, as it updates the states.
+     *
+     * @param element the element started.
+     * @return {@code true} if the element is selected.
+     */
+    @Override
+    public boolean test(StreamedElement element) {
+        final int depth = element.getDepth();
+        if (depth + 1 == states.size()) {
+            states.add(new State(matchers.length));
+        }
+        State parent = states.get(depth);
+        State state = states.get(depth + 1);
+        if (element.getPosition() == 1) {
+            parent.clearChildren();
+        }
+        boolean selected = false;
+        for (int i = 0; i < matchers.length; i++) {
+            boolean matched = testPrevious(i, depth, parent) && matchers[i].matches(element);
+            state.matched[i] = matched;
+            // the document element is never regarded as an ancestor.
+            state.inherited[i] = parent.inherited[i] || (matched && depth > 0);
+            selected |= matched && tails[i];
+        }
+        System.arraycopy(state.matched, 0, parent.lastChild, 0, matchers.length);
+        for (int i = 0; i < matchers.length; i++) {
+            parent.anyChild[i] |= state.matched[i];
+        }
+        return selected;
+    }
+
+    /**
+     * Tests the elements combined with the current element by the combinator on the left side of the sequence.
+     *
+     * @param index the index of the sequence.
+     * @param depth the depth of the current element.
+     * @param parent the state of the parent of the current element.
+     * @return {@code true} if any of the combined elements matches the preceding sequence.
+     */
+    private boolean testPrevious(int index, int depth, State parent) {
+        Combinator combinator = combinators[index];
+        if (combinator == null) {
+            return true;
+        }
+        final int previous = index - 1;
+        switch (combinator) {
+        case DESCENDANT:
+            return parent.inherited[previous];
+        case CHILD:
+            return depth > 1 && parent.matched[previous];
+        case ADJACENT:
+            return parent.lastChild[previous];
+        case SIBLING:
+            return parent.anyChild[previous];
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * The results of the sequences for an open element and its children.
+     */
+    private static class State {
+
+        // the sequences matched by the element.
+        final boolean[] matched;
+        // the sequences matched by the element or any of its ancestors except the document element.
+        final boolean[] inherited;
+        // the sequences matched by the last child read so far.
+        final boolean[] lastChild;
+        // the sequences matched by any child read so far.
+        final boolean[] anyChild;
+
+        State(int length) {
+            this.matched = new boolean[length];
+            this.inherited = new boolean[length];
+            this.lastChild = new boolean[length];
+            this.anyChild = new boolean[length];
+        }
+
+        void clearChildren() {
+            Arrays.fill(lastChild, false);
+            Arrays.fill(anyChild, false);
+        }
+    }
+}
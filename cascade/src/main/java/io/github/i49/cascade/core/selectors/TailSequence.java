@@ -16,15 +16,21 @@
 
 package io.github.i49.cascade.core.selectors;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.w3c.dom.Element;
 
 import io.github.i49.cascade.core.matchers.Matcher;
 import io.github.i49.cascade.core.matchers.MatcherType;
 import io.github.i49.cascade.core.matchers.pseudo.PseudoClass;
+import io.github.i49.cascade.core.matchers.simple.ClassMatcher;
 import io.github.i49.cascade.core.matchers.simple.IdentifierMatcher;
+import io.github.i49.cascade.core.matchers.simple.TypeMatcher;
 import io.github.i49.cascade.core.matchers.util.Matchers;
 import io.github.i49.cascade.core.walkers.DepthFirstWalker;
 import io.github.i49.cascade.core.walkers.IdentifierWalker;
+import io.github.i49.cascade.core.walkers.IndexedWalker;
 import io.github.i49.cascade.core.walkers.NeverWalker;
 import io.github.i49.cascade.core.walkers.RootOnlyWalker;
 import io.github.i49.cascade.core.walkers.Walker;
@@ -39,8 +45,40 @@ public class TailSequence extends AbstractSequence {
     }
 
     @Override
-    public boolean test(Element element, Element root) {
-        return test(element) && testPrevious(element, root);
+    public boolean test(Element element, SelectionContext context) {
+        return matches(element, context) && testPrevious(element, context);
+    }
+
+    /**
+     * Makes the preceding sequences memoize their results if the combinators may backtrack repeatedly.
+     *
+     * <p>Descendant and sibling combinators try all ancestors or siblings
+     * until the rest of the chain succeeds.
+     * If two or more of them are chained, the sequences on the left side
+     * are tested many times for the same elements.
+     * The sequences except the one directly preceding this sequence memoize their results,
+     * because the directly preceding one is tested just once for each candidate.</p>
+     */
+    public void prepareMemoization() {
+        int backtracking = 0;
+        for (Sequence s = getPrevious(); s != null; s = s.getPrevious()) {
+            if (isBacktracking(s)) {
+                backtracking++;
+            }
+        }
+        if (backtracking < 2) {
+            return;
+        }
+        Sequence s = getPrevious();
+        for (s = s.getPrevious(); s != null; s = s.getPrevious()) {
+            if (isBacktracking(s)) {
+                ((PrecedingSequence)s).setMemoized(true);
+            }
+        }
+    }
+
+    private static boolean isBacktracking(Sequence sequence) {
+        return sequence instanceof DescendantSequence || sequence instanceof SiblingSequence;
     }
 
     /**
@@ -49,6 +87,7 @@ public class TailSequence extends AbstractSequence {
      * @return newly created walker.
      */
     public Walker createWalker() {
+        Matcher optimum = optimum();
         if (optimum.matchesNever()) {
             return NeverWalker.create();
         }
@@ -61,6 +100,15 @@ public class TailSequence extends AbstractSequence {
             String identifier = ((IdentifierMatcher)found).getIdentifier();
             return IdentifierWalker.create(identifier);
         }
+        found = Matchers.extractByType(optimum, MatcherType.TYPE);
+        String localName = (found != null) ? ((TypeMatcher)found).getLocalName() : null;
+        List<String> classNames = new ArrayList<>();
+        for (Matcher m: Matchers.extractAllByType(optimum, MatcherType.CLASS)) {
+            classNames.add(((ClassMatcher)m).getClassName());
+        }
+        if (localName != null || !classNames.isEmpty()) {
+            return IndexedWalker.create(localName, classNames, DepthFirstWalker.create());
+        }
         return DepthFirstWalker.create();
     }
 }
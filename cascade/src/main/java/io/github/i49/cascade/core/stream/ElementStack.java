@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The stack of the elements open in an XML event stream.
+ * The stack holds one instance of {@link StreamedElement} for each depth,
+ * therefore its size is proportional to the depth of the document, not to the number of the elements.
+ */
+public class ElementStack {
+
+    // the elements indexed by the depth plus 1, the first one representing the document.
+    private final List<StreamedElement> elements = new ArrayList<>();
+    private int depth = -1;
+    private long count;
+
+    public ElementStack() {
+        elements.add(new StreamedElement(null));
+    }
+
+    /**
+     * Checks if no element is open.
+     *
+     * @return {@code true} if no element is open.
+     */
+    public boolean isEmpty() {
+        return depth < 0;
+    }
+
+    /**
+     * Returns the element open at the deepest level.
+     *
+     * @return the current element.
+     * @throws IllegalStateException if no element is open.
+     */
+    public StreamedElement peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException();
+        }
+        return elements.get(depth + 1);
+    }
+
+    /**
+     * Opens a new element as the child of the current element.
+     * The attributes are to be added to the returned element.
+     *
+     * @param namespace the namespace of the element, may be {@code null} or empty.
+     * @param localName the local name of the element.
+     * @param prefix the prefix of the element, may be {@code null} or empty.
+     * @return the element opened.
+     */
+    public StreamedElement push(String namespace, String localName, String prefix) {
+        final int index = ++depth + 1;
+        if (index == elements.size()) {
+            elements.add(new StreamedElement(elements.get(index - 1)));
+        }
+        StreamedElement element = elements.get(index);
+        element.start(namespace, localName, prefix, count++);
+        return element;
+    }
+
+    /**
+     * Closes the current element.
+     *
+     * @return the element closed.
+     * @throws IllegalStateException if no element is open.
+     */
+    public StreamedElement pop() {
+        StreamedElement element = peek();
+        depth--;
+        return element;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/**
+ * Handler which builds DOM trees only for the subtrees of the elements selected.
+ *
+ * <p>While no element selected is open, the elements are only tested and no node is created.
+ * When an element is selected, the element and all of its content are built into a new document,
+ * as the document element of the document,
+ * and the element is passed to the action when the element is closed.
+ * The elements selected in the subtree of another element selected are passed in document order
+ * after the outer one, as the nodes in the same tree.
+ * Each document holds only one tree, which is released by the document once the tree is no longer used.</p>
+ */
+public class FragmentBuilder implements StreamedElementHandler {
+
+    private final DocumentBuilder builder;
+    private final Predicate<StreamedElement> selection;
+    private final Consumer<? super Element> action;
+    private Document document;
+    // the element being built, null if no tree is being built.
+    private Element current;
+    // the elements selected in the tree being built.
+    private final List<Element> selected = new ArrayList<>();
+
+    /**
+     * Constructs this handler.
+     *
+     * @param builder the builder of the documents, cannot be {@code null}.
+     * @param selection the predicate selecting the elements, which is tested once for each element in document order.
+     * @param action the action to perform for each element selected.
+     */
+    public FragmentBuilder(DocumentBuilder builder, Predicate<StreamedElement> selection, Consumer<? super Element> action) {
+        this.builder = builder;
+        this.selection = selection;
+        this.action = action;
+    }
+
+    @Override
+    public void startElement(StreamedElement element) {
+        final boolean matched = selection.test(element);
+        if (current == null) {
+            if (!matched) {
+                return;
+            }
+            document = builder.newDocument();
+        }
+        Element created = createElement(element);
+        if (current != null) {
+            current.appendChild(created);
+        } else {
+            document.appendChild(created);
+        }
+        current = created;
+        if (matched) {
+            selected.add(created);
+        }
+    }
+
+    @Override
+    public void endElement(StreamedElement element) {
+        if (current == null) {
+            return;
+        }
+        Node parent = current.getParentNode();
+        if (parent.getNodeType() == Node.ELEMENT_NODE) {
+            current = (Element)parent;
+            return;
+        }
+        current = null;
+        document = null;
+        for (Element found: selected) {
+            action.accept(found);
+        }
+        selected.clear();
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (current == null) {
+            return;
+        }
+        Node last = current.getLastChild();
+        if (last != null && last.getNodeType() == Node.TEXT_NODE) {
+            ((Text)last).appendData(new String(ch, start, length));
+        } else {
+            current.appendChild(document.createTextNode(new String(ch, start, length)));
+        }
+    }
+
+    @Override
+    public void cdata(char[] ch, int start, int length) {
+        if (current != null) {
+            current.appendChild(document.createCDATASection(new String(ch, start, length)));
+        }
+    }
+
+    @Override
+    public void comment(char[] ch, int start, int length) {
+        if (current != null) {
+            current.appendChild(document.createComment(new String(ch, start, length)));
+        }
+    }
+
+    @Override
+    public void processingInstruction(String target, String data) {
+        if (current != null) {
+            current.appendChild(document.createProcessingInstruction(target, (data != null) ? data : ""));
+        }
+    }
+
+    private Element createElement(StreamedElement source) {
+        Element element = document.createElementNS(
+                source.getNamespaceURI(), qualifiedName(source.getPrefix(), source.getLocalName()));
+        final int namespaces = source.getDeclaredNamespaceCount();
+        for (int i = 0; i < namespaces; i++) {
+            String prefix = source.getDeclaredPrefix(i);
+            element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                    qualifiedName((prefix != null) ? XMLConstants.XMLNS_ATTRIBUTE : null,
+                            (prefix != null) ? prefix : XMLConstants.XMLNS_ATTRIBUTE),
+                    source.getDeclaredNamespaceURI(i));
+        }
+        final int attributes = source.getAttributeCount();
+        for (int i = 0; i < attributes; i++) {
+            String namespace = source.getAttributeNamespaceURI(i);
+            String name = qualifiedName(source.getAttributePrefix(i), source.getAttributeLocalName(i));
+            element.setAttributeNS(namespace, name, source.getAttributeValue(i));
+            if (source.isIdentifier(i)) {
+                element.setIdAttributeNS(namespace, source.getAttributeLocalName(i), true);
+            }
+        }
+        return element;
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return (prefix != null) ? prefix + ":" + localName : localName;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.stream;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Element;
+
+/**
+ * Spliterator over the elements selected from a StAX stream reader, built by {@link FragmentBuilder}.
+ * The stream reader is read lazily, only until the next element selected is built.
+ */
+public class FragmentSpliterator extends Spliterators.AbstractSpliterator<Element> {
+
+    private final StaxElementReader reader;
+    private final Queue<Element> built = new ArrayDeque<>();
+
+    /**
+     * Constructs this spliterator.
+     *
+     * @param reader the stream reader to read, cannot be {@code null}.
+     * @param builder the builder of the documents, cannot be {@code null}.
+     * @param selection the predicate selecting the elements, which is tested once for each element in document order.
+     */
+    public FragmentSpliterator(XMLStreamReader reader, DocumentBuilder builder, Predicate<StreamedElement> selection) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.reader = new StaxElementReader(reader, new FragmentBuilder(builder, selection, built::add));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the stream reader failed to read the stream,
+     *         which has {@link XMLStreamException} as its cause.
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super Element> action) {
+        try {
+            while (built.isEmpty()) {
+                if (!reader.next()) {
+                    return false;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        action.accept(built.remove());
+        return true;
+    }
+}
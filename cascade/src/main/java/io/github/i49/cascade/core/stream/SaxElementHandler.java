@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ext.DefaultHandler2;
+
+/**
+ * SAX content handler which passes the elements to {@link StreamedElementHandler}.
+ * The parser should be namespace aware, otherwise the qualified names are used as the local names.
+ * The namespace declarations reported as attributes are ignored.
+ * This handler is also a lexical handler, which receives the comments and the CDATA sections
+ * if it is set to the parser as the lexical handler.
+ */
+public class SaxElementHandler extends DefaultHandler2 {
+
+    private final StreamedElementHandler handler;
+    private ElementStack stack;
+    // the prefixes and the namespaces declared by the next element.
+    private final List<String> namespaces = new ArrayList<>();
+    private boolean inCDATA;
+    private boolean inDTD;
+
+    /**
+     * Constructs this handler.
+     *
+     * @param handler the handler of the elements, cannot be {@code null}.
+     */
+    public SaxElementHandler(StreamedElementHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void startDocument() {
+        stack = new ElementStack();
+        namespaces.clear();
+    }
+
+    @Override
+    public void startPrefixMapping(String prefix, String uri) {
+        namespaces.add(prefix);
+        namespaces.add(uri);
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        if (stack == null) {
+            startDocument();
+        }
+        StreamedElement element = stack.push(uri, localNameOf(localName, qName), prefixOf(qName));
+        for (int i = 0; i < namespaces.size(); i += 2) {
+            element.addNamespace(namespaces.get(i), namespaces.get(i + 1));
+        }
+        namespaces.clear();
+        final int count = attributes.getLength();
+        for (int i = 0; i < count; i++) {
+            String qualifiedName = attributes.getQName(i);
+            if (isNamespaceDeclaration(qualifiedName)) {
+                continue;
+            }
+            element.addAttribute(
+                    attributes.getURI(i),
+                    localNameOf(attributes.getLocalName(i), qualifiedName),
+                    prefixOf(qualifiedName),
+                    attributes.getValue(i),
+                    attributes.getType(i));
+        }
+        handler.startElement(element);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        handler.endElement(stack.pop());
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (stack == null || stack.isEmpty()) {
+            return;
+        }
+        if (inCDATA) {
+            handler.cdata(ch, start, length);
+        } else {
+            handler.characters(ch, start, length);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) {
+        characters(ch, start, length);
+    }
+
+    @Override
+    public void processingInstruction(String target, String data) {
+        if (stack != null && !stack.isEmpty()) {
+            handler.processingInstruction(target, data);
+        }
+    }
+
+    @Override
+    public void startCDATA() {
+        inCDATA = true;
+    }
+
+    @Override
+    public void endCDATA() {
+        inCDATA = false;
+    }
+
+    @Override
+    public void startDTD(String name, String publicId, String systemId) {
+        inDTD = true;
+    }
+
+    @Override
+    public void endDTD() {
+        inDTD = false;
+    }
+
+    @Override
+    public void comment(char[] ch, int start, int length) {
+        if (!inDTD && stack != null && !stack.isEmpty()) {
+            handler.comment(ch, start, length);
+        }
+    }
+
+    private static String localNameOf(String localName, String qName) {
+        return (localName == null || localName.isEmpty()) ? qName : localName;
+    }
+
+    private static String prefixOf(String qName) {
+        final int colon = qName.indexOf(':');
+        return (colon > 0) ? qName.substring(0, colon) : null;
+    }
+
+    private static boolean isNamespaceDeclaration(String qName) {
+        return qName.equals(XMLConstants.XMLNS_ATTRIBUTE) || qName.startsWith(XMLConstants.XMLNS_ATTRIBUTE + ":");
+    }
+}
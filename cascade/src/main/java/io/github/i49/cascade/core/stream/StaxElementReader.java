@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.stream;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The reader of the elements from StAX stream readers.
+ *
+ * <p>If the stream reader is at the start of an element, only the element and its descendants are read,
+ * and the reader is left at the end of the element.
+ * Otherwise the stream reader is read until the end of the document.</p>
+ */
+public final class StaxElementReader {
+
+    private final XMLStreamReader reader;
+    private final StreamedElementHandler handler;
+    private final ElementStack stack = new ElementStack();
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * Reads all elements from the stream reader and passes them to the handler.
+     *
+     * @param reader the stream reader to read, cannot be {@code null}.
+     * @param handler the handler of the elements, cannot be {@code null}.
+     * @throws XMLStreamException if the reader failed to read the stream.
+     */
+    public static void read(XMLStreamReader reader, StreamedElementHandler handler) throws XMLStreamException {
+        StaxElementReader elementReader = new StaxElementReader(reader, handler);
+        while (elementReader.next()) {
+        }
+    }
+
+    /**
+     * Constructs this reader.
+     *
+     * @param reader the stream reader to read, cannot be {@code null}.
+     * @param handler the handler of the elements, cannot be {@code null}.
+     */
+    public StaxElementReader(XMLStreamReader reader, StreamedElementHandler handler) {
+        this.reader = reader;
+        this.handler = handler;
+    }
+
+    /**
+     * Passes the next event of the stream reader to the handler.
+     *
+     * @return {@code true} if the reading continues, {@code false} if the reading is over.
+     * @throws XMLStreamException if the reader failed to read the stream.
+     */
+    public boolean next() throws XMLStreamException {
+        if (finished) {
+            return false;
+        }
+        if (!started) {
+            started = true;
+        } else if (reader.hasNext()) {
+            reader.next();
+        } else {
+            finished = true;
+            return false;
+        }
+        handleEvent(reader.getEventType());
+        return !finished;
+    }
+
+    private void handleEvent(int event) {
+        switch (event) {
+        case XMLStreamConstants.START_ELEMENT:
+            startElement();
+            break;
+        case XMLStreamConstants.END_ELEMENT:
+            if (!stack.isEmpty()) {
+                handler.endElement(stack.pop());
+            }
+            finished = stack.isEmpty();
+            break;
+        case XMLStreamConstants.END_DOCUMENT:
+            finished = true;
+            break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.SPACE:
+            if (!stack.isEmpty()) {
+                handler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+            break;
+        case XMLStreamConstants.CDATA:
+            if (!stack.isEmpty()) {
+                handler.cdata(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+            break;
+        case XMLStreamConstants.COMMENT:
+            if (!stack.isEmpty()) {
+                handler.comment(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+            break;
+        case XMLStreamConstants.PROCESSING_INSTRUCTION:
+            if (!stack.isEmpty()) {
+                handler.processingInstruction(reader.getPITarget(), reader.getPIData());
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void startElement() {
+        StreamedElement element = stack.push(reader.getNamespaceURI(), reader.getLocalName(), reader.getPrefix());
+        final int namespaces = reader.getNamespaceCount();
+        for (int i = 0; i < namespaces; i++) {
+            element.addNamespace(reader.getNamespacePrefix(i), reader.getNamespaceURI(i));
+        }
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            element.addAttribute(
+                    reader.getAttributeNamespace(i),
+                    reader.getAttributeLocalName(i),
+                    reader.getAttributePrefix(i),
+                    reader.getAttributeValue(i),
+                    reader.getAttributeType(i));
+        }
+        handler.startElement(element);
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.stream;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+
+import io.github.i49.cascade.api.StreamingMatcher;
+
+/**
+ * The element currently open in an XML event stream.
+ *
+ * <p>An instance of this class is created for each depth of the document tree
+ * and reused for all elements at the depth, as the elements at the same depth are never open at a time.
+ * Each instance holds the name and the attributes of the element,
+ * the position of the element among its siblings,
+ * and the counts of the children of the element read so far.</p>
+ */
+public final class StreamedElement implements StreamingMatcher.Match {
+
+    private static final int INITIAL_ATTRIBUTES = 8;
+
+    private final StreamedElement parent;
+    private final int depth;
+
+    private String namespace;
+    private String localName;
+    private String prefix;
+    private long ordinal;
+    private int position;
+    private int typePosition;
+
+    private int attributeCount;
+    private String[] attributeNamespaces = new String[INITIAL_ATTRIBUTES];
+    private String[] attributeLocalNames = new String[INITIAL_ATTRIBUTES];
+    private String[] attributePrefixes = new String[INITIAL_ATTRIBUTES];
+    private String[] attributeValues = new String[INITIAL_ATTRIBUTES];
+    private boolean[] identifiers = new boolean[INITIAL_ATTRIBUTES];
+
+    private int namespaceCount;
+    private String[] declaredPrefixes = new String[INITIAL_ATTRIBUTES];
+    private String[] declaredNamespaces = new String[INITIAL_ATTRIBUTES];
+
+    // the states of the children read so far.
+    private int childCount;
+    private int generation;
+    // the counters of the children by namespace and local name, each of which holds the generation and the count.
+    private final Map<String, Map<String, int[]>> typeCounts = new HashMap<>();
+
+    /**
+     * Constructs the element at the depth next to the given parent.
+     *
+     * @param parent the parent element, or {@code null} for the document.
+     */
+    StreamedElement(StreamedElement parent) {
+        this.parent = parent;
+        this.depth = (parent != null) ? parent.depth + 1 : -1;
+    }
+
+    /**
+     * Returns the parent of this element.
+     *
+     * @return the parent element, or {@code null} if this element is the document element.
+     */
+    public StreamedElement getParent() {
+        return (parent != null && parent.depth >= 0) ? parent : null;
+    }
+
+    @Override
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public String getNamespaceURI() {
+        return namespace;
+    }
+
+    @Override
+    public String getLocalName() {
+        return localName;
+    }
+
+    @Override
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public long getOrdinal() {
+        return ordinal;
+    }
+
+    @Override
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the position of this element among the siblings of the same type.
+     *
+     * @return the position, starting from 1.
+     */
+    public int getTypePosition() {
+        return typePosition;
+    }
+
+    @Override
+    public String getPath() {
+        StringBuilder b = new StringBuilder();
+        appendPath(b);
+        return b.toString();
+    }
+
+    private void appendPath(StringBuilder b) {
+        StreamedElement parent = getParent();
+        if (parent != null) {
+            parent.appendPath(b);
+        }
+        b.append('/');
+        if (prefix != null) {
+            b.append(prefix).append(':');
+        }
+        b.append(localName).append('[').append(typePosition).append(']');
+    }
+
+    /**
+     * Returns the number of the attributes of this element.
+     * The namespace declarations are not counted as attributes.
+     *
+     * @return the number of the attributes.
+     */
+    public int getAttributeCount() {
+        return attributeCount;
+    }
+
+    /**
+     * Returns the namespace of the attribute at the index.
+     *
+     * @param index the index of the attribute.
+     * @return the namespace of the attribute, or {@code null} if the attribute has no namespace.
+     */
+    public String getAttributeNamespaceURI(int index) {
+        return attributeNamespaces[index];
+    }
+
+    /**
+     * Returns the local name of the attribute at the index.
+     *
+     * @param index the index of the attribute.
+     * @return the local name of the attribute.
+     */
+    public String getAttributeLocalName(int index) {
+        return attributeLocalNames[index];
+    }
+
+    /**
+     * Returns the prefix of the attribute at the index.
+     *
+     * @param index the index of the attribute.
+     * @return the prefix of the attribute, or {@code null} if the attribute has no prefix.
+     */
+    public String getAttributePrefix(int index) {
+        return attributePrefixes[index];
+    }
+
+    /**
+     * Returns the value of the attribute at the index.
+     *
+     * @param index the index of the attribute.
+     * @return the value of the attribute.
+     */
+    public String getAttributeValue(int index) {
+        return attributeValues[index];
+    }
+
+    /**
+     * Checks if the attribute at the index is an identifier.
+     *
+     * @param index the index of the attribute.
+     * @return {@code true} if the attribute is an identifier.
+     */
+    public boolean isIdentifier(int index) {
+        return identifiers[index];
+    }
+
+    @Override
+    public String getAttributeValue(String namespace, String localName) {
+        for (int i = 0; i < attributeCount; i++) {
+            if (attributeLocalNames[i].equals(localName) &&
+                (namespace == null ? attributeNamespaces[i] == null : namespace.equals(attributeNamespaces[i]))) {
+                return attributeValues[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of the unprefixed attribute having the given name.
+     *
+     * @param localName the name of the attribute.
+     * @return the value of the attribute, or an empty string if this element does not have the attribute.
+     */
+    public String getAttribute(String localName) {
+        for (int i = 0; i < attributeCount; i++) {
+            if (attributePrefixes[i] == null && attributeLocalNames[i].equals(localName)) {
+                return attributeValues[i];
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Checks if this element has the given identifier.
+     *
+     * @param identifier the identifier to find.
+     * @return {@code true} if any attribute of type ID has the value.
+     */
+    public boolean hasIdentifier(String identifier) {
+        for (int i = 0; i < attributeCount; i++) {
+            if (identifiers[i] && attributeValues[i].equals(identifier)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of the namespaces declared by this element.
+     *
+     * @return the number of the namespace declarations.
+     */
+    public int getDeclaredNamespaceCount() {
+        return namespaceCount;
+    }
+
+    /**
+     * Returns the prefix of the namespace declaration at the index.
+     *
+     * @param index the index of the namespace declaration.
+     * @return the prefix declared, or {@code null} for the default namespace.
+     */
+    public String getDeclaredPrefix(int index) {
+        return declaredPrefixes[index];
+    }
+
+    /**
+     * Returns the namespace of the namespace declaration at the index.
+     *
+     * @param index the index of the namespace declaration.
+     * @return the namespace declared, which is empty if the default namespace is undeclared.
+     */
+    public String getDeclaredNamespaceURI(int index) {
+        return declaredNamespaces[index];
+    }
+
+    /**
+     * Starts a new element as the child of the parent of this instance.
+     *
+     * @param namespace the namespace of the element, may be {@code null} or empty.
+     * @param localName the local name of the element.
+     * @param prefix the prefix of the element, may be {@code null} or empty.
+     * @param ordinal the number of the element in document order.
+     */
+    void start(String namespace, String localName, String prefix, long ordinal) {
+        this.namespace = emptyToNull(namespace);
+        this.localName = localName;
+        this.prefix = emptyToNull(prefix);
+        this.ordinal = ordinal;
+        this.position = ++parent.childCount;
+        this.typePosition = parent.countChildOfType(this.namespace, localName);
+        this.attributeCount = 0;
+        this.namespaceCount = 0;
+        this.childCount = 0;
+        this.generation++;
+    }
+
+    /**
+     * Adds an attribute to this element.
+     *
+     * @param namespace the namespace of the attribute, may be {@code null} or empty.
+     * @param localName the local name of the attribute.
+     * @param prefix the prefix of the attribute, may be {@code null} or empty.
+     * @param value the value of the attribute.
+     * @param type the type of the attribute given by the parser, may be {@code null}.
+     */
+    void addAttribute(String namespace, String localName, String prefix, String value, String type) {
+        if (attributeCount == attributeValues.length) {
+            int capacity = attributeCount * 2;
+            attributeNamespaces = Arrays.copyOf(attributeNamespaces, capacity);
+            attributeLocalNames = Arrays.copyOf(attributeLocalNames, capacity);
+            attributePrefixes = Arrays.copyOf(attributePrefixes, capacity);
+            attributeValues = Arrays.copyOf(attributeValues, capacity);
+            identifiers = Arrays.copyOf(identifiers, capacity);
+        }
+        namespace = emptyToNull(namespace);
+        prefix = emptyToNull(prefix);
+        final int i = attributeCount++;
+        attributeNamespaces[i] = namespace;
+        attributeLocalNames[i] = localName;
+        attributePrefixes[i] = prefix;
+        attributeValues[i] = value;
+        identifiers[i] = isIdentifier(namespace, localName, prefix, type);
+    }
+
+    /**
+     * Adds a namespace declared by this element.
+     *
+     * @param prefix the prefix declared, may be {@code null} or empty for the default namespace.
+     * @param namespace the namespace declared, may be {@code null}.
+     */
+    void addNamespace(String prefix, String namespace) {
+        if (namespaceCount == declaredPrefixes.length) {
+            int capacity = namespaceCount * 2;
+            declaredPrefixes = Arrays.copyOf(declaredPrefixes, capacity);
+            declaredNamespaces = Arrays.copyOf(declaredNamespaces, capacity);
+        }
+        final int i = namespaceCount++;
+        declaredPrefixes[i] = emptyToNull(prefix);
+        declaredNamespaces[i] = (namespace != null) ? namespace : "";
+    }
+
+    /**
+     * Counts a child of the given type.
+     *
+     * @param namespace the namespace of the child.
+     * @param localName the local name of the child.
+     * @return the number of the children of the type including the given one.
+     */
+    private int countChildOfType(String namespace, String localName) {
+        Map<String, int[]> names = typeCounts.get(namespace);
+        if (names == null) {
+            names = new HashMap<>();
+            typeCounts.put(namespace, names);
+        }
+        int[] counter = names.get(localName);
+        if (counter == null) {
+            counter = new int[2];
+            names.put(localName, counter);
+        }
+        if (counter[0] != generation) {
+            counter[0] = generation;
+            counter[1] = 0;
+        }
+        return ++counter[1];
+    }
+
+    /**
+     * Checks if the attribute is an identifier.
+     * The attributes declared as ID, the unprefixed attributes named "id" and "xml:id" are identifiers.
+     */
+    private static boolean isIdentifier(String namespace, String localName, String prefix, String type) {
+        if ("ID".equals(type)) {
+            return true;
+        } else if (namespace == null) {
+            return prefix == null && "id".equals(localName);
+        } else {
+            return XMLConstants.XML_NS_URI.equals(namespace) && "id".equals(localName);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return (value == null || value.isEmpty()) ? null : value;
+    }
+}
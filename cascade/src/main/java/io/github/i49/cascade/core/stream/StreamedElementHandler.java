@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.stream;
+
+/**
+ * Handler of the elements read from an XML event stream.
+ * The handlers which need the content of the elements override the methods receiving the content,
+ * which are called only while any element is open.
+ */
+public interface StreamedElementHandler {
+
+    /**
+     * Handles the start of an element.
+     * The element given is valid only until this method returns,
+     * as the instance is reused for the following elements.
+     *
+     * @param element the element started, never be {@code null}.
+     */
+    void startElement(StreamedElement element);
+
+    /**
+     * Handles the end of an element.
+     *
+     * @param element the element ended, never be {@code null}.
+     */
+    default void endElement(StreamedElement element) {
+    }
+
+    /**
+     * Handles character data in the current element.
+     *
+     * @param ch the characters.
+     * @param start the start position in the array.
+     * @param length the number of the characters.
+     */
+    default void characters(char[] ch, int start, int length) {
+    }
+
+    /**
+     * Handles character data of a CDATA section in the current element.
+     *
+     * @param ch the characters.
+     * @param start the start position in the array.
+     * @param length the number of the characters.
+     */
+    default void cdata(char[] ch, int start, int length) {
+    }
+
+    /**
+     * Handles a comment in the current element.
+     *
+     * @param ch the characters of the comment.
+     * @param start the start position in the array.
+     * @param length the number of the characters.
+     */
+    default void comment(char[] ch, int start, int length) {
+    }
+
+    /**
+     * Handles a processing instruction in the current element.
+     *
+     * @param target the target of the processing instruction.
+     * @param data the data of the processing instruction, may be {@code null}.
+     */
+    default void processingInstruction(String target, String data) {
+    }
+}
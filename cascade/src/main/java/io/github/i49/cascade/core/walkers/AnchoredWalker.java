@@ -0,0 +1,384 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.walkers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import io.github.i49.cascade.api.DocumentIndex;
+import io.github.i49.cascade.core.dom.DefaultDocumentIndex;
+import io.github.i49.cascade.core.dom.Elements;
+
+/**
+ * Walker which finds the anchors of the selector first and walks only the scopes enclosing them.
+ *
+ * <p>An anchor is an element matching one of the sequences preceding the last sequence.
+ * If the sequence is followed by a descendant or child combinator,
+ * all elements matching the selector are found in the subtree of the anchor.
+ * If followed by an adjacent or general sibling combinator,
+ * they are found in the subtree of the parent of the anchor.
+ * Nested scopes are merged so that each element is visited at most once and in document order.</p>
+ *
+ * <p>If the document has an index, the anchor with the fewest elements is chosen
+ * and the scopes are walked only if they cover at most half of the candidates of the whole walk.
+ * Otherwise only the anchors having identifiers are used.
+ * In any case where no scope can be determined,
+ * this walker delegates the walk to the given walker.</p>
+ */
+public class AnchoredWalker implements Walker {
+
+    private final Anchor[] anchors;
+    private final String localName;
+    private final String[] classNames;
+    private final Walker walker;
+
+    /**
+     * Creates a walker.
+     *
+     * @param anchors the anchors to find, the nearest to the last sequence first.
+     * @param localName the local name required by the last sequence, may be {@code null}.
+     * @param classNames the class names required by the last sequence, may be empty.
+     * @param walker the walker to be used in each scope, or in the whole subtree.
+     * @return newly created walker.
+     */
+    public static AnchoredWalker create(List<Anchor> anchors, String localName, List<String> classNames, Walker walker) {
+        return new AnchoredWalker(anchors, localName, classNames, walker);
+    }
+
+    private AnchoredWalker(List<Anchor> anchors, String localName, List<String> classNames, Walker walker) {
+        assert(!anchors.isEmpty());
+        this.anchors = anchors.toArray(new Anchor[anchors.size()]);
+        this.localName = localName;
+        this.classNames = classNames.toArray(new String[classNames.size()]);
+        this.walker = walker;
+    }
+
+    /**
+     * {@inheritDoc}
+     * This method visits the elements in the scopes except the scopes themselves.
+     * The visitor is notified of entering and leaving the children of the elements
+     * as if the whole subtree of the starting element were walked.
+     */
+    @Override
+    public void walkTree(Element start, Visitor visitor) {
+        List<Element> scopes = findScopes(start);
+        if (scopes == null) {
+            walker.walkTree(start, visitor);
+            return;
+        }
+        for (Element scope: scopes) {
+            walkScope(start, scope, visitor);
+        }
+    }
+
+    /**
+     * Walks the subtree of the scope except the scope itself.
+     *
+     * @param start the element at which the walk started.
+     * @param scope the scope to walk, which is the starting element or its descendant.
+     * @param visitor the visitor of each element.
+     */
+    private void walkScope(Element start, Element scope, Visitor visitor) {
+        // the ancestors of the scope up to the starting element, the nearest first.
+        List<Element> ancestors = new ArrayList<>();
+        Node current = scope;
+        while (current != start) {
+            current = current.getParentNode();
+            ancestors.add((Element)current);
+        }
+        for (int i = ancestors.size() - 1; i >= 0; i--) {
+            visitor.enterChildren(ancestors.get(i));
+        }
+        walker.walkTree(scope, new Visitor() {
+            @Override
+            public void visit(Element element) {
+                if (element != scope) {
+                    visitor.visit(element);
+                }
+            }
+
+            @Override
+            public void enterChildren(Element element) {
+                visitor.enterChildren(element);
+            }
+
+            @Override
+            public void leaveChildren(Element element) {
+                visitor.leaveChildren(element);
+            }
+        });
+        for (Element ancestor: ancestors) {
+            visitor.leaveChildren(ancestor);
+        }
+    }
+
+    @Override
+    public Iterator<Element> iterateTree(Element start) {
+        List<Element> scopes = findScopes(start);
+        if (scopes == null) {
+            return walker.iterateTree(start);
+        }
+        return new ScopeIterator(scopes.iterator());
+    }
+
+    /**
+     * Finds the scopes to walk.
+     *
+     * @param start the element at which the walk starts.
+     * @return the disjoint scopes in document order, or {@code null} if the whole subtree must be walked.
+     */
+    private List<Element> findScopes(Element start) {
+        DocumentIndex found = DocumentIndex.find(start.getOwnerDocument());
+        if (found instanceof DefaultDocumentIndex) {
+            DefaultDocumentIndex index = (DefaultDocumentIndex)found;
+            int ordinal = index.ordinalOf(start);
+            if (ordinal >= 0) {
+                return findScopes(index, ordinal);
+            }
+        }
+        return findScopesByIdentifier(start);
+    }
+
+    private List<Element> findScopesByIdentifier(Element start) {
+        for (Anchor anchor: anchors) {
+            if (anchor.identifier == null) {
+                continue;
+            }
+            Element found = start.getOwnerDocument().getElementById(anchor.identifier);
+            if (found == null) {
+                return null;
+            }
+            Element scope = anchor.scopeOf(found);
+            if (scope == null) {
+                return Collections.emptyList();
+            } else if (scope == start) {
+                return anchor.siblingScope ? Collections.singletonList(scope) : Collections.emptyList();
+            } else if (Elements.isAncestor(start, scope)) {
+                return Collections.singletonList(scope);
+            } else if (Elements.isAncestor(scope, start)) {
+                return null;
+            }
+            return Collections.emptyList();
+        }
+        return null;
+    }
+
+    private List<Element> findScopes(DefaultDocumentIndex index, int ordinal) {
+        final int end = index.endOf(ordinal);
+        Anchor chosen = null;
+        int[] found = null;
+        for (Anchor anchor: anchors) {
+            int[] elements = anchor.find(index);
+            if (found == null || elements.length < found.length) {
+                chosen = anchor;
+                found = elements;
+            }
+        }
+        final int candidates = countCandidates(index, ordinal, end);
+        if (found.length >= candidates) {
+            return null;
+        }
+        int[] scopes = new int[found.length];
+        int size = 0;
+        for (int anchor: found) {
+            int scope = anchor;
+            if (chosen.siblingScope) {
+                Node parent = index.elementAt(anchor).getParentNode();
+                if (!(parent instanceof Element)) {
+                    continue;
+                }
+                scope = index.ordinalOf((Element)parent);
+            }
+            if (scope == ordinal) {
+                if (chosen.siblingScope) {
+                    scopes[size++] = scope;
+                }
+            } else if (scope > ordinal && scope < end) {
+                scopes[size++] = scope;
+            } else if (scope < ordinal && index.endOf(scope) >= end) {
+                return null;
+            }
+        }
+        // The parents of the anchors are not always in document order.
+        if (chosen.siblingScope) {
+            Arrays.sort(scopes, 0, size);
+        }
+        List<Element> merged = new ArrayList<>();
+        int covered = 0;
+        int last = -1;
+        for (int i = 0; i < size; i++) {
+            int scope = scopes[i];
+            if (last < 0 || scope >= index.endOf(last)) {
+                merged.add(index.elementAt(scope));
+                covered += countCandidates(index, scope + 1, index.endOf(scope));
+                last = scope;
+            }
+        }
+        // Walking the scopes does not pay if they cover most of the candidates.
+        if (covered > candidates / 2) {
+            return null;
+        }
+        return merged;
+    }
+
+    /**
+     * Counts the candidates to be visited in the range of the elements.
+     *
+     * @param index the index of the document.
+     * @param from the number of the first element in the range.
+     * @param to the number next to the last element in the range.
+     * @return the number of the candidates.
+     */
+    private int countCandidates(DefaultDocumentIndex index, int from, int to) {
+        int count = to - from;
+        if (localName != null) {
+            count = Math.min(count, countInRange(index.findByLocalName(localName), from, to));
+        }
+        for (String className: classNames) {
+            count = Math.min(count, countInRange(index.findByClassName(className), from, to));
+        }
+        return count;
+    }
+
+    private static int countInRange(int[] elements, int from, int to) {
+        return insertionPoint(elements, to) - insertionPoint(elements, from);
+    }
+
+    private static int insertionPoint(int[] elements, int ordinal) {
+        int i = Arrays.binarySearch(elements, ordinal);
+        return (i < 0) ? -i - 1 : i;
+    }
+
+    /**
+     * Keys of a sequence preceding the last sequence.
+     */
+    public static class Anchor {
+
+        private final String identifier;
+        private final String localName;
+        private final String[] classNames;
+        private final boolean siblingScope;
+
+        /**
+         * Constructs this object.
+         *
+         * @param identifier the identifier required by the sequence, may be {@code null}.
+         * @param localName the local name required by the sequence, may be {@code null}.
+         * @param classNames the class names required by the sequence, may be empty.
+         * @param siblingScope {@code true} if the sequence is followed by a sibling combinator.
+         */
+        public Anchor(String identifier, String localName, List<String> classNames, boolean siblingScope) {
+            assert(identifier != null || localName != null || !classNames.isEmpty());
+            this.identifier = identifier;
+            this.localName = localName;
+            this.classNames = classNames.toArray(new String[classNames.size()]);
+            this.siblingScope = siblingScope;
+        }
+
+        /**
+         * Finds the smallest set of the elements which may match the sequence.
+         *
+         * @param index the index of the document.
+         * @return the numbers of the elements found in document order.
+         */
+        int[] find(DefaultDocumentIndex index) {
+            int[] found = null;
+            if (identifier != null) {
+                found = index.findByIdentifier(identifier);
+            }
+            if (localName != null) {
+                found = smaller(found, index.findByLocalName(localName));
+            }
+            for (String className: classNames) {
+                found = smaller(found, index.findByClassName(className));
+            }
+            return found;
+        }
+
+        /**
+         * Returns the scope enclosing all elements which may be combined with the anchor.
+         *
+         * @param anchor the element matching the sequence.
+         * @return the scope found, or {@code null} if the anchor has no parent element.
+         */
+        Element scopeOf(Element anchor) {
+            if (!siblingScope) {
+                return anchor;
+            }
+            Node parent = anchor.getParentNode();
+            return (parent instanceof Element) ? (Element)parent : null;
+        }
+
+        private static int[] smaller(int[] current, int[] found) {
+            return (current == null || found.length < current.length) ? found : current;
+        }
+    }
+
+    /**
+     * Iterator over the elements in the scopes except the scopes themselves.
+     */
+    private class ScopeIterator implements Iterator<Element> {
+
+        private final Iterator<Element> scopes;
+        private Element scope;
+        private Iterator<Element> elements = Collections.emptyIterator();
+        private Element next;
+
+        ScopeIterator(Iterator<Element> scopes) {
+            this.scopes = scopes;
+            this.next = fetch();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Element next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Element current = next;
+            next = fetch();
+            return current;
+        }
+
+        private Element fetch() {
+            for (;;) {
+                while (elements.hasNext()) {
+                    Element element = elements.next();
+                    if (element != scope) {
+                        return element;
+                    }
+                }
+                if (!scopes.hasNext()) {
+                    return null;
+                }
+                scope = scopes.next();
+                elements = walker.iterateTree(scope);
+            }
+        }
+    }
+}
@@ -16,6 +16,9 @@
 
 package io.github.i49.cascade.core.walkers;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
@@ -34,19 +37,110 @@ public class DepthFirstWalker implements Walker {
     private DepthFirstWalker() {
     }
 
+    /**
+     * {@inheritDoc}
+     * This method visits all elements in the subtree in document order.
+     * The tree is traversed by following the links between the nodes without any recursion,
+     * therefore no stack overflow occurs however deep the tree is.
+     * The visitor is notified whenever the walk enters or leaves the children of an element.
+     */
     @Override
     public void walkTree(Element start, Visitor visitor) {
         visitor.visit(start);
-        visitDescendants(start, visitor);
+        Node node = start.getFirstChild();
+        if (node == null) {
+            return;
+        }
+        visitor.enterChildren(start);
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                visitor.visit((Element)node);
+                Node child = node.getFirstChild();
+                if (child != null) {
+                    visitor.enterChildren((Element)node);
+                    node = child;
+                    continue;
+                }
+            }
+            // moves to the next sibling, leaving the parents without any more siblings.
+            while (true) {
+                Node sibling = node.getNextSibling();
+                if (sibling != null) {
+                    node = sibling;
+                    break;
+                }
+                node = node.getParentNode();
+                visitor.leaveChildren((Element)node);
+                if (node == start) {
+                    return;
+                }
+            }
+        }
     }
 
-    protected static void visitDescendants(Element element, Visitor visitor) {
-        for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element child = (Element)node;
-                visitor.visit(child);
-                visitDescendants((Element)node, visitor);
+    @Override
+    public Iterator<Element> iterateTree(Element start) {
+        return new DepthFirstIterator(start);
+    }
+
+    /**
+     * Returns the node to visit next to the given node, skipping its descendants.
+     *
+     * @param node the current node.
+     * @param start the starting point of the walk.
+     * @return the next node, or {@code null} if the walk is completed.
+     */
+    private static Node nextNode(Node node, Element start) {
+        while (node != start) {
+            Node sibling = node.getNextSibling();
+            if (sibling != null) {
+                return sibling;
+            }
+            node = node.getParentNode();
+        }
+        return null;
+    }
+
+    /**
+     * Iterator which walks the tree in the same way as {@link DepthFirstWalker#walkTree}.
+     */
+    private static class DepthFirstIterator implements Iterator<Element> {
+
+        private final Element start;
+        private Element next;
+
+        DepthFirstIterator(Element start) {
+            this.start = start;
+            this.next = start;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Element next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Element current = next;
+            next = findNext(current);
+            return current;
+        }
+
+        private Element findNext(Element current) {
+            Node node = current.getFirstChild();
+            if (node == null) {
+                node = nextNode(current, start);
+            }
+            while (node != null) {
+                if (node.getNodeType() == Node.ELEMENT_NODE) {
+                    return (Element)node;
+                }
+                node = nextNode(node, start);
             }
+            return null;
         }
     }
 }
@@ -16,6 +16,9 @@
 
 package io.github.i49.cascade.core.walkers;
 
+import java.util.Collections;
+import java.util.Iterator;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -47,13 +50,30 @@ public class IdentifierWalker implements Walker {
      */
     @Override
     public void walkTree(Element start, Visitor visitor) {
+        Element found = findElement(start);
+        if (found != null) {
+            visitor.visit(found);
+        }
+    }
+
+    @Override
+    public Iterator<Element> iterateTree(Element start) {
+        Element found = findElement(start);
+        if (found != null) {
+            return Collections.singletonList(found).iterator();
+        }
+        return Collections.emptyIterator();
+    }
+
+    private Element findElement(Element start) {
         Document doc = start.getOwnerDocument();
         Element found = doc.getElementById(this.identifier);
         if (found == null) {
-            return;
+            return null;
         }
         if (Elements.isRoot(start) || Elements.hasDescendant(start, found)) {
-            visitor.visit(found);
+            return found;
         }
+        return null;
     }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.core.walkers;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.DocumentIndex;
+import io.github.i49.cascade.core.dom.DefaultDocumentIndex;
+
+/**
+ * Walker accelerated by {@link DocumentIndex} attached to the document.
+ *
+ * <p>This walker visits only the elements which have the local name or all of the class names
+ * required by the selector. The most selective one of these keys is chosen for each walk.
+ * If the document has no index, this walker delegates the walk to the fallback walker.</p>
+ */
+public class IndexedWalker implements Walker {
+
+    private final String localName;
+    private final String[] classNames;
+    private final Walker fallback;
+
+    /**
+     * Creates a walker.
+     *
+     * @param localName the local name of the elements to visit, may be {@code null}.
+     * @param classNames the class names of the elements to visit, may be empty.
+     * @param fallback the walker to be used if the document has no index.
+     * @return newly created walker.
+     */
+    public static IndexedWalker create(String localName, List<String> classNames, Walker fallback) {
+        return new IndexedWalker(localName, classNames, fallback);
+    }
+
+    private IndexedWalker(String localName, List<String> classNames, Walker fallback) {
+        assert(localName != null || !classNames.isEmpty());
+        this.localName = localName;
+        this.classNames = classNames.toArray(new String[classNames.size()]);
+        this.fallback = fallback;
+    }
+
+    /**
+     * {@inheritDoc}
+     * This method only visits the elements having the keys in document order.
+     */
+    @Override
+    public void walkTree(Element start, Visitor visitor) {
+        DefaultDocumentIndex index = findIndex(start);
+        final int ordinal = (index != null) ? index.ordinalOf(start) : -1;
+        if (ordinal < 0) {
+            fallback.walkTree(start, visitor);
+            return;
+        }
+        final int end = index.endOf(ordinal);
+        int[] candidates = findCandidates(index);
+        for (int i = firstCandidate(candidates, ordinal); i < candidates.length && candidates[i] < end; i++) {
+            visitor.visit(index.elementAt(candidates[i]));
+        }
+    }
+
+    @Override
+    public Iterator<Element> iterateTree(Element start) {
+        DefaultDocumentIndex index = findIndex(start);
+        final int ordinal = (index != null) ? index.ordinalOf(start) : -1;
+        if (ordinal < 0) {
+            return fallback.iterateTree(start);
+        }
+        int[] candidates = findCandidates(index);
+        return new CandidateIterator(index, candidates, firstCandidate(candidates, ordinal), index.endOf(ordinal));
+    }
+
+    /**
+     * Returns the position of the first candidate not preceding the starting element.
+     *
+     * @param candidates the numbers of the candidate elements.
+     * @param ordinal the number of the starting element.
+     * @return the position in the candidates.
+     */
+    private static int firstCandidate(int[] candidates, int ordinal) {
+        int i = Arrays.binarySearch(candidates, ordinal);
+        return (i < 0) ? -i - 1 : i;
+    }
+
+    /**
+     * Finds the smallest set of the candidates.
+     *
+     * @param index the index of the document.
+     * @return the numbers of the candidate elements.
+     */
+    private int[] findCandidates(DefaultDocumentIndex index) {
+        int[] candidates = null;
+        if (localName != null) {
+            candidates = index.findByLocalName(localName);
+        }
+        for (String className: classNames) {
+            int[] found = index.findByClassName(className);
+            if (candidates == null || found.length < candidates.length) {
+                candidates = found;
+            }
+        }
+        return candidates;
+    }
+
+    private static DefaultDocumentIndex findIndex(Element start) {
+        DocumentIndex index = DocumentIndex.find(start.getOwnerDocument());
+        if (index instanceof DefaultDocumentIndex) {
+            return (DefaultDocumentIndex)index;
+        }
+        return null;
+    }
+
+    /**
+     * Iterator over the candidates in the subtree.
+     */
+    private static class CandidateIterator implements Iterator<Element> {
+
+        private final DefaultDocumentIndex index;
+        private final int[] candidates;
+        private final int end;
+        private int position;
+
+        CandidateIterator(DefaultDocumentIndex index, int[] candidates, int position, int end) {
+            this.index = index;
+            this.candidates = candidates;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < candidates.length && candidates[position] < end;
+        }
+
+        @Override
+        public Element next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return index.elementAt(candidates[position++]);
+        }
+    }
+}
@@ -16,6 +16,9 @@
 
 package io.github.i49.cascade.core.walkers;
 
+import java.util.Collections;
+import java.util.Iterator;
+
 import org.w3c.dom.Element;
 
 /**
@@ -40,4 +43,9 @@ public class NeverWalker implements Walker {
     public void walkTree(Element start, Visitor visitor) {
         // Do nothing.
     }
+
+    @Override
+    public Iterator<Element> iterateTree(Element start) {
+        return Collections.emptyIterator();
+    }
 }
@@ -16,6 +16,9 @@
 
 package io.github.i49.cascade.core.walkers;
 
+import java.util.Collections;
+import java.util.Iterator;
+
 import org.w3c.dom.Element;
 
 import io.github.i49.cascade.core.dom.Elements;
@@ -45,4 +48,12 @@ public class RootOnlyWalker implements Walker {
             visitor.visit(start);
         }
     }
+
+    @Override
+    public Iterator<Element> iterateTree(Element start) {
+        if (Elements.isRoot(start)) {
+            return Collections.singletonList(start).iterator();
+        }
+        return Collections.emptyIterator();
+    }
 }
@@ -30,4 +30,22 @@ public interface Visitor {
      * @param element the element to visit, never be {@code null}.
      */
     void visit(Element element);
+
+    /**
+     * Notifies that the walker is going to visit the children of the given element.
+     * Only the walkers visiting all elements in the subtree call this method.
+     *
+     * @param element the element whose children will be visited, never be {@code null}.
+     */
+    default void enterChildren(Element element) {
+    }
+
+    /**
+     * Notifies that the walker has visited all the children of the given element.
+     * This method is called for each call of {@link #enterChildren(Element)}.
+     *
+     * @param element the element whose children were visited, never be {@code null}.
+     */
+    default void leaveChildren(Element element) {
+    }
 }
@@ -16,13 +16,14 @@
 
 package io.github.i49.cascade.core.walkers;
 
+import java.util.Iterator;
+
 import org.w3c.dom.Element;
 
 /**
  * Document tree walker.
  * This type is the base type of all other walkers.
  */
-@FunctionalInterface
 public interface Walker {
 
     /**
@@ -32,4 +33,14 @@ public interface Walker {
      * @param visitor the visitor of each element.
      */
     void walkTree(Element start, Visitor visitor);
+
+    /**
+     * Returns an iterator over the elements to be visited by this walker.
+     * The iterator walks the document tree lazily, one step for each call of {@code next()},
+     * and returns the elements in the same order as {@link #walkTree(Element, Visitor)} visits them.
+     *
+     * @param start the starting point element to walk.
+     * @return an iterator over the elements, never be {@code null}.
+     */
+    Iterator<Element> iterateTree(Element start);
 }
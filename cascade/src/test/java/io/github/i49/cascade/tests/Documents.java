@@ -32,8 +32,10 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
+import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
 public final class Documents {
@@ -64,6 +66,20 @@ public final class Documents {
         saveToFile(fileName, doc);
     }
 
+    /**
+     * Copies a document, creating the attributes without namespace by DOM Level 1 methods.
+     * The attributes copied have no local names, as {@link Element#setAttribute(String, String)} creates them.
+     *
+     * @param source the document to copy.
+     * @return copied document.
+     */
+    public static Document copyWithLevelOneAttributes(Document source) {
+        Document doc = empty();
+        doc.appendChild(copyElement(doc, source.getDocumentElement()));
+        activateIdentifiers(doc);
+        return doc;
+    }
+
     public static List<Element> descentandsOf(Element element) {
         List<Element> descendants = new ArrayList<>();
         walkTree(element, e->descendants.add(e));
@@ -106,6 +122,29 @@ public final class Documents {
         }
     }
 
+    private static Element copyElement(Document doc, Element source) {
+        Element element = doc.createElementNS(source.getNamespaceURI(), source.getTagName());
+        NamedNodeMap attributes = source.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attribute = (Attr)attributes.item(i);
+            if (attribute.getNamespaceURI() == null) {
+                element.setAttribute(attribute.getName(), attribute.getValue());
+            } else {
+                element.setAttributeNS(attribute.getNamespaceURI(), attribute.getName(), attribute.getValue());
+            }
+        }
+        Node child = source.getFirstChild();
+        while (child != null) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                element.appendChild(copyElement(doc, (Element)child));
+            } else {
+                element.appendChild(doc.importNode(child, true));
+            }
+            child = child.getNextSibling();
+        }
+        return element;
+    }
+
     private static void activateIdentifiers(Document doc) {
         walkTree(doc.getDocumentElement(), e->{
             if (e.hasAttribute("id")) {
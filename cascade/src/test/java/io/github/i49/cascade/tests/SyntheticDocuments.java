@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests;
+
+import java.util.Random;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Generator of synthetic documents used for tests.
+ */
+public final class SyntheticDocuments {
+
+    private static final String[] CLASS_NAMES = { "item", "selected", "odd", "even", "note", "rare" };
+
+    /**
+     * Creates a large document which resembles a typical HTML page.
+     *
+     * @param numberOfElements the approximate number of elements in the document.
+     * @return created document.
+     */
+    public static Document large(int numberOfElements) {
+        Random random = new Random(42);
+        Document doc = Documents.empty();
+        Element html = append(doc, "html");
+        Element body = append(html, "body");
+        body.setAttribute("id", "body");
+        body.setIdAttribute("id", true);
+        int count = 2;
+        int sectionIndex = 0;
+        while (count < numberOfElements) {
+            Element section = append(body, "div");
+            section.setAttribute("class", "section");
+            section.setAttribute("id", "section" + sectionIndex++);
+            section.setIdAttribute("id", true);
+            Element list = append(section, "ul");
+            count += 2;
+            int items = 5 + random.nextInt(20);
+            for (int i = 0; i < items; i++) {
+                Element item = append(list, "li");
+                StringBuilder b = new StringBuilder("item ").append((i % 2 == 0) ? "odd" : "even");
+                if (random.nextInt(10) == 0) {
+                    b.append(" selected");
+                }
+                if (random.nextInt(1000) == 0) {
+                    b.append(" rare");
+                }
+                item.setAttribute("class", b.toString());
+                Element anchor = append(item, "a");
+                anchor.setAttribute("href", "#item" + count);
+                anchor.setTextContent("item");
+                count += 2;
+            }
+            Element note = append(section, "p");
+            note.setAttribute("class", CLASS_NAMES[random.nextInt(CLASS_NAMES.length)]);
+            note.setTextContent("note");
+            count++;
+        }
+        return doc;
+    }
+
+    /**
+     * Creates a document which has a chain of nested elements.
+     * The innermost element is a "p" element and all others are "div" elements.
+     *
+     * @param depth the number of the elements in the chain.
+     * @return created document.
+     */
+    public static Document deepChain(int depth) {
+        Document doc = Documents.empty();
+        // builds the chain from the innermost element
+        // to avoid scanning ancestors at every insertion.
+        Element current = doc.createElementNS(null, "p");
+        for (int i = 1; i < depth; i++) {
+            Element parent = doc.createElementNS(null, "div");
+            parent.appendChild(current);
+            current = parent;
+        }
+        doc.appendChild(current);
+        return doc;
+    }
+
+    /**
+     * Creates a document which has a root element with many children.
+     * The root element is a "ul" element and all of its children are "li" elements.
+     *
+     * @param width the number of the child elements.
+     * @return created document.
+     */
+    public static Document wideFanout(int width) {
+        Document doc = Documents.empty();
+        Element list = append(doc, "ul");
+        for (int i = 0; i < width; i++) {
+            Element item = append(list, "li");
+            item.setAttribute("class", (i % 2 == 0) ? "odd" : "even");
+        }
+        return doc;
+    }
+
+    /**
+     * Creates a document which has many chains of nested "div" elements.
+     * Each "div" element in a chain has the class name "level" followed by its depth modulo 10,
+     * and contains a "span" element followed by the next "div" element.
+     * The outermost "div" element of each chain has the identifier "chain" followed by its number.
+     *
+     * @param depth the number of the "div" elements in each chain.
+     * @param chains the number of the chains.
+     * @return created document.
+     */
+    public static Document nested(int depth, int chains) {
+        Document doc = Documents.empty();
+        Element html = append(doc, "html");
+        Element body = append(html, "body");
+        for (int i = 0; i < chains; i++) {
+            Element parent = body;
+            for (int level = 0; level < depth; level++) {
+                Element div = append(parent, "div");
+                div.setAttribute("class", "level" + (level % 10));
+                if (level == 0) {
+                    div.setAttribute("id", "chain" + i);
+                    div.setIdAttribute("id", true);
+                }
+                append(div, "span").setTextContent("text");
+                parent = div;
+            }
+        }
+        return doc;
+    }
+
+    private static Element append(Document doc, String name) {
+        Element element = doc.createElementNS(null, name);
+        doc.appendChild(element);
+        return element;
+    }
+
+    private static Element append(Element parent, String name) {
+        Element element = parent.getOwnerDocument().createElementNS(null, name);
+        parent.appendChild(element);
+        return element;
+    }
+
+    private SyntheticDocuments() {
+    }
+}
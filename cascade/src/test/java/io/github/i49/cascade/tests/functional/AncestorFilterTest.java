@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Tests for selectors rejecting elements by the keys of their ancestors.
+ * The results of {@link Selector#select(Element)} and {@link Selector#count(Element)},
+ * which filter the elements by their ancestors,
+ * are compared with the results of {@link Selector#stream(Element)}, which does not.
+ */
+@RunWith(Parameterized.class)
+public class AncestorFilterTest {
+
+    @Parameters(name = "{index}: {1}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { null, ".level3 span" },
+            { null, ".level3 .level7 span" },
+            { null, ".level9 > span" },
+            { null, "div.level0 div.level5 > span" },
+            { null, "#chain3 span" },
+            { null, "#chain3 .level2 > span" },
+            { null, ".missing span" },
+            { null, "body > div span" },
+            { null, "html body div span" },
+            { null, ".level1 span + div" },
+            { null, ".level4 > span ~ div > span" },
+            { null, ".level2 :first-child" },
+            { null, ".level2 *:not(.level3)" },
+            { "#chain5", ".level0 span" },
+            { "#chain5", "body span" },
+            { "#chain5", "div div span" },
+            { "#chain5", ".level1 span" },
+        });
+    }
+
+    private static Document doc;
+
+    private final Element start;
+    private final String expression;
+
+    public AncestorFilterTest(String startId, String expression) {
+        if (startId != null) {
+            this.start = doc.getElementById(startId.substring(1));
+        } else {
+            this.start = doc.getDocumentElement();
+        }
+        this.expression = expression;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.nested(30, 10);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void select_shouldReturnSameElementsAsUnfiltered() {
+        // given
+        Selector selector = Selector.compile(expression);
+        List<Element> expected = selector.stream(start).collect(Collectors.toList());
+
+        // when
+        List<Element> actual = selector.select(start);
+
+        // then
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void count_shouldReturnSameNumberAsUnfiltered() {
+        // given
+        Selector selector = Selector.compile(expression);
+        long expected = selector.stream(start).count();
+
+        // when
+        int actual = selector.count(start);
+
+        // then
+        assertThat(actual).isEqualTo((int)expected);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.DocumentIndex;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for the selectors which search the subtrees or the sibling ranges
+ * of the elements matching the preceding sequences.
+ * Each selector must select the same elements as the reference selector,
+ * which has no identifier in the preceding sequences and is evaluated from right to left
+ * in the document without any index.
+ */
+@RunWith(Parameterized.class)
+public class AnchoredPlanTest {
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "#inner p", "[id=\"inner\"] p" },
+            { "#outer p.note", "[id=\"outer\"] p.note" },
+            { "#outer > p", "[id=\"outer\"] > p" },
+            { "#missing p", "[id=\"missing\"] p" },
+            { "#inner ~ p", "[id=\"inner\"] ~ p" },
+            { "#outer .box ~ ul li", "[id=\"outer\"] .box ~ ul li" },
+            { ".box p", ".box p" },
+            { ".box > .note", ".box > .note" },
+            { "section section li.item", "section section li.item" },
+            { "section.box ul > li", "section.box ul > li" },
+            { "section:not(#inner) p", "section:not(#inner) p" },
+            { "h2 + p", "h2 + p" },
+            { "h2 ~ p", "h2 ~ p" },
+            { "h2 + p.note", "h2 + p.note" },
+            { ".rare ~ section li", ".rare ~ section li" },
+            { "h1 ~ section .item", "h1 ~ section .item" },
+            { "body > .box li", "body > .box li" },
+            { "html body p", "html body p" },
+            { "body #inner section p", "body [id=\"inner\"] section p" },
+            { "html section.box #inner li.item", "html section.box [id=\"inner\"] li.item" },
+            { "#outer section ul > li", "[id=\"outer\"] section ul > li" },
+            { "body > section #inner ~ p", "body > section [id=\"inner\"] ~ p" },
+        });
+    }
+
+    private final String expression;
+    private final String reference;
+    private Document doc;
+
+    public AnchoredPlanTest(String expression, String reference) {
+        this.expression = expression;
+        this.reference = reference;
+    }
+
+    @Before
+    public void setUp() {
+        doc = Documents.load("/anchored-plan-test.html");
+    }
+
+    @After
+    public void tearDown() {
+        DocumentIndex.detach(doc);
+        doc = null;
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsReference() {
+        // given
+        List<List<Element>> expected = selectFromAll(Selector.compile(reference));
+        Selector s = Selector.compile(expression);
+        // when
+        List<List<Element>> actual = selectFromAll(s);
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsReferenceWithIndex() {
+        // given
+        List<List<Element>> expected = selectFromAll(Selector.compile(reference));
+        Selector s = Selector.compile(expression);
+        DocumentIndex.attach(doc);
+        // when
+        List<List<Element>> actual = selectFromAll(s);
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void iterator_shouldIterateSameElementsAsReferenceWithIndex() {
+        // given
+        List<List<Element>> expected = selectFromAll(Selector.compile(reference));
+        Selector s = Selector.compile(expression);
+        DocumentIndex.attach(doc);
+        // when
+        List<List<Element>> actual = new ArrayList<>();
+        for (Element start: Documents.descentandsOf(doc.getDocumentElement())) {
+            List<Element> selected = new ArrayList<>();
+            Iterator<Element> it = s.iterator(start);
+            it.forEachRemaining(selected::add);
+            actual.add(selected);
+        }
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    /**
+     * Selects the elements starting from each element in the document.
+     *
+     * @param selector the selector to use.
+     * @return the elements selected for each starting element.
+     */
+    private List<List<Element>> selectFromAll(Selector selector) {
+        List<List<Element>> selected = new ArrayList<>();
+        for (Element start: Documents.descentandsOf(doc.getDocumentElement())) {
+            selected.add(selector.select(start));
+        }
+        return selected;
+    }
+}
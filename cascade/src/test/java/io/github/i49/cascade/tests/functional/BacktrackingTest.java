@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Tests for selectors chaining two or more combinators which may backtrack.
+ */
+@RunWith(Parameterized.class)
+public class BacktrackingTest {
+
+    @Parameters(name = "{index}: {2}")
+    public static Collection<Object[]> parameters() {
+        Supplier<Document> nested = ()->SyntheticDocuments.nested(12, 3);
+        Supplier<Document> wide = ()->SyntheticDocuments.wideFanout(10);
+        return Arrays.asList(new Object[][] {
+            { nested, null, "div div div span", 30 },
+            { nested, null, "div div div div div div div div div div div div span", 3 },
+            { nested, null, "div div div div div div div div div div div div div span", 0 },
+            { nested, null, ".level1 div .level5 div span", 18 },
+            { nested, null, "body .level0 div > .level3 span", 27 },
+            { nested, null, "div:empty div div span", 0 },
+            { nested, "#chain1", "div div div span", 9 },
+            { nested, "#chain1", "body div div span", 0 },
+            { nested, "#chain1", "div div span ~ div span", 9 },
+            { wide, null, "li ~ li ~ .odd", 4 },
+            { wide, null, ".even ~ .odd ~ li", 7 },
+            { wide, null, "li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li", 1 },
+            { wide, null, "li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li", 0 },
+            { wide, null, "ul li ~ li ~ .even", 0 },
+            { wide, null, ":root li ~ li ~ .even", 0 },
+            { wide, null, "li ~ li ~ .even", 4 },
+            { wide, null, "li:first-child:last-child ~ li ~ li", 0 },
+        });
+    }
+
+    private final Element start;
+    private final String expression;
+    private final int expected;
+
+    public BacktrackingTest(Supplier<Document> supplier, String startId, String expression, int expected) {
+        Document doc = supplier.get();
+        if (startId != null) {
+            this.start = doc.getElementById(startId.substring(1));
+        } else {
+            this.start = doc.getDocumentElement();
+        }
+        this.expression = expression;
+        this.expected = expected;
+    }
+
+    @Test
+    public void select_shouldReturnAllMatchingElements() {
+        // given
+        Selector selector = Selector.compile(expression);
+
+        // when
+        List<Element> actual = selector.select(start);
+
+        // then
+        assertThat(actual).hasSize(expected).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void select_shouldReturnSameElementsRepeatedly() {
+        // given
+        Selector selector = Selector.compile(expression);
+        List<Element> first = selector.select(start);
+
+        // when
+        List<Element> actual = selector.select(start);
+
+        // then
+        assertThat(actual).containsExactlyElementsOf(first);
+        assertThat(selector.stream(start)).containsExactlyElementsOf(first);
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCache;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.tests.Documents;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Tests for {@link SelectorCompiler#withCodeGeneration(boolean)}.
+ * Each selection by the generated selector must be the same as the one by the interpreted selector.
+ */
+public class CodeGenerationTest {
+
+    private static final String[] RESOURCES = {
+        "/html5-test.html",
+        "/pseudo-class-test.html",
+        "/combinator-test.html",
+        "/attribute-selector-test.html",
+        "/anchored-plan-test.html",
+    };
+
+    private static final String[] EXPRESSIONS = {
+        "*",
+        "p",
+        "*|p",
+        "|p",
+        "#descendant-combinator-test p",
+        "#outer p.note",
+        "#outer > p",
+        "#outer section > :not(h1)",
+        "#outer .box ~ ul li",
+        "[id=\"nth-child-test\"] li",
+        ".main",
+        "p.note",
+        "div.main > p",
+        "section section li.item",
+        "body > .box li",
+        "h1 + p",
+        "h1 ~ p",
+        "p ~ * ~ p",
+        "ul > li ~ li + li",
+        "div p span",
+        "div div p",
+        "* * *",
+        "div > * + p",
+        "p, li, h1",
+        "td p, section > h1",
+        ":root",
+        ":root > body",
+        ":empty",
+        "p:not(:empty)",
+        "p:not(.note)",
+        "li:not(li)",
+        "li:first-child",
+        "li:last-child",
+        "li:only-child",
+        ":first-of-type",
+        ":last-of-type",
+        ":only-of-type",
+        "li:nth-child(2n+1)",
+        "li:nth-child(-n+3)",
+        "li:nth-last-child(2)",
+        "p:nth-of-type(odd)",
+        "dd:nth-last-of-type(1)",
+        ":not(p)",
+        "[title]",
+        "[title=\"hello\"]",
+        "[title~=\"hello\"]",
+        "[lang|=\"en\"]",
+        "[title^=\"hello\"]",
+        "[title$=\"world\"]",
+        "[title*=\"llo\"]",
+        "[class]",
+        "nonexistent",
+        ".nonexistent p",
+        "p:not(*)",
+        "p:not(*) span",
+    };
+
+    private static final String[] NAMESPACE_EXPRESSIONS = {
+        "text",
+        "ns1|text",
+        "ns1|*",
+        "|text",
+        "*|text",
+        "|*",
+        "[ns2|type]",
+        "[*|type]",
+        "[|type]",
+        "[a|title=\"hello\"]",
+        "[*|title$=\"apple\"]",
+        "[|title*=\"pineapple\"]",
+        "webpages > [ns2|href]",
+        "webpages ns1|text",
+    };
+
+    private static final String[] BACKTRACKING_EXPRESSIONS = {
+        "div div div span",
+        "div div div div div div div div div div div div span",
+        ".level1 div .level5 div span",
+        "body .level0 div > .level3 span",
+        "div:empty div div span",
+        "div div span ~ div span",
+        "li ~ li ~ .odd",
+        ".even ~ .odd ~ li",
+        "li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li",
+        "ul li ~ li ~ .even",
+        ":root li ~ li ~ .even",
+        "li:first-child:last-child ~ li ~ li",
+        "ul > li + li ~ li",
+    };
+
+    @Test
+    public void select_shouldSelectSameElementsAsInterpretedSelector() {
+        SelectorCompiler compiler = SelectorCompiler.create();
+        SelectorCompiler generating = compiler.withCodeGeneration(true);
+        for (String resource: RESOURCES) {
+            // given
+            Document doc = Documents.load(resource);
+            for (String expression: EXPRESSIONS) {
+                Selector expected = compiler.compile(expression);
+                // when
+                Selector actual = generating.compile(expression);
+                // then
+                assertThat(selectFromAll(actual, doc)).as(resource + ": " + expression)
+                    .isEqualTo(selectFromAll(expected, doc));
+            }
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsInterpretedSelectorWithNamespaces() {
+        // given
+        Document doc = Documents.load("/namespace-test.xml");
+        SelectorCompiler compiler = SelectorCompiler.create()
+                .withNamespace("ns1", "http://www.w3.org/2000/svg")
+                .withNamespace("ns2", "http://www.w3.org/1999/xlink")
+                .withNamespace("a", "http://www.example.org/a");
+        for (SelectorCompiler c: new SelectorCompiler[] { compiler, compiler.withDefaultNamespace("http://www.w3.org/2000/svg") }) {
+            for (String expression: NAMESPACE_EXPRESSIONS) {
+                Selector expected = c.compile(expression);
+                // when
+                Selector actual = c.withCodeGeneration(true).compile(expression);
+                // then
+                assertThat(selectFromAll(actual, doc)).as(expression).isEqualTo(selectFromAll(expected, doc));
+            }
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsInterpretedSelectorWhileBacktracking() {
+        SelectorCompiler compiler = SelectorCompiler.create();
+        for (Document doc: new Document[] { SyntheticDocuments.nested(12, 3), SyntheticDocuments.wideFanout(10) }) {
+            for (String expression: BACKTRACKING_EXPRESSIONS) {
+                // given
+                Selector expected = compiler.compile(expression);
+                // when
+                Selector actual = compiler.withCodeGeneration(true).compile(expression);
+                // then
+                assertThat(selectFromAll(actual, doc)).as(expression).isEqualTo(selectFromAll(expected, doc));
+            }
+        }
+    }
+
+    @Test
+    public void iterator_shouldReturnSameElementsAsInterpretedSelector() {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        Element root = doc.getDocumentElement();
+        SelectorCompiler generating = SelectorCompiler.create().withCodeGeneration(true);
+        for (String expression: EXPRESSIONS) {
+            Selector expected = Selector.compile(expression);
+            Selector actual = generating.compile(expression);
+            // when
+            List<Element> iterated = new ArrayList<>();
+            Iterator<Element> it = actual.iterator(root);
+            while (it.hasNext()) {
+                iterated.add(it.next());
+            }
+            // then
+            assertThat(iterated).as(expression).isEqualTo(expected.select(root));
+            assertThat(actual.count(root)).as(expression).isEqualTo(expected.count(root));
+            assertThat(actual.exists(root)).as(expression).isEqualTo(expected.exists(root));
+        }
+    }
+
+    @Test
+    public void toString_shouldReturnSameExpressionAsInterpretedSelector() {
+        // given
+        SelectorCompiler generating = SelectorCompiler.create().withCodeGeneration(true);
+        for (String expression: EXPRESSIONS) {
+            // when
+            Selector actual = generating.compile(expression);
+            // then
+            assertThat(actual.toString()).isEqualTo(Selector.compile(expression).toString());
+        }
+    }
+
+    @Test
+    public void compile_shouldNotShareCachedSelectorWithInterpretedSelector() {
+        // given
+        SelectorCache cache = SelectorCache.create(10);
+        SelectorCompiler compiler = SelectorCompiler.create().withCache(cache);
+        Selector interpreted = compiler.compile("div p");
+        // when
+        Selector generated = compiler.withCodeGeneration(true).compile("div p");
+        // then
+        assertThat(generated).isNotSameAs(interpreted);
+        assertThat(compiler.withCodeGeneration(true).compile("div p")).isSameAs(generated);
+        assertThat(compiler.withCodeGeneration(false).compile("div p")).isSameAs(interpreted);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void compile_shouldFallBackToInterpretedSelectorIfMethodIsTooLarge() {
+        // given
+        Document doc = Documents.empty();
+        Element root = doc.createElementNS(null, "html");
+        doc.appendChild(root);
+        StringBuilder expression = new StringBuilder("p");
+        StringBuilder classes = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            expression.append(".c").append(i);
+            classes.append(" c").append(i);
+        }
+        Element matched = doc.createElementNS(null, "p");
+        matched.setAttribute("class", classes.toString());
+        root.appendChild(matched);
+        Element unmatched = doc.createElementNS(null, "p");
+        unmatched.setAttribute("class", "c0");
+        root.appendChild(unmatched);
+        // when
+        Selector actual = SelectorCompiler.create().withCodeGeneration(true).compile(expression.toString());
+        // then
+        assertThat(actual.select(root)).containsExactly(matched);
+    }
+
+    private static List<List<Element>> selectFromAll(Selector selector, Document doc) {
+        List<List<Element>> selected = new ArrayList<>();
+        for (Element start: Documents.descentandsOf(doc.getDocumentElement())) {
+            selected.add(selector.select(start));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import io.github.i49.cascade.api.CompactDocument;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for {@link CompactDocument}.
+ * Each selection from the compact document must be the same as the one from the original document.
+ */
+public class CompactDocumentTest {
+
+    private static final String[] RESOURCES = {
+        "/html5-test.html",
+        "/pseudo-class-test.html",
+        "/combinator-test.html",
+        "/attribute-selector-test.html",
+        "/anchored-plan-test.html",
+    };
+
+    private static final String[] EXPRESSIONS = {
+        "*",
+        "p",
+        "*|p",
+        "|p",
+        "#descendant-combinator-test p",
+        "#outer p.note",
+        "#outer > p",
+        "#outer section > :not(h1)",
+        "#outer .box ~ ul li",
+        "[id=\"nth-child-test\"] li",
+        ".main",
+        "p.note",
+        "div.main > p",
+        "section section li.item",
+        "body > .box li",
+        "h1 + p",
+        "h1 ~ p",
+        "p ~ * ~ p",
+        "ul > li ~ li + li",
+        "div p span",
+        "p, li, h1",
+        "td p, section > h1",
+        ":root",
+        ":empty",
+        "p:not(:empty)",
+        "li:first-child",
+        "li:last-child",
+        "li:only-child",
+        ":first-of-type",
+        ":last-of-type",
+        ":only-of-type",
+        "li:nth-child(2n+1)",
+        "li:nth-child(-n+3)",
+        "li:nth-last-child(2)",
+        "p:nth-of-type(odd)",
+        "dd:nth-last-of-type(1)",
+        ":not(p)",
+        "[title]",
+        "[title=\"hello\"]",
+        "[title~=\"hello\"]",
+        "[lang|=\"en\"]",
+        "[title^=\"hello\"]",
+        "[title$=\"world\"]",
+        "[title*=\"llo\"]",
+        "[class]",
+        "[disabled]",
+        "*:not([disabled])",
+        "nonexistent",
+        ".nonexistent p",
+        "p:not(*)",
+    };
+
+    private static final String[] NAMESPACE_EXPRESSIONS = {
+        "text",
+        "ns1|text",
+        "ns1|*",
+        "|text",
+        "*|text",
+        "|*",
+        "[ns2|type]",
+        "[*|type]",
+        "[|type]",
+        "[a|title=\"hello\"]",
+        "[*|title$=\"apple\"]",
+        "[|title*=\"pineapple\"]",
+        "webpages > [ns2|href]",
+    };
+
+    @Test
+    public void select_shouldSelectSameElementsAsSelector() {
+        for (String resource: RESOURCES) {
+            // given
+            Document doc = Documents.load(resource);
+            CompactDocument compact = CompactDocument.of(doc);
+            for (String expression: EXPRESSIONS) {
+                Selector s = Selector.compile(expression);
+                // when
+                List<List<Element>> actual = selectFromAll(compact, s, doc);
+                // then
+                assertThat(actual).as(resource + ": " + expression).isEqualTo(selectFromAll(s, doc));
+            }
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsSelectorOnLevelOneAttributes() {
+        for (String resource: RESOURCES) {
+            // given
+            Document doc = Documents.copyWithLevelOneAttributes(Documents.load(resource));
+            CompactDocument compact = CompactDocument.of(doc);
+            for (String expression: EXPRESSIONS) {
+                Selector s = Selector.compile(expression);
+                // when
+                List<List<Element>> actual = selectFromAll(compact, s, doc);
+                // then
+                assertThat(actual).as(resource + ": " + expression).isEqualTo(selectFromAll(s, doc));
+            }
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsSelectorWithNamespaces() {
+        // given
+        Document doc = Documents.load("/namespace-test.xml");
+        CompactDocument compact = CompactDocument.of(doc);
+        SelectorCompiler compiler = SelectorCompiler.create()
+                .withNamespace("ns1", "http://www.w3.org/2000/svg")
+                .withNamespace("ns2", "http://www.w3.org/1999/xlink")
+                .withNamespace("a", "http://www.example.org/a");
+        for (SelectorCompiler c: new SelectorCompiler[] { compiler, compiler.withDefaultNamespace("http://www.w3.org/2000/svg") }) {
+            for (String expression: NAMESPACE_EXPRESSIONS) {
+                Selector s = c.compile(expression);
+                // when
+                List<List<Element>> actual = selectFromAll(compact, s, doc);
+                // then
+                assertThat(actual).as(expression).isEqualTo(selectFromAll(s, doc));
+            }
+        }
+    }
+
+    @Test
+    public void count_shouldReturnSameNumberAsSelector() {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        CompactDocument compact = CompactDocument.of(doc);
+        Element root = doc.getDocumentElement();
+        for (String expression: EXPRESSIONS) {
+            Selector s = Selector.compile(expression);
+            // when
+            int actual = compact.count(s, root);
+            // then
+            assertThat(actual).as(expression).isEqualTo(s.count(root));
+        }
+    }
+
+    @Test
+    public void select_shouldAllowConcurrentReaders() throws Exception {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        CompactDocument compact = CompactDocument.of(doc);
+        List<Selector> selectors = new ArrayList<>();
+        List<List<Element>> expected = new ArrayList<>();
+        for (String expression: EXPRESSIONS) {
+            Selector s = Selector.compile(expression);
+            selectors.add(s);
+            expected.add(s.select(doc.getDocumentElement()));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<List<Element>>>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                Callable<List<List<Element>>> task = ()->{
+                    List<List<Element>> results = new ArrayList<>();
+                    for (Selector s: selectors) {
+                        results.add(compact.select(s, doc.getDocumentElement()));
+                    }
+                    return results;
+                };
+                futures.add(executor.submit(task));
+            }
+            // when
+            List<List<List<Element>>> actual = new ArrayList<>();
+            for (Future<List<List<Element>>> future: futures) {
+                actual.add(future.get());
+            }
+            // then
+            for (List<List<Element>> results: actual) {
+                assertThat(results).isEqualTo(expected);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void select_shouldNotBeAffectedByModification() {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        Selector s = Selector.compile("p");
+        List<Element> expected = s.select(doc.getDocumentElement());
+        CompactDocument compact = CompactDocument.of(doc);
+        // when
+        Element first = expected.get(0);
+        first.getParentNode().removeChild(first);
+        // then
+        assertThat(compact.select(s, doc.getDocumentElement())).isEqualTo(expected);
+    }
+
+    @Test
+    public void getElement_shouldReturnElementsInDocumentOrder() {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        List<Element> expected = Documents.descentandsOf(doc.getDocumentElement());
+        // when
+        CompactDocument compact = CompactDocument.of(doc);
+        // then
+        assertThat(compact.size()).isEqualTo(expected.size());
+        for (int i = 0; i < compact.size(); i++) {
+            assertThat(compact.getElement(i)).isSameAs(expected.get(i));
+            assertThat(compact.ordinalOf(expected.get(i))).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void getParent_shouldFollowDocumentTree() {
+        // given
+        Document doc = Documents.load("/combinator-test.html");
+        // when
+        CompactDocument compact = CompactDocument.of(doc);
+        // then
+        for (int i = 0; i < compact.size(); i++) {
+            Element element = compact.getElement(i);
+            assertThat(elementAt(compact, compact.getParent(i))).isSameAs(parentElement(element));
+            assertThat(elementAt(compact, compact.getFirstChild(i))).isSameAs(nextElement(element.getFirstChild()));
+            assertThat(elementAt(compact, compact.getNextSibling(i))).isSameAs(nextElement(element.getNextSibling()));
+            assertThat(elementAt(compact, compact.getPreviousSibling(i))).isSameAs(previousElement(element.getPreviousSibling()));
+        }
+    }
+
+    @Test
+    public void ordinalOf_shouldReturnMinusOneForOrphan() {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        CompactDocument compact = CompactDocument.of(doc);
+        Element orphan = doc.createElementNS(null, "p");
+        // when
+        int actual = compact.ordinalOf(orphan);
+        // then
+        assertThat(actual).isEqualTo(-1);
+    }
+
+    @Test
+    public void ordinalOf_shouldNotBeAffectedByModification() {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        List<Element> elements = Documents.descentandsOf(doc.getDocumentElement());
+        CompactDocument compact = CompactDocument.of(doc);
+        // when
+        Element body = (Element)doc.getElementsByTagName("body").item(0);
+        Element removed = (Element)body.getElementsByTagName("p").item(0);
+        removed.getParentNode().removeChild(removed);
+        body.insertBefore(doc.createElementNS(null, "p"), body.getFirstChild());
+        // then
+        for (int i = 0; i < elements.size(); i++) {
+            assertThat(compact.ordinalOf(elements.get(i))).isEqualTo(i);
+        }
+        assertThat(compact.select(Selector.compile("*"), body))
+            .containsExactlyElementsOf(elements.subList(elements.indexOf(body), compact.size()));
+    }
+
+    @Test
+    public void of_shouldThrowExceptionIfDocumentIsNull() {
+        Throwable thrown = catchThrowable(()->{
+            CompactDocument.of(null);
+        });
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void select_shouldThrowExceptionIfStartIsNull() {
+        CompactDocument compact = CompactDocument.of(Documents.load("/html5-test.html"));
+        Throwable thrown = catchThrowable(()->{
+            compact.select(Selector.compile("p"), null);
+        });
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void select_shouldThrowExceptionIfStartIsInOtherDocument() {
+        CompactDocument compact = CompactDocument.of(Documents.load("/html5-test.html"));
+        Element other = Documents.load("/html5-test.html").getDocumentElement();
+        Throwable thrown = catchThrowable(()->{
+            compact.select(Selector.compile("p"), other);
+        });
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void getElement_shouldThrowExceptionIfOrdinalIsOutOfRange() {
+        CompactDocument compact = CompactDocument.of(Documents.load("/html5-test.html"));
+        Throwable thrown = catchThrowable(()->{
+            compact.getElement(compact.size());
+        });
+        assertThat(thrown).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static List<List<Element>> selectFromAll(Selector selector, Document doc) {
+        List<List<Element>> selected = new ArrayList<>();
+        for (Element start: Documents.descentandsOf(doc.getDocumentElement())) {
+            selected.add(selector.select(start));
+        }
+        return selected;
+    }
+
+    private static List<List<Element>> selectFromAll(CompactDocument compact, Selector selector, Document doc) {
+        List<List<Element>> selected = new ArrayList<>();
+        for (Element start: Documents.descentandsOf(doc.getDocumentElement())) {
+            selected.add(compact.select(selector, start));
+        }
+        return selected;
+    }
+
+    private static Element elementAt(CompactDocument compact, int ordinal) {
+        return (ordinal >= 0) ? compact.getElement(ordinal) : null;
+    }
+
+    private static Element parentElement(Element element) {
+        Node parent = element.getParentNode();
+        return (parent.getNodeType() == Node.ELEMENT_NODE) ? (Element)parent : null;
+    }
+
+    private static Element nextElement(Node node) {
+        while (node != null && node.getNodeType() != Node.ELEMENT_NODE) {
+            node = node.getNextSibling();
+        }
+        return (Element)node;
+    }
+
+    private static Element previousElement(Node node) {
+        while (node != null && node.getNodeType() != Node.ELEMENT_NODE) {
+            node = node.getPreviousSibling();
+        }
+        return (Element)node;
+    }
+}
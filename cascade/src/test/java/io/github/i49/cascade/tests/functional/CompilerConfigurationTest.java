@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.InvalidSelectorException;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.api.SelectorCompilerFactory;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for the immutable configuration of {@link SelectorCompiler}.
+ */
+public class CompilerConfigurationTest {
+
+    private static final String SVG = "http://www.w3.org/2000/svg";
+
+    @Test
+    public void withNamespace_shouldNotModifyOriginalCompiler() {
+        // given
+        SelectorCompiler base = SelectorCompiler.create();
+        // when
+        SelectorCompiler configured = base.withNamespace("svg", SVG);
+        Throwable thrown = catchThrowable(()->base.compile("svg|circle"));
+        // then
+        assertThat(configured).isNotSameAs(base);
+        assertThat(configured.compile("svg|circle")).isNotNull();
+        assertThat(thrown).isInstanceOf(InvalidSelectorException.class);
+    }
+
+    @Test
+    public void withDefaultNamespace_shouldNotModifyOriginalCompiler() {
+        // given
+        Document doc = createDocument();
+        SelectorCompiler base = SelectorCompiler.create();
+        // when
+        SelectorCompiler configured = base.withDefaultNamespace("http://www.example.org");
+        // then
+        assertThat(base.compile("circle").select(doc.getDocumentElement())).hasSize(2);
+        assertThat(configured.compile("circle").select(doc.getDocumentElement())).isEmpty();
+    }
+
+    @Test
+    public void compile_shouldBeSharedBetweenThreads() throws Exception {
+        // given
+        Document doc = createDocument();
+        SelectorCompiler shared = SelectorCompiler.create().withNamespace("svg", SVG);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final String expression = (i % 2 == 0) ? "svg|circle" : "*|circle";
+            tasks.add(()->shared.compile(expression).select(doc.getDocumentElement()).size());
+        }
+        // when
+        List<Future<Integer>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } finally {
+            executor.shutdown();
+        }
+        // then
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get()).isEqualTo((i % 2 == 0) ? 1 : 2);
+        }
+    }
+
+    @Test
+    public void get_shouldReturnSameFactoryInAllThreads() throws Exception {
+        // given
+        SelectorCompilerFactory expected = SelectorCompilerFactory.get();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        // when
+        SelectorCompilerFactory actual;
+        try {
+            actual = executor.submit(SelectorCompilerFactory::get).get();
+        } finally {
+            executor.shutdown();
+        }
+        // then
+        assertThat(actual).isSameAs(expected);
+    }
+
+    private static Document createDocument() {
+        Document doc = Documents.empty();
+        Element root = doc.createElementNS(null, "root");
+        doc.appendChild(root);
+        root.appendChild(doc.createElementNS(SVG, "circle"));
+        root.appendChild(doc.createElementNS(null, "circle"));
+        return doc;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Tests for the compound selectors whose simple selectors are written in different orders.
+ * The selectors must select the same elements and print the simple selectors in the written order.
+ */
+@RunWith(Parameterized.class)
+public class CompoundOrderTest {
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "[class*=\"lect\"].item", ".item[class*=\"lect\"]" },
+            { "li:nth-child(3n+1).selected", "li.selected:nth-child(3n+1)" },
+            { ":not(.odd)[class].item", ".item[class]:not(.odd)" },
+            { "a[href$=\"7\"][href]", "a[href][href$=\"7\"]" },
+            { "li:last-child.odd:not(.selected)", "li:not(.selected).odd:last-child" },
+            { "*:empty#section3", "*#section3:empty" },
+            { ":not(li):first-child.section ul", ".section:first-child:not(li) ul" },
+        });
+    }
+
+    private static Document doc;
+
+    private final String expression;
+    private final String reordered;
+
+    public CompoundOrderTest(String expression, String reordered) {
+        this.expression = expression;
+        this.reordered = reordered;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(2000);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsInAnyOrder() {
+        // given
+        Element root = doc.getDocumentElement();
+        Selector s = Selector.compile(expression);
+        Selector expected = Selector.compile(reordered);
+        // when
+        List<Element> actual = s.select(root);
+        // then
+        assertThat(actual).containsExactlyElementsOf(expected.select(root));
+    }
+
+    @Test
+    public void toString_shouldKeepWrittenOrder() {
+        // given
+        Selector s = Selector.compile(expression);
+        Selector other = Selector.compile(reordered);
+        // when
+        String actual = s.toString();
+        // then
+        assertThat(actual).isNotEqualTo(other.toString());
+        assertThat(Selector.compile(actual)).hasToString(actual);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Tests for documents nested very deeply.
+ */
+public class DeepDocumentTest {
+
+    private static final int DEPTH = 100000;
+
+    private static Document doc;
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.deepChain(DEPTH);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void select_shouldSelectAllElements() {
+        Selector s = Selector.compile("*");
+        List<Element> actual = s.select(doc.getDocumentElement());
+        assertThat(actual).hasSize(DEPTH);
+        assertThat(actual.get(0)).isSameAs(doc.getDocumentElement());
+        assertThat(actual.get(DEPTH - 1).getLocalName()).isEqualTo("p");
+    }
+
+    @Test
+    public void select_shouldSelectInnermostElement() {
+        Selector s = Selector.compile("div > div p:empty");
+        List<Element> actual = s.select(doc.getDocumentElement());
+        assertThat(actual).hasSize(1);
+        assertThat(actual.get(0).getLocalName()).isEqualTo("p");
+    }
+
+    @Test
+    public void select_shouldSelectNothing() {
+        Selector s = Selector.compile("p > div");
+        List<Element> actual = s.select(doc.getDocumentElement());
+        assertThat(actual).isEmpty();
+    }
+}
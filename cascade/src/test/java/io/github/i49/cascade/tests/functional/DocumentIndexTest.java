@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.DocumentIndex;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.BasicSelectorTest;
+import io.github.i49.cascade.tests.Documents;
+import io.github.i49.cascade.tests.Fixture;
+
+/**
+ * Tests for selectors searching the document with {@link DocumentIndex} attached.
+ */
+@RunWith(Parameterized.class)
+public class DocumentIndexTest extends BasicSelectorTest {
+
+    @Parameters(name = "{index}: {1}")
+    public static Iterable<Object[]> parameters() {
+        return SimpleSelectorTest.parameters();
+    }
+
+    private static Document doc;
+    private final Fixture fixture;
+
+    public DocumentIndexTest(String startId, String expression, Function<Element, List<Element>> teacher) {
+        this.fixture = new Fixture(doc, startId, expression, teacher);
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = Documents.load("/simple-selector-test.html");
+        DocumentIndex.attach(doc);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        DocumentIndex.detach(doc);
+        doc = null;
+    }
+
+    @Test
+    public void stream_shouldReturnElementsInDocumentOrder() {
+        // given
+        Selector selector = Selector.compile(fixture.getExpression());
+
+        // when
+        List<Element> actual = selector.stream(fixture.getStartElement()).collect(Collectors.toList());
+
+        // then
+        assertThat(actual).containsExactlyElementsOf(fixture.getExpected());
+    }
+
+    @Override
+    public Fixture getFixture() {
+        return fixture;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+import io.github.i49.cascade.tests.Fixture;
+
+/**
+ * Tests for the selection methods of {@link Selector} other than {@link Selector#select(Element)}.
+ */
+@RunWith(Parameterized.class)
+public class LazySelectionTest {
+
+    @Parameters(name = "{index}: {2}")
+    public static Iterable<Object[]> parameters() {
+        List<Object[]> parameters = new ArrayList<>();
+        addParameters(parameters, "/simple-selector-test.html", SimpleSelectorTest.parameters());
+        addParameters(parameters, "/selector-group-test.html", SelectorGroupTest.parameters());
+        return parameters;
+    }
+
+    private static void addParameters(List<Object[]> parameters, String path, Iterable<Object[]> source) {
+        for (Object[] p: source) {
+            parameters.add(new Object[] { path, p[0], p[1], p[2] });
+        }
+    }
+
+    private static final Map<String, Document> documents = new HashMap<>();
+    private final Fixture fixture;
+
+    public LazySelectionTest(String path, String startId, String expression, Function<Element, List<Element>> teacher) {
+        Document doc = documents.computeIfAbsent(path, Documents::load);
+        this.fixture = new Fixture(doc, startId, expression, teacher);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        documents.clear();
+    }
+
+    @Test
+    public void iterator_shouldReturnElementsInDocumentOrder() {
+        // given
+        Selector selector = Selector.compile(fixture.getExpression());
+
+        // when
+        List<Element> actual = new ArrayList<>();
+        Iterator<Element> it = selector.iterator(fixture.getStartElement());
+        while (it.hasNext()) {
+            actual.add(it.next());
+        }
+
+        // then
+        assertThat(actual).containsExactlyElementsOf(fixture.getExpected());
+        assertThat(it.hasNext()).isFalse();
+        assertThatThrownBy(it::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void stream_shouldReturnElementsInDocumentOrder() {
+        // given
+        Selector selector = Selector.compile(fixture.getExpression());
+
+        // when
+        List<Element> actual = selector.stream(fixture.getStartElement()).collect(Collectors.toList());
+
+        // then
+        assertThat(actual).containsExactlyElementsOf(fixture.getExpected());
+    }
+
+    @Test
+    public void stream_shouldReturnFirstElement() {
+        // given
+        Selector selector = Selector.compile(fixture.getExpression());
+
+        // when
+        Element actual = selector.stream(fixture.getStartElement()).findFirst().orElse(null);
+
+        // then
+        List<Element> expected = fixture.getExpected();
+        if (expected.isEmpty()) {
+            assertThat(actual).isNull();
+        } else {
+            assertThat(actual).isSameAs(expected.get(0));
+        }
+    }
+
+    @Test
+    public void selectFirst_shouldReturnFirstElement() {
+        // given
+        Selector selector = Selector.compile(fixture.getExpression());
+
+        // when
+        Optional<Element> actual = selector.selectFirst(fixture.getStartElement());
+
+        // then
+        List<Element> expected = fixture.getExpected();
+        if (expected.isEmpty()) {
+            assertThat(actual).isEmpty();
+        } else {
+            assertThat(actual).containsSame(expected.get(0));
+        }
+    }
+
+    @Test
+    public void exists_shouldReturnTrueIfAnyElementMatches() {
+        // given
+        Selector selector = Selector.compile(fixture.getExpression());
+
+        // when
+        boolean actual = selector.exists(fixture.getStartElement());
+
+        // then
+        assertThat(actual).isEqualTo(!fixture.getExpected().isEmpty());
+    }
+
+    @Test
+    public void count_shouldReturnNumberOfElements() {
+        // given
+        Selector selector = Selector.compile(fixture.getExpression());
+
+        // when
+        int actual = selector.count(fixture.getStartElement());
+
+        // then
+        assertThat(actual).isEqualTo(fixture.getExpected().size());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.MultiSelector;
+import io.github.i49.cascade.api.RuleSet;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for the attributes created by DOM Level 1 methods, which have no local names.
+ * Each selector must select the same elements as the attributes created with namespace.
+ */
+public class LevelOneAttributeTest {
+
+    private static final String[] EXPRESSIONS = {
+        "[href]",
+        "[disabled]",
+        "[type=\"text\"]",
+        "a[href^=\"#\"]",
+        "input:not([disabled])",
+        "[alt], q",
+        "[placeholder], [checked]",
+        ".nonexistent, [role]",
+        "*:not([data-index])",
+    };
+
+    private static Document parsed;
+    private static Document doc;
+
+    @BeforeClass
+    public static void setUpOnce() {
+        parsed = Documents.load("/html5-test.html");
+        doc = Documents.copyWithLevelOneAttributes(parsed);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        parsed = null;
+        doc = null;
+    }
+
+    @Test
+    public void select_shouldSelectByAttributeCreatedWithoutNamespace() {
+        // given
+        Document doc = Documents.empty();
+        Element root = doc.createElementNS(null, "root");
+        doc.appendChild(root);
+        Element p = doc.createElementNS(null, "p");
+        p.setAttribute("foo", "bar");
+        root.appendChild(p);
+        for (String expression: new String[] { "[foo]", "[foo], q", "[foo=\"bar\"], q", "q, p[foo]" }) {
+            // when
+            List<Element> actual = Selector.compile(expression).select(root);
+            // then
+            assertThat(actual).as(expression).containsExactly(p);
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameNumberOfElementsAsParsed() {
+        for (String expression: EXPRESSIONS) {
+            // given
+            Selector selector = Selector.compile(expression);
+            // when
+            int actual = selector.select(doc.getDocumentElement()).size();
+            // then
+            assertThat(actual).as(expression).isEqualTo(selector.select(parsed.getDocumentElement()).size());
+        }
+    }
+
+    @Test
+    public void select_shouldSelectElementsOfAllMembersInGroup() {
+        for (String expression: EXPRESSIONS) {
+            // given
+            Selector selector = Selector.compile(expression);
+            Set<Element> expected = new LinkedHashSet<>();
+            for (String member: expression.split(",")) {
+                expected.addAll(Selector.compile(member).select(doc.getDocumentElement()));
+            }
+            // when
+            List<Element> actual = selector.select(doc.getDocumentElement());
+            // then
+            assertThat(actual).as(expression).containsOnlyElementsOf(expected).hasSameSizeAs(expected);
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsByMultiSelector() {
+        // given
+        List<Selector> selectors = compileAll(EXPRESSIONS);
+        MultiSelector multi = MultiSelector.of(selectors);
+        // when
+        List<List<Element>> actual = multi.select(doc.getDocumentElement());
+        // then
+        for (int i = 0; i < selectors.size(); i++) {
+            assertThat(actual.get(i)).as(EXPRESSIONS[i])
+                .containsExactlyElementsOf(selectors.get(i).select(doc.getDocumentElement()));
+        }
+    }
+
+    @Test
+    public void match_shouldReturnRulesSelectingElement() {
+        // given
+        List<Selector> selectors = compileAll(EXPRESSIONS);
+        RuleSet rules = RuleSet.of(selectors);
+        List<List<Element>> selected = new ArrayList<>();
+        for (Selector selector: selectors) {
+            selected.add(selector.select(doc.getDocumentElement()));
+        }
+        for (Element element: Documents.descentandsOf(doc.getDocumentElement())) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < selected.size(); i++) {
+                if (selected.get(i).contains(element)) {
+                    expected.add(i);
+                }
+            }
+            // when
+            int[] actual = rules.match(element);
+            // then
+            assertThat(actual).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    private static List<Selector> compileAll(String... expressions) {
+        List<Selector> selectors = new ArrayList<>();
+        for (String expression: expressions) {
+            selectors.add(Selector.compile(expression));
+        }
+        return selectors;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import io.github.i49.cascade.api.LiveSelection;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for {@link LiveSelection}.
+ * After each modification of the document,
+ * the live selection must have the same elements as the selector selects from scratch.
+ */
+@RunWith(Parameterized.class)
+public class LiveSelectionTest {
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "p" },
+            { "div.main p" },
+            { ".note" },
+            { "div > .note" },
+            { "h1 + *" },
+            { "h1 ~ .note" },
+            { ".note ~ p" },
+            { "p:first-child" },
+            { "p:nth-of-type(2n+1)" },
+            { "li:last-child" },
+            { ":empty" },
+            { "section:not(.note) p, .note" },
+        });
+    }
+
+    private static final String[] STARTING_IDS = { null, "descendant-combinator-test" };
+
+    private final String expression;
+    private Document doc;
+
+    public LiveSelectionTest(String expression) {
+        this.expression = expression;
+    }
+
+    @Before
+    public void setUp() {
+        doc = Documents.load("/combinator-test.html");
+    }
+
+    @After
+    public void tearDown() {
+        doc = null;
+    }
+
+    @Test
+    public void create_shouldListenToMutationEvents() {
+        // given
+        Selector s = Selector.compile(expression);
+        // when
+        try (LiveSelection selection = LiveSelection.create(s, doc.getDocumentElement())) {
+            // then
+            assertThat(selection.isListening()).isTrue();
+        }
+    }
+
+    @Test
+    public void getElements_shouldFollowMutationEvents() {
+        Selector s = Selector.compile(expression);
+        for (String startId: STARTING_IDS) {
+            Element start = loadStartingElement(startId);
+            try (LiveSelection selection = LiveSelection.create(s, start)) {
+                modify(start, node->{});
+                assertThat(selection.getElements()).containsExactlyElementsOf(s.select(start));
+            }
+        }
+    }
+
+    @Test
+    public void getElements_shouldFollowNotifiedChanges() {
+        Selector s = Selector.compile(expression);
+        for (String startId: STARTING_IDS) {
+            Element start = loadStartingElement(startId);
+            LiveSelection selection = LiveSelection.create(s, start);
+            selection.close();
+            assertThat(selection.isListening()).isFalse();
+            modify(start, node->{
+                selection.notifyChanged(node);
+                assertThat(selection.getElements()).containsExactlyElementsOf(s.select(start));
+            });
+            assertThat(selection.size()).isEqualTo(s.count(start));
+        }
+    }
+
+    @Test
+    public void getElements_shouldNotFollowChangesAfterClosed() {
+        // given
+        Selector s = Selector.compile("p");
+        Element root = doc.getDocumentElement();
+        LiveSelection selection = LiveSelection.create(s, root);
+        List<Element> before = selection.getElements();
+        selection.close();
+        // when
+        root.getElementsByTagName("p").item(0).getParentNode().appendChild(doc.createElementNS(null, "p"));
+        // then
+        assertThat(selection.getElements()).containsExactlyElementsOf(before);
+    }
+
+    /**
+     * Loads the document again and finds the starting element in it.
+     *
+     * @param startId the identifier of the starting element, or {@code null} for the root.
+     * @return the starting element found.
+     */
+    private Element loadStartingElement(String startId) {
+        doc = Documents.load("/combinator-test.html");
+        return (startId != null) ? doc.getElementById(startId) : doc.getDocumentElement();
+    }
+
+    /**
+     * Modifies the document in various ways.
+     *
+     * @param start the starting element of the selection.
+     * @param notifier the callback invoked with the modified node after each modification.
+     */
+    private void modify(Element start, Consumer<Node> notifier) {
+        List<Element> all = Documents.descentandsOf(start);
+        // changes the attributes
+        for (int i = 1; i < all.size(); i += 3) {
+            Element element = all.get(i);
+            element.setAttribute("class", "note");
+            notifier.accept(element);
+        }
+        for (int i = 2; i < all.size(); i += 7) {
+            Element element = all.get(i);
+            element.removeAttribute("class");
+            notifier.accept(element);
+        }
+        // inserts the elements
+        for (int i = 0; i < all.size(); i += 5) {
+            Element parent = all.get(i);
+            Element inserted = doc.createElementNS(parent.getNamespaceURI(), (i % 2 == 0) ? "p" : "h1");
+            inserted.setAttribute("class", "note");
+            parent.insertBefore(inserted, parent.getFirstChild());
+            notifier.accept(parent);
+            Element nested = doc.createElementNS(parent.getNamespaceURI(), "p");
+            inserted.appendChild(nested);
+            notifier.accept(inserted);
+        }
+        // removes the elements
+        for (int i = 3; i < all.size(); i += 4) {
+            Element removed = all.get(i);
+            Node parent = removed.getParentNode();
+            if (parent != null && removed != start) {
+                parent.removeChild(removed);
+                notifier.accept(parent);
+            }
+        }
+        // changes the text
+        for (int i = 0; i < all.size(); i += 6) {
+            Element element = all.get(i);
+            if (element.getParentNode() != null) {
+                element.appendChild(doc.createTextNode("text"));
+                notifier.accept(element);
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.Iterator;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.MultiSelector;
+import io.github.i49.cascade.api.ParallelOptions;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for {@link MultiSelector}.
+ * Each result of the batch must be the same as the one selected by each selector alone.
+ */
+public class MultiSelectorTest {
+
+    private static final String[] EXPRESSIONS = {
+        "*",
+        "section",
+        "p",
+        "p",
+        "#descendant-combinator-test p",
+        "#child-combinator-test",
+        "div.main > p",
+        ".main",
+        "td p, section > h1",
+        "h1, h1",
+        "p ~ *",
+        ":not(p)",
+        "li:first-child",
+        "nonexistent",
+        "p:not(*)",
+        "*|p",
+    };
+
+    private static Document doc;
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = Documents.load("/combinator-test.html");
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsEachSelector() {
+        // given
+        List<Selector> selectors = compileAll(EXPRESSIONS);
+        MultiSelector batch = MultiSelector.of(selectors);
+        for (Element start: Documents.descentandsOf(doc.getDocumentElement())) {
+            // when
+            List<List<Element>> actual = batch.select(start);
+            // then
+            assertThat(actual).hasSize(selectors.size());
+            for (int i = 0; i < selectors.size(); i++) {
+                assertThat(actual.get(i)).containsExactlyElementsOf(selectors.get(i).select(start));
+            }
+        }
+    }
+
+    @Test
+    public void select_shouldReturnEmptyListForNoSelectors() {
+        // given
+        MultiSelector batch = MultiSelector.of();
+        // when
+        List<List<Element>> actual = batch.select(doc.getDocumentElement());
+        // then
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    public void getSelectors_shouldReturnSelectorsInGivenOrder() {
+        // given
+        List<Selector> selectors = compileAll(EXPRESSIONS);
+        // when
+        MultiSelector batch = MultiSelector.of(selectors);
+        // then
+        assertThat(batch.getSelectors()).containsExactlyElementsOf(selectors);
+    }
+
+    @Test
+    public void of_shouldThrowExceptionIfSelectorIsNull() {
+        Throwable thrown = catchThrowable(()->{
+            MultiSelector.of(Selector.compile("p"), null);
+        });
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void of_shouldThrowExceptionIfListIsNull() {
+        Throwable thrown = catchThrowable(()->{
+            MultiSelector.of((List<Selector>)null);
+        });
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void of_shouldThrowExceptionIfSelectorIsForeign() {
+        Throwable thrown = catchThrowable(()->{
+            MultiSelector.of(new ForeignSelector());
+        });
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void select_shouldThrowExceptionIfStartIsNull() {
+        MultiSelector batch = MultiSelector.of(Selector.compile("p"));
+        Throwable thrown = catchThrowable(()->{
+            batch.select(null);
+        });
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void select_shouldThrowExceptionIfStartIsOrphan() {
+        MultiSelector batch = MultiSelector.of(Selector.compile("p"));
+        Element orphan = doc.createElementNS(null, "p");
+        Throwable thrown = catchThrowable(()->{
+            batch.select(orphan);
+        });
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Selector> compileAll(String... expressions) {
+        List<Selector> selectors = new ArrayList<>();
+        for (String expression: expressions) {
+            selectors.add(Selector.compile(expression));
+        }
+        return selectors;
+    }
+
+    /**
+     * Selector not provided by the implementation.
+     */
+    private static class ForeignSelector implements Selector {
+
+        @Override
+        public List<Element> select(Element start) {
+            return Arrays.asList(start);
+        }
+
+        @Override
+        public List<Element> select(Element start, ParallelOptions options) {
+            return select(start);
+        }
+
+        @Override
+        public Optional<Element> selectFirst(Element start) {
+            return Optional.of(start);
+        }
+
+        @Override
+        public boolean exists(Element start) {
+            return true;
+        }
+
+        @Override
+        public int count(Element start) {
+            return 1;
+        }
+
+        @Override
+        public Iterator<Element> iterator(Element start) {
+            return select(start).iterator();
+        }
+
+        @Override
+        public Stream<Element> stream(Element start) {
+            return select(start).stream();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for structural pseudo-classes applied to a parent with many children of various types.
+ */
+@RunWith(Parameterized.class)
+public class NthIndexTest {
+
+    private static final String[] TYPES = { "p", "div", "span", "p", "div" };
+    private static final int WIDTH = 100;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "li > :nth-child(3n+1)", matches(p->p.index % 3 == 1) },
+            { "li > :nth-child(odd)", matches(p->p.index % 2 == 1) },
+            { "li > :nth-child(even)", matches(p->p.index % 2 == 0) },
+            { "li > :nth-child(5)", matches(p->p.index == 5) },
+            { "li > :nth-child(-n+4)", matches(p->p.index <= 4) },
+            { "li > :nth-child(-3n+10)", matches(p->p.index <= 10 && (10 - p.index) % 3 == 0) },
+            { "li > :nth-child(2n-1)", matches(p->p.index % 2 == 1) },
+            { "li > :nth-last-child(4n)", matches(p->p.lastIndex % 4 == 0) },
+            { "li > :nth-last-child(-n+3)", matches(p->p.lastIndex <= 3) },
+            { "li > p:nth-of-type(2n)", matches(p->p.name.equals("p") && p.typeIndex % 2 == 0) },
+            { "li > div:nth-of-type(3)", matches(p->p.name.equals("div") && p.typeIndex == 3) },
+            { "li > :nth-of-type(-n+2)", matches(p->p.typeIndex <= 2) },
+            { "li > span:nth-last-of-type(odd)", matches(p->p.name.equals("span") && p.typeLastIndex % 2 == 1) },
+            { "li > :nth-last-of-type(1)", matches(p->p.typeLastIndex == 1) },
+            { "li > :first-of-type", matches(p->p.typeIndex == 1) },
+            { "li > :last-of-type", matches(p->p.typeLastIndex == 1) },
+            { "li > :only-of-type", matches(p->p.typeIndex == 1 && p.typeLastIndex == 1) },
+            { "li > :not(:nth-child(2n+1))", matches(p->p.index % 2 == 0) },
+            { "li > :nth-child(2n+1):nth-last-child(2n+1)", matches(p->p.index % 2 == 1 && p.lastIndex % 2 == 1) },
+        });
+    }
+
+    private static Document doc;
+    private static List<Position> positions;
+
+    private final String expression;
+    private final Predicate<Position> teacher;
+
+    public NthIndexTest(String expression, Predicate<Position> teacher) {
+        this.expression = expression;
+        this.teacher = teacher;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = Documents.empty();
+        Element root = doc.createElementNS(null, "ul");
+        doc.appendChild(root);
+        Element item = doc.createElementNS(null, "li");
+        root.appendChild(item);
+        for (int i = 0; i < WIDTH; i++) {
+            item.appendChild(doc.createTextNode(" "));
+            item.appendChild(doc.createElementNS(null, TYPES[i % TYPES.length]));
+        }
+        // the only element of its type.
+        item.appendChild(doc.createElementNS(null, "em"));
+        positions = computePositions(item);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+        positions = null;
+    }
+
+    @Test
+    public void select_shouldReturnElementsAtPositions() {
+        // given
+        Selector selector = Selector.compile(expression);
+        List<Element> expected = new ArrayList<>();
+        for (Position p: positions) {
+            if (teacher.test(p)) {
+                expected.add(p.element);
+            }
+        }
+
+        // when
+        List<Element> actual = selector.select(doc.getDocumentElement());
+
+        // then
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    private static Predicate<Position> matches(Predicate<Position> predicate) {
+        return predicate;
+    }
+
+    private static List<Position> computePositions(Element parent) {
+        List<Position> positions = new ArrayList<>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                positions.add(new Position((Element)child));
+            }
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            Position p = positions.get(i);
+            p.index = i + 1;
+            p.lastIndex = positions.size() - i;
+        }
+        for (Position p: positions) {
+            for (Position other: positions) {
+                if (other.name.equals(p.name)) {
+                    if (other.index < p.index) {
+                        p.typeIndex++;
+                    } else if (other.index > p.index) {
+                        p.typeLastIndex++;
+                    }
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Position of a child element, in which all indices start from 1.
+     */
+    private static class Position {
+
+        final Element element;
+        final String name;
+        int index;
+        int lastIndex;
+        int typeIndex = 1;
+        int typeLastIndex = 1;
+
+        Position(Element element) {
+            this.element = element;
+            this.name = element.getLocalName();
+        }
+    }
+}
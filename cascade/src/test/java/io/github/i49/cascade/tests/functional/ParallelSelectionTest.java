@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.ParallelOptions;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Tests for {@link Selector#select(Element, ParallelOptions)}.
+ */
+@RunWith(Parameterized.class)
+public class ParallelSelectionTest {
+
+    @Parameters(name = "{index}: {1}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { null, "*" },
+            { null, "li" },
+            { null, "li.selected" },
+            { null, ".rare" },
+            { null, "div > ul > li:first-child" },
+            { null, "li:nth-child(2n+1) a" },
+            { null, "ul li.selected + li a" },
+            { null, "li.rare ~ li" },
+            { null, "p, a, ul" },
+            { null, "#section10" },
+            { null, ":root" },
+            { null, "nonexistent" },
+            { "#section3", "*" },
+            { "#section3", "div li" },
+        });
+    }
+
+    private static Document doc;
+    private static ForkJoinPool pool;
+
+    private final Element start;
+    private final String expression;
+
+    public ParallelSelectionTest(String startId, String expression) {
+        if (startId != null) {
+            this.start = doc.getElementById(startId.substring(1));
+        } else {
+            this.start = doc.getDocumentElement();
+        }
+        this.expression = expression;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(20000);
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        pool.shutdown();
+        pool = null;
+        doc = null;
+    }
+
+    @Test
+    public void select_shouldReturnSameElementsAsSequential() {
+        // given
+        Selector selector = Selector.compile(expression);
+        ParallelOptions options = ParallelOptions.defaults().withPool(pool).withThreshold(0);
+
+        // when
+        List<Element> actual = selector.select(start, options);
+
+        // then
+        assertThat(actual).containsExactlyElementsOf(selector.select(start));
+    }
+
+    @Test
+    public void select_shouldSearchSequentiallyBelowThreshold() {
+        // given
+        Selector selector = Selector.compile(expression);
+        ParallelOptions options = ParallelOptions.defaults().withThreshold(Integer.MAX_VALUE);
+
+        // when
+        List<Element> actual = selector.select(start, options);
+
+        // then
+        assertThat(actual).containsExactlyElementsOf(selector.select(start));
+    }
+
+    @Test
+    public void select_shouldThrowExceptionIfOptionsIsNull() {
+        // given
+        Selector selector = Selector.compile(expression);
+
+        // when
+        Throwable thrown = catchThrowable(()->{
+            selector.select(start, null);
+        });
+
+        // then
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+}
@@ -118,8 +118,7 @@ public class ParsingErrorTest {
     @Test
     public void compile_shouldThrowExceptionIfSyntaxErrorFound() {
         // given
-        SelectorCompiler compiler = SelectorCompiler.create();
-        declareNamespaces(compiler);
+        SelectorCompiler compiler = declareNamespaces(SelectorCompiler.create());
         
         Throwable thrown = catchThrowable(()->{
             // when
@@ -104,6 +104,8 @@ public class ParsingTest {
             { ".\\31 a2b3c", "*.1a2b3c" },
             { "#\\#fake-id", "*##fake-id" },
             { "one\\ two", "one two" },
+            { ".price\\$", "*.price$" },
+            { ".back\\\\slash", "*.back\\slash" },
             { "[rel=\"\\00a9  2017\"]", "*[rel=\"\u00a9 2017\"]" },
             { "[title=\" !#$%&'()*+,-./:;<=>?@[]^_`{|}~\"]", "*[title=\" !#$%&'()*+,-./:;<=>?@[]^_`{|}~\"]" },
             // pseudo-class
@@ -175,8 +177,7 @@ public class ParsingTest {
     @Test
     public void shouldCompileSuccessfully() {
         // given
-        SelectorCompiler compiler = SelectorCompiler.create();
-        declareNamespaces(compiler);
+        SelectorCompiler compiler = declareNamespaces(SelectorCompiler.create());
         
         // when
         Selector s = compiler.compile(this.expression);
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCache;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.tests.Documents;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Tests for {@link SelectorCompiler#withProgram(boolean)}.
+ * Each selection by the program must be the same as the one by the interpreted selector.
+ */
+public class ProgramTest {
+
+    private static final String[] RESOURCES = {
+        "/html5-test.html",
+        "/pseudo-class-test.html",
+        "/combinator-test.html",
+        "/attribute-selector-test.html",
+        "/anchored-plan-test.html",
+    };
+
+    private static final String[] EXPRESSIONS = {
+        "*",
+        "p",
+        "*|p",
+        "|p",
+        "#outer p.note",
+        "#outer > p",
+        "#outer section > :not(h1)",
+        "#outer .box ~ ul li",
+        "[id=\"nth-child-test\"] li",
+        ".main",
+        "p.note",
+        "div.main > p",
+        "section section li.item",
+        "body > .box li",
+        "h1 + p",
+        "h1 ~ p",
+        "p ~ * ~ p",
+        "ul > li ~ li + li",
+        "div > * + p",
+        "div p span",
+        "div div p",
+        "* * *",
+        "p, li, h1",
+        "td p, section > h1",
+        ":root",
+        ":root > body",
+        ":root *",
+        ":empty",
+        "p:not(:empty)",
+        "p:not(.note)",
+        "p:not(p)",
+        ":not([hreflang=\"en\"])",
+        "li:not(:nth-child(2n+1))",
+        "li:not(*)",
+        "li:first-child",
+        "li:last-child",
+        "li:only-child",
+        ":first-of-type",
+        ":only-of-type",
+        "li:nth-child(2n+1)",
+        "li:nth-child(odd)",
+        "li:nth-child(even)",
+        "li:nth-child(-n+3)",
+        "li:nth-child(3)",
+        "li:nth-child(-2n-1)",
+        "li:nth-child(0n+0)",
+        "li:nth-child(n+2) > *",
+        "li:nth-last-child(2)",
+        "p:nth-of-type(odd)",
+        ":not(p)",
+        "[title]",
+        "[title=\"hello\"]",
+        "[hreflang=\"en\"]",
+        "[hreflang=\"en\"] ~ *",
+        "[title=\"test\"]",
+        "[title~=\"hello\"]",
+        "[lang|=\"en\"]",
+        "[title^=\"hello\"]",
+        "[title$=\"world\"]",
+        "[title*=\"llo\"]",
+        "[class=\"main\"]",
+        "nonexistent",
+        ".nonexistent p",
+        "p:not(*) span",
+    };
+
+    private static final String[] NAMESPACE_EXPRESSIONS = {
+        "text",
+        "ns1|text",
+        "ns1|*",
+        "|text",
+        "*|text",
+        "[ns2|type]",
+        "[|type=\"simple\"]",
+        "[*|type=\"simple\"]",
+        "[a|title=\"hello\"]",
+        "webpages > [ns2|href]",
+        "webpages ns1|text",
+    };
+
+    private static final String[] BACKTRACKING_EXPRESSIONS = {
+        "div div div span",
+        "div div div div div div div div div div div div span",
+        "div div div div div div div div div div div div div span",
+        ".level1 div .level5 div span",
+        "body .level0 div > .level3 span",
+        "div:empty div div span",
+        "div div span ~ div span",
+        "li ~ li ~ .odd",
+        ".even ~ .odd ~ li",
+        "li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li",
+        "li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li ~ li",
+        "ul li ~ li ~ .even",
+        ":root li ~ li ~ .even",
+        "li:first-child:last-child ~ li ~ li",
+        "ul > li + li ~ li",
+    };
+
+    @Test
+    public void select_shouldSelectSameElementsAsInterpretedSelector() {
+        SelectorCompiler compiler = SelectorCompiler.create();
+        SelectorCompiler programs = compiler.withProgram(true);
+        for (String resource: RESOURCES) {
+            // given
+            Document doc = Documents.load(resource);
+            for (String expression: EXPRESSIONS) {
+                Selector expected = compiler.compile(expression);
+                // when
+                Selector actual = programs.compile(expression);
+                // then
+                assertThat(selectFromAll(actual, doc)).as(resource + ": " + expression)
+                    .isEqualTo(selectFromAll(expected, doc));
+            }
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsInterpretedSelectorWithNamespaces() {
+        // given
+        Document doc = Documents.load("/namespace-test.xml");
+        SelectorCompiler compiler = SelectorCompiler.create()
+                .withNamespace("ns1", "http://www.w3.org/2000/svg")
+                .withNamespace("ns2", "http://www.w3.org/1999/xlink")
+                .withNamespace("a", "http://www.example.org/a");
+        for (SelectorCompiler c: new SelectorCompiler[] { compiler, compiler.withDefaultNamespace("http://www.w3.org/2000/svg") }) {
+            for (String expression: NAMESPACE_EXPRESSIONS) {
+                Selector expected = c.compile(expression);
+                // when
+                Selector actual = c.withProgram(true).compile(expression);
+                // then
+                assertThat(selectFromAll(actual, doc)).as(expression).isEqualTo(selectFromAll(expected, doc));
+            }
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsInterpretedSelectorWhileBacktracking() {
+        SelectorCompiler compiler = SelectorCompiler.create();
+        for (Document doc: new Document[] { SyntheticDocuments.nested(12, 3), SyntheticDocuments.wideFanout(10) }) {
+            for (String expression: BACKTRACKING_EXPRESSIONS) {
+                // given
+                Selector expected = compiler.compile(expression);
+                // when
+                Selector actual = compiler.withProgram(true).compile(expression);
+                // then
+                assertThat(selectFromAll(actual, doc)).as(expression).isEqualTo(selectFromAll(expected, doc));
+            }
+        }
+    }
+
+    @Test
+    public void count_shouldReturnSameNumberAsInterpretedSelector() {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        Element root = doc.getDocumentElement();
+        SelectorCompiler programs = SelectorCompiler.create().withProgram(true);
+        for (String expression: EXPRESSIONS) {
+            Selector expected = Selector.compile(expression);
+            // when
+            Selector actual = programs.compile(expression);
+            // then
+            assertThat(actual.count(root)).as(expression).isEqualTo(expected.count(root));
+            assertThat(actual.stream(root)).as(expression).containsExactlyElementsOf(expected.select(root));
+            assertThat(actual.toString()).isEqualTo(expected.toString());
+        }
+    }
+
+    @Test
+    public void compile_shouldNotShareCachedSelectorWithOtherEvaluators() {
+        // given
+        SelectorCache cache = SelectorCache.create(10);
+        SelectorCompiler compiler = SelectorCompiler.create().withCache(cache);
+        Selector interpreted = compiler.compile("div p");
+        Selector generated = compiler.withCodeGeneration(true).compile("div p");
+        // when
+        Selector program = compiler.withProgram(true).compile("div p");
+        // then
+        assertThat(program).isNotSameAs(interpreted).isNotSameAs(generated);
+        assertThat(compiler.withProgram(true).compile("div p")).isSameAs(program);
+        assertThat(compiler.withProgram(true).withCodeGeneration(true).compile("div p")).isSameAs(generated);
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    private static List<List<Element>> selectFromAll(Selector selector, Document doc) {
+        List<List<Element>> selected = new ArrayList<>();
+        for (Element start: Documents.descentandsOf(doc.getDocumentElement())) {
+            selected.add(selector.select(start));
+        }
+        return selected;
+    }
+}
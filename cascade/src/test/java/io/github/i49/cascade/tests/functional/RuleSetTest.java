@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.RuleSet;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for {@link RuleSet}.
+ * The rules matching each element must be the same as the selectors selecting the element.
+ */
+public class RuleSetTest {
+
+    private static final String[] RULES = {
+        "*",
+        "p",
+        "li a",
+        "#text__paragraphs p",
+        "#top",
+        ".list",
+        "ul.list > li",
+        "[type]",
+        "input[type=\"checkbox\"]",
+        "[data-index$=\"7\"]",
+        "h1, h2, h3",
+        "p, p",
+        "header ~ *",
+        ":not(p):first-child",
+        "nonexistent",
+        "p:not(*)",
+    };
+
+    private static Document doc;
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = Documents.load("/html5-test.html");
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void match_shouldReturnRulesSelectingElement() {
+        // given
+        List<Selector> selectors = compileAll(RULES);
+        RuleSet rules = RuleSet.of(selectors);
+        Element root = doc.getDocumentElement();
+        Map<Element, int[]> expected = expectedMatches(selectors, root);
+        for (Element element: Documents.descentandsOf(root)) {
+            // when
+            int[] actual = rules.match(element);
+            // then
+            assertThat(actual).containsExactly(expected.getOrDefault(element, new int[0]));
+        }
+    }
+
+    @Test
+    public void matchAll_shouldReturnRulesSelectingEachElement() {
+        // given
+        List<Selector> selectors = compileAll(RULES);
+        RuleSet rules = RuleSet.of(selectors);
+        for (String id: new String[] { "top", "text__paragraphs", "text__lists" }) {
+            Element start = doc.getElementById(id);
+            Map<Element, int[]> expected = expectedMatches(selectors, start);
+            // when
+            Map<Element, int[]> actual = rules.matchAll(start);
+            // then
+            assertThat(actual.keySet()).containsExactlyElementsOf(expected.keySet());
+            for (Element element: expected.keySet()) {
+                assertThat(actual.get(element)).containsExactly(expected.get(element));
+            }
+        }
+    }
+
+    @Test
+    public void getStatistics_shouldCountBuckets() {
+        // given
+        RuleSet rules = RuleSet.of(compileAll(RULES));
+        // when
+        RuleSet.Statistics actual = rules.getStatistics();
+        // then
+        assertThat(actual.getSelectorCount()).isEqualTo(19);
+        assertThat(actual.getIdentifierBucketCount()).isEqualTo(1);
+        assertThat(actual.getClassBucketCount()).isEqualTo(1);
+        assertThat(actual.getTypeBucketCount()).isEqualTo(8);
+        assertThat(actual.getAttributeBucketCount()).isEqualTo(2);
+        assertThat(actual.getUniversalSelectorCount()).isEqualTo(3);
+        assertThat(actual.getLargestBucketSize()).isEqualTo(5);
+    }
+
+    @Test
+    public void getRules_shouldReturnRulesInGivenOrder() {
+        // given
+        List<Selector> selectors = compileAll(RULES);
+        // when
+        RuleSet rules = RuleSet.of(selectors);
+        // then
+        assertThat(rules.getRules()).containsExactlyElementsOf(selectors);
+    }
+
+    @Test
+    public void match_shouldThrowExceptionIfElementIsNull() {
+        RuleSet rules = RuleSet.of(Selector.compile("p"));
+        Throwable thrown = catchThrowable(()->{
+            rules.match(null);
+        });
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void match_shouldThrowExceptionIfElementIsOrphan() {
+        RuleSet rules = RuleSet.of(Selector.compile("p"));
+        Element orphan = doc.createElementNS(null, "p");
+        Throwable thrown = catchThrowable(()->{
+            rules.match(orphan);
+        });
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void of_shouldThrowExceptionIfRuleIsNull() {
+        Throwable thrown = catchThrowable(()->{
+            RuleSet.of(Selector.compile("p"), null);
+        });
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    /**
+     * Builds the expected matches from the elements selected by each selector.
+     *
+     * @param selectors the selectors to run.
+     * @param start the element at which the selection starts.
+     * @return the map from the selected elements to the indices of the selectors in document order.
+     */
+    private static Map<Element, int[]> expectedMatches(List<Selector> selectors, Element start) {
+        Map<Element, List<Integer>> found = new LinkedHashMap<>();
+        for (Element element: Documents.descentandsOf(start)) {
+            for (int i = 0; i < selectors.size(); i++) {
+                if (selectors.get(i).select(start).contains(element)) {
+                    found.computeIfAbsent(element, e->new ArrayList<>()).add(i);
+                }
+            }
+        }
+        Map<Element, int[]> expected = new LinkedHashMap<>();
+        found.forEach((element, list)->{
+            expected.put(element, list.stream().mapToInt(Integer::intValue).toArray());
+        });
+        return expected;
+    }
+
+    private static List<Selector> compileAll(String... expressions) {
+        List<Selector> selectors = new ArrayList<>();
+        for (String expression: expressions) {
+            selectors.add(Selector.compile(expression));
+        }
+        return selectors;
+    }
+}
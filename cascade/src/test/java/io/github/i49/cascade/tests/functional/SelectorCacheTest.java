@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import io.github.i49.cascade.api.InvalidSelectorException;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCache;
+import io.github.i49.cascade.api.SelectorCompiler;
+
+/**
+ * Tests for {@link SelectorCache}.
+ */
+public class SelectorCacheTest {
+
+    @Test
+    public void compile_shouldReturnCachedSelector() {
+        // given
+        SelectorCompiler compiler = SelectorCompiler.cached(10);
+        // when
+        Selector first = compiler.compile("div p");
+        Selector second = compiler.compile("div p");
+        // then
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void compile_shouldCountHitsAndMisses() {
+        // given
+        SelectorCache cache = SelectorCache.create(10);
+        SelectorCompiler compiler = SelectorCompiler.create().withCache(cache);
+        // when
+        compiler.compile("div p");
+        compiler.compile("div p");
+        compiler.compile("ul > li");
+        compiler.compile("div p");
+        // then
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(0);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void compile_shouldEvictLeastRecentlyUsed() {
+        // given
+        SelectorCache cache = SelectorCache.create(2);
+        SelectorCompiler compiler = SelectorCompiler.create().withCache(cache);
+        Selector first = compiler.compile("a");
+        Selector second = compiler.compile("b");
+        compiler.compile("a");
+        // when
+        compiler.compile("c");
+        // then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(compiler.compile("a")).isSameAs(first);
+        assertThat(compiler.compile("b")).isNotSameAs(second);
+    }
+
+    @Test
+    public void compile_shouldDistinguishNamespaces() {
+        // given
+        SelectorCache cache = SelectorCache.create(10);
+        Selector first = SelectorCompiler.create()
+                .withCache(cache)
+                .withNamespace("ns", "http://www.w3.org/2000/svg")
+                .compile("ns|circle");
+        // when
+        Selector second = SelectorCompiler.create()
+                .withCache(cache)
+                .withNamespace("ns", "http://www.w3.org/1999/xhtml")
+                .compile("ns|circle");
+        Selector third = SelectorCompiler.create()
+                .withNamespace("ns", "http://www.w3.org/2000/svg")
+                .withCache(cache)
+                .compile("ns|circle");
+        // then
+        assertThat(second).isNotSameAs(first);
+        assertThat(third).isSameAs(first);
+    }
+
+    @Test
+    public void compile_shouldDistinguishDefaultNamespaces() {
+        // given
+        SelectorCompiler compiler = SelectorCompiler.cached(10);
+        Selector first = compiler.compile("circle");
+        // when
+        Selector second = compiler.withDefaultNamespace("http://www.w3.org/2000/svg").compile("circle");
+        // then
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    public void compile_shouldNotCacheInvalidExpression() {
+        // given
+        SelectorCache cache = SelectorCache.create(10);
+        SelectorCompiler compiler = SelectorCompiler.create().withCache(cache);
+        // when
+        Throwable thrown = catchThrowable(()->compiler.compile("div >"));
+        // then
+        assertThat(thrown).isInstanceOf(InvalidSelectorException.class);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void clear_shouldRemoveAllSelectors() {
+        // given
+        SelectorCache cache = SelectorCache.create(10);
+        SelectorCompiler compiler = SelectorCompiler.create().withCache(cache);
+        Selector first = compiler.compile("div p");
+        // when
+        cache.clear();
+        // then
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(compiler.compile("div p")).isNotSameAs(first);
+    }
+
+    @Test
+    public void compile_shouldShareCacheBetweenThreads() throws Exception {
+        // given
+        SelectorCache cache = SelectorCache.create(100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Callable<Selector>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final String expression = "li:nth-child(" + (i % 10) + ")";
+            tasks.add(()->SelectorCompiler.create().withCache(cache).compile(expression));
+        }
+        // when
+        List<Future<Selector>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } finally {
+            executor.shutdown();
+        }
+        // then
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get()).isSameAs(futures.get(i % 10).get());
+        }
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.getHitCount() + cache.getMissCount()).isEqualTo(100);
+    }
+
+    @Test
+    public void create_shouldThrowExceptionIfMaxEntriesIsNotPositive() {
+        // when
+        Throwable thrown = catchThrowable(()->SelectorCache.create(0));
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void withCache_shouldThrowExceptionIfCacheIsNull() {
+        // when
+        Throwable thrown = catchThrowable(()->SelectorCompiler.create().withCache(null));
+        // then
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+}
@@ -58,4 +58,35 @@ public class SelectorErrorTest {
         // then
         assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
     }
+
+    @Test
+    public void iterator_shouldThrowExceptionIfStartElementIsNull() {
+        // given
+        Selector s = Selector.compile("p");
+        Element startElement = null;
+
+        // when
+        Throwable thrown = catchThrowable(()->{
+            s.iterator(startElement);
+        });
+
+        // then
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void stream_shouldThrowExceptionIfStartElementIsOrphan() {
+        // given
+        Selector s = Selector.compile("*");
+        Document doc = Documents.empty();
+        Element startElement = doc.createElement("orphan");
+
+        // when
+        Throwable thrown = catchThrowable(()->{
+            s.stream(startElement);
+        });
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
 }
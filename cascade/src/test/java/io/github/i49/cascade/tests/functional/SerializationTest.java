@@ -0,0 +1,297 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.api.SelectorGroup;
+import io.github.i49.cascade.api.SelectorSerializer;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for {@link SelectorSerializer}.
+ * Each selector read must be the same as the one written.
+ */
+public class SerializationTest {
+
+    private static final String[] EXPRESSIONS = {
+        "p",
+        "#outer p.note",
+        "#outer section > :not(h1)",
+        "body > .box li",
+        "h1 + p",
+        "p ~ * ~ p",
+        "p, li, h1",
+        ":root > body",
+        "p:not(:empty)",
+        "li:nth-child(2n+1)",
+        "li:nth-child(-n+3)",
+        "li:nth-child(-2n-1)",
+        "li:nth-last-child(2)",
+        "p:nth-of-type(odd)",
+        "[title]",
+        "[hreflang=\"en\"] ~ *",
+        "[title~=\"hello\"]",
+        "[lang|=\"en\"]",
+        "[title^=\"hello\"]",
+        "[title$=\"world\"]",
+        "[title*=\"llo\"]",
+    };
+
+    private static final String[] NAMESPACE_EXPRESSIONS = {
+        "text",
+        "ns1|text",
+        "ns1|*",
+        "|text",
+        "*|text",
+        "[ns2|type]",
+        "[|type=\"simple\"]",
+        "[*|type=\"simple\"]",
+        "webpages > [ns2|href]",
+        "webpages ns1|text",
+    };
+
+    @Test
+    public void read_shouldRestoreSameExpressionsAsWritten() throws IOException {
+        // given
+        SelectorCompiler compiler = SelectorCompiler.create().withNamespace("ns", "http://www.example.com");
+        List<Selector> selectors = new ArrayList<>();
+        for (Object[] parameter: ParsingTest.parameters()) {
+            selectors.add(compiler.compile((String)parameter[0]));
+        }
+        // when
+        List<Selector> actual = roundTrip(selectors);
+        // then
+        assertThat(actual).hasSameSizeAs(selectors);
+        for (int i = 0; i < selectors.size(); i++) {
+            assertThat(actual.get(i)).hasToString(selectors.get(i).toString());
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsWritten() throws IOException {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        List<Selector> selectors = new ArrayList<>();
+        for (String expression: EXPRESSIONS) {
+            selectors.add(Selector.compile(expression));
+        }
+        for (Object[] parameter: Html5Test.parameters()) {
+            selectors.add(Selector.compile((String)parameter[0]));
+        }
+        // when
+        List<Selector> actual = roundTrip(selectors);
+        // then
+        for (int i = 0; i < selectors.size(); i++) {
+            Selector expected = selectors.get(i);
+            assertThat(selectFromAll(actual.get(i), doc)).as(expected.toString())
+                .isEqualTo(selectFromAll(expected, doc));
+        }
+    }
+
+    @Test
+    public void select_shouldSelectSameElementsAsWrittenWithNamespaces() throws IOException {
+        // given
+        Document doc = Documents.load("/namespace-test.xml");
+        SelectorCompiler compiler = SelectorCompiler.create()
+                .withNamespace("ns1", "http://www.w3.org/2000/svg")
+                .withNamespace("ns2", "http://www.w3.org/1999/xlink");
+        for (SelectorCompiler c: new SelectorCompiler[] { compiler, compiler.withDefaultNamespace("http://www.w3.org/2000/svg") }) {
+            List<Selector> selectors = new ArrayList<>();
+            for (String expression: NAMESPACE_EXPRESSIONS) {
+                selectors.add(c.compile(expression));
+            }
+            // when
+            List<Selector> actual = roundTrip(selectors);
+            // then
+            for (int i = 0; i < selectors.size(); i++) {
+                Selector expected = selectors.get(i);
+                assertThat(actual.get(i)).hasToString(expected.toString());
+                assertThat(selectFromAll(actual.get(i), doc)).as(expected.toString())
+                    .isEqualTo(selectFromAll(expected, doc));
+            }
+        }
+    }
+
+    @Test
+    public void read_shouldRestoreSelectorGroup() throws IOException {
+        // given
+        Selector selector = Selector.compile("p, li, h1");
+        // when
+        Selector actual = roundTrip(Collections.singletonList(selector)).get(0);
+        // then
+        assertThat(actual).isInstanceOf(SelectorGroup.class);
+        assertThat((SelectorGroup)actual).hasSize(3);
+    }
+
+    @Test
+    public void write_shouldAcceptSelectorsOfAllEvaluators() throws IOException {
+        // given
+        Document doc = Documents.load("/html5-test.html");
+        SelectorCompiler compiler = SelectorCompiler.create();
+        List<Selector> selectors = Arrays.asList(
+                compiler.compile("body > .box li"),
+                compiler.withProgram(true).compile("body > .box li"),
+                compiler.withCodeGeneration(true).compile("body > .box li"));
+        // when
+        List<Selector> actual = roundTrip(selectors);
+        // then
+        for (Selector selector: actual) {
+            assertThat(selector).hasToString("body > *.box li");
+            assertThat(selector.select(doc.getDocumentElement()))
+                .isEqualTo(selectors.get(0).select(doc.getDocumentElement()));
+        }
+    }
+
+    @Test
+    public void write_shouldWriteSharedStringsOnlyOnce() throws IOException {
+        // given
+        Selector selector = Selector.compile("section.introduction > p[title=\"introduction\"]");
+        // when
+        int once = serialize(Collections.singletonList(selector)).length;
+        int twice = serialize(Arrays.asList(selector, Selector.compile(selector.toString()))).length;
+        // then
+        assertThat(twice).isLessThan(once + 10);
+    }
+
+    @Test
+    public void read_shouldThrowExceptionIfNotSerializedSelectors() {
+        // given
+        byte[] bytes = "div p".getBytes();
+        // when
+        Throwable thrown = catchThrowable(()->SelectorSerializer.create().read(new ByteArrayInputStream(bytes)));
+        // then
+        assertThat(thrown).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void read_shouldThrowExceptionIfVersionIsNotSupported() throws IOException {
+        // given
+        byte[] bytes = serialize(Collections.singletonList(Selector.compile("p")));
+        bytes[5] = 99;
+        // when
+        Throwable thrown = catchThrowable(()->SelectorSerializer.create().read(new ByteArrayInputStream(bytes)));
+        // then
+        assertThat(thrown).isInstanceOf(IOException.class).hasMessageContaining("99");
+    }
+
+    @Test
+    public void read_shouldThrowExceptionIfTruncated() throws IOException {
+        // given
+        byte[] bytes = serialize(Collections.singletonList(Selector.compile("div > p")));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        // when
+        Throwable thrown = catchThrowable(()->SelectorSerializer.create().read(new ByteArrayInputStream(truncated)));
+        // then
+        assertThat(thrown).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void read_shouldThrowExceptionIfCorrupted() throws IOException {
+        // given
+        byte[] bytes = serialize(Collections.singletonList(Selector.compile("div > p.note")));
+        bytes[bytes.length - 1] = 127;
+        // when
+        Throwable thrown = catchThrowable(()->SelectorSerializer.create().read(new ByteArrayInputStream(bytes)));
+        // then
+        assertThat(thrown).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void read_shouldThrowExceptionIfLengthExceedsStream() {
+        // given
+        byte[] bytes = { 0x43, 0x53, 0x4c, 0x53, 0x00, 0x01, 0x7f, (byte)0xff, (byte)0xff, (byte)0xf0 };
+        // when
+        Throwable thrown = catchThrowable(()->SelectorSerializer.create().read(new ByteArrayInputStream(bytes)));
+        // then
+        assertThat(thrown).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void read_shouldRejectOrRestoreWorkingSelectorsIfMutated() throws IOException {
+        // given
+        List<Selector> selectors = new ArrayList<>();
+        for (String expression: EXPRESSIONS) {
+            selectors.add(Selector.compile(expression));
+        }
+        byte[] bytes = serialize(selectors);
+        Document doc = Documents.load("/html5-test.html");
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            byte[] mutated = bytes.clone();
+            int mutations = 1 + random.nextInt(3);
+            for (int j = 0; j < mutations; j++) {
+                // keeps the header to mutate the payload.
+                mutated[10 + random.nextInt(mutated.length - 10)] = (byte)random.nextInt(256);
+            }
+            // when
+            Throwable thrown = catchThrowable(()->{
+                for (Selector selector: SelectorSerializer.create().read(new ByteArrayInputStream(mutated))) {
+                    selector.select(doc.getDocumentElement());
+                }
+            });
+            // then
+            if (thrown != null) {
+                assertThat(thrown).as("mutation #%d", i).isInstanceOf(IOException.class);
+            }
+        }
+    }
+
+    @Test
+    public void write_shouldThrowExceptionIfSelectorIsNull() {
+        // given
+        List<Selector> selectors = Arrays.asList(Selector.compile("p"), null);
+        // when
+        Throwable thrown = catchThrowable(()->serialize(selectors));
+        // then
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    private static List<Selector> roundTrip(List<Selector> selectors) throws IOException {
+        byte[] bytes = serialize(selectors);
+        return SelectorSerializer.create().read(new ByteArrayInputStream(bytes));
+    }
+
+    private static byte[] serialize(List<Selector> selectors) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SelectorSerializer.create().write(selectors, out);
+        return out.toByteArray();
+    }
+
+    private static List<List<Element>> selectFromAll(Selector selector, Document doc) {
+        List<List<Element>> selected = new ArrayList<>();
+        for (Element start: Documents.descentandsOf(doc.getDocumentElement())) {
+            selected.add(selector.select(start));
+        }
+        return selected;
+    }
+}
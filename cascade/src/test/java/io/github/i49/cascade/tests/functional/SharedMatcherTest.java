@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for the selectors sharing the matchers with other selectors.
+ * Each pair of the selectors is similar but must not be confused with each other.
+ */
+@RunWith(Parameterized.class)
+public class SharedMatcherTest {
+
+    private static final String SVG = "http://www.w3.org/2000/svg";
+    private static final String XHTML = "http://www.w3.org/1999/xhtml";
+
+    @Parameters(name = "{index}: {0}, {2}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "ns|circle", SVG, "ns|circle", XHTML, "ns|circle", "ns|circle", 1, 1 },
+            { "ns|*", SVG, "ns|*", XHTML, "ns|*", "ns|*", 3, 1 },
+            { "[ns|title]", SVG, "[ns|title]", XHTML, "*[ns|title]", "*[ns|title]", 1, 0 },
+            { "circle", SVG, "circle", null, "circle", "circle", 1, 3 },
+            { "*", SVG, "*", null, "*", "*", 3, 5 },
+            { "circle:nth-child(odd)", null, "circle:nth-child(2n+1)", null,
+              "circle:nth-child(odd)", "circle:nth-child(2n + 1)", 3, 3 },
+            { "[title=a]", null, "[title~=a]", null, "*[title=\"a\"]", "*[title~=\"a\"]", 1, 2 },
+            { "circle:not(.a)", null, "circle:not(.b)", null, "circle:not(.a)", "circle:not(.b)", 2, 1 },
+            { "rect circle", null, "rect > circle", null, "rect circle", "rect > circle", 1, 1 },
+        });
+    }
+
+    private final String firstExpression;
+    private final String firstNamespace;
+    private final String secondExpression;
+    private final String secondNamespace;
+    private final String firstString;
+    private final String secondString;
+    private final int firstCount;
+    private final int secondCount;
+
+    public SharedMatcherTest(String firstExpression, String firstNamespace,
+            String secondExpression, String secondNamespace,
+            String firstString, String secondString,
+            int firstCount, int secondCount) {
+        this.firstExpression = firstExpression;
+        this.firstNamespace = firstNamespace;
+        this.secondExpression = secondExpression;
+        this.secondNamespace = secondNamespace;
+        this.firstString = firstString;
+        this.secondString = secondString;
+        this.firstCount = firstCount;
+        this.secondCount = secondCount;
+    }
+
+    @Test
+    public void compile_shouldNotConfuseSimilarSelectors() {
+        // given
+        Document doc = createDocument();
+        // when
+        Selector first = compile(firstExpression, firstNamespace);
+        Selector second = compile(secondExpression, secondNamespace);
+        // then
+        assertThat(first).hasToString(firstString);
+        assertThat(second).hasToString(secondString);
+        assertThat(first.count(doc.getDocumentElement())).isEqualTo(firstCount);
+        assertThat(second.count(doc.getDocumentElement())).isEqualTo(secondCount);
+    }
+
+    private static Selector compile(String expression, String namespace) {
+        SelectorCompiler compiler = SelectorCompiler.create();
+        if (namespace != null) {
+            compiler = compiler.withNamespace("ns", namespace).withDefaultNamespace(namespace);
+        } else {
+            compiler = compiler.withNamespace("ns", "http://www.example.org");
+        }
+        return compiler.compile(expression);
+    }
+
+    /*
+     * <svg:svg>
+     *   <svg:circle title="a" svg:title="x"/>
+     *   <svg:rect><circle class="a b" title="a b"/></svg:rect>
+     *   <html:circle class="b"/>
+     * </svg:svg>
+     */
+    private static Document createDocument() {
+        Document doc = Documents.empty();
+        Element root = doc.createElementNS(SVG, "svg:svg");
+        doc.appendChild(root);
+        Element circle = doc.createElementNS(SVG, "svg:circle");
+        circle.setAttributeNS(null, "title", "a");
+        circle.setAttributeNS(SVG, "svg:title", "x");
+        root.appendChild(circle);
+        Element rect = doc.createElementNS(SVG, "svg:rect");
+        root.appendChild(rect);
+        Element inner = doc.createElementNS(null, "circle");
+        inner.setAttributeNS(null, "class", "a b");
+        inner.setAttributeNS(null, "title", "a b");
+        rect.appendChild(inner);
+        Element html = doc.createElementNS(XHTML, "html:circle");
+        html.setAttributeNS(null, "class", "b");
+        root.appendChild(html);
+        return doc;
+    }
+}
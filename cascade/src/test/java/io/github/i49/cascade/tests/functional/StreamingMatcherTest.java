@@ -0,0 +1,444 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.api.StreamingMatcher;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for {@link StreamingMatcher}.
+ * The elements matched in a stream must be the same as the ones selected from the document element.
+ */
+public class StreamingMatcherTest {
+
+    private static final String[] RESOURCES = {
+        "/html5-test.html",
+        "/pseudo-class-test.html",
+        "/combinator-test.html",
+        "/attribute-selector-test.html",
+        "/anchored-plan-test.html",
+    };
+
+    private static final String[] EXPRESSIONS = {
+        "*",
+        "p",
+        "*|p",
+        "|p",
+        "html body p",
+        "html > body",
+        "#descendant-combinator-test p",
+        "#outer p.note",
+        "#outer > p",
+        "#outer section > :not(h1)",
+        "#outer .box ~ ul li",
+        "[id=\"nth-child-test\"] li",
+        ".main",
+        "p.note",
+        "div.main > p",
+        "section section li.item",
+        "body > .box li",
+        "h1 + p",
+        "h1 ~ p",
+        "p ~ * ~ p",
+        "ul > li ~ li + li",
+        "div p span",
+        "p, li, h1",
+        "td p, section > h1",
+        ":root",
+        ":root > *",
+        "li:first-child",
+        ":first-of-type",
+        "li:first-child + li",
+        "li:nth-child(2n+1)",
+        "li:nth-child(-n+3)",
+        "p:nth-of-type(odd)",
+        "li:not(:first-child)",
+        ":not(p)",
+        "[title]",
+        "[title=\"hello\"]",
+        "[title~=\"hello\"]",
+        "[lang|=\"en\"]",
+        "[title^=\"hello\"]",
+        "[title$=\"world\"]",
+        "[title*=\"llo\"]",
+        "[class]",
+        "nonexistent",
+        ".nonexistent p",
+        "p:not(*)",
+    };
+
+    private static final String[] NAMESPACE_EXPRESSIONS = {
+        "text",
+        "ns1|text",
+        "ns1|*",
+        "|text",
+        "*|text",
+        "|*",
+        "[ns2|type]",
+        "[|type]",
+        "[a|title=\"hello\"]",
+        "[*|title$=\"apple\"]",
+        "[|title*=\"pineapple\"]",
+        "webpages > [ns2|href]",
+    };
+
+    private static final String[] EXTRACTED_EXPRESSIONS = {
+        "p",
+        "ul",
+        "section",
+        "div",
+        "body > *",
+        "#outer",
+        "li:first-child",
+        "h1 + p",
+        "nonexistent",
+    };
+
+    private static final String SMALL_DOCUMENT =
+        "<html><head/><body>" +
+        "<div id='first'/><p/><div><p class='note'/><p class='note' title='hello'/></div>" +
+        "</body></html>";
+
+    @Test
+    public void match_shouldMatchSameElementsAsSelector() throws Exception {
+        for (String resource: RESOURCES) {
+            // given
+            Document doc = Documents.load(resource);
+            for (String expression: EXPRESSIONS) {
+                Selector s = Selector.compile(expression);
+                StreamingMatcher matcher = StreamingMatcher.of(s);
+                // when
+                List<Long> actual = matchWithStax(matcher, resource);
+                // then
+                assertThat(actual).as(resource + ": " + expression).isEqualTo(selectOrdinals(s, doc));
+            }
+        }
+    }
+
+    @Test
+    public void createHandler_shouldMatchSameElementsAsSelector() throws Exception {
+        for (String resource: RESOURCES) {
+            // given
+            Document doc = Documents.load(resource);
+            for (String expression: EXPRESSIONS) {
+                Selector s = Selector.compile(expression);
+                StreamingMatcher matcher = StreamingMatcher.of(s);
+                // when
+                List<Long> actual = matchWithSax(matcher, resource);
+                // then
+                assertThat(actual).as(resource + ": " + expression).isEqualTo(selectOrdinals(s, doc));
+            }
+        }
+    }
+
+    @Test
+    public void match_shouldMatchSameElementsAsSelectorWithNamespaces() throws Exception {
+        // given
+        Document doc = Documents.load("/namespace-test.xml");
+        SelectorCompiler compiler = SelectorCompiler.create()
+                .withNamespace("ns1", "http://www.w3.org/2000/svg")
+                .withNamespace("ns2", "http://www.w3.org/1999/xlink")
+                .withNamespace("a", "http://www.example.org/a");
+        for (SelectorCompiler c: new SelectorCompiler[] { compiler, compiler.withDefaultNamespace("http://www.w3.org/2000/svg") }) {
+            for (String expression: NAMESPACE_EXPRESSIONS) {
+                Selector s = c.compile(expression);
+                StreamingMatcher matcher = StreamingMatcher.of(s);
+                // when
+                List<Long> actualStax = matchWithStax(matcher, "/namespace-test.xml");
+                List<Long> actualSax = matchWithSax(matcher, "/namespace-test.xml");
+                // then
+                List<Long> expected = selectOrdinals(s, doc);
+                assertThat(actualStax).as(expression).isEqualTo(expected);
+                assertThat(actualSax).as(expression).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void match_shouldReportPathAndPosition() throws Exception {
+        // given
+        StreamingMatcher matcher = StreamingMatcher.of(Selector.compile("p.note"));
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(SMALL_DOCUMENT));
+        List<String> paths = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        // when
+        matcher.match(reader, match->{
+            paths.add(match.getPath());
+            positions.add(match.getPosition());
+            depths.add(match.getDepth());
+            titles.add(match.getAttributeValue(null, "title"));
+        });
+        // then
+        assertThat(paths).containsExactly("/html[1]/body[1]/div[2]/p[1]", "/html[1]/body[1]/div[2]/p[2]");
+        assertThat(positions).containsExactly(1, 2);
+        assertThat(depths).containsExactly(3, 3);
+        assertThat(titles).containsExactly(null, "hello");
+    }
+
+    @Test
+    public void match_shouldReadOnlySubtreeIfReaderIsAtElement() throws Exception {
+        // given
+        StreamingMatcher matcher = StreamingMatcher.of(Selector.compile("p"));
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(SMALL_DOCUMENT));
+        while (!(reader.isStartElement() && reader.getLocalName().equals("div") && reader.getAttributeCount() == 0)) {
+            reader.next();
+        }
+        List<String> paths = new ArrayList<>();
+        // when
+        matcher.match(reader, match->paths.add(match.getPath()));
+        // then
+        assertThat(paths).containsExactly("/div[1]/p[1]", "/div[1]/p[2]");
+        assertThat(reader.getEventType()).isEqualTo(XMLStreamConstants.END_ELEMENT);
+        assertThat(reader.getLocalName()).isEqualTo("div");
+    }
+
+    @Test
+    public void match_shouldMatchIdentifierDeclaredAsId() throws Exception {
+        // given
+        String document = "<!DOCTYPE doc [<!ATTLIST item key ID #IMPLIED>]>" +
+                "<doc><item key='a'/><item key='b' id='c'/><item xml:id='d'/></doc>";
+        List<String> found = new ArrayList<>();
+        for (String expression: new String[] { "#a", "#b", "#c", "#d" }) {
+            StreamingMatcher matcher = StreamingMatcher.of(Selector.compile(expression));
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(document));
+            // when
+            matcher.match(reader, match->found.add(expression + match.getPath()));
+        }
+        // then
+        assertThat(found).containsExactly("#a/doc[1]/item[1]", "#b/doc[1]/item[2]", "#c/doc[1]/item[2]", "#d/doc[1]/item[3]");
+    }
+
+    @Test
+    public void extract_shouldBuildSameSubtreesAsDocument() throws Exception {
+        for (String resource: RESOURCES) {
+            // given
+            Document doc = Documents.load(resource);
+            for (String expression: EXTRACTED_EXPRESSIONS) {
+                Selector s = Selector.compile(expression);
+                StreamingMatcher matcher = StreamingMatcher.of(s);
+                List<Element> actual = new ArrayList<>();
+                // when
+                try (InputStream in = StreamingMatcherTest.class.getResourceAsStream(resource)) {
+                    XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+                    matcher.extract(reader, actual::add);
+                }
+                // then
+                assertEqualNodes(actual, s.select(doc.getDocumentElement()), resource + ": " + expression);
+            }
+        }
+    }
+
+    @Test
+    public void extract_shouldReturnStreamOfSameSubtreesAsDocument() throws Exception {
+        for (String resource: RESOURCES) {
+            // given
+            Document doc = Documents.load(resource);
+            for (String expression: EXTRACTED_EXPRESSIONS) {
+                Selector s = Selector.compile(expression);
+                StreamingMatcher matcher = StreamingMatcher.of(s);
+                List<Element> actual;
+                // when
+                try (InputStream in = StreamingMatcherTest.class.getResourceAsStream(resource);
+                     Stream<Element> stream = matcher.extract(XMLInputFactory.newInstance().createXMLStreamReader(in))) {
+                    actual = stream.collect(Collectors.toList());
+                }
+                // then
+                assertEqualNodes(actual, s.select(doc.getDocumentElement()), resource + ": " + expression);
+            }
+        }
+    }
+
+    @Test
+    public void createExtractingHandler_shouldBuildSameSubtreesAsDocument() throws Exception {
+        for (String resource: RESOURCES) {
+            // given
+            Document doc = Documents.load(resource);
+            for (String expression: EXTRACTED_EXPRESSIONS) {
+                Selector s = Selector.compile(expression);
+                StreamingMatcher matcher = StreamingMatcher.of(s);
+                List<Element> actual = new ArrayList<>();
+                SAXParserFactory factory = SAXParserFactory.newInstance();
+                factory.setNamespaceAware(true);
+                XMLReader reader = factory.newSAXParser().getXMLReader();
+                ContentHandler handler = matcher.createExtractingHandler(actual::add);
+                reader.setContentHandler(handler);
+                reader.setProperty("http://xml.org/sax/properties/lexical-handler", handler);
+                // when
+                try (InputStream in = StreamingMatcherTest.class.getResourceAsStream(resource)) {
+                    reader.parse(new InputSource(in));
+                }
+                // then
+                assertEqualNodes(actual, s.select(doc.getDocumentElement()), resource + ": " + expression);
+            }
+        }
+    }
+
+    @Test
+    public void extract_shouldPassNestedElementsAsDescendants() throws Exception {
+        // given
+        String document = "<doc><div id='a'><div id='b'><p/></div><!--c--><div id='c'/></div><?pi data?><![CDATA[<d>]]></doc>";
+        StreamingMatcher matcher = StreamingMatcher.of(Selector.compile("div"));
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(document));
+        List<Element> actual = new ArrayList<>();
+        // when
+        matcher.extract(reader, actual::add);
+        // then
+        assertThat(actual).extracting(e->e.getAttribute("id")).containsExactly("a", "b", "c");
+        assertThat(actual.get(0).getParentNode()).isSameAs(actual.get(0).getOwnerDocument());
+        assertThat(actual.get(0).getOwnerDocument().getDocumentElement()).isSameAs(actual.get(0));
+        assertThat(actual.get(1).getParentNode()).isSameAs(actual.get(0));
+        assertThat(actual.get(2).getParentNode()).isSameAs(actual.get(0));
+        assertThat(actual.get(0).getChildNodes().item(1).getNodeType()).isEqualTo(Node.COMMENT_NODE);
+        assertThat(actual.get(1).getAttributeNode("id").isId()).isTrue();
+    }
+
+    @Test
+    public void extract_shouldPassElementsSearchableBySelectors() throws Exception {
+        // given
+        String document = "<doc><a><b/><c><b/></c></a><a/><b/></doc>";
+        StreamingMatcher matcher = StreamingMatcher.of(Selector.compile("a"));
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(document));
+        List<Element> extracted = new ArrayList<>();
+        matcher.extract(reader, extracted::add);
+        // when
+        List<Element> actual = Selector.compile("b").select(extracted.get(0));
+        // then
+        assertThat(actual).hasSize(2);
+        assertThat(Selector.compile("c > b").select(extracted.get(0))).hasSize(1);
+        assertThat(Selector.compile("b").select(extracted.get(1))).isEmpty();
+    }
+
+    @Test
+    public void extract_shouldReadStreamLazily() throws Exception {
+        // given
+        StreamingMatcher matcher = StreamingMatcher.of(Selector.compile("p.note"));
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(SMALL_DOCUMENT));
+        // when
+        try (Stream<Element> stream = matcher.extract(reader)) {
+            Element first = stream.findFirst().get();
+            // then
+            assertThat(first.getAttribute("title")).isEmpty();
+            assertThat(reader.getEventType()).isEqualTo(XMLStreamConstants.END_ELEMENT);
+            assertThat(reader.getLocalName()).isEqualTo("p");
+        }
+    }
+
+    @Test
+    public void of_shouldThrowExceptionIfSelectorDependsOnFollowingElements() {
+        String[] expressions = {
+            "li:last-child",
+            "li:only-child",
+            ":last-of-type",
+            ":only-of-type",
+            "li:nth-last-child(2)",
+            "dd:nth-last-of-type(1)",
+            ":empty",
+            "p:not(:empty)",
+            "ul:last-child > li",
+            "p, li:last-child",
+        };
+        for (String expression: expressions) {
+            Selector s = Selector.compile(expression);
+            Throwable thrown = catchThrowable(()->{
+                StreamingMatcher.of(s);
+            });
+            assertThat(thrown).as(expression).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Pseudo-class");
+        }
+    }
+
+    @Test
+    public void of_shouldThrowExceptionIfSelectorIsNull() {
+        Throwable thrown = catchThrowable(()->{
+            StreamingMatcher.of(null);
+        });
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void match_shouldThrowExceptionIfActionIsNull() throws Exception {
+        StreamingMatcher matcher = StreamingMatcher.of(Selector.compile("p"));
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(SMALL_DOCUMENT));
+        Throwable thrown = catchThrowable(()->{
+            matcher.match(reader, null);
+        });
+        assertThat(thrown).isInstanceOf(NullPointerException.class);
+    }
+
+    private static void assertEqualNodes(List<Element> actual, List<Element> expected, String description) {
+        assertThat(actual).as(description).hasSameSizeAs(expected);
+        for (int i = 0; i < actual.size(); i++) {
+            assertThat(actual.get(i).isEqualNode(expected.get(i))).as(description + " at " + i).isTrue();
+        }
+    }
+
+    private static List<Long> selectOrdinals(Selector selector, Document doc) {
+        List<Element> all = Documents.descentandsOf(doc.getDocumentElement());
+        List<Long> ordinals = new ArrayList<>();
+        for (Element element: selector.select(doc.getDocumentElement())) {
+            ordinals.add((long)all.indexOf(element));
+        }
+        return ordinals;
+    }
+
+    private static List<Long> matchWithStax(StreamingMatcher matcher, String resource) throws Exception {
+        List<Long> ordinals = new ArrayList<>();
+        try (InputStream in = StreamingMatcherTest.class.getResourceAsStream(resource)) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            matcher.match(reader, match->ordinals.add(match.getOrdinal()));
+            reader.close();
+        }
+        return ordinals;
+    }
+
+    private static List<Long> matchWithSax(StreamingMatcher matcher, String resource) throws Exception {
+        List<Long> ordinals = new ArrayList<>();
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        XMLReader reader = factory.newSAXParser().getXMLReader();
+        reader.setContentHandler(matcher.createHandler(match->ordinals.add(match.getOrdinal())));
+        try (InputStream in = StreamingMatcherTest.class.getResourceAsStream(resource)) {
+            reader.parse(new InputSource(in));
+        }
+        return ordinals;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.functional;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.DocumentIndex;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+
+/**
+ * Tests for class selectors and "~=" attribute selectors
+ * matching the lists of values separated by whitespace.
+ */
+@RunWith(Parameterized.class)
+public class WhitespaceListTest {
+
+    @Parameters(name = "{index}: {1}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "first", ".first", true },
+            { "first second", ".second", true },
+            { "  first  second  ", ".first.second", true },
+            { "first\tsecond\nthird\fforth\rfifth", ".first.second.third.forth.fifth", true },
+            { "first\u000bsecond", ".first", false },
+            { "first\u000bsecond", ".second", false },
+            { "firstsecond", ".first", false },
+            { "first-second", ".second", false },
+            { "", ".first", false },
+            { " \t ", ".first", false },
+            { "first\tsecond", "[class~=second]", true },
+            { "first second", "[class~=\"first second\"]", false },
+            { "first second", "[class~=\"\"]", false },
+            { "first second", "[class~=sec]", false },
+        });
+    }
+
+    private final String classList;
+    private final String expression;
+    private final boolean expected;
+
+    public WhitespaceListTest(String classList, String expression, boolean expected) {
+        this.classList = classList;
+        this.expression = expression;
+        this.expected = expected;
+    }
+
+    @Test
+    public void select_shouldMatchTheClassList() {
+        // given
+        Document doc = createDocument(classList);
+        Selector s = Selector.compile(expression);
+        // when
+        int actual = s.count(doc.getDocumentElement());
+        // then
+        assertThat(actual).isEqualTo(expected ? 1 : 0);
+    }
+
+    @Test
+    public void select_shouldMatchTheClassListWithIndex() {
+        // given
+        Document doc = createDocument(classList);
+        DocumentIndex.attach(doc);
+        Selector s = Selector.compile(expression);
+        // when
+        int actual = s.count(doc.getDocumentElement());
+        // then
+        assertThat(actual).isEqualTo(expected ? 1 : 0);
+    }
+
+    @Test
+    public void select_shouldMatchTheClassListOfAncestor() {
+        // given
+        Document doc = createDocument(classList);
+        Selector s = Selector.compile(expression + " span");
+        // when
+        int actual = s.count(doc.getDocumentElement());
+        // then
+        assertThat(actual).isEqualTo(expected ? 1 : 0);
+    }
+
+    private static Document createDocument(String classList) {
+        Document doc = Documents.empty();
+        Element html = doc.createElementNS(null, "html");
+        doc.appendChild(html);
+        Element body = doc.createElementNS(null, "body");
+        html.appendChild(body);
+        Element p = doc.createElementNS(null, "p");
+        p.setAttribute("class", classList);
+        body.appendChild(p);
+        p.appendChild(doc.createElementNS(null, "span"));
+        return doc;
+    }
+}
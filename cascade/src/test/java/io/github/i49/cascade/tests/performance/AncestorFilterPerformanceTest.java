@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Measures the effect of the ancestor filter.
+ *
+ * <p>{@link Selector#count(Element)} rejects the candidates by the keys of their ancestors,
+ * while {@link Selector#stream(Element)} tests every candidate.
+ * The reject rate is the ratio of the candidates matching the last sequence
+ * which lack the keys required in their ancestors.
+ * The selectors without any required keys show the difference between the two methods
+ * which is not caused by the filter.</p>
+ */
+@RunWith(Parameterized.class)
+public class AncestorFilterPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(AncestorFilterPerformanceTest.class.getName());
+
+    private static Document html5;
+    private static Document deep;
+
+    @Parameters(name = "{index}: {1}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "html5", "p", "p", new String[] {} },
+            { "html5", "form fieldset p", "p", new String[] { "form", "fieldset" } },
+            { "html5", "#forms label", "label", new String[] { "#forms" } },
+            { "html5", "table tr > td", "td", new String[] { "table", "tr" } },
+            { "html5", "nav ul li a", "a", new String[] { "nav", "ul", "li" } },
+            { "deep", "span", "span", new String[] {} },
+            { "deep", ".level3 .level7 span", "span", new String[] { ".level3", ".level7" } },
+            { "deep", ".missing span", "span", new String[] { ".missing" } },
+            { "deep", "#chain3 span", "span", new String[] { "#chain3" } },
+            { "deep", "#chain3 .level2 > span ~ div", "div", new String[] { "#chain3", ".level2" } },
+        });
+    }
+
+    private final String documentName;
+    private final String expression;
+    private final String candidateExpression;
+    private final String[] keyExpressions;
+
+    public AncestorFilterPerformanceTest(String documentName, String expression,
+            String candidateExpression, String[] keyExpressions) {
+        this.documentName = documentName;
+        this.expression = expression;
+        this.candidateExpression = candidateExpression;
+        this.keyExpressions = keyExpressions;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        html5 = Documents.load("/html5-test.html");
+        deep = SyntheticDocuments.nested(200, 50);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        html5 = null;
+        deep = null;
+    }
+
+    @Test
+    public void testAncestorFilter() {
+        boolean isDeep = documentName.equals("deep");
+        Element root = (isDeep ? deep : html5).getDocumentElement();
+        int repeat = isDeep ? 20 : 10000;
+        Selector selector = Selector.compile(expression);
+        long elapsed1 = profile(()->selector.stream(root).count(), repeat);
+        long elapsed2 = profile(()->selector.count(root), repeat);
+        log.info(documentName + ": selector = \"" + expression + "\", reject rate = " +
+                String.format("%.1f", rejectRate(root) * 100) + " [%], without filter = " + elapsed1 +
+                " [ms], with filter = " + elapsed2 + " [ms]");
+    }
+
+    private double rejectRate(Element root) {
+        List<Element> candidates = Selector.compile(candidateExpression).select(root);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        List<Set<Element>> keyElements = new ArrayList<>();
+        for (String keyExpression: keyExpressions) {
+            keyElements.add(select(keyExpression, root));
+        }
+        int rejected = 0;
+        for (Element candidate: candidates) {
+            for (Set<Element> ancestors: keyElements) {
+                if (!hasAncestor(candidate, root, ancestors)) {
+                    rejected++;
+                    break;
+                }
+            }
+        }
+        return (double)rejected / candidates.size();
+    }
+
+    private static Set<Element> select(String expression, Element root) {
+        Set<Element> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        selected.addAll(Selector.compile(expression).select(root));
+        return selected;
+    }
+
+    private static boolean hasAncestor(Element element, Element root, Set<Element> ancestors) {
+        Node parent = element.getParentNode();
+        while (parent != root) {
+            if (ancestors.contains(parent)) {
+                return true;
+            }
+            parent = parent.getParentNode();
+        }
+        return false;
+    }
+
+    private static long profile(Runnable runnable, int repeat) {
+        // warm-up
+        for (int i = 0; i <= repeat / 10; i++) {
+            runnable.run();
+        }
+        long startTime = System.nanoTime();
+        int i = repeat;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
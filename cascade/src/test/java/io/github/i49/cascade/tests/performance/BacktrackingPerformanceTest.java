@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntFunction;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Measures selectors which make the combinators backtrack,
+ * growing the size of the document.
+ */
+@RunWith(Parameterized.class)
+public class BacktrackingPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(BacktrackingPerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 10;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        IntFunction<Document> deep = SyntheticDocuments::deepChain;
+        IntFunction<Document> wide = SyntheticDocuments::wideFanout;
+        int[] depths = { 10, 20, 40, 80, 160 };
+        int[] widths = { 10, 20, 40, 80 };
+        return Arrays.asList(new Object[][] {
+            { "div:empty div div p", deep, depths },
+            { "div:empty div div div p", deep, depths },
+            { "div:empty div div div div p", deep, depths },
+            { "li:first-child:last-child ~ li ~ li ~ li", wide, widths },
+            { ".nonexistent ~ li ~ li ~ li", wide, widths },
+        });
+    }
+
+    private final String expression;
+    private final IntFunction<Document> generator;
+    private final int[] sizes;
+
+    public BacktrackingPerformanceTest(String expression, IntFunction<Document> generator, int[] sizes) {
+        this.expression = expression;
+        this.generator = generator;
+        this.sizes = sizes;
+    }
+
+    @Test
+    public void testGrowingDocument() {
+        Selector selector = Selector.compile(expression);
+        StringBuilder b = new StringBuilder();
+        for (int size: sizes) {
+            Element root = generator.apply(size).getDocumentElement();
+            long elapsed = profile(()->selector.select(root));
+            if (b.length() > 0) {
+                b.append(", ");
+            }
+            b.append(size).append(": ").append(elapsed);
+        }
+        log.info("selector = \"" + expression + "\", elapsed by size = " + b + " [ms]");
+    }
+
+    private static long profile(Runnable runnable) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        int i = REPEAT_COUNT;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Measures the time and the memory allocated by class and whitespace-separated attribute matching.
+ *
+ * <p>The allocated memory is obtained from the JVM by {@code com.sun.management.ThreadMXBean},
+ * which is reported as -1 if the JVM does not support it.</p>
+ */
+@RunWith(Parameterized.class)
+public class ClassMatchingPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(ClassMatchingPerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 100;
+
+    private static Document doc;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { ".item" },
+            { ".rare" },
+            { "li.item.odd.selected" },
+            { "[class~=selected]" },
+            { "*|*[class~=even]" },
+            { ".section li.selected a" },
+            { ".section .item a" },
+        });
+    }
+
+    private final String expression;
+
+    public ClassMatchingPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(50000);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void testLargeDocument() {
+        Selector selector = Selector.compile(expression);
+        Element root = doc.getDocumentElement();
+        // warm-up
+        for (int i = 0; i < REPEAT_COUNT / 10; i++) {
+            selector.count(root);
+        }
+        long startBytes = allocatedBytes();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < REPEAT_COUNT; i++) {
+            selector.count(root);
+        }
+        long endTime = System.nanoTime();
+        long endBytes = allocatedBytes();
+        long elapsed = (endTime - startTime) / (1000 * 1000);
+        long allocated = (startBytes >= 0) ? (endBytes - startBytes) / REPEAT_COUNT : -1;
+        log.info("selector = \"" + expression + "\", elapsed = " + elapsed +
+                " [ms], allocated = " + allocated + " [bytes/op]");
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean extended = (com.sun.management.ThreadMXBean)bean;
+            if (extended.isThreadAllocatedMemorySupported() && extended.isThreadAllocatedMemoryEnabled()) {
+                return extended.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Compares the interpreted selectors and the selectors using generated classes.
+ *
+ * <p>All the selectors are run once before measuring,
+ * so that the call sites of the interpreter see many types of the matchers
+ * as they do in an application using various selectors.</p>
+ */
+@RunWith(Parameterized.class)
+public class CodeGenerationPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(CodeGenerationPerformanceTest.class.getName());
+    private static final int ELEMENT_COUNT = 100000;
+    private static final int REPEAT_COUNT = 100;
+
+    private static final String[] EXPRESSIONS = {
+        "li",
+        "li.selected a",
+        "ul > li.rare a",
+        "li:nth-child(2n+1) a",
+        "li.odd + li.even",
+        "li.odd ~ li.rare",
+        "a[href$=\"7\"]",
+        "div ul li:not(.odd) a",
+        "body div ul > li > a",
+    };
+
+    private static Document doc;
+
+    private final String expression;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        List<Object[]> parameters = new ArrayList<>();
+        for (String expression: EXPRESSIONS) {
+            parameters.add(new Object[] { expression });
+        }
+        return parameters;
+    }
+
+    public CodeGenerationPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(ELEMENT_COUNT);
+        Element root = doc.getDocumentElement();
+        SelectorCompiler compiler = SelectorCompiler.create();
+        for (SelectorCompiler c: Arrays.asList(compiler, compiler.withCodeGeneration(true))) {
+            for (String expression: EXPRESSIONS) {
+                c.compile(expression).select(root);
+            }
+        }
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void testSelection() {
+        SelectorCompiler compiler = SelectorCompiler.create();
+        Selector interpreted = compiler.compile(expression);
+        Selector generated = compiler.withCodeGeneration(true).compile(expression);
+        Element root = doc.getDocumentElement();
+        long elapsed1 = profile(()->interpreted.select(root), REPEAT_COUNT);
+        long elapsed2 = profile(()->generated.select(root), REPEAT_COUNT);
+        log.info("selector = \"" + expression + "\", interpreted = " + elapsed1 +
+                " [ms], generated = " + elapsed2 + " [ms]");
+    }
+
+    @Test
+    public void testCompilation() {
+        if (!EXPRESSIONS[0].equals(expression)) {
+            return;
+        }
+        SelectorCompiler compiler = SelectorCompiler.create();
+        SelectorCompiler generating = compiler.withCodeGeneration(true);
+        long elapsed1 = profile(()->compileAll(compiler), REPEAT_COUNT);
+        long elapsed2 = profile(()->compileAll(generating), REPEAT_COUNT);
+        log.info("compiling " + EXPRESSIONS.length + " selectors " + REPEAT_COUNT + " times: interpreted = " +
+                elapsed1 + " [ms], generated = " + elapsed2 + " [ms]");
+    }
+
+    private static void compileAll(SelectorCompiler compiler) {
+        for (String expression: EXPRESSIONS) {
+            compiler.compile(expression);
+        }
+    }
+
+    private static long profile(Runnable runnable, int repeat) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        int i = repeat;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
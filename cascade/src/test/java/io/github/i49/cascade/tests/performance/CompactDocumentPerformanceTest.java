@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.CompactDocument;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Compares the selections from the DOM and from {@link CompactDocument}.
+ */
+@RunWith(Parameterized.class)
+public class CompactDocumentPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(CompactDocumentPerformanceTest.class.getName());
+    private static final int ELEMENT_COUNT = 100000;
+    private static final int REPEAT_COUNT = 100;
+
+    private static Document doc;
+    private static CompactDocument compact;
+
+    private final String expression;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "*" },
+            { "li" },
+            { ".rare" },
+            { "li.selected a" },
+            { "ul > li.rare a" },
+            { "li:nth-child(2n+1)" },
+            { "li.odd + li.even" },
+            { "a[href$=\"7\"]" },
+            { "#section3 li.item" },
+        });
+    }
+
+    public CompactDocumentPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(ELEMENT_COUNT);
+        compact = CompactDocument.of(doc);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+        compact = null;
+    }
+
+    @Test
+    public void testSelection() {
+        Selector selector = Selector.compile(expression);
+        Element root = doc.getDocumentElement();
+        long elapsed1 = profile(()->selector.select(root), REPEAT_COUNT);
+        long elapsed2 = profile(()->compact.select(selector, root), REPEAT_COUNT);
+        log.info("selector = \"" + expression + "\", DOM = " + elapsed1 +
+                " [ms], compact = " + elapsed2 + " [ms]");
+    }
+
+    @Test
+    public void testTraversal() {
+        if (!"*".equals(expression)) {
+            return;
+        }
+        Element root = doc.getDocumentElement();
+        long elapsed1 = profile(()->Documents.walkTree(root, e->{}), REPEAT_COUNT);
+        long elapsed2 = profile(()->walkTree(compact, 0), REPEAT_COUNT);
+        long elapsed3 = profile(()->CompactDocument.of(doc), 10) / 10;
+        log.info("traversal of " + compact.size() + " elements: DOM = " + elapsed1 +
+                " [ms], compact = " + elapsed2 + " [ms], building once = " + elapsed3 + " [ms]");
+    }
+
+    @Test
+    public void testHeapFootprint() {
+        if (!"*".equals(expression)) {
+            return;
+        }
+        long before = usedHeap();
+        Document other = SyntheticDocuments.large(ELEMENT_COUNT);
+        long afterDocument = usedHeap();
+        CompactDocument otherCompact = CompactDocument.of(other);
+        long afterCompact = usedHeap();
+        int size = otherCompact.size();
+        log.info("elements = " + size +
+                ", DOM = " + ((afterDocument - before) / size) + " [bytes/element]" +
+                ", compact = " + ((afterCompact - afterDocument) / size) + " [bytes/element]");
+    }
+
+    /**
+     * Visits all elements in the subtree through the numbers of the elements.
+     *
+     * @param compact the compact document.
+     * @param start the number of the root of the subtree.
+     * @return the number of the elements visited.
+     */
+    private static int walkTree(CompactDocument compact, int start) {
+        int count = 0;
+        int ordinal = start;
+        while (ordinal >= 0) {
+            count++;
+            int next = compact.getFirstChild(ordinal);
+            if (next < 0) {
+                while (ordinal != start) {
+                    next = compact.getNextSibling(ordinal);
+                    if (next >= 0) {
+                        break;
+                    }
+                    ordinal = compact.getParent(ordinal);
+                }
+            }
+            ordinal = next;
+        }
+        return count;
+    }
+
+    private static long profile(Runnable runnable, int repeat) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        int i = repeat;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
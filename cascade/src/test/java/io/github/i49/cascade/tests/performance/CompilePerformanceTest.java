@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+import io.github.i49.cascade.api.SelectorCache;
+import io.github.i49.cascade.api.SelectorCompiler;
+
+/**
+ * Measures compiling the same expressions repeatedly with and without a cache.
+ */
+public class CompilePerformanceTest {
+
+    private static final Logger log = Logger.getLogger(CompilePerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 20000;
+
+    private static final String[] EXPRESSIONS = {
+        "div p",
+        "ul > li.selected:nth-child(2n+1) a[href^=\"http\"]",
+        "#main .section h1 + p ~ p:not(.note)",
+        "html|table[border], html|td:first-of-type",
+    };
+
+    @Test
+    public void testWithoutCache() {
+        SelectorCompiler compiler = SelectorCompiler.create()
+                .withNamespace("html", "http://www.w3.org/1999/xhtml");
+        long elapsed = profile(compiler);
+        log.info("without cache: elapsed = " + elapsed + " [ms]");
+    }
+
+    @Test
+    public void testWithCache() {
+        SelectorCache cache = SelectorCache.create(100);
+        SelectorCompiler compiler = SelectorCompiler.create()
+                .withNamespace("html", "http://www.w3.org/1999/xhtml")
+                .withCache(cache);
+        long elapsed = profile(compiler);
+        log.info("with cache: elapsed = " + elapsed + " [ms], hits = " + cache.getHitCount() +
+                ", misses = " + cache.getMissCount());
+    }
+
+    private static long profile(SelectorCompiler compiler) {
+        // warm-up
+        for (int i = 0; i < REPEAT_COUNT / 10; i++) {
+            compiler.compile(EXPRESSIONS[i % EXPRESSIONS.length]);
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < REPEAT_COUNT; i++) {
+            compiler.compile(EXPRESSIONS[i % EXPRESSIONS.length]);
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.tests.functional.Html5Test;
+import io.github.i49.cascade.tests.functional.ParsingTest;
+
+/**
+ * Measures the throughput of compiling the expressions used in the functional tests.
+ */
+public class CompileThroughputPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(CompileThroughputPerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 1000;
+
+    @Test
+    public void testParsingExpressions() {
+        List<String> expressions = collect(ParsingTest.parameters());
+        profile("ParsingTest", expressions);
+    }
+
+    @Test
+    public void testHtml5Expressions() {
+        List<String> expressions = collect(Html5Test.parameters());
+        profile("Html5Test", expressions);
+    }
+
+    private static List<String> collect(Iterable<Object[]> parameters) {
+        List<String> expressions = new ArrayList<>();
+        for (Object[] parameter: parameters) {
+            expressions.add((String)parameter[0]);
+        }
+        return expressions;
+    }
+
+    private static void profile(String name, List<String> expressions) {
+        SelectorCompiler compiler = SelectorCompiler.create()
+                .withNamespace("ns", "http://www.example.com");
+        // warm-up
+        for (int i = 0; i < REPEAT_COUNT / 10; i++) {
+            compileAll(compiler, expressions);
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < REPEAT_COUNT; i++) {
+            compileAll(compiler, expressions);
+        }
+        long endTime = System.nanoTime();
+        long compiled = (long)REPEAT_COUNT * expressions.size();
+        long elapsed = (endTime - startTime) / (1000 * 1000);
+        long throughput = compiled * 1000 * 1000 * 1000 / Math.max(1, endTime - startTime);
+        log.info(name + ": " + expressions.size() + " expressions, elapsed = " + elapsed +
+                " [ms], throughput = " + throughput + " [compiles/s]");
+    }
+
+    private static void compileAll(SelectorCompiler compiler, List<String> expressions) {
+        for (String expression: expressions) {
+            compiler.compile(expression);
+        }
+    }
+}
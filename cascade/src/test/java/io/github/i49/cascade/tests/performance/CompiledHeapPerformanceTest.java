@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+
+/**
+ * Measures the heap retained by many compiled selectors
+ * which consist of the names commonly found in stylesheets.
+ */
+public class CompiledHeapPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(CompiledHeapPerformanceTest.class.getName());
+    private static final int SELECTOR_COUNT = 50000;
+
+    private static final String[] TYPES = { "div", "p", "ul", "li", "a", "span", "h1", "h2", "table", "td" };
+
+    @Test
+    public void testHeapFootprint() {
+        List<String> expressions = generateExpressions(SELECTOR_COUNT);
+        SelectorCompiler compiler = SelectorCompiler.create();
+        long before = usedHeap();
+        List<Selector> selectors = new ArrayList<>(expressions.size());
+        for (String expression: expressions) {
+            selectors.add(compiler.compile(expression));
+        }
+        long after = usedHeap();
+        log.info("selectors = " + selectors.size() +
+                ", retained = " + ((after - before) / 1024) + " [KiB]" +
+                ", per selector = " + ((after - before) / selectors.size()) + " [bytes]");
+    }
+
+    private static List<String> generateExpressions(int count) {
+        Random random = new Random(42);
+        List<String> expressions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder b = new StringBuilder();
+            int sequences = 1 + random.nextInt(3);
+            for (int j = 0; j < sequences; j++) {
+                if (j > 0) {
+                    b.append(random.nextBoolean() ? " " : " > ");
+                }
+                b.append(TYPES[random.nextInt(TYPES.length)]);
+                switch (random.nextInt(4)) {
+                case 0:
+                    b.append(".c").append(random.nextInt(200));
+                    break;
+                case 1:
+                    b.append("[data-role=\"r").append(random.nextInt(50)).append("\"]");
+                    break;
+                case 2:
+                    b.append(":nth-child(").append(1 + random.nextInt(5)).append("n+1)");
+                    break;
+                default:
+                    break;
+                }
+            }
+            expressions.add(b.toString());
+        }
+        return expressions;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Measures the compound selectors whose expensive simple selectors precede the cheap ones.
+ */
+@RunWith(Parameterized.class)
+public class CompoundOrderPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(CompoundOrderPerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 50;
+
+    private static Document doc;
+    private static int numberOfElements;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "[class*=\"lect\"].rare" },
+            { ":nth-child(3n+1).rare" },
+            { ":nth-last-of-type(2).selected" },
+            { ":not(.odd).rare" },
+            { ":first-child.selected" },
+        });
+    }
+
+    private final String expression;
+
+    public CompoundOrderPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(50000);
+        Selector all = Selector.compile("*");
+        // warm-up shared by all selectors
+        for (int i = 0; i < REPEAT_COUNT; i++) {
+            numberOfElements = all.count(doc.getDocumentElement());
+        }
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void testLargeDocument() {
+        Selector selector = Selector.compile(expression);
+        Element root = doc.getDocumentElement();
+        int found = 0;
+        // warm-up
+        for (int i = 0; i < REPEAT_COUNT / 10; i++) {
+            found = selector.count(root);
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < REPEAT_COUNT; i++) {
+            selector.count(root);
+        }
+        long elapsed = System.nanoTime() - startTime;
+        log.info("selector = \"" + expression + "\", found = " + found +
+                ", elapsed = " + (elapsed / (1000 * 1000)) + " [ms]" +
+                ", per element = " + (elapsed / REPEAT_COUNT / numberOfElements) + " [ns]");
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.DocumentIndex;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Compares selectors with and without {@link DocumentIndex}.
+ */
+@RunWith(Parameterized.class)
+public class DocumentIndexPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(DocumentIndexPerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 1000;
+
+    private static Document html5;
+    private static Document large;
+
+    private final String expression;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "article" },
+            { "figcaption" },
+            { "li" },
+            { ".rare" },
+            { "li.selected" },
+            { "ul > li.rare a" },
+            { "input[type|=datetime]" },
+        });
+    }
+
+    public DocumentIndexPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        html5 = Documents.load("/html5-test.html");
+        large = SyntheticDocuments.large(100000);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        html5 = null;
+        large = null;
+    }
+
+    @Test
+    public void testHtml5() {
+        profileDocument("html5-test.html", html5, REPEAT_COUNT * 10);
+    }
+
+    @Test
+    public void testLargeDocument() {
+        profileDocument("large document", large, REPEAT_COUNT / 10);
+    }
+
+    private void profileDocument(String name, Document doc, int repeat) {
+        Selector selector = Selector.compile(expression);
+        Element root = doc.getDocumentElement();
+        long elapsed1 = profile(()->selector.select(root), repeat);
+        DocumentIndex.attach(doc);
+        try {
+            long elapsed2 = profile(()->selector.select(root), repeat);
+            log.info(name + ": selector = \"" + expression + "\", without index = " + elapsed1 +
+                    " [ms], with index = " + elapsed2 + " [ms]");
+        } finally {
+            DocumentIndex.detach(doc);
+        }
+    }
+
+    private static long profile(Runnable runnable, int repeat) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        int i = repeat;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
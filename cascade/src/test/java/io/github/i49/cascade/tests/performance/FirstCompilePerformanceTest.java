@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+import io.github.i49.cascade.api.Selector;
+
+/**
+ * Measures the latency of the first compilation on each thread newly started.
+ */
+public class FirstCompilePerformanceTest {
+
+    private static final Logger log = Logger.getLogger(FirstCompilePerformanceTest.class.getName());
+    private static final int THREAD_COUNT = 2000;
+
+    @Test
+    public void testFreshThreads() throws InterruptedException {
+        // warm-up
+        Selector.compile("div p");
+        long[] latencies = new long[THREAD_COUNT];
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            final int index = i;
+            Thread thread = new Thread(()->{
+                long startTime = System.nanoTime();
+                Selector.compile("div p");
+                latencies[index] = System.nanoTime() - startTime;
+            });
+            thread.start();
+            thread.join();
+        }
+        long total = 0;
+        long max = 0;
+        for (long latency: latencies) {
+            total += latency;
+            max = Math.max(max, latency);
+        }
+        log.info("threads = " + THREAD_COUNT +
+                ", average = " + (total / THREAD_COUNT / 1000) + " [us]" +
+                ", max = " + (max / 1000) + " [us]");
+    }
+}
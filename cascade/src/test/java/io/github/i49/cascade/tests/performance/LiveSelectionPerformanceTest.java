@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.LiveSelection;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Compares selecting again after each modification with keeping a live selection.
+ */
+@RunWith(Parameterized.class)
+public class LiveSelectionPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(LiveSelectionPerformanceTest.class.getName());
+    private static final int MODIFICATION_COUNT = 200;
+
+    private final String expression;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "li.selected a" },
+            { "div.section li.selected" },
+            { "li.selected + li" },
+            { "li.selected:nth-child(2n+1)" },
+        });
+    }
+
+    public LiveSelectionPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @Test
+    public void testLargeDocument() {
+        Selector selector = Selector.compile(expression);
+        long elapsed1 = profile(doc->{
+            Element root = doc.getDocumentElement();
+            modifyDocument(doc, ()->selector.select(root));
+        });
+        long elapsed2 = profile(doc->{
+            try (LiveSelection selection = LiveSelection.create(selector, doc.getDocumentElement())) {
+                modifyDocument(doc, selection::getElements);
+            }
+        });
+        log.info("selector = \"" + expression + "\", modifications = " + MODIFICATION_COUNT +
+                ", select again = " + elapsed1 + " [ms], live = " + elapsed2 + " [ms]");
+    }
+
+    /**
+     * Toggles the class of the items in the document.
+     *
+     * @param doc the document to modify.
+     * @param reader the task reading the result after each modification.
+     */
+    private static void modifyDocument(Document doc, Runnable reader) {
+        List<Element> items = Documents.descentandsOf(doc.getDocumentElement());
+        Random random = new Random(42);
+        for (int i = 0; i < MODIFICATION_COUNT; i++) {
+            Element item = items.get(random.nextInt(items.size()));
+            String classList = item.getAttribute("class");
+            if (classList.contains("selected")) {
+                item.setAttribute("class", "item");
+            } else {
+                item.setAttribute("class", "item selected");
+            }
+            reader.run();
+        }
+    }
+
+    private static long profile(Consumer<Document> task) {
+        // warm-up
+        task.accept(SyntheticDocuments.large(50000));
+        Document doc = SyntheticDocuments.large(50000);
+        long startTime = System.nanoTime();
+        task.accept(doc);
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
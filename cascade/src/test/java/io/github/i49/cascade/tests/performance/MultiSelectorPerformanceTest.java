@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.MultiSelector;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Compares running selectors one after another with running them in a batch.
+ */
+@RunWith(Parameterized.class)
+public class MultiSelectorPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(MultiSelectorPerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 1000;
+
+    private static Document doc;
+
+    private final int numberOfSelectors;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { 1 },
+            { 10 },
+            { 100 },
+            { 1000 },
+        });
+    }
+
+    public MultiSelectorPerformanceTest(int numberOfSelectors) {
+        this.numberOfSelectors = numberOfSelectors;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(20000);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void testLargeDocument() {
+        List<Selector> selectors = createSelectors(numberOfSelectors);
+        MultiSelector batch = MultiSelector.of(selectors);
+        Element root = doc.getDocumentElement();
+        // keeps the total number of the selections almost constant.
+        int repeat = Math.max(REPEAT_COUNT / numberOfSelectors, 1);
+        long elapsed1 = profile(()->{
+            for (Selector selector: selectors) {
+                selector.select(root);
+            }
+        }, repeat);
+        long elapsed2 = profile(()->batch.select(root), repeat);
+        log.info("selectors = " + numberOfSelectors + ", repeat = " + repeat +
+                ", one after another = " + elapsed1 + " [ms], batch = " + elapsed2 + " [ms]");
+    }
+
+    private static List<Selector> createSelectors(int count) {
+        List<Selector> selectors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String expression;
+            switch (i % 5) {
+            case 0:
+                expression = "#section" + i + " a";
+                break;
+            case 1:
+                expression = "li.item:nth-child(" + (i % 20 + 1) + ")";
+                break;
+            case 2:
+                expression = "div.section:nth-of-type(" + i + ") p";
+                break;
+            case 3:
+                expression = "ul > li.selected [href=\"#item" + i + "\"]";
+                break;
+            default:
+                expression = "#section" + i;
+                break;
+            }
+            selectors.add(Selector.compile(expression));
+        }
+        return selectors;
+    }
+
+    private static long profile(Runnable runnable, int repeat) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        int i = repeat;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Measures structural pseudo-classes on a parent with many children, growing the number of the children.
+ */
+@RunWith(Parameterized.class)
+public class NthIndexPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(NthIndexPerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 10;
+    private static final int[] WIDTHS = { 1000, 2000, 4000, 8000 };
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "li:nth-child(2n+1)" },
+            { "li:nth-last-child(3n)" },
+            { "li:nth-of-type(odd)" },
+            { "li:nth-last-of-type(-n+10)" },
+            { "li:last-of-type" },
+            { "li:only-of-type" },
+        });
+    }
+
+    private final String expression;
+
+    public NthIndexPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @Test
+    public void testWideFanout() {
+        Selector selector = Selector.compile(expression);
+        StringBuilder b = new StringBuilder();
+        for (int width: WIDTHS) {
+            Element root = SyntheticDocuments.wideFanout(width).getDocumentElement();
+            long elapsed = profile(()->selector.select(root));
+            if (b.length() > 0) {
+                b.append(", ");
+            }
+            b.append(width).append(": ").append(elapsed);
+        }
+        log.info("selector = \"" + expression + "\", elapsed by width = " + b + " [ms]");
+    }
+
+    private static long profile(Runnable runnable) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        int i = REPEAT_COUNT;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.ParallelOptions;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Compares sequential and parallel searches of a large document.
+ */
+@RunWith(Parameterized.class)
+public class ParallelPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(ParallelPerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 20;
+
+    private static Document doc;
+
+    private final String expression;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "li" },
+            { "li.selected" },
+            { "div > ul > li:nth-child(2n+1) a" },
+            { "ul li.selected ~ li a" },
+            { "body div ul li a[href$='0']" },
+        });
+    }
+
+    public ParallelPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(200000);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void testLargeDocument() {
+        Selector selector = Selector.compile(expression);
+        Element root = doc.getDocumentElement();
+        ParallelOptions options = ParallelOptions.defaults();
+        long elapsed1 = profile(()->selector.select(root));
+        long elapsed2 = profile(()->selector.select(root, options));
+        log.info("selector = \"" + expression + "\", sequential = " + elapsed1 +
+                " [ms], parallel = " + elapsed2 + " [ms]");
+    }
+
+    private static long profile(Runnable runnable) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        int i = REPEAT_COUNT;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
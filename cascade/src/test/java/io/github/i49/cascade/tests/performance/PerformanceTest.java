@@ -81,6 +81,38 @@ public class PerformanceTest {
         profileSelector(selector, fixture.getStartElement(), fixture.getExpression());
     }
 
+    @Test
+    public void testSelectFirst() {
+        Selector selector = Selector.compile(fixture.getExpression());
+        Element start = fixture.getStartElement();
+        long elapsed1 = profile(()->{
+            List<Element> selected = selector.select(start);
+            if (!selected.isEmpty()) {
+                selected.get(0);
+            }
+        });
+        long elapsed2 = profile(()->{ selector.selectFirst(start); });
+        log.info("selectFirst: selector = \"" + fixture.getExpression() + "\", elapsed = " + elapsed1 + " : " + elapsed2 + " [ms]");
+    }
+
+    @Test
+    public void testExists() {
+        Selector selector = Selector.compile(fixture.getExpression());
+        Element start = fixture.getStartElement();
+        long elapsed1 = profile(()->{ selector.select(start).isEmpty(); });
+        long elapsed2 = profile(()->{ selector.exists(start); });
+        log.info("exists: selector = \"" + fixture.getExpression() + "\", elapsed = " + elapsed1 + " : " + elapsed2 + " [ms]");
+    }
+
+    @Test
+    public void testCount() {
+        Selector selector = Selector.compile(fixture.getExpression());
+        Element start = fixture.getStartElement();
+        long elapsed1 = profile(()->{ selector.select(start).size(); });
+        long elapsed2 = profile(()->{ selector.count(start); });
+        log.info("count: selector = \"" + fixture.getExpression() + "\", elapsed = " + elapsed1 + " : " + elapsed2 + " [ms]");
+    }
+
     private void profileSelector(Selector selector, Element start, String expression) {
         long elapsed = profile(()->{ selector.select(start); });
         log.info("selector = \"" + expression + "\", elapsed = " + elapsed + " [ms]");
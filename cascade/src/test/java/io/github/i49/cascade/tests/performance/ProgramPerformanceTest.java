@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Compares the interpreted selectors, the programs and the generated classes.
+ *
+ * <p>The selections are measured both on the selectors used repeatedly
+ * and on the selectors compiled and used only once.</p>
+ */
+@RunWith(Parameterized.class)
+public class ProgramPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(ProgramPerformanceTest.class.getName());
+    private static final int ELEMENT_COUNT = 100000;
+    private static final int SMALL_ELEMENT_COUNT = 1000;
+    private static final int REPEAT_COUNT = 100;
+    private static final int ONE_TIME_COUNT = 1000;
+
+    private static final String[] EXPRESSIONS = {
+        "li",
+        "li.selected a",
+        "ul > li.rare a",
+        "li:nth-child(2n+1) a",
+        "li.odd + li.even",
+        "li.odd ~ li.rare",
+        "a[href=\"#item7\"]",
+        "div ul li:not(.odd) a",
+        "body div ul > li > a",
+    };
+
+    private static Document doc;
+    private static Document small;
+
+    private final String expression;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        List<Object[]> parameters = new ArrayList<>();
+        for (String expression: EXPRESSIONS) {
+            parameters.add(new Object[] { expression });
+        }
+        return parameters;
+    }
+
+    public ProgramPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(ELEMENT_COUNT);
+        small = SyntheticDocuments.large(SMALL_ELEMENT_COUNT);
+        Element root = doc.getDocumentElement();
+        for (SelectorCompiler c: compilers()) {
+            for (String expression: EXPRESSIONS) {
+                c.compile(expression).select(root);
+            }
+        }
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+        small = null;
+    }
+
+    @Test
+    public void testSelection() {
+        Element root = doc.getDocumentElement();
+        List<Long> elapsed = new ArrayList<>();
+        for (SelectorCompiler c: compilers()) {
+            Selector selector = c.compile(expression);
+            elapsed.add(profile(()->selector.select(root), REPEAT_COUNT));
+        }
+        log.info("selector = \"" + expression + "\", interpreted = " + elapsed.get(0) +
+                " [ms], program = " + elapsed.get(1) + " [ms], generated = " + elapsed.get(2) + " [ms]");
+    }
+
+    @Test
+    public void testOneTimeSelection() {
+        Element root = small.getDocumentElement();
+        List<Long> elapsed = new ArrayList<>();
+        for (SelectorCompiler c: compilers()) {
+            elapsed.add(profile(()->c.compile(expression).select(root), ONE_TIME_COUNT));
+        }
+        log.info("selector = \"" + expression + "\" compiled for each selection: interpreted = " + elapsed.get(0) +
+                " [ms], program = " + elapsed.get(1) + " [ms], generated = " + elapsed.get(2) + " [ms]");
+    }
+
+    private static List<SelectorCompiler> compilers() {
+        SelectorCompiler compiler = SelectorCompiler.create();
+        return Arrays.asList(compiler, compiler.withProgram(true), compiler.withCodeGeneration(true));
+    }
+
+    private static long profile(Runnable runnable, int repeat) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        int i = repeat;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
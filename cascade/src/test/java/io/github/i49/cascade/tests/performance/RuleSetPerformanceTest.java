@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.RuleSet;
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Compares running every rule over the document with matching the rules per element by {@link RuleSet}.
+ */
+@RunWith(Parameterized.class)
+public class RuleSetPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(RuleSetPerformanceTest.class.getName());
+
+    private static Document doc;
+
+    private final int numberOfRules;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { 10 },
+            { 100 },
+            { 1000 },
+            { 5000 },
+        });
+    }
+
+    public RuleSetPerformanceTest(int numberOfRules) {
+        this.numberOfRules = numberOfRules;
+    }
+
+    @BeforeClass
+    public static void setUpOnce() {
+        doc = SyntheticDocuments.large(20000);
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        doc = null;
+    }
+
+    @Test
+    public void testLargeDocument() {
+        List<Selector> selectors = createRules(numberOfRules);
+        RuleSet rules = RuleSet.of(selectors);
+        Element root = doc.getDocumentElement();
+        long elapsed1 = profile(()->{
+            for (Selector selector: selectors) {
+                selector.select(root);
+            }
+        });
+        long elapsed2 = profile(()->rules.matchAll(root));
+        long elapsed3 = profile(()->{
+            Element element = root.getOwnerDocument().getElementById("section100");
+            for (int i = 0; i < 1000; i++) {
+                rules.match(element);
+            }
+        });
+        log.info("rules = " + numberOfRules + ", every rule = " + elapsed1 + " [ms], matchAll = " + elapsed2 +
+                " [ms], 1000 matches = " + elapsed3 + " [ms], " + rules.getStatistics());
+    }
+
+    private static List<Selector> createRules(int count) {
+        List<Selector> selectors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String expression;
+            switch (i % 6) {
+            case 0:
+                expression = "#section" + i + " li";
+                break;
+            case 1:
+                expression = ".class" + i;
+                break;
+            case 2:
+                expression = "li.item:nth-child(" + (i % 20 + 1) + ")";
+                break;
+            case 3:
+                expression = "a[href=\"#item" + i + "\"]";
+                break;
+            case 4:
+                expression = "[data-rule" + i + "]";
+                break;
+            default:
+                expression = "div.section:nth-of-type(" + i + ")";
+                break;
+            }
+            selectors.add(Selector.compile(expression));
+        }
+        return selectors;
+    }
+
+    private static long profile(Runnable runnable) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        runnable.run();
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}
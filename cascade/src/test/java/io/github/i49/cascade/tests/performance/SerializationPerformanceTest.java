@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.SelectorCompiler;
+import io.github.i49.cascade.api.SelectorSerializer;
+
+/**
+ * Measures reading serialized selectors compared with compiling their expressions.
+ */
+public class SerializationPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(SerializationPerformanceTest.class.getName());
+    private static final int SELECTOR_COUNT = 40000;
+    private static final int REPEAT_COUNT = 5;
+
+    private static final String[] TEMPLATES = {
+        "div.c%d p",
+        "ul > li.item%d:nth-child(2n+1) a[href^=\"http://host%d\"]",
+        "#main%d .section h1 + p ~ p:not(.note%d)",
+        "html|table[border=\"%d\"], html|td.cell%d:first-of-type",
+        "[data-id=\"%d\"] > span.label",
+    };
+
+    @Test
+    public void testCompileAndRead() throws IOException {
+        SelectorCompiler compiler = SelectorCompiler.create()
+                .withNamespace("html", "http://www.w3.org/1999/xhtml");
+        List<String> expressions = new ArrayList<>();
+        for (int i = 0; i < SELECTOR_COUNT; i++) {
+            expressions.add(String.format(TEMPLATES[i % TEMPLATES.length], i, i));
+        }
+        SelectorSerializer serializer = SelectorSerializer.create();
+
+        long compileTime = Long.MAX_VALUE;
+        long readTime = Long.MAX_VALUE;
+        byte[] bytes = null;
+        for (int round = 0; round < REPEAT_COUNT; round++) {
+            long startTime = System.nanoTime();
+            List<Selector> selectors = new ArrayList<>(expressions.size());
+            for (String expression: expressions) {
+                selectors.add(compiler.compile(expression));
+            }
+            compileTime = Math.min(compileTime, System.nanoTime() - startTime);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            serializer.write(selectors, out);
+            bytes = out.toByteArray();
+
+            startTime = System.nanoTime();
+            List<Selector> read = serializer.read(new ByteArrayInputStream(bytes));
+            readTime = Math.min(readTime, System.nanoTime() - startTime);
+            if (read.size() != selectors.size()) {
+                throw new AssertionError();
+            }
+        }
+        log.info(SELECTOR_COUNT + " selectors: compile = " + readableTime(compileTime) +
+                ", read = " + readableTime(readTime) + ", serialized size = " + bytes.length + " [bytes]");
+    }
+
+    private static String readableTime(long nanos) {
+        return (nanos / 1000 / 1000) + " [ms]";
+    }
+}
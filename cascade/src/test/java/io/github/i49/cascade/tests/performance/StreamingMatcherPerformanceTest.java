@@ -0,0 +1,243 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.api.StreamingMatcher;
+
+/**
+ * Measures the throughput and the memory of {@link StreamingMatcher}
+ * for the streams of increasing sizes, which are generated while read,
+ * both for matching only and for building the elements matched.
+ */
+@RunWith(Parameterized.class)
+public class StreamingMatcherPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(StreamingMatcherPerformanceTest.class.getName());
+    private static final int[] ITEM_COUNTS = { 10000, 100000, 1000000 };
+
+    private final String expression;
+
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][] {
+            { "*" },
+            { "li.rare a" },
+            { "ul > li:nth-child(2n+1)" },
+            { "li.odd + li.even" },
+            { "li.odd ~ li a[href$=\"7\"]" },
+            { "#section3 li.item" },
+        });
+    }
+
+    public StreamingMatcherPerformanceTest(String expression) {
+        this.expression = expression;
+    }
+
+    @Test
+    public void testMatching() throws XMLStreamException {
+        StreamingMatcher matcher = StreamingMatcher.of(Selector.compile(expression));
+        // warm-up
+        match(matcher, ITEM_COUNTS[0], false);
+        for (int items: ITEM_COUNTS) {
+            long before = usedHeap();
+            long startTime = System.nanoTime();
+            long[] result = match(matcher, items, true);
+            long elapsed = (System.nanoTime() - startTime) / (1000 * 1000);
+            log.info("selector = \"" + expression + "\", elements = " + result[0] +
+                    ", matched = " + result[1] + ", elapsed = " + elapsed + " [ms]" +
+                    ", heap while reading = " + ((result[2] - before) / 1024) + " [KiB]");
+        }
+    }
+
+
+    @Test
+    public void testExtraction() throws XMLStreamException {
+        if ("*".equals(expression)) {
+            // the whole document would be built.
+            return;
+        }
+        StreamingMatcher matcher = StreamingMatcher.of(Selector.compile(expression));
+        // warm-up
+        extract(matcher, ITEM_COUNTS[0], false);
+        for (int items: ITEM_COUNTS) {
+            long before = usedHeap();
+            long startTime = System.nanoTime();
+            long[] result = extract(matcher, items, true);
+            long elapsed = (System.nanoTime() - startTime) / (1000 * 1000);
+            log.info("selector = \"" + expression + "\", elements = " + result[0] +
+                    ", extracted = " + result[1] + ", elapsed = " + elapsed + " [ms]" +
+                    ", heap while reading = " + ((result[2] - before) / 1024) + " [KiB]");
+        }
+    }
+
+    /**
+     * Matches the generated stream.
+     *
+     * @param matcher the matcher to use.
+     * @param items the number of the list items to generate.
+     * @param measure {@code true} if the heap is measured while reading.
+     * @return the number of the elements read, the number of the elements matched, and the heap used while reading.
+     * @throws XMLStreamException if the stream was not read.
+     */
+    private static long[] match(StreamingMatcher matcher, int items, boolean measure) throws XMLStreamException {
+        SyntheticReader source = new SyntheticReader(items);
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(source);
+        long[] result = new long[3];
+        matcher.match(reader, match->{
+            result[1]++;
+        });
+        reader.close();
+        result[0] = source.getElementCount();
+        result[2] = measure ? source.getHeapInMiddle() : 0;
+        return result;
+    }
+
+
+    /**
+     * Builds the elements matched in the generated stream, which are discarded immediately.
+     *
+     * @param matcher the matcher to use.
+     * @param items the number of the list items to generate.
+     * @param measure {@code true} if the heap is measured while reading.
+     * @return the number of the elements read, the number of the elements built, and the heap used while reading.
+     * @throws XMLStreamException if the stream was not read.
+     */
+    private static long[] extract(StreamingMatcher matcher, int items, boolean measure) throws XMLStreamException {
+        SyntheticReader source = new SyntheticReader(items);
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(source);
+        long[] result = new long[3];
+        matcher.extract(reader, element->{
+            result[1]++;
+        });
+        reader.close();
+        result[0] = source.getElementCount();
+        result[2] = measure ? source.getHeapInMiddle() : 0;
+        return result;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * The reader which generates a large document while it is read,
+     * so that the document is never held in memory as a whole.
+     */
+    private static class SyntheticReader extends Reader {
+
+        private static final int ITEMS_PER_LIST = 10;
+        private static final int LISTS_PER_SECTION = 100;
+
+        private final int items;
+        private int item;
+        private long elementCount;
+        private long heapInMiddle;
+        private final StringBuilder buffer = new StringBuilder();
+        private int offset;
+
+        SyntheticReader(int items) {
+            this.items = items;
+            buffer.append("<html><body>");
+            elementCount = 2;
+        }
+
+        long getElementCount() {
+            return elementCount;
+        }
+
+        long getHeapInMiddle() {
+            return heapInMiddle;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (offset == buffer.length()) {
+                buffer.setLength(0);
+                offset = 0;
+                if (!generate()) {
+                    return -1;
+                }
+            }
+            int count = Math.min(len, buffer.length() - offset);
+            buffer.getChars(offset, offset + count, cbuf, off);
+            offset += count;
+            return count;
+        }
+
+        private boolean generate() {
+            if (item > items) {
+                return false;
+            } else if (item == items) {
+                buffer.append("</body></html>");
+                item++;
+                return true;
+            }
+            if (item == items / 2) {
+                heapInMiddle = usedHeap();
+            }
+            final int list = item / ITEMS_PER_LIST;
+            if (item % ITEMS_PER_LIST == 0) {
+                if (list % LISTS_PER_SECTION == 0) {
+                    if (item > 0) {
+                        buffer.append("</section>");
+                    }
+                    buffer.append("<section id=\"section").append(list / LISTS_PER_SECTION).append("\">");
+                    elementCount++;
+                }
+                buffer.append("<ul>");
+                elementCount++;
+            }
+            buffer.append("<li class=\"item ").append(item % 2 == 0 ? "odd" : "even");
+            if (item % 97 == 0) {
+                buffer.append(" rare");
+            }
+            buffer.append("\"><a href=\"#item").append(item).append("\">item</a></li>");
+            elementCount += 2;
+            item++;
+            if (item % ITEMS_PER_LIST == 0) {
+                buffer.append("</ul>");
+                if (item == items) {
+                    buffer.append("</section>");
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
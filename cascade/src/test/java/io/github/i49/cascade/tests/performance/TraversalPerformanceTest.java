@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.i49.cascade.tests.performance;
+
+import java.util.logging.Logger;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.github.i49.cascade.api.Selector;
+import io.github.i49.cascade.tests.Documents;
+import io.github.i49.cascade.tests.SyntheticDocuments;
+
+/**
+ * Measures the traversal of deep and wide document trees.
+ */
+public class TraversalPerformanceTest {
+
+    private static final Logger log = Logger.getLogger(TraversalPerformanceTest.class.getName());
+    private static final int REPEAT_COUNT = 100;
+
+    @Test
+    public void testDeepChain() {
+        // shallow enough for the recursive walk not to overflow.
+        profileDocument("deep chain (2000)", SyntheticDocuments.deepChain(2000), true);
+        profileDocument("deep chain (200000)", SyntheticDocuments.deepChain(200000), false);
+    }
+
+    @Test
+    public void testWideFanout() {
+        profileDocument("wide fanout (200000)", SyntheticDocuments.wideFanout(200000), true);
+    }
+
+    private void profileDocument(String name, Document doc, boolean recursive) {
+        Element root = doc.getDocumentElement();
+        Selector selector = Selector.compile("*");
+        long elapsed1 = profile(()->selector.select(root));
+        StringBuilder b = new StringBuilder();
+        b.append(name).append(": selector = \"*\", elapsed = ").append(elapsed1).append(" [ms]");
+        if (recursive) {
+            long elapsed2 = profile(()->Documents.descentandsOf(root));
+            b.append(", recursive walk = ").append(elapsed2).append(" [ms]");
+        }
+        log.info(b.toString());
+    }
+
+    private static long profile(Runnable runnable) {
+        // warm-up
+        runnable.run();
+        long startTime = System.nanoTime();
+        int i = REPEAT_COUNT;
+        while (i-- > 0) {
+            runnable.run();
+        }
+        long endTime = System.nanoTime();
+        return (endTime - startTime) / (1000 * 1000);
+    }
+}